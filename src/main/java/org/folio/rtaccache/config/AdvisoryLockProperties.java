@@ -0,0 +1,25 @@
+package org.folio.rtaccache.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rtac.lock")
+public class AdvisoryLockProperties {
+
+  /**
+   * Maximum number of connections of the pool advisory locks of lazy loads are held on. The locks of a lazy load
+   * batch share one connection, kept for the whole generation, so they are not taken from the pool cache writes need.
+   */
+  private int poolSize = 8;
+
+  /**
+   * Time a lazy load waits for the lock of an instance another module instance is generating. The instance is
+   * generated without the lock afterwards, and when no lock connection is available, so a busy lock never fails a
+   * request. It should stay well below the batch deadline and HTTP timeouts.
+   */
+  private Duration waitTimeout = Duration.ofSeconds(2);
+}
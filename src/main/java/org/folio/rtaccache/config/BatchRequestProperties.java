@@ -0,0 +1,18 @@
+package org.folio.rtaccache.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rtac.batch")
+public class BatchRequestProperties {
+
+  /**
+   * Time budget of a batch summary request for the generation of instances that are not cached yet. Instances
+   * still generating when it runs out are returned as pending. Zero waits for all of them.
+   */
+  private Duration deadline = Duration.ofSeconds(5);
+}
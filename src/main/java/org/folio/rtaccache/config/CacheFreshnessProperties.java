@@ -0,0 +1,23 @@
+package org.folio.rtaccache.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rtac.cache.freshness")
+public class CacheFreshnessProperties {
+
+  /**
+   * Age of the latest generation of an instance after which the instance is still served, but refreshed in the
+   * background.
+   */
+  private Duration softTtl = Duration.ofHours(24);
+
+  /**
+   * Age of the latest generation of an instance after which the instance is regenerated before it is served.
+   */
+  private Duration hardTtl = Duration.ofHours(48);
+}
@@ -0,0 +1,37 @@
+package org.folio.rtaccache.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rtac.kafka.cached-id-filter")
+public class CachedIdFilterProperties {
+
+  /**
+   * Whether Kafka events are dropped when none of their instance, holdings and item ids is cached. The filter learns
+   * about rows written by other module instances only when it is rebuilt, so with several instances their events may
+   * be dropped for up to the rebuild interval. The rebuild deletes the cache of instances whose events were dropped.
+   */
+  private boolean enabled = false;
+
+  /**
+   * Number of ids the filter of a tenant is sized for. A filter holding more ids is rebuilt with twice the size.
+   */
+  private long expectedIds = 1_000_000L;
+
+  /**
+   * Share of ids of uncached records the filter of a tenant lets through when it holds the expected number of ids.
+   */
+  private double falsePositiveRate = 0.01;
+
+  /**
+   * Age after which the filter of a tenant is rebuilt from the database, picking up rows written by other module
+   * instances and dropping ids of deleted rows. It bounds how long instances whose events were dropped before their
+   * rows were seen are served from the cache. {@code 0} disables periodic rebuilds, which is only safe with a single
+   * module instance.
+   */
+  private Duration rebuildInterval = Duration.ofMinutes(15);
+}
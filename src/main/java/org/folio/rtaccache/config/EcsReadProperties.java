@@ -0,0 +1,33 @@
+package org.folio.rtaccache.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rtac.ecs.read")
+public class EcsReadProperties {
+
+  /**
+   * Engine of the paged holdings reads of the central tenant.
+   */
+  private Engine engine = Engine.UNION;
+
+  /**
+   * Maximum number of per-schema queries of the fan-out engine running at once across all requests, each of them
+   * holds a connection of the pool.
+   */
+  private int fanOutParallelism = 4;
+
+  public enum Engine {
+    /**
+     * A single UNION ALL query over all tenant schemas, executed by the rtac_holdings_multi_tenant function.
+     */
+    UNION,
+    /**
+     * Concurrent per-schema queries on separate connections, merged and paged in the module.
+     */
+    FAN_OUT
+  }
+}
@@ -0,0 +1,23 @@
+package org.folio.rtaccache.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rtac.kafka.dispatch")
+public class EventDispatchProperties {
+
+  /**
+   * Number of lanes Kafka events are spread over by tenant and record id. Each lane handles its events one after
+   * another on its own virtual thread, so events of the same record keep their order.
+   */
+  private int lanes = 16;
+
+  /**
+   * Maximum number of events waiting in a lane. A listener dispatching to a full lane is blocked, which keeps its
+   * consumer from polling until the lane has room again.
+   */
+  private int laneCapacity = 100;
+}
@@ -0,0 +1,33 @@
+package org.folio.rtaccache.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rtac.generation")
+public class GenerationProperties {
+
+  /**
+   * Maximum number of inventory and orders requests of cache generations running at once across all tenants.
+   */
+  private int fetchConcurrency = 16;
+
+  /**
+   * Maximum number of circulation requests for loans and hold requests of cache generations running at once.
+   */
+  private int enrichConcurrency = 8;
+
+  /**
+   * Maximum number of bulk upserts of cache generations running at once, each of them holds a connection of the
+   * pool.
+   */
+  private int writeConcurrency = 3;
+
+  /**
+   * Minimum number of rows of a bulk upsert that are streamed with COPY into a staging table and merged with a
+   * single statement instead of being sent as batched INSERT statements. Zero disables COPY.
+   */
+  private int copyThreshold = 200;
+}
@@ -0,0 +1,42 @@
+package org.folio.rtaccache.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rtac.kafka.burst")
+public class InstanceBurstProperties {
+
+  /**
+   * Whether holdings and item events of an instance in a burst are dropped in favour of invalidating the cache of the
+   * instance once the burst is over.
+   */
+  private boolean enabled = true;
+
+  /**
+   * Number of holdings and item events of an instance within the window above which the instance is in a burst. The
+   * events are counted per module instance, so with N module instances an instance may take up to N times the
+   * threshold of events to be in a burst.
+   */
+  private int threshold = 200;
+
+  /**
+   * Period the holdings and item events of an instance are counted over.
+   */
+  private Duration window = Duration.ofMinutes(1);
+
+  /**
+   * Time without events of an instance in a burst after which its cache is deleted, to be loaded again on the next
+   * read.
+   */
+  private Duration debounce = Duration.ofSeconds(30);
+
+  /**
+   * Longest time the cache of an instance in a burst is left as it is, its cache is deleted then even if the events
+   * go on.
+   */
+  private Duration maxDelay = Duration.ofMinutes(10);
+}
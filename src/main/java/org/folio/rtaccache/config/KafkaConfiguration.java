@@ -11,8 +11,14 @@ import org.apache.kafka.common.serialization.StringDeserializer;
 import org.folio.rtaccache.domain.dto.CirculationResourceEvent;
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
 import org.folio.rtaccache.domain.dto.PieceResourceEvent;
+import org.folio.rtaccache.integration.CirculationResourceEventDeserializer;
+import org.folio.rtaccache.integration.InventoryResourceEventDeserializer;
 import org.folio.rtaccache.integration.KafkaMessageListener;
+import org.folio.rtaccache.service.CachedIdFilterService;
 import org.folio.rtaccache.service.ConsortiaService;
+import org.folio.rtaccache.service.InstanceBurstService;
+import org.folio.rtaccache.service.KafkaEventBatchService;
+import org.folio.rtaccache.service.KafkaEventDispatcher;
 import org.folio.rtaccache.service.handler.EventHandlerFactory;
 import org.folio.spring.service.SystemUserScopedExecutionService;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -35,6 +41,7 @@ import org.springframework.kafka.support.serializer.JacksonJsonDeserializer;
 public class KafkaConfiguration {
 
   private final KafkaProperties kafkaProperties;
+  private final EventHandlerFactory eventHandlerFactory;
 
   /**
    * Creates and configures {@link ConcurrentKafkaListenerContainerFactory} as Spring bean for consuming resource events
@@ -50,6 +57,20 @@ public class KafkaConfiguration {
     return factory;
   }
 
+  /**
+   * Creates {@link ConcurrentKafkaListenerContainerFactory} of batch listeners that get all inventory events of a
+   * poll at once, so updates of the same record can be collapsed before they are applied.
+   *
+   * @return {@link ConcurrentKafkaListenerContainerFactory} object as Spring bean.
+   */
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, InventoryResourceEvent> inventoryBatchKafkaListenerContainerFactory() {
+    var factory = new ConcurrentKafkaListenerContainerFactory<String, InventoryResourceEvent>();
+    factory.setBatchListener(true);
+    factory.setConsumerFactory(getInventoryResourceEventConsumerFactory());
+    return factory;
+  }
+
   @Bean
   public ConcurrentKafkaListenerContainerFactory<String, CirculationResourceEvent> circulationKafkaListenerContainerFactory() {
     var factory = new ConcurrentKafkaListenerContainerFactory<String, CirculationResourceEvent>();
@@ -58,6 +79,14 @@ public class KafkaConfiguration {
     return factory;
   }
 
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, CirculationResourceEvent> circulationBatchKafkaListenerContainerFactory() {
+    var factory = new ConcurrentKafkaListenerContainerFactory<String, CirculationResourceEvent>();
+    factory.setBatchListener(true);
+    factory.setConsumerFactory(getCirculationResourceEventConsumerFactory());
+    return factory;
+  }
+
   @Bean
   public ConcurrentKafkaListenerContainerFactory<String, PieceResourceEvent> pieceKafkaListenerContainerFactory() {
     var factory = new ConcurrentKafkaListenerContainerFactory<String, PieceResourceEvent>();
@@ -70,12 +99,15 @@ public class KafkaConfiguration {
   @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
   public KafkaMessageListener kafkaMessageListener(SystemUserScopedExecutionService executionService,
     EventHandlerFactory eventHandlerFactory, ConsortiaService consortiaService,
+    KafkaEventBatchService kafkaEventBatchService, KafkaEventDispatcher kafkaEventDispatcher,
+    CachedIdFilterService cachedIdFilterService, InstanceBurstService instanceBurstService,
     AsyncTaskExecutor applicationTaskExecutor) {
-    return new KafkaMessageListener(executionService, eventHandlerFactory, consortiaService, applicationTaskExecutor);
+    return new KafkaMessageListener(executionService, eventHandlerFactory, consortiaService, kafkaEventBatchService,
+      kafkaEventDispatcher, cachedIdFilterService, instanceBurstService, applicationTaskExecutor);
   }
 
   private ConsumerFactory<String, InventoryResourceEvent> getInventoryResourceEventConsumerFactory() {
-    var deserializer = new JacksonJsonDeserializer<>(InventoryResourceEvent.class, false);
+    var deserializer = new InventoryResourceEventDeserializer(eventHandlerFactory);
     Map<String, Object> config = new HashMap<>(kafkaProperties.buildConsumerProperties());
     config.put(KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
     config.put(VALUE_DESERIALIZER_CLASS_CONFIG, deserializer);
@@ -83,7 +115,7 @@ public class KafkaConfiguration {
   }
 
   private ConsumerFactory<String, CirculationResourceEvent> getCirculationResourceEventConsumerFactory() {
-    var deserializer = new JacksonJsonDeserializer<>(CirculationResourceEvent.class, false);
+    var deserializer = new CirculationResourceEventDeserializer(eventHandlerFactory);
     Map<String, Object> config = new HashMap<>(kafkaProperties.buildConsumerProperties());
     config.put(KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
     config.put(VALUE_DESERIALIZER_CLASS_CONFIG, deserializer);
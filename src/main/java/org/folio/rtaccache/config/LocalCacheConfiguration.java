@@ -0,0 +1,72 @@
+package org.folio.rtaccache.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import lombok.RequiredArgsConstructor;
+import org.folio.rtaccache.service.LocalCacheReloader;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * Backs the {@code @Cacheable} methods with bounded Caffeine caches. The caches record statistics, so Spring Boot
+ * binds their hit, miss and load metrics to the meter registry. Entries are reloaded in the background after their
+ * refresh age by {@link LocalCacheReloader}, callers keep getting the old value meanwhile.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class LocalCacheConfiguration {
+
+  private final LocalCacheProperties localCacheProperties;
+
+  @Bean
+  public CacheManager cacheManager(LocalCacheReloader localCacheReloader, AsyncTaskExecutor applicationTaskExecutor) {
+    var cacheManager = new CaffeineCacheManager();
+    cacheManager.setCaffeine(newBuilder(localCacheProperties.getDefaults(), applicationTaskExecutor));
+    for (var cacheName : LocalCacheReloader.CACHE_NAMES) {
+      cacheManager.registerCustomCache(cacheName,
+        buildCache(cacheName, localCacheProperties.getSpec(cacheName), localCacheReloader, applicationTaskExecutor));
+    }
+    return cacheManager;
+  }
+
+  private static Cache<Object, Object> buildCache(String cacheName, LocalCacheProperties.Spec spec,
+                                                  LocalCacheReloader localCacheReloader, Executor executor) {
+    var builder = newBuilder(spec, executor);
+    if (!isPositive(spec.getRefreshAfterWrite())) {
+      return builder.build();
+    }
+    return builder.refreshAfterWrite(spec.getRefreshAfterWrite()).build(new CacheLoader<Object, Object>() {
+      @Override
+      public Object load(Object key) {
+        // initial loads are done by the @Cacheable caller within its own execution context
+        return null;
+      }
+
+      @Override
+      public Object reload(Object key, Object oldValue) {
+        return localCacheReloader.reload(cacheName, key);
+      }
+    });
+  }
+
+  private static Caffeine<Object, Object> newBuilder(LocalCacheProperties.Spec spec, Executor executor) {
+    var builder = Caffeine.newBuilder().recordStats().executor(executor);
+    if (spec.getMaximumSize() != null && spec.getMaximumSize() > 0) {
+      builder.maximumSize(spec.getMaximumSize());
+    }
+    if (isPositive(spec.getExpireAfterWrite())) {
+      builder.expireAfterWrite(spec.getExpireAfterWrite());
+    }
+    return builder;
+  }
+
+  private static boolean isPositive(Duration duration) {
+    return duration != null && duration.isPositive();
+  }
+}
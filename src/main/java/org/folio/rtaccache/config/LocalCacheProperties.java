@@ -0,0 +1,59 @@
+package org.folio.rtaccache.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rtac.local-cache")
+public class LocalCacheProperties {
+
+  /**
+   * Settings of the in-memory caches of consortium topology and inventory reference data.
+   */
+  private Spec defaults = new Spec(1000L, Duration.ofHours(1), Duration.ofMinutes(10));
+
+  /**
+   * Settings of single caches by cache name, settings that are not set fall back to the defaults.
+   */
+  private Map<String, Spec> caches = new HashMap<>();
+
+  public Spec getSpec(String cacheName) {
+    var spec = caches.get(cacheName);
+    if (spec == null) {
+      return defaults;
+    }
+    return new Spec(
+      spec.getMaximumSize() != null ? spec.getMaximumSize() : defaults.getMaximumSize(),
+      spec.getExpireAfterWrite() != null ? spec.getExpireAfterWrite() : defaults.getExpireAfterWrite(),
+      spec.getRefreshAfterWrite() != null ? spec.getRefreshAfterWrite() : defaults.getRefreshAfterWrite());
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Spec {
+
+    /**
+     * Maximum number of entries of a cache, each tenant has one entry per cache. Zero disables the limit.
+     */
+    private Long maximumSize;
+
+    /**
+     * Age after which an entry is dropped and loaded again by the next caller. Zero keeps entries until evicted.
+     */
+    private Duration expireAfterWrite;
+
+    /**
+     * Age after which an entry is reloaded in the background on the next read while the old value is still served.
+     * Zero disables refreshing.
+     */
+    private Duration refreshAfterWrite;
+  }
+}
@@ -8,6 +8,12 @@ public class RtacCacheConstant {
   public static final String MATERIAL_TYPES_CACHE_NAME = "materialTypesMap";
   public static final String HOLDINGS_NOTE_CACHE_NAME = "holdingsNoteTypesMap";
 
+  public static final String LOCATIONS_CACHE_KEY_PREFIX = "locations";
+  public static final String LIBRARY_CACHE_KEY_PREFIX = "library";
+  public static final String LOAN_TYPES_CACHE_KEY_PREFIX = "loanTypes";
+  public static final String MATERIAL_TYPES_CACHE_KEY_PREFIX = "materialTypes";
+  public static final String HOLDINGS_NOTE_CACHE_KEY_PREFIX = "holdingsNotesTypes";
+
   private RtacCacheConstant() {
     throw new IllegalStateException("Utility class");
   }
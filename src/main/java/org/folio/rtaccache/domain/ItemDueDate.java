@@ -0,0 +1,10 @@
+package org.folio.rtaccache.domain;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Due date a loan event sets on the cached item, null clears it.
+ */
+public record ItemDueDate(UUID itemId, Date dueDate) {
+}
@@ -0,0 +1,36 @@
+package org.folio.rtaccache.domain;
+
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Page of a keyset paginated listing. It has no page number, so whether more rows follow is tracked explicitly.
+ */
+public class KeysetPage<T> extends PageImpl<T> {
+
+  private final boolean hasNext;
+
+  public KeysetPage(List<T> content, Sort sort, long total, boolean hasNext) {
+    super(content, Pageable.unpaged(sort), total);
+    this.hasNext = hasNext;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return hasNext;
+  }
+
+  @Override
+  public boolean isLast() {
+    return !hasNext;
+  }
+
+  @Override
+  public <U> Page<U> map(Function<? super T, ? extends U> converter) {
+    return new KeysetPage<>(getContent().stream().<U>map(converter).toList(), getSort(), getTotalElements(), hasNext);
+  }
+}
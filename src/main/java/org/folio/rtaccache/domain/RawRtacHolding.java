@@ -0,0 +1,42 @@
+package org.folio.rtaccache.domain;
+
+import lombok.Getter;
+import org.folio.rtaccache.domain.dto.RtacHolding;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * Holding read as the stored rtac_holding_json text, which is written to the response as is instead of
+ * being deserialized into {@link RtacHolding} and serialized back. Only the id and the sortable properties
+ * are populated on the DTO itself, they are needed to build continuation tokens.
+ */
+@Getter
+@JsonSerialize(using = RawRtacHolding.RawJsonSerializer.class)
+public class RawRtacHolding extends RtacHolding {
+
+  private final String json;
+
+  public RawRtacHolding(String json) {
+    this.json = json;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof RawRtacHolding other && json.equals(other.json);
+  }
+
+  @Override
+  public int hashCode() {
+    return json.hashCode();
+  }
+
+  public static class RawJsonSerializer extends ValueSerializer<RawRtacHolding> {
+
+    @Override
+    public void serialize(RawRtacHolding value, JsonGenerator gen, SerializationContext ctxt) {
+      gen.writeRawValue(value.getJson());
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package org.folio.rtaccache.domain;
+
+import java.util.Collections;
+import java.util.Map;
+import org.folio.rtaccache.domain.dto.HoldingsNoteType;
+import org.folio.rtaccache.domain.dto.LoanType;
+import org.folio.rtaccache.domain.dto.Location;
+import org.folio.rtaccache.domain.dto.Loclib;
+import org.folio.rtaccache.domain.dto.MaterialType;
+
+/**
+ * Inventory reference data of a tenant as of one point in time. It is resolved once per generation or event and
+ * passed to the mappers, so mapping a row only looks up the maps instead of going through the cache proxies.
+ */
+public record ReferenceDataSnapshot(Map<String, Location> locations, Map<String, Loclib> libraries,
+                                    Map<String, MaterialType> materialTypes, Map<String, LoanType> loanTypes,
+                                    Map<String, HoldingsNoteType> holdingsNoteTypes) {
+
+  public ReferenceDataSnapshot {
+    locations = unmodifiable(locations);
+    libraries = unmodifiable(libraries);
+    materialTypes = unmodifiable(materialTypes);
+    loanTypes = unmodifiable(loanTypes);
+    holdingsNoteTypes = unmodifiable(holdingsNoteTypes);
+  }
+
+  public Location location(String locationId) {
+    return locationId == null ? null : locations.get(locationId);
+  }
+
+  /**
+   * Returns the library of the location with the given id.
+   */
+  public Loclib library(String locationId) {
+    var location = location(locationId);
+    return location == null || location.getLibraryId() == null ? null : libraries.get(location.getLibraryId());
+  }
+
+  public MaterialType materialType(String materialTypeId) {
+    return materialTypeId == null ? null : materialTypes.get(materialTypeId);
+  }
+
+  public LoanType loanType(String loanTypeId) {
+    return loanTypeId == null ? null : loanTypes.get(loanTypeId);
+  }
+
+  public HoldingsNoteType holdingsNoteType(String holdingsNoteTypeId) {
+    return holdingsNoteTypeId == null ? null : holdingsNoteTypes.get(holdingsNoteTypeId);
+  }
+
+  // The cached maps are shared and never modified, so they are wrapped rather than copied
+  private static <T> Map<String, T> unmodifiable(Map<String, T> map) {
+    return map == null ? Map.of() : Collections.unmodifiableMap(map);
+  }
+}
@@ -1,5 +0,0 @@
-package org.folio.rtaccache.domain;
-
-import java.util.UUID;
-
-public record RtacBatchCountProjection (UUID instanceId, long count) {}
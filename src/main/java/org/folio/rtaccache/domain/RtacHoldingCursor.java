@@ -0,0 +1,104 @@
+package org.folio.rtaccache.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.folio.rtaccache.domain.dto.RtacHolding;
+import org.folio.rtaccache.domain.dto.RtacHoldingLibrary;
+import org.folio.rtaccache.domain.dto.RtacHoldingLocation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position of the last returned holding in a keyset paginated listing: the values of the sort properties
+ * and the id used as a tiebreaker. The sort the position belongs to is kept to reject tokens reused with another sort.
+ */
+public record RtacHoldingCursor(String sort, List<String> values, UUID id) {
+
+  private static final String PART_SEPARATOR = ".";
+  private static final String NULL_PART = "!";
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  public static RtacHoldingCursor of(RtacHolding rtacHolding, Sort sort) {
+    var values = new ArrayList<String>();
+    for (var order : sort) {
+      values.add(sortValue(rtacHolding, order.getProperty()));
+    }
+    return new RtacHoldingCursor(toSortSignature(sort), values, UUID.fromString(rtacHolding.getId()));
+  }
+
+  /**
+   * Creates the continuation token of the page following the given one, null when it is the last page.
+   */
+  public static String nextToken(Page<? extends RtacHolding> page) {
+    if (!page.hasNext() || page.getContent().isEmpty() || page.getContent().getLast().getId() == null) {
+      return null;
+    }
+    return of(page.getContent().getLast(), page.getSort()).toToken();
+  }
+
+  /**
+   * Decodes a continuation token created by {@link #toToken()}.
+   *
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static RtacHoldingCursor fromToken(String token) {
+    var parts = token.split("\\" + PART_SEPARATOR, -1);
+    if (parts.length < 2) {
+      throw new IllegalArgumentException("Malformed continuation token");
+    }
+    var decoded = Arrays.stream(parts).map(RtacHoldingCursor::decodePart).toList();
+    return new RtacHoldingCursor(decoded.getFirst(),
+      new ArrayList<>(decoded.subList(1, decoded.size() - 1)),
+      UUID.fromString(decoded.getLast()));
+  }
+
+  public static String toSortSignature(Sort sort) {
+    return sort.stream()
+      .map(order -> order.getProperty() + "," + order.getDirection())
+      .collect(Collectors.joining(";"));
+  }
+
+  /**
+   * Checks that the position belongs to the given sort, so its values can be compared with the sort keys.
+   *
+   * @throws IllegalArgumentException if the position was created for another sort
+   */
+  public void requireSort(Sort sort) {
+    if (!toSortSignature(sort).equals(this.sort) || values.size() != sort.toList().size()) {
+      throw new IllegalArgumentException("Continuation token does not match the requested sort");
+    }
+  }
+
+  public String toToken() {
+    var parts = new ArrayList<String>();
+    parts.add(encodePart(sort));
+    values.forEach(value -> parts.add(encodePart(value)));
+    parts.add(encodePart(id.toString()));
+    return String.join(PART_SEPARATOR, parts);
+  }
+
+  private static String sortValue(RtacHolding rtacHolding, String property) {
+    return switch (property) {
+      case "libraryName" -> Optional.ofNullable(rtacHolding.getLibrary()).map(RtacHoldingLibrary::getName).orElse(null);
+      case "locationName" -> Optional.ofNullable(rtacHolding.getLocation()).map(RtacHoldingLocation::getName).orElse(null);
+      case "effectiveShelvingOrder" -> rtacHolding.getEffectiveShelvingOrder();
+      case "status" -> rtacHolding.getStatus();
+      default -> throw new IllegalArgumentException("Unsupported sort property: " + property);
+    };
+  }
+
+  private static String encodePart(String value) {
+    return value == null ? NULL_PART : ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String decodePart(String part) {
+    return NULL_PART.equals(part) ? null : new String(DECODER.decode(part), StandardCharsets.UTF_8);
+  }
+}
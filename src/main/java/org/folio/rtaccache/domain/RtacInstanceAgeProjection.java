@@ -0,0 +1,6 @@
+package org.folio.rtaccache.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record RtacInstanceAgeProjection(UUID instanceId, Instant latestCreatedAt) {}
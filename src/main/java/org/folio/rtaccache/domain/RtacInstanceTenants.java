@@ -0,0 +1,11 @@
+package org.folio.rtaccache.domain;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tenants of instances read from the instance tenant directory, and the instances whose tenants are due to be looked
+ * up again.
+ */
+public record RtacInstanceTenants(Map<UUID, Set<String>> tenants, Set<UUID> staleInstanceIds) {}
@@ -0,0 +1,11 @@
+package org.folio.rtaccache.domain;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Outcome of a lazy load of several instances: the failures of finished generations and the instances whose
+ * generation was still running when the caller stopped waiting.
+ */
+public record RtacLazyLoadResult(List<Throwable> exceptions, Set<UUID> pendingInstanceIds) {}
@@ -0,0 +1,91 @@
+package org.folio.rtaccache.integration;
+
+import static org.folio.rtaccache.domain.dto.CirculationEntityType.LOAN;
+import static org.folio.rtaccache.domain.dto.CirculationEntityType.REQUEST;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import org.folio.rtaccache.domain.dto.CirculationEntityType;
+import org.folio.rtaccache.domain.dto.CirculationEventType;
+import org.folio.rtaccache.domain.dto.CirculationResourceEvent;
+import org.folio.rtaccache.domain.dto.CirculationResourceEventData;
+import org.folio.rtaccache.domain.dto.Loan;
+import org.folio.rtaccache.domain.dto.Request;
+import org.folio.rtaccache.service.handler.EventHandlerFactory;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+
+/**
+ * Reads circulation events with their old and new records bound to the record class of the topic. Events of topics
+ * that are not known are read with their records as maps.
+ */
+public class CirculationResourceEventDeserializer extends TypedResourceEventDeserializer<CirculationResourceEvent> {
+
+  private static final Map<String, CirculationEntityType> ENTITY_TYPES = Map.of(
+    "loan", LOAN,
+    "request", REQUEST);
+  private static final Map<CirculationEntityType, Class<?>> RECORD_CLASSES = Map.of(
+    LOAN, Loan.class,
+    REQUEST, Request.class);
+
+  private final Map<CirculationEntityType, Set<CirculationEventType>> handledTypes =
+    new EnumMap<>(CirculationEntityType.class);
+
+  public CirculationResourceEventDeserializer(EventHandlerFactory eventHandlerFactory) {
+    for (var entityType : CirculationEntityType.values()) {
+      var eventTypes = EnumSet.noneOf(CirculationEventType.class);
+      for (var eventType : CirculationEventType.values()) {
+        if (eventHandlerFactory.getCirculationHandler(eventType, entityType).isPresent()) {
+          eventTypes.add(eventType);
+        }
+      }
+      handledTypes.put(entityType, eventTypes);
+    }
+  }
+
+  @Override
+  protected CirculationResourceEvent readEvent(JsonParser parser, String recordName) {
+    var entityType = ENTITY_TYPES.get(recordName);
+    var recordClass = entityType == null ? Object.class : RECORD_CLASSES.get(entityType);
+    var resourceEvent = new CirculationResourceEvent();
+    while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+      var name = parser.currentName();
+      parser.nextToken();
+      switch (name) {
+        case "id" -> resourceEvent.setId(readText(parser));
+        case "type" -> {
+          var type = readType(parser, CirculationEventType::fromValue);
+          if (type == null || entityType != null && !handledTypes.get(entityType).contains(type)) {
+            return null;
+          }
+          resourceEvent.setType(type);
+        }
+        case "tenant" -> resourceEvent.setTenant(readText(parser));
+        case "timestamp" -> resourceEvent.setTimestamp(readLong(parser));
+        case "data" -> resourceEvent.setData(readData(parser, recordClass));
+        default -> parser.skipChildren();
+      }
+    }
+    return resourceEvent.getType() != null ? resourceEvent : null;
+  }
+
+  private static CirculationResourceEventData readData(JsonParser parser, Class<?> recordClass) {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      return null;
+    }
+    var data = new CirculationResourceEventData();
+    while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+      var name = parser.currentName();
+      parser.nextToken();
+      switch (name) {
+        case "new" -> data.setNew(readRecord(parser, recordClass));
+        case "old" -> data.setOld(readRecord(parser, recordClass));
+        default -> parser.skipChildren();
+      }
+    }
+    return data;
+  }
+}
@@ -0,0 +1,97 @@
+package org.folio.rtaccache.integration;
+
+import static org.folio.rtaccache.domain.dto.InventoryEntityType.HOLDINGS;
+import static org.folio.rtaccache.domain.dto.InventoryEntityType.INSTANCE;
+import static org.folio.rtaccache.domain.dto.InventoryEntityType.ITEM;
+import static org.folio.rtaccache.domain.dto.InventoryEntityType.ITEM_BOUND_WITH;
+import static org.folio.rtaccache.domain.dto.InventoryEntityType.LIBRARY;
+import static org.folio.rtaccache.domain.dto.InventoryEntityType.LOAN_TYPE;
+import static org.folio.rtaccache.domain.dto.InventoryEntityType.LOCATION;
+import static org.folio.rtaccache.domain.dto.InventoryEntityType.MATERIAL_TYPE;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import org.folio.rtaccache.domain.dto.BoundWithPart;
+import org.folio.rtaccache.domain.dto.HoldingsRecord;
+import org.folio.rtaccache.domain.dto.Instance;
+import org.folio.rtaccache.domain.dto.InventoryEntityType;
+import org.folio.rtaccache.domain.dto.InventoryEventType;
+import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
+import org.folio.rtaccache.domain.dto.LoanType;
+import org.folio.rtaccache.domain.dto.Location;
+import org.folio.rtaccache.domain.dto.Loclib;
+import org.folio.rtaccache.domain.dto.MaterialType;
+import org.folio.rtaccache.domain.kafka.KafkaItem;
+import org.folio.rtaccache.service.handler.EventHandlerFactory;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+
+/**
+ * Reads inventory events with their old and new records bound to the record class of the topic. Events of topics
+ * that are not known are read with their records as maps.
+ */
+public class InventoryResourceEventDeserializer extends TypedResourceEventDeserializer<InventoryResourceEvent> {
+
+  private static final Map<String, InventoryEntityType> ENTITY_TYPES = Map.of(
+    "instance", INSTANCE,
+    "holdings-record", HOLDINGS,
+    "item", ITEM,
+    "bound-with", ITEM_BOUND_WITH,
+    "location", LOCATION,
+    "library", LIBRARY,
+    "material-type", MATERIAL_TYPE,
+    "loan-type", LOAN_TYPE);
+  private static final Map<InventoryEntityType, Class<?>> RECORD_CLASSES = Map.of(
+    INSTANCE, Instance.class,
+    HOLDINGS, HoldingsRecord.class,
+    ITEM, KafkaItem.class,
+    ITEM_BOUND_WITH, BoundWithPart.class,
+    LOCATION, Location.class,
+    LIBRARY, Loclib.class,
+    MATERIAL_TYPE, MaterialType.class,
+    LOAN_TYPE, LoanType.class);
+
+  private final Map<InventoryEntityType, Set<InventoryEventType>> handledTypes =
+    new EnumMap<>(InventoryEntityType.class);
+
+  public InventoryResourceEventDeserializer(EventHandlerFactory eventHandlerFactory) {
+    for (var entityType : InventoryEntityType.values()) {
+      var eventTypes = EnumSet.noneOf(InventoryEventType.class);
+      for (var eventType : InventoryEventType.values()) {
+        if (eventHandlerFactory.getInventoryHandler(eventType, entityType).isPresent()) {
+          eventTypes.add(eventType);
+        }
+      }
+      handledTypes.put(entityType, eventTypes);
+    }
+  }
+
+  @Override
+  protected InventoryResourceEvent readEvent(JsonParser parser, String recordName) {
+    var entityType = ENTITY_TYPES.get(recordName);
+    var recordClass = entityType == null ? Object.class : RECORD_CLASSES.get(entityType);
+    var resourceEvent = new InventoryResourceEvent();
+    while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+      var name = parser.currentName();
+      parser.nextToken();
+      switch (name) {
+        case "eventId" -> resourceEvent.setEventId(readText(parser));
+        case "type" -> {
+          var type = readType(parser, InventoryEventType::fromValue);
+          if (type == null || entityType != null && !handledTypes.get(entityType).contains(type)) {
+            return null;
+          }
+          resourceEvent.setType(type);
+        }
+        case "tenant" -> resourceEvent.setTenant(readText(parser));
+        case "eventTs" -> resourceEvent.setEventTs(readLong(parser));
+        case "new" -> resourceEvent.setNew(readRecord(parser, recordClass));
+        case "old" -> resourceEvent.setOld(readRecord(parser, recordClass));
+        default -> parser.skipChildren();
+      }
+    }
+    return resourceEvent.getType() != null ? resourceEvent : null;
+  }
+}
@@ -1,6 +1,5 @@
 package org.folio.rtaccache.integration;
 
-import static org.folio.rtaccache.domain.dto.CirculationEntityType.LOAN;
 import static org.folio.rtaccache.domain.dto.CirculationEntityType.REQUEST;
 import static org.folio.rtaccache.domain.dto.InventoryEntityType.HOLDINGS;
 import static org.folio.rtaccache.domain.dto.InventoryEntityType.INSTANCE;
@@ -12,14 +11,26 @@ import static org.folio.rtaccache.domain.dto.InventoryEntityType.LOCATION;
 import static org.folio.rtaccache.domain.dto.InventoryEntityType.MATERIAL_TYPE;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.folio.rtaccache.domain.dto.CirculationResourceEvent;
+import org.folio.rtaccache.domain.dto.HoldingsRecord;
+import org.folio.rtaccache.domain.dto.InventoryEventType;
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
+import org.folio.rtaccache.domain.dto.Loan;
 import org.folio.rtaccache.domain.dto.PieceResourceEvent;
+import org.folio.rtaccache.service.CachedIdFilterService;
 import org.folio.rtaccache.service.ConsortiaService;
+import org.folio.rtaccache.service.InstanceBurstService;
+import org.folio.rtaccache.service.KafkaEventBatchService;
+import org.folio.rtaccache.service.KafkaEventDispatcher;
 import org.folio.rtaccache.service.handler.EventHandlerFactory;
 import org.folio.spring.service.SystemUserScopedExecutionService;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -47,67 +58,92 @@ public class KafkaMessageListener {
   private final SystemUserScopedExecutionService executionService;
   private final EventHandlerFactory eventHandlerFactory;
   private final ConsortiaService consortiaService;
+  private final KafkaEventBatchService kafkaEventBatchService;
+  private final KafkaEventDispatcher kafkaEventDispatcher;
+  private final CachedIdFilterService cachedIdFilterService;
+  private final InstanceBurstService instanceBurstService;
   @Qualifier("applicationTaskExecutor")
   private final AsyncTaskExecutor taskExecutor;
 
   @KafkaListener(
     id = INSTANCE_LISTENER_ID,
-    containerFactory = "inventoryKafkaListenerContainerFactory",
+    containerFactory = "inventoryBatchKafkaListenerContainerFactory",
     groupId = "#{folioKafkaProperties.listener['instance'].groupId}",
     concurrency = "#{folioKafkaProperties.listener['instance'].concurrency}",
     topicPattern = "#{folioKafkaProperties.listener['instance'].topicPattern}")
-  public void handleInstanceRecord(ConsumerRecord<String, InventoryResourceEvent> consumerRecord) {
-    var currentTenantId = consumerRecord.value().getTenant();
-    executionService.executeAsyncSystemUserScoped(currentTenantId, () -> {
-      var resourceEvent = consumerRecord.value();
-      handleInstanceEventForCurrentTenant(resourceEvent);
-      handleInstanceEventForConsortiaTenants(currentTenantId, resourceEvent);
-    });
+  public void handleInstanceRecords(List<ConsumerRecord<String, InventoryResourceEvent>> consumerRecords) {
+    var futures = new ArrayList<CompletableFuture<Void>>();
+    groupByTenant(consumerRecords, InventoryResourceEvent::getTenant).forEach((currentTenantId, resourceEvents) ->
+      kafkaEventBatchService.coalesce(resourceEvents).forEach(resourceEvent ->
+        futures.add(kafkaEventDispatcher.dispatch(currentTenantId, kafkaEventBatchService.getRecordId(resourceEvent),
+          () -> {
+            if (cachedIdFilterService.mightBeCached(currentTenantId, resourceEvent)) {
+              handleInstanceEventForCurrentTenant(resourceEvent);
+            }
+            handleInstanceEventForConsortiaTenants(currentTenantId, resourceEvent);
+          }))));
+    kafkaEventDispatcher.await(futures);
   }
 
   @KafkaListener(
       id = HOLDINGS_RECORD_LISTENER_ID,
-      containerFactory = "inventoryKafkaListenerContainerFactory",
+      containerFactory = "inventoryBatchKafkaListenerContainerFactory",
       groupId = "#{folioKafkaProperties.listener['holdings-record'].groupId}",
       concurrency = "#{folioKafkaProperties.listener['holdings-record'].concurrency}",
       topicPattern = "#{folioKafkaProperties.listener['holdings-record'].topicPattern}")
-  public void handleHoldingsRecord(ConsumerRecord<String, InventoryResourceEvent> consumerRecord) {
-    var tenantId = consumerRecord.value().getTenant();
-    executionService.executeAsyncSystemUserScoped(tenantId, () -> {
-      var resourceEvent = consumerRecord.value();
-      eventHandlerFactory.getInventoryHandler(resourceEvent.getType(), HOLDINGS)
-        .ifPresent(handler -> handler.handle(resourceEvent));
-    } );
+  public void handleHoldingsRecords(List<ConsumerRecord<String, InventoryResourceEvent>> consumerRecords) {
+    var futures = new ArrayList<CompletableFuture<Void>>();
+    groupByTenant(consumerRecords, InventoryResourceEvent::getTenant).forEach((tenantId, resourceEvents) -> {
+      // Holdings created or moved update the instance tenant directory, whether the instance is cached or in a burst
+      var relevantEvents = resourceEvents.stream()
+        .filter(resourceEvent -> {
+          if (updatesInstanceTenants(resourceEvent)) {
+            instanceBurstService.absorb(tenantId, resourceEvent);
+            return true;
+          }
+          return isRelevant(tenantId, resourceEvent);
+        })
+        .toList();
+      futures.addAll(kafkaEventDispatcher.dispatchAll(tenantId, relevantEvents, kafkaEventBatchService::getRecordId,
+        laneEvents -> kafkaEventBatchService.handleInventoryEvents(laneEvents, HOLDINGS)));
+    });
+    kafkaEventDispatcher.await(futures);
   }
 
   @KafkaListener(
     id = ITEM_LISTENER_ID,
-    containerFactory = "inventoryKafkaListenerContainerFactory",
+    containerFactory = "inventoryBatchKafkaListenerContainerFactory",
     groupId = "#{folioKafkaProperties.listener['item'].groupId}",
     concurrency = "#{folioKafkaProperties.listener['item'].concurrency}",
     topicPattern = "#{folioKafkaProperties.listener['item'].topicPattern}")
-  public void handleItemRecord(ConsumerRecord<String, InventoryResourceEvent> consumerRecord) {
-    var tenantId = consumerRecord.value().getTenant();
-    executionService.executeAsyncSystemUserScoped(tenantId, () -> {
-      var resourceEvent = consumerRecord.value();
-      eventHandlerFactory.getInventoryHandler(resourceEvent.getType(), ITEM)
-        .ifPresent(handler -> handler.handle(resourceEvent));
-    } );
+  public void handleItemRecords(List<ConsumerRecord<String, InventoryResourceEvent>> consumerRecords) {
+    var futures = new ArrayList<CompletableFuture<Void>>();
+    groupByTenant(consumerRecords, InventoryResourceEvent::getTenant).forEach((tenantId, resourceEvents) -> {
+      var relevantEvents = resourceEvents.stream()
+        .filter(resourceEvent -> isRelevant(tenantId, resourceEvent))
+        .toList();
+      futures.addAll(kafkaEventDispatcher.dispatchAll(tenantId, relevantEvents, kafkaEventBatchService::getRecordId,
+        laneEvents -> kafkaEventBatchService.handleInventoryEvents(laneEvents, ITEM)));
+    });
+    kafkaEventDispatcher.await(futures);
   }
 
   @KafkaListener(
     id = LOAN_LISTENER_ID,
-    containerFactory = "circulationKafkaListenerContainerFactory",
+    containerFactory = "circulationBatchKafkaListenerContainerFactory",
     groupId = "#{folioKafkaProperties.listener['loan'].groupId}",
     concurrency = "#{folioKafkaProperties.listener['loan'].concurrency}",
     topicPattern = "#{folioKafkaProperties.listener['loan'].topicPattern}")
-  public void handleLoanRecord(ConsumerRecord<String, CirculationResourceEvent> consumerRecord) {
-    var tenantId = consumerRecord.value().getTenant();
-    executionService.executeAsyncSystemUserScoped(tenantId, () -> {
-      var resourceEvent = consumerRecord.value();
-      eventHandlerFactory.getCirculationHandler(resourceEvent.getType(), LOAN)
-        .ifPresent(handler -> handler.handle(resourceEvent));
-    } );
+  public void handleLoanRecords(List<ConsumerRecord<String, CirculationResourceEvent>> consumerRecords) {
+    var futures = new ArrayList<CompletableFuture<Void>>();
+    groupByTenant(consumerRecords, CirculationResourceEvent::getTenant).forEach((tenantId, resourceEvents) -> {
+      var relevantEvents = resourceEvents.stream()
+        .filter(resourceEvent -> cachedIdFilterService.mightBeCached(tenantId, resourceEvent))
+        .toList();
+      futures.addAll(kafkaEventDispatcher.dispatchAll(tenantId, relevantEvents, KafkaMessageListener::getLoanItemId,
+        kafkaEventBatchService::handleLoanEvents));
+    });
+    kafkaEventDispatcher.await(futures);
   }
 
   @KafkaListener(
@@ -117,8 +153,14 @@ public class KafkaMessageListener {
     concurrency = "#{folioKafkaProperties.listener['request'].concurrency}",
     topicPattern = "#{folioKafkaProperties.listener['request'].topicPattern}")
   public void handleRequestRecord(ConsumerRecord<String, CirculationResourceEvent> consumerRecord) {
+    if (consumerRecord.value() == null) {
+      return;
+    }
     var tenantId = consumerRecord.value().getTenant();
-    executionService.executeAsyncSystemUserScoped(tenantId, () -> {
+    if (!cachedIdFilterService.mightBeCached(tenantId, consumerRecord.value())) {
+      return;
+    }
+    dispatchAndWait(tenantId, consumerRecord.key(), () -> {
       var resourceEvent = consumerRecord.value();
       eventHandlerFactory.getCirculationHandler(resourceEvent.getType(), REQUEST)
         .ifPresent(handler -> handler.handle(resourceEvent));
@@ -140,7 +182,7 @@ public class KafkaMessageListener {
         tenantId = receivingTenantId;
       }
     }
-    executionService.executeAsyncSystemUserScoped(tenantId, () ->
+    dispatchAndWait(tenantId, consumerRecord.key(), () ->
       eventHandlerFactory.getPieceEventHandler(resourceEvent.getAction())
       .ifPresent(handler -> handler.handle(resourceEvent)));
   }
@@ -153,8 +195,11 @@ public class KafkaMessageListener {
     topicPattern = "#{folioKafkaProperties.listener['location'].topicPattern}",
     autoStartup = "false")
   public void handleLocationRecord(ConsumerRecord<String, InventoryResourceEvent> consumerRecord) {
+    if (consumerRecord.value() == null) {
+      return;
+    }
     var tenantId = consumerRecord.value().getTenant();
-    executionService.executeAsyncSystemUserScoped(tenantId, () -> {
+    dispatchAndWait(tenantId, consumerRecord.key(), () -> {
       var resourceEvent = consumerRecord.value();
       eventHandlerFactory.getInventoryHandler(resourceEvent.getType(), LOCATION)
         .ifPresent(handler -> handler.handle(resourceEvent));
@@ -169,8 +214,11 @@ public class KafkaMessageListener {
     topicPattern = "#{folioKafkaProperties.listener['library'].topicPattern}",
     autoStartup = "false")
   public void handleLibraryRecord(ConsumerRecord<String, InventoryResourceEvent> consumerRecord) {
+    if (consumerRecord.value() == null) {
+      return;
+    }
     var tenantId = consumerRecord.value().getTenant();
-    executionService.executeAsyncSystemUserScoped(tenantId, () -> {
+    dispatchAndWait(tenantId, consumerRecord.key(), () -> {
       var resourceEvent = consumerRecord.value();
       eventHandlerFactory.getInventoryHandler(resourceEvent.getType(), LIBRARY)
         .ifPresent(handler -> handler.handle(resourceEvent));
@@ -185,8 +233,11 @@ public class KafkaMessageListener {
     topicPattern = "#{folioKafkaProperties.listener['material-type'].topicPattern}",
     autoStartup = "false")
   public void handleMaterialTypeRecord(ConsumerRecord<String, InventoryResourceEvent> consumerRecord) {
+    if (consumerRecord.value() == null) {
+      return;
+    }
     var tenantId = consumerRecord.value().getTenant();
-    executionService.executeAsyncSystemUserScoped(tenantId, () -> {
+    dispatchAndWait(tenantId, consumerRecord.key(), () -> {
       var resourceEvent = consumerRecord.value();
       eventHandlerFactory.getInventoryHandler(resourceEvent.getType(), MATERIAL_TYPE)
         .ifPresent(handler -> handler.handle(resourceEvent));
@@ -201,8 +252,11 @@ public class KafkaMessageListener {
     topicPattern = "#{folioKafkaProperties.listener['loan-type'].topicPattern}",
     autoStartup = "false")
   public void handleLoanTypeRecord(ConsumerRecord<String, InventoryResourceEvent> consumerRecord) {
+    if (consumerRecord.value() == null) {
+      return;
+    }
     var tenantId = consumerRecord.value().getTenant();
-    executionService.executeAsyncSystemUserScoped(tenantId, () -> {
+    dispatchAndWait(tenantId, consumerRecord.key(), () -> {
       var resourceEvent = consumerRecord.value();
       eventHandlerFactory.getInventoryHandler(resourceEvent.getType(), LOAN_TYPE)
         .ifPresent(handler -> handler.handle(resourceEvent));
@@ -216,8 +270,14 @@ public class KafkaMessageListener {
     concurrency = "#{folioKafkaProperties.listener['bound-with'].concurrency}",
     topicPattern = "#{folioKafkaProperties.listener['bound-with'].topicPattern}")
   public void handleBoundWithRecord(ConsumerRecord<String, InventoryResourceEvent> consumerRecord) {
+    if (consumerRecord.value() == null) {
+      return;
+    }
     var tenantId = consumerRecord.value().getTenant();
-    executionService.executeAsyncSystemUserScoped(tenantId, () -> {
+    if (!cachedIdFilterService.mightBeCached(tenantId, consumerRecord.value())) {
+      return;
+    }
+    dispatchAndWait(tenantId, consumerRecord.key(), () -> {
       var resourceEvent = consumerRecord.value();
       eventHandlerFactory.getInventoryHandler(resourceEvent.getType(), ITEM_BOUND_WITH)
         .ifPresent(handler -> handler.handle(resourceEvent));
@@ -239,7 +299,8 @@ public class KafkaMessageListener {
     var consortiaTenants = consortiaService.getConsortiaTenants();
 
     consortiaTenants.forEach(consortiaTenantId -> {
-      if (consortiaTenantId.equals(currentTenantId)) {
+      if (consortiaTenantId.equals(currentTenantId)
+        || !cachedIdFilterService.mightBeCached(consortiaTenantId, resourceEvent)) {
         return;
       }
       futures.add(submitInstanceEventForTenant(consortiaTenantId, resourceEvent));
@@ -270,6 +331,60 @@ public class KafkaMessageListener {
     }
   }
 
+  private static boolean updatesInstanceTenants(InventoryResourceEvent resourceEvent) {
+    if (resourceEvent.getType() == InventoryEventType.CREATE) {
+      return true;
+    }
+    return resourceEvent.getType() == InventoryEventType.UPDATE
+      && resourceEvent.getOld() instanceof HoldingsRecord oldHoldings
+      && resourceEvent.getNew() instanceof HoldingsRecord newHoldings
+      && !Objects.equals(oldHoldings.getInstanceId(), newHoldings.getInstanceId());
+  }
+
+  /**
+   * Whether the holdings or item event may touch cached rows of an instance that is not in a burst of events.
+   */
+  private boolean isRelevant(String tenantId, InventoryResourceEvent resourceEvent) {
+    return cachedIdFilterService.mightBeCached(tenantId, resourceEvent)
+      && !instanceBurstService.absorb(tenantId, resourceEvent);
+  }
+
+  /**
+   * Returns the id of the item of a loan event, loan events of the same item are applied in order by it.
+   */
+  private static String getLoanItemId(CirculationResourceEvent resourceEvent) {
+    var data = resourceEvent.getData();
+    if (data == null) {
+      return null;
+    }
+    return switch (data.getNew() != null ? data.getNew() : data.getOld()) {
+      case Loan loan -> loan.getItemId();
+      case Map<?, ?> map when map.get("itemId") != null -> map.get("itemId").toString();
+      case null, default -> null;
+    };
+  }
+
+  private void dispatchAndWait(String tenantId, String key, Runnable action) {
+    kafkaEventDispatcher.await(List.of(kafkaEventDispatcher.dispatch(tenantId, key, action)));
+  }
+
+  /**
+   * Groups the events of a poll by their tenant, keeping the order of the events of each tenant.
+   */
+  private static <E> Map<String, List<E>> groupByTenant(List<ConsumerRecord<String, E>> consumerRecords,
+                                                       Function<E, String> tenantExtractor) {
+    var resourceEventsByTenant = new LinkedHashMap<String, List<E>>();
+    for (var consumerRecord : consumerRecords) {
+      var resourceEvent = consumerRecord.value();
+      if (resourceEvent == null) {
+        continue;
+      }
+      resourceEventsByTenant.computeIfAbsent(tenantExtractor.apply(resourceEvent), tenantId -> new ArrayList<>())
+        .add(resourceEvent);
+    }
+    return resourceEventsByTenant;
+  }
+
   private String getFolioTenantFromHeader(ConsumerRecord<String, PieceResourceEvent> consumerRecord) {
     return new String(consumerRecord
       .headers()
@@ -0,0 +1,110 @@
+package org.folio.rtaccache.integration;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.util.function.Function;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.folio.rtaccache.domain.dto.HoldingsRecord;
+import org.folio.rtaccache.domain.dto.Item;
+import org.folio.rtaccache.domain.dto.Loan;
+import org.folio.rtaccache.domain.dto.Request;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Base of the deserializers that read Kafka events straight into the typed records their handlers work with, instead
+ * of reading generic maps that are converted again by every handler. The event is streamed field by field: its old
+ * and new records are bound to the record class of the topic, skipping large fields no handler reads, and an event of
+ * a type no handler exists for is dropped, returned as {@code null}, as soon as its type has been read.
+ */
+abstract class TypedResourceEventDeserializer<E> implements Deserializer<E> {
+
+  private static final JsonMapper EVENT_MAPPER = JsonMapper.builder()
+    .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+    .enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+    .addMixIn(Item.class, ItemMixin.class)
+    .addMixIn(HoldingsRecord.class, HoldingsRecordMixin.class)
+    .addMixIn(Loan.class, LoanMixin.class)
+    .addMixIn(Request.class, RequestMixin.class)
+    .build();
+
+  @Override
+  public E deserialize(String topic, byte[] data) {
+    if (data == null) {
+      return null;
+    }
+    try (var parser = EVENT_MAPPER.createParser(data)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new SerializationException("Event of topic " + topic + " is not a JSON object");
+      }
+      return readEvent(parser, getRecordName(topic));
+    } catch (JacksonException e) {
+      throw new SerializationException("Can't deserialize event of topic " + topic, e);
+    }
+  }
+
+  /**
+   * Reads the fields of the event the parser is positioned in.
+   *
+   * @param recordName last segment of the topic name, e.g. {@code item}
+   * @return the event, or {@code null} if it is not handled
+   */
+  protected abstract E readEvent(JsonParser parser, String recordName);
+
+  protected static Object readRecord(JsonParser parser, Class<?> recordClass) {
+    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    return EVENT_MAPPER.readValue(parser, recordClass);
+  }
+
+  protected static String readText(JsonParser parser) {
+    return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+  }
+
+  protected static Long readLong(JsonParser parser) {
+    return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsLong();
+  }
+
+  /**
+   * Reads the event type, unknown types are returned as {@code null}.
+   */
+  protected static <T> T readType(JsonParser parser, Function<String, T> fromValue) {
+    var value = readText(parser);
+    if (value == null) {
+      return null;
+    }
+    try {
+      return fromValue.apply(value);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static String getRecordName(String topic) {
+    return topic == null ? "" : topic.substring(topic.lastIndexOf('.') + 1);
+  }
+
+  @JsonIgnoreProperties({"administrativeNotes", "notes", "circulationNotes", "electronicAccess", "formerIds",
+    "statisticalCodeIds", "tags", "metadata"})
+  private abstract static class ItemMixin {
+  }
+
+  @JsonIgnoreProperties({"administrativeNotes", "electronicAccess", "formerIds", "statisticalCodeIds", "tags",
+    "metadata"})
+  private abstract static class HoldingsRecordMixin {
+  }
+
+  @JsonIgnoreProperties({"borrower", "loanPolicy", "overdueFinePolicy", "lostItemPolicy", "checkoutServicePoint",
+    "checkinServicePoint", "patronGroupAtCheckout", "feesAndFines", "metadata"})
+  private abstract static class LoanMixin {
+  }
+
+  @JsonIgnoreProperties({"instance", "item", "requester", "proxy", "deliveryAddress", "pickupServicePoint",
+    "printDetails", "tags", "metadata"})
+  private abstract static class RequestMixin {
+  }
+}
@@ -0,0 +1,190 @@
+package org.folio.rtaccache.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import lombok.extern.log4j.Log4j2;
+import org.folio.rtaccache.config.AdvisoryLockProperties;
+import org.folio.rtaccache.domain.exception.RtacDataProcessingException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Log4j2
+@Service
+public class RtacAdvisoryLockRepository implements DisposableBean {
+
+  private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtextextended(?, 0))";
+  private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtextextended(?, 0))";
+  private static final String TRY_LOCK_ALL_SQL =
+    "SELECT lock_key FROM unnest(?::text[]) AS lock_key WHERE pg_try_advisory_lock(hashtextextended(lock_key, 0))";
+  private static final String UNLOCK_ALL_SQL = "SELECT pg_advisory_unlock_all()";
+  private static final Duration LOCK_POLL_INTERVAL = Duration.ofMillis(200);
+
+  private static final Duration LOCK_CONNECTION_TIMEOUT = Duration.ofSeconds(1);
+
+  // Advisory locks are held on a pool of their own, so lazy loads waiting for or holding a lock never take the
+  // connections their cache writes need
+  private final HikariDataSource lockDataSource;
+
+  public RtacAdvisoryLockRepository(AdvisoryLockProperties properties,
+    @Value("${spring.datasource.url}") String url,
+    @Value("${spring.datasource.username}") String username,
+    @Value("${spring.datasource.password:}") String password) {
+    lockDataSource = new HikariDataSource();
+    lockDataSource.setPoolName("rtac-advisory-lock-pool");
+    lockDataSource.setJdbcUrl(url);
+    lockDataSource.setUsername(username);
+    lockDataSource.setPassword(password);
+    lockDataSource.setMaximumPoolSize(properties.getPoolSize());
+    lockDataSource.setMinimumIdle(0);
+    lockDataSource.setConnectionTimeout(LOCK_CONNECTION_TIMEOUT.toMillis());
+  }
+
+  /**
+   * Runs the action while holding a session-level Postgres advisory lock for the given key, so that the same
+   * action is not executed concurrently by several module instances. The connection is only kept while the lock
+   * is held. Returns {@code false} without running the action if the lock can not be obtained within the timeout.
+   */
+  public boolean executeWithLock(String lockKey, Duration timeout, Runnable action) {
+    var deadline = System.nanoTime() + timeout.toNanos();
+    while (true) {
+      try (var connection = lockDataSource.getConnection()) {
+        if (tryLock(connection, lockKey)) {
+          try {
+            action.run();
+          } finally {
+            unlock(connection, lockKey);
+          }
+          return true;
+        }
+      } catch (SQLTransientConnectionException e) {
+        log.debug("No connection available for advisory lock: {}, retrying", lockKey);
+      } catch (SQLException e) {
+        throw new RtacDataProcessingException("Failed to acquire advisory lock: " + lockKey, e);
+      }
+      if (System.nanoTime() >= deadline) {
+        log.warn("Timed out waiting for advisory lock: {}", lockKey);
+        return false;
+      }
+      sleep(lockKey);
+    }
+  }
+
+  /**
+   * Runs the asynchronous action while holding session-level Postgres advisory locks for the given keys, all of them
+   * on a single connection. Keys locked by other sessions are retried until the timeout, the action is then run with
+   * the keys that are held, which may be none of them. It is run without any lock right away when the pool has no
+   * connection left. The locks are released once the future returned by the action completes.
+   */
+  public <T> CompletableFuture<T> executeWithLocks(Collection<String> lockKeys, Duration timeout,
+    Function<Set<String>, CompletableFuture<T>> action) {
+    var deadline = System.nanoTime() + timeout.toNanos();
+    var connection = getConnection(lockKeys);
+    CompletableFuture<T> result;
+    try {
+      var lockedKeys = connection == null ? Set.<String>of() : tryLockAll(connection, lockKeys, deadline);
+      result = action.apply(lockedKeys);
+    } catch (RuntimeException e) {
+      release(connection);
+      throw e;
+    }
+    return result.whenComplete((value, ex) -> release(connection));
+  }
+
+  @Override
+  public void destroy() {
+    lockDataSource.close();
+  }
+
+  private boolean tryLock(Connection connection, String lockKey) throws SQLException {
+    try (var ps = connection.prepareStatement(TRY_LOCK_SQL)) {
+      ps.setString(1, lockKey);
+      try (var rs = ps.executeQuery()) {
+        return rs.next() && rs.getBoolean(1);
+      }
+    }
+  }
+
+  private Connection getConnection(Collection<String> lockKeys) {
+    try {
+      return lockDataSource.getConnection();
+    } catch (SQLTransientConnectionException e) {
+      log.info("No connection available for advisory locks: {}, running without them", lockKeys);
+      return null;
+    } catch (SQLException e) {
+      throw new RtacDataProcessingException("Failed to acquire advisory locks: " + lockKeys, e);
+    }
+  }
+
+  private Set<String> tryLockAll(Connection connection, Collection<String> lockKeys, long deadline) {
+    var lockedKeys = new HashSet<String>();
+    var remainingKeys = new HashSet<>(lockKeys);
+    while (true) {
+      try (var ps = connection.prepareStatement(TRY_LOCK_ALL_SQL)) {
+        ps.setArray(1, connection.createArrayOf("text", remainingKeys.toArray()));
+        try (var rs = ps.executeQuery()) {
+          while (rs.next()) {
+            lockedKeys.add(rs.getString(1));
+          }
+        }
+      } catch (SQLException e) {
+        throw new RtacDataProcessingException("Failed to acquire advisory locks: " + lockKeys, e);
+      }
+      remainingKeys.removeAll(lockedKeys);
+      if (remainingKeys.isEmpty()) {
+        return lockedKeys;
+      }
+      if (System.nanoTime() >= deadline) {
+        log.warn("Timed out waiting for advisory locks: {}", remainingKeys);
+        return lockedKeys;
+      }
+      sleep(remainingKeys.toString());
+    }
+  }
+
+  /**
+   * Releases all advisory locks of the connection and returns it to the pool. A connection that fails to release
+   * its locks is evicted, closing it releases them.
+   */
+  private void release(Connection connection) {
+    if (connection == null) {
+      return;
+    }
+    try (var ps = connection.prepareStatement(UNLOCK_ALL_SQL)) {
+      ps.execute();
+    } catch (SQLException e) {
+      log.warn("Failed to release advisory locks, evicting the connection", e);
+      lockDataSource.evictConnection(connection);
+      return;
+    }
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      log.warn("Failed to return advisory lock connection to the pool", e);
+    }
+  }
+
+  private void unlock(Connection connection, String lockKey) throws SQLException {
+    try (var ps = connection.prepareStatement(UNLOCK_SQL)) {
+      ps.setString(1, lockKey);
+      ps.execute();
+    }
+  }
+
+  private void sleep(String lockKey) {
+    try {
+      Thread.sleep(LOCK_POLL_INTERVAL);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RtacDataProcessingException("Interrupted while waiting for advisory lock: " + lockKey, e);
+    }
+  }
+}
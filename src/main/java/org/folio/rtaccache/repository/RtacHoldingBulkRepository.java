@@ -1,14 +1,22 @@
 package org.folio.rtaccache.repository;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.BiConsumer;
 import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
+import org.folio.rtaccache.config.GenerationProperties;
+import org.folio.rtaccache.domain.ItemDueDate;
 import org.folio.rtaccache.domain.RtacHoldingEntity;
 import org.folio.rtaccache.domain.dto.Instance;
 import org.folio.rtaccache.domain.dto.LoanType;
@@ -16,6 +24,8 @@ import org.folio.rtaccache.domain.dto.Location;
 import org.folio.rtaccache.domain.dto.Loclib;
 import org.folio.rtaccache.domain.dto.MaterialType;
 import org.folio.rtaccache.domain.dto.RtacHolding;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Service;
 import tools.jackson.databind.ObjectMapper;
@@ -33,6 +43,35 @@ public class RtacHoldingBulkRepository {
       created_at = EXCLUDED.created_at
   """;
 
+  private static final String CACHED_IDS_SQL = "SELECT instance_id, id FROM rtac_holding";
+
+  private static final String CREATE_STAGING_TABLE_SQL = """
+    CREATE TEMPORARY TABLE rtac_holding_staging (
+      instance_id uuid,
+      type varchar(20),
+      id uuid,
+      shared boolean,
+      rtac_holding_json jsonb,
+      created_at timestamp
+    ) ON COMMIT DROP
+  """;
+
+  private static final String COPY_TO_STAGING_SQL = """
+    COPY rtac_holding_staging (instance_id, type, id, shared, rtac_holding_json, created_at)
+    FROM STDIN WITH (FORMAT csv)
+  """;
+
+  private static final String MERGE_STAGING_SQL = """
+    INSERT INTO rtac_holding (instance_id, type, id, shared, rtac_holding_json, created_at)
+    SELECT DISTINCT ON (instance_id, type, id) instance_id, type, id, shared, rtac_holding_json, created_at
+    FROM rtac_holding_staging
+    ORDER BY instance_id, type, id, created_at DESC
+    ON CONFLICT (instance_id, type, id)
+    DO UPDATE SET
+      rtac_holding_json = EXCLUDED.rtac_holding_json,
+      created_at = EXCLUDED.created_at
+  """;
+
   private static final String LOCATION_DATA_UPDATE_SQL = """
     UPDATE rtac_holding
     SET rtac_holding_json = jsonb_set(
@@ -128,6 +167,18 @@ public class RtacHoldingBulkRepository {
     AND id = ?::uuid
   """;
 
+  private static final String ITEMS_DUE_DATES_UPDATE_SQL = """
+    UPDATE rtac_holding h
+    SET rtac_holding_json = jsonb_set(
+      h.rtac_holding_json,
+      '{dueDate}',
+      COALESCE(to_jsonb(v.due_date), 'null'::jsonb)
+    )
+    FROM unnest(?::uuid[], ?::text[]) AS v(item_id, due_date)
+    WHERE h.type = 'ITEM'
+    AND h.id = v.item_id
+  """;
+
   private static final String ITEM_HOLD_COUNT_UPDATE_SQL = """
     UPDATE rtac_holding
     SET rtac_holding_json = jsonb_set(
@@ -231,9 +282,22 @@ public class RtacHoldingBulkRepository {
 
   private final DataSource dataSource;
   private final ObjectMapper objectMapper;
+  private final GenerationProperties generationProperties;
+  private final RtacHoldingJsonWriter rtacHoldingJsonWriter;
   private static final int BATCH_SIZE = 200;
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+  private static final int CACHED_IDS_FETCH_SIZE = 10_000;
 
+  /**
+   * Inserts the rows or updates their json and creation time. Lists of at least the configured copy threshold are
+   * streamed with COPY, smaller ones are sent as batched INSERT statements.
+   */
   public void bulkUpsert(List<RtacHoldingEntity> holdings) throws SQLException {
+    var copyThreshold = generationProperties.getCopyThreshold();
+    if (copyThreshold > 0 && holdings.size() >= copyThreshold) {
+      copyUpsert(holdings);
+      return;
+    }
     try (Connection connection = dataSource.getConnection();
       PreparedStatement ps = connection.prepareStatement(BULK_UPSERT_SQL)) {
 
@@ -256,6 +320,73 @@ public class RtacHoldingBulkRepository {
     }
   }
 
+  /**
+   * Streams the rows with COPY into a temporary staging table and merges them into rtac_holding with a single
+   * statement, all in one transaction. Of rows with the same key only the youngest is kept.
+   */
+  public void copyUpsert(List<RtacHoldingEntity> holdings) throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      var autoCommit = connection.getAutoCommit();
+      connection.setAutoCommit(false);
+      try {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute(CREATE_STAGING_TABLE_SQL);
+        }
+        copyToStaging(connection, holdings);
+        try (Statement statement = connection.createStatement()) {
+          statement.executeUpdate(MERGE_STAGING_SQL);
+        }
+        connection.commit();
+      } catch (SQLException | RuntimeException e) {
+        connection.rollback();
+        throw e;
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
+    }
+  }
+
+  /**
+   * Passes the instance id and the id of every row to the consumer. The rows are read with a cursor, so the table is
+   * never held in memory as a whole; instance ids are passed once per row.
+   */
+  public void forEachCachedId(BiConsumer<UUID, UUID> consumer) throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      var autoCommit = connection.getAutoCommit();
+      // The driver only fetches in chunks within a transaction
+      connection.setAutoCommit(false);
+      try (PreparedStatement ps = connection.prepareStatement(CACHED_IDS_SQL)) {
+        ps.setFetchSize(CACHED_IDS_FETCH_SIZE);
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next()) {
+            consumer.accept(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class));
+          }
+        }
+        connection.commit();
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
+    }
+  }
+
+  private void copyToStaging(Connection connection, List<RtacHoldingEntity> holdings) throws SQLException {
+    var copyOut = new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_TO_STAGING_SQL,
+      COPY_BUFFER_SIZE);
+    try (var out = new BufferedOutputStream(copyOut, COPY_BUFFER_SIZE)) {
+      for (var holding : holdings) {
+        var id = holding.getId();
+        // Same local date time as a java.sql.Timestamp parameter of the INSERT statement
+        var createdAt = Timestamp.from(holding.getCreatedAt());
+        out.write((id.getInstanceId() + "," + id.getType().name() + "," + id.getId() + "," + holding.isShared() + ",")
+          .getBytes(StandardCharsets.US_ASCII));
+        rtacHoldingJsonWriter.writeCsvValue(out, holding.getRtacHolding());
+        out.write(("," + createdAt + "\n").getBytes(StandardCharsets.US_ASCII));
+      }
+    } catch (IOException e) {
+      throw new SQLException("Failed to copy RTAC holdings to the staging table", e);
+    }
+  }
+
   public void bulkUpdateLocationData(Location location) throws SQLException {
     try (Connection connection = dataSource.getConnection();
       PreparedStatement ps = connection.prepareStatement(LOCATION_DATA_UPDATE_SQL)) {
@@ -343,9 +474,9 @@ public class RtacHoldingBulkRepository {
       ps.setString(5, rtacHolding.getEffectiveShelvingOrder());
       ps.setString(6, rtacHolding.getStatus());
       ps.setBoolean(7, rtacHolding.getSuppressFromDiscovery() != null && rtacHolding.getSuppressFromDiscovery());
-      ps.setString(8, objectMapper.writeValueAsString(rtacHolding.getLocation()));
-      ps.setString(9, objectMapper.writeValueAsString(rtacHolding.getLibrary()));
-      ps.setString(10, objectMapper.writeValueAsString(rtacHolding.getMaterialType()));
+      ps.setString(8, rtacHoldingJsonWriter.writeFragment(rtacHolding.getLocation()));
+      ps.setString(9, rtacHoldingJsonWriter.writeFragment(rtacHolding.getLibrary()));
+      ps.setString(10, rtacHoldingJsonWriter.writeFragment(rtacHolding.getMaterialType()));
       ps.setString(11, rtacHolding.getTemporaryLoanType());
       ps.setString(12, rtacHolding.getPermanentLoanType());
       ps.setObject(13, itemId);
@@ -366,6 +497,30 @@ public class RtacHoldingBulkRepository {
     }
   }
 
+  /**
+   * Sets the due dates of several items with a single statement. Each item must occur only once.
+   */
+  public void updateItemsDueDates(List<ItemDueDate> itemDueDates) throws SQLException {
+    if (itemDueDates.isEmpty()) {
+      return;
+    }
+    var itemIds = new UUID[itemDueDates.size()];
+    var dueDates = new String[itemDueDates.size()];
+    for (var i = 0; i < itemDueDates.size(); i++) {
+      var itemDueDate = itemDueDates.get(i);
+      itemIds[i] = itemDueDate.itemId();
+      dueDates[i] = itemDueDate.dueDate() != null ? itemDueDate.dueDate().toInstant().toString() : null;
+    }
+    var connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement ps = connection.prepareStatement(ITEMS_DUE_DATES_UPDATE_SQL)) {
+      ps.setArray(1, connection.createArrayOf("uuid", itemIds));
+      ps.setArray(2, connection.createArrayOf("text", dueDates));
+      ps.executeUpdate();
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
   public void updateItemsHoldCount(UUID instanceId, UUID itemId, int delta) throws SQLException {
     var connection = DataSourceUtils.getConnection(dataSource);
     try (PreparedStatement ps = connection.prepareStatement(ITEM_HOLD_COUNT_UPDATE_SQL)) {
@@ -386,8 +541,8 @@ public class RtacHoldingBulkRepository {
       ps.setString(2, rtacHolding.getHoldingsCopyNumber());
       ps.setString(3, rtacHolding.getStatus());
       ps.setBoolean(4, rtacHolding.getSuppressFromDiscovery() != null && rtacHolding.getSuppressFromDiscovery());
-      ps.setString(5, objectMapper.writeValueAsString(rtacHolding.getLocation()));
-      ps.setString(6, objectMapper.writeValueAsString(rtacHolding.getLibrary()));
+      ps.setString(5, rtacHoldingJsonWriter.writeFragment(rtacHolding.getLocation()));
+      ps.setString(6, rtacHoldingJsonWriter.writeFragment(rtacHolding.getLibrary()));
       ps.setString(7, objectMapper.writeValueAsString(rtacHolding.getHoldingsStatements()));
       ps.setString(8, objectMapper.writeValueAsString(rtacHolding.getHoldingsStatementsForIndexes()));
       ps.setString(9, objectMapper.writeValueAsString(rtacHolding.getHoldingsStatementsForSupplements()));
@@ -405,8 +560,8 @@ public class RtacHoldingBulkRepository {
     var connection = DataSourceUtils.getConnection(dataSource);
     try (PreparedStatement ps = connection.prepareStatement(HOLDINGS_PIECES_KAFKA_UPDATE_SQL)) {
       ps.setString(1, rtacHolding.getCallNumber());
-      ps.setString(2, objectMapper.writeValueAsString(rtacHolding.getLocation()));
-      ps.setString(3, objectMapper.writeValueAsString(rtacHolding.getLibrary()));
+      ps.setString(2, rtacHoldingJsonWriter.writeFragment(rtacHolding.getLocation()));
+      ps.setString(3, rtacHoldingJsonWriter.writeFragment(rtacHolding.getLibrary()));
       ps.setObject(4, instanceId);
       ps.setString(5, holdingsId);
       ps.executeUpdate();
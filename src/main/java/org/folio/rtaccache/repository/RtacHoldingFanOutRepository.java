@@ -0,0 +1,327 @@
+package org.folio.rtaccache.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.folio.rtaccache.config.EcsReadProperties;
+import org.folio.rtaccache.domain.KeysetPage;
+import org.folio.rtaccache.domain.RawRtacHolding;
+import org.folio.rtaccache.domain.RtacHoldingCursor;
+import org.folio.rtaccache.domain.RtacHoldingEntity;
+import org.folio.rtaccache.domain.RtacHoldingId;
+import org.folio.rtaccache.domain.dto.RtacHolding;
+import org.folio.rtaccache.domain.dto.RtacHolding.TypeEnum;
+import org.folio.rtaccache.domain.exception.RtacDataProcessingException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Reads holdings of an instance by querying every tenant schema concurrently, each on its own connection, and
+ * merging the sorted per-schema results in the requested order. Text sort keys are compared by code point
+ * (the "C" collation) on both sides, so the merge reproduces the database order.
+ */
+@Service
+public class RtacHoldingFanOutRepository implements RtacHoldingPageRepository {
+
+  private static final String ID_COLUMN = "id";
+  private static final String INSTANCE_ID_COLUMN = "instance_id";
+  private static final String TYPE_COLUMN = "type";
+  private static final String SHARED_COLUMN = "shared";
+  private static final String CREATED_AT_COLUMN = "created_at";
+  private static final String JSON_COLUMN = "json";
+  private static final String SORT_VALUE_COLUMN = "sort_value";
+  private static final String TOTAL_COUNT_COLUMN = "total_count";
+  private static final String ENTITY_JSON = "CAST(h.rtac_holding_json AS text)";
+  // null and empty fields are stripped to match the non_empty inclusion the DTOs are serialized with
+  private static final String RAW_JSON = "CAST(rtac_jsonb_strip_empty(h.rtac_holding_json) AS text)";
+
+  private static final String ITEMS_SQL = """
+    SELECT 1 FROM %s.rtac_holding i
+    WHERE i.instance_id = :instanceId AND i.type = 'ITEM' AND (:onlyShared IS NOT TRUE OR i.shared = TRUE)""";
+
+  // Same visibility rules as rtac_holdings_multi_tenant, holdings are only returned for instances without items
+  // in any of the schemas, the uncorrelated subquery is evaluated once per query
+  private static final String BASE_CONDITIONS = """
+    h.instance_id = :instanceId
+      AND (:onlyShared IS NOT TRUE OR h.shared = TRUE)
+      AND h.visible
+      AND (h.type IN ('PIECE', 'ITEM') OR NOT EXISTS (%s))""";
+
+  private static final String ROWS_SQL = """
+    SELECT h.id, h.instance_id, h.type, h.shared, h.created_at, %s AS json%s, h.total_count FROM (
+      SELECT h.*, count(*) OVER () AS total_count, %s AS after_cursor
+      FROM %s.rtac_holding h
+      WHERE %s
+    ) h
+    WHERE h.after_cursor
+    %s
+    LIMIT :limit
+    """;
+
+  private static final String COUNT_SQL = """
+    SELECT count(*) FROM %s.rtac_holding h WHERE %s
+    """;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final AsyncTaskExecutor taskExecutor;
+  private final Semaphore queryPermits;
+
+  public RtacHoldingFanOutRepository(NamedParameterJdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                     @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                                     EcsReadProperties ecsReadProperties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.taskExecutor = taskExecutor;
+    this.queryPermits = new Semaphore(ecsReadProperties.getFanOutParallelism());
+  }
+
+  @Override
+  public Page<RtacHoldingEntity> findAllByIdInstanceId(String schemas, UUID instanceId, boolean onlyShared, Pageable pageable,
+                                                       RtacHoldingCursor after) {
+    return findPage(schemas, instanceId, onlyShared, new HashMap<>(), List.of(), pageable, after, ENTITY_JSON,
+      this::toEntity);
+  }
+
+  @Override
+  public Page<RawRtacHolding> findRawByIdInstanceId(String schemas, UUID instanceId, boolean onlyShared, Pageable pageable,
+                                                    RtacHoldingCursor after) {
+    return findPage(schemas, instanceId, onlyShared, new HashMap<>(), List.of(), pageable, after, RAW_JSON,
+      rawMapper(pageable.getSort()));
+  }
+
+  @Override
+  public Page<RtacHoldingEntity> search(String schemas, UUID instanceId, String query, Boolean available, boolean onlyShared,
+                                        Pageable pageable, RtacHoldingCursor after) {
+    var params = new HashMap<String, Object>();
+    var conditions = RtacHoldingSql.searchConditions(params, query, available);
+    return findPage(schemas, instanceId, onlyShared, params, conditions, pageable, after, ENTITY_JSON, this::toEntity);
+  }
+
+  @Override
+  public Page<RawRtacHolding> searchRaw(String schemas, UUID instanceId, String query, Boolean available, boolean onlyShared,
+                                        Pageable pageable, RtacHoldingCursor after) {
+    var params = new HashMap<String, Object>();
+    var conditions = RtacHoldingSql.searchConditions(params, query, available);
+    return findPage(schemas, instanceId, onlyShared, params, conditions, pageable, after, RAW_JSON,
+      rawMapper(pageable.getSort()));
+  }
+
+  /**
+   * Every schema returns its first rows of the page in the requested order along with its total, the rows are
+   * merged and the offset is applied to the merged rows. With a cursor every schema seeks past it on its own.
+   */
+  private <T> Page<T> findPage(String schemas, UUID instanceId, boolean onlyShared, Map<String, Object> params,
+                               List<String> conditions, Pageable pageable, RtacHoldingCursor after, String jsonColumn,
+                               RowMapping<T> mapping) {
+    var schemaNames = Arrays.stream(schemas.split(",")).filter(schema -> !schema.isBlank()).toList();
+    var sort = pageable.getSort();
+    params.put("instanceId", instanceId);
+    params.put("onlyShared", onlyShared);
+
+    var whereSql = String.join(" AND ", withBaseConditions(schemaNames, conditions));
+    var seekSql = after == null
+      ? "TRUE"
+      : RtacHoldingSql.toSeekPredicate(sort, after, params);
+    var orderBySql = sort.isUnsorted()
+      ? " ORDER BY h.id ASC"
+      : RtacHoldingSql.toOrderByClause(sort);
+    var sortColumns = new StringBuilder();
+    var properties = sort.stream().map(Sort.Order::getProperty).toList();
+    for (int i = 0; i < properties.size(); i++) {
+      sortColumns.append(", ").append(RtacHoldingSql.toSqlExpression(properties.get(i)))
+        .append(" AS ").append(SORT_VALUE_COLUMN).append(i);
+    }
+    long skip = after == null ? pageable.getOffset() : 0;
+    int limit = after == null ? pageable.getPageSize() : pageable.getPageSize() + 1;
+    params.put("limit", skip + limit);
+
+    var schemaPages = forEachSchema(schemaNames, schema -> {
+      var quotedSchema = RtacHoldingSql.quoteIdentifier(schema);
+      var sql = ROWS_SQL.formatted(jsonColumn, sortColumns, seekSql, quotedSchema, whereSql, orderBySql);
+      var rows = jdbcTemplate.query(sql, new MapSqlParameterSource(params),
+        (rs, rowNum) -> toRow(rs, properties.size(), mapping));
+      if (!rows.isEmpty()) {
+        return new SchemaPage<>(rows, rows.getFirst().totalCount());
+      }
+      // without a cursor an empty result means no matching rows, otherwise they may all precede the cursor
+      long total = after == null ? 0 : count(quotedSchema, whereSql, params);
+      return new SchemaPage<>(rows, total);
+    });
+
+    var merged = merge(schemaPages.stream().map(SchemaPage::rows).toList(), rowComparator(sort), skip, limit);
+    var content = merged.stream().limit(pageable.getPageSize()).map(Row::value).toList();
+    var total = schemaPages.stream().mapToLong(SchemaPage::totalCount).sum();
+    return after == null
+      ? new PageImpl<>(content, pageable, total)
+      : new KeysetPage<>(content, sort, total, merged.size() > pageable.getPageSize());
+  }
+
+  private long count(String quotedSchema, String whereSql, Map<String, Object> params) {
+    var count = jdbcTemplate.queryForObject(COUNT_SQL.formatted(quotedSchema, whereSql),
+      new MapSqlParameterSource(params), Long.class);
+    return count == null ? 0 : count;
+  }
+
+  /**
+   * Runs the query for every schema on the application task executor, bounded by the configured parallelism,
+   * and returns the results in the order of the schemas.
+   */
+  private <R> List<R> forEachSchema(List<String> schemaNames, Function<String, R> query) {
+    var futures = schemaNames.stream()
+      .map(schema -> taskExecutor.submitCompletable(() -> withQueryPermit(() -> query.apply(schema))))
+      .toList();
+    try {
+      return futures.stream().map(CompletableFuture::join).toList();
+    } catch (CompletionException e) {
+      futures.forEach(future -> future.cancel(true));
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private <R> R withQueryPermit(Supplier<R> query) {
+    try {
+      queryPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RtacDataProcessingException("Interrupted while waiting for a fan-out query permit", e);
+    }
+    try {
+      return query.get();
+    } finally {
+      queryPermits.release();
+    }
+  }
+
+  /**
+   * Merges rows of several sources, each sorted by the comparator, skipping the first merged rows.
+   */
+  private static <T> List<Row<T>> merge(List<List<Row<T>>> sources, Comparator<Row<?>> comparator, long skip,
+                                        int limit) {
+    var heads = new PriorityQueue<Map.Entry<Row<T>, Iterator<Row<T>>>>(Map.Entry.comparingByKey(comparator));
+    for (var source : sources) {
+      var iterator = source.iterator();
+      if (iterator.hasNext()) {
+        heads.add(Map.entry(iterator.next(), iterator));
+      }
+    }
+    var merged = new ArrayList<Row<T>>(limit);
+    long skipped = 0;
+    while (!heads.isEmpty() && merged.size() < limit) {
+      var head = heads.poll();
+      if (skipped < skip) {
+        skipped++;
+      } else {
+        merged.add(head.getKey());
+      }
+      var iterator = head.getValue();
+      if (iterator.hasNext()) {
+        heads.add(Map.entry(iterator.next(), iterator));
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Order of the per-schema queries: every sort key by code point with nulls last when ascending and first when
+   * descending, followed by the id.
+   */
+  private static Comparator<Row<?>> rowComparator(Sort sort) {
+    Comparator<Row<?>> comparator = (a, b) -> 0;
+    int i = 0;
+    for (var order : sort) {
+      int index = i++;
+      Comparator<String> values = order.isAscending()
+        ? Comparator.nullsLast(RtacHoldingFanOutRepository::compareCodePoints)
+        : Comparator.nullsLast(RtacHoldingFanOutRepository::compareCodePoints).reversed();
+      comparator = comparator.thenComparing(row -> row.sortValues().get(index), values);
+    }
+    // the text form of a uuid orders the same way as the uuid in the database
+    return comparator.thenComparing(row -> row.id().toString());
+  }
+
+  private static int compareCodePoints(String a, String b) {
+    int i = 0;
+    int j = 0;
+    while (i < a.length() && j < b.length()) {
+      int codePointA = a.codePointAt(i);
+      int codePointB = b.codePointAt(j);
+      if (codePointA != codePointB) {
+        return Integer.compare(codePointA, codePointB);
+      }
+      i += Character.charCount(codePointA);
+      j += Character.charCount(codePointB);
+    }
+    return Integer.compare(a.length() - i, b.length() - j);
+  }
+
+  private static List<String> withBaseConditions(List<String> schemaNames, List<String> conditions) {
+    var itemsSql = schemaNames.stream()
+      .map(schema -> ITEMS_SQL.formatted(RtacHoldingSql.quoteIdentifier(schema)))
+      .collect(Collectors.joining(" UNION ALL "));
+    var allConditions = new ArrayList<String>();
+    allConditions.add(BASE_CONDITIONS.formatted(itemsSql));
+    allConditions.addAll(conditions);
+    return allConditions;
+  }
+
+  private static <T> Row<T> toRow(ResultSet rs, int sortValueCount, RowMapping<T> mapping) throws SQLException {
+    var sortValues = new ArrayList<String>(sortValueCount);
+    for (int i = 0; i < sortValueCount; i++) {
+      sortValues.add(rs.getString(SORT_VALUE_COLUMN + i));
+    }
+    var id = rs.getObject(ID_COLUMN, UUID.class);
+    return new Row<>(mapping.map(rs, id, sortValues), id, sortValues, rs.getLong(TOTAL_COUNT_COLUMN));
+  }
+
+  private RtacHoldingEntity toEntity(ResultSet rs, UUID id, List<String> sortValues) throws SQLException {
+    var rtacHolding = objectMapper.readValue(rs.getString(JSON_COLUMN), RtacHolding.class);
+    var entityId = new RtacHoldingId(rs.getObject(INSTANCE_ID_COLUMN, UUID.class),
+      TypeEnum.valueOf(rs.getString(TYPE_COLUMN)), id);
+    var createdAt = rs.getTimestamp(CREATED_AT_COLUMN);
+    return new RtacHoldingEntity(entityId, rs.getBoolean(SHARED_COLUMN), rtacHolding,
+      createdAt == null ? null : createdAt.toInstant());
+  }
+
+  private static RowMapping<RawRtacHolding> rawMapper(Sort sort) {
+    var properties = sort.stream().map(Sort.Order::getProperty).toList();
+    return (rs, id, sortValues) -> RtacHoldingSql.toRawRtacHolding(id, rs.getString(JSON_COLUMN), properties,
+      sortValues);
+  }
+
+  @FunctionalInterface
+  private interface RowMapping<T> {
+    T map(ResultSet rs, UUID id, List<String> sortValues) throws SQLException;
+  }
+
+  private record Row<T>(T value, UUID id, List<String> sortValues, long totalCount) {
+  }
+
+  private record SchemaPage<T>(List<Row<T>> rows, long totalCount) {
+  }
+}
@@ -0,0 +1,110 @@
+package org.folio.rtaccache.repository;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.folio.rtaccache.domain.dto.RtacHoldingLibrary;
+import org.folio.rtaccache.domain.dto.RtacHoldingLocation;
+import org.folio.rtaccache.domain.dto.RtacHoldingMaterialType;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Serializes the json written to rtac_holding without intermediate strings where the target allows it. Rows
+ * streamed with COPY are written straight into the output stream, and the location, library and material type
+ * fragments bound by the Kafka event updates are serialized once per distinct value of the reference data.
+ */
+@Component
+@RequiredArgsConstructor
+public class RtacHoldingJsonWriter {
+
+  private static final int MAX_CACHED_FRAGMENTS = 10_000;
+
+  private final ObjectMapper objectMapper;
+  private final Map<FragmentKey, String> fragments = new ConcurrentHashMap<>();
+
+  /**
+   * Writes the value as a quoted CSV field, doubling the quotes of the json. The stream is left open.
+   */
+  public void writeCsvValue(OutputStream out, Object value) throws IOException {
+    out.write('"');
+    objectMapper.writeValue(new CsvQuotingOutputStream(out), value);
+    out.write('"');
+  }
+
+  /**
+   * Returns the json of a reference data fragment. Fragments are keyed by their content, so a changed location,
+   * library or material type gets serialized anew, while unchanged ones are shared by all rows referencing them.
+   */
+  public String writeFragment(Object fragment) {
+    var key = FragmentKey.of(fragment);
+    if (key == null) {
+      return objectMapper.writeValueAsString(fragment);
+    }
+    if (fragments.size() >= MAX_CACHED_FRAGMENTS) {
+      fragments.clear();
+    }
+    return fragments.computeIfAbsent(key, k -> objectMapper.writeValueAsString(fragment));
+  }
+
+  private record FragmentKey(Class<?> type, String id, String code, String name) {
+
+    static FragmentKey of(Object fragment) {
+      return switch (fragment) {
+        case RtacHoldingLocation location ->
+          new FragmentKey(RtacHoldingLocation.class, location.getId(), location.getCode(), location.getName());
+        case RtacHoldingLibrary library ->
+          new FragmentKey(RtacHoldingLibrary.class, library.getId(), library.getCode(), library.getName());
+        case RtacHoldingMaterialType materialType ->
+          new FragmentKey(RtacHoldingMaterialType.class, materialType.getId(), null, materialType.getName());
+        case null, default -> null;
+      };
+    }
+  }
+
+  /**
+   * Doubles every quote written to the target. Flushing and closing are left to the owner of the target, so the json
+   * generator neither closes the COPY stream nor pushes every row to the server on its own. A quote byte never occurs
+   * inside a multibyte UTF-8 sequence, so escaping works on the encoded bytes.
+   */
+  private static final class CsvQuotingOutputStream extends FilterOutputStream {
+
+    CsvQuotingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      if (b == '"') {
+        out.write('"');
+      }
+      out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      var start = off;
+      for (var i = off; i < off + len; i++) {
+        if (b[i] == '"') {
+          out.write(b, start, i + 1 - start);
+          out.write('"');
+          start = i + 1;
+        }
+      }
+      out.write(b, start, off + len - start);
+    }
+
+    @Override
+    public void flush() {
+      // flushed by the owner of the target
+    }
+
+    @Override
+    public void close() {
+      // closed by the owner of the target
+    }
+  }
+}
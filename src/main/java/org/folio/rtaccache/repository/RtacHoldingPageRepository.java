@@ -0,0 +1,60 @@
+package org.folio.rtaccache.repository;
+
+import java.util.UUID;
+import org.folio.rtaccache.domain.RawRtacHolding;
+import org.folio.rtaccache.domain.RtacHoldingCursor;
+import org.folio.rtaccache.domain.RtacHoldingEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Paged reads of the holdings of an instance across tenant schemas, implemented by the multi-tenant function
+ * based repository and by {@link RtacHoldingFanOutRepository}.
+ */
+public interface RtacHoldingPageRepository {
+
+  /**
+   * Retrieves a page of RtacHoldingEntity records of the instance across the given schemas.
+   *
+   * @param schemas A comma-separated string of database schemas to search across.
+   * @param instanceId The instance ID to retrieve records for.
+   * @param onlyShared A flag to restrict the result to shared records.
+   * @param pageable Pagination information.
+   * @param after Position to continue from using keyset pagination, the offset is ignored when set. May be null.
+   * @return A page of RtacHoldingEntity records.
+   */
+  Page<RtacHoldingEntity> findAllByIdInstanceId(String schemas, UUID instanceId, boolean onlyShared, Pageable pageable,
+                                                RtacHoldingCursor after);
+
+  /**
+   * Same as {@link #findAllByIdInstanceId(String, UUID, boolean, Pageable, RtacHoldingCursor)}, but the stored json
+   * is returned as is, without being mapped to RtacHoldingEntity. Only the id and the sort properties are populated.
+   *
+   * @return A page of records holding the stored json.
+   */
+  Page<RawRtacHolding> findRawByIdInstanceId(String schemas, UUID instanceId, boolean onlyShared, Pageable pageable,
+                                             RtacHoldingCursor after);
+
+  /**
+   * Performs a dynamic search for RtacHoldingEntity records.
+   *
+   * @param schemas A comma-separated string of database schemas to search across.
+   * @param instanceId The instance ID to search within.
+   * @param query A space-separated string of search terms.
+   * @param available A flag to filter by availability status.
+   * @param pageable Pagination information.
+   * @param after Position to continue from using keyset pagination, the offset is ignored when set. May be null.
+   * @return A page of matching RtacHoldingEntity records.
+   */
+  Page<RtacHoldingEntity> search(String schemas, UUID instanceId, String query, Boolean available, boolean onlyShared,
+                                 Pageable pageable, RtacHoldingCursor after);
+
+  /**
+   * Same as {@link #search(String, UUID, String, Boolean, boolean, Pageable, RtacHoldingCursor)}, but the stored json
+   * is returned as is, without being mapped to RtacHoldingEntity. Only the id and the sort properties are populated.
+   *
+   * @return A page of matching records holding the stored json.
+   */
+  Page<RawRtacHolding> searchRaw(String schemas, UUID instanceId, String query, Boolean available, boolean onlyShared,
+                                 Pageable pageable, RtacHoldingCursor after);
+}
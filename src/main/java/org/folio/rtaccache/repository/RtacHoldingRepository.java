@@ -4,9 +4,9 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import org.folio.rtaccache.domain.RtacBatchCountProjection;
 import org.folio.rtaccache.domain.RtacHoldingEntity;
 import org.folio.rtaccache.domain.RtacHoldingId;
+import org.folio.rtaccache.domain.RtacInstanceAgeProjection;
 import org.folio.rtaccache.domain.dto.RtacHolding;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -22,27 +22,15 @@ public interface RtacHoldingRepository extends JpaRepository<RtacHoldingEntity,
 
   Page<RtacHoldingEntity> findAllByIdInstanceId(UUID instanceId, Pageable pageable);
 
-  @Query(value = """
-      WITH FilteredHoldings AS (
-          SELECT * FROM rtac_holdings_multi_tenant(:schemas, ARRAY[:instanceId], :onlyShared)
-      )
-      SELECT
-          *,
-          rtac_holding_json->>'effectiveShelvingOrder' AS effectiveShelvingOrder,
-          rtac_holding_json->'library'->>'name' AS libraryName,
-          rtac_holding_json->'location'->>'name' AS locationName,
-          rtac_holding_json->>'status' AS status
-      FROM FilteredHoldings
-      """,
-      countQuery = "SELECT count(*) FROM rtac_holdings_multi_tenant(:schemas, ARRAY[:instanceId], :onlyShared)",
-      nativeQuery = true)
-  Page<RtacHoldingEntity> findAllByIdInstanceId(@Param("schemas") String schemas, @Param("instanceId") UUID instanceId, @Param("onlyShared") boolean onlyShared, Pageable pageable);
-
   int countByIdInstanceId(UUID instanceId);
 
-  @Query(value = "SELECT instance_id AS instanceId, count(*) AS count FROM rtac_holding WHERE instance_id in (:instanceIds) GROUP BY instance_id",
-    nativeQuery = true)
-  List<RtacBatchCountProjection> countBatchByIdInstanceIdIn(@Param("instanceIds") List<UUID> instanceIds);
+  @Query("SELECT max(h.createdAt) FROM RtacHoldingEntity h WHERE h.id.instanceId = :instanceId")
+  Optional<Instant> findLatestCreatedAtByIdInstanceId(@Param("instanceId") UUID instanceId);
+
+  @Query("""
+        SELECT new org.folio.rtaccache.domain.RtacInstanceAgeProjection(h.id.instanceId, max(h.createdAt))
+        FROM RtacHoldingEntity h WHERE h.id.instanceId IN :instanceIds GROUP BY h.id.instanceId""")
+  List<RtacInstanceAgeProjection> findLatestCreatedAtByIdInstanceIdIn(@Param("instanceIds") List<UUID> instanceIds);
 
   @Query(value = "SELECT count(*) FROM rtac_holdings_multi_tenant(:schemas, ARRAY[:instanceId], :onlyShared)", nativeQuery = true)
   int countByIdInstanceId(@Param("schemas") String schemas, @Param("instanceId") UUID instanceId, @Param("onlyShared") boolean onlyShared);
@@ -66,33 +54,45 @@ public interface RtacHoldingRepository extends JpaRepository<RtacHoldingEntity,
   @Modifying(clearAutomatically = true, flushAutomatically = true)
   void deleteAllByIdInstanceId(UUID instanceId);
 
+  @Transactional
+  @Modifying(clearAutomatically = true, flushAutomatically = true)
+  @Query("DELETE FROM RtacHoldingEntity h WHERE h.id.instanceId = :instanceId AND h.createdAt < :createdAt")
+  int deleteAllByIdInstanceIdAndCreatedAtBefore(@Param("instanceId") UUID instanceId,
+    @Param("createdAt") Instant createdAt);
+
   @Query(value = """
-        WITH Filtered AS (
-          SELECT * FROM rtac_holdings_multi_tenant(:schemas, :instanceIds, :onlyShared)
+        WITH Summary AS (
+          SELECT * FROM rtac_instance_summaries_multi_tenant(:schemas, :instanceIds, :onlyShared)
+        ),
+        ItemPresence AS (
+          SELECT instance_id, bool_or(type = 'ITEM') AS hasItem
+          FROM Summary
+          GROUP BY instance_id
+        ),
+        Visible AS (
+          SELECT s.*
+          FROM Summary s
+          JOIN ItemPresence ip ON ip.instance_id = s.instance_id
+          WHERE s.visible AND (s.type IN ('PIECE', 'ITEM') OR (s.type = 'HOLDING' AND ip.hasItem IS NOT TRUE))
         ),
         LocationStatusCounts AS (
           SELECT
-            h_inner.instance_id,
-            (h_inner.rtac_holding_json->'library'->>'id') AS libraryId,
-            (h_inner.rtac_holding_json->'location'->>'id') AS locationId,
-            (h_inner.rtac_holding_json->'location'->>'code') AS locationCode,
-            (h_inner.rtac_holding_json->>'type') AS type,
-            (h_inner.rtac_holding_json->>'status') AS status,
-            COUNT(*) AS statusCount
+            v.instance_id,
+            NULLIF(v.library_id, '') AS libraryId,
+            NULLIF(v.location_id, '') AS locationId,
+            NULLIF(v.location_code, '') AS locationCode,
+            lower(v.type) AS type,
+            NULLIF(v.status, '') AS status,
+            SUM(v.status_count) AS statusCount
           FROM
-            Filtered h_inner
+            Visible v
           GROUP BY
-            h_inner.instance_id,
-            (h_inner.rtac_holding_json->'library'->>'id'),
-            (h_inner.rtac_holding_json->'location'->>'id'),
-            (h_inner.rtac_holding_json->'location'->>'code'),
-            (h_inner.rtac_holding_json->>'type'),
-            (h_inner.rtac_holding_json->>'status')
+            v.instance_id, v.library_id, v.location_id, v.location_code, v.type, v.status
         )
         SELECT
-          h.instance_id AS instanceId,
-          bool_or(h.rtac_holding_json->>'volume' IS NOT NULL AND h.rtac_holding_json->>'volume' != '') AS hasVolumes,
-          (SELECT h_if.rtac_holding_json->>'instanceFormatIds' FROM Filtered h_if WHERE h_if.instance_id = h.instance_id LIMIT 1) AS instanceFormatIds,
+          v.instance_id AS instanceId,
+          SUM(v.volume_count) > 0 AS hasVolumes,
+          MAX(v.instance_format_ids) AS instanceFormatIds,
           (
             SELECT
               json_agg(
@@ -108,18 +108,25 @@ public interface RtacHoldingRepository extends JpaRepository<RtacHoldingEntity,
             FROM
               LocationStatusCounts lsc
             WHERE
-              lsc.instance_id = h.instance_id
+              lsc.instance_id = v.instance_id
           ) AS locationStatusJson
         FROM
-          Filtered h
+          Visible v
         GROUP BY
-          h.instance_id""",
+          v.instance_id""",
       nativeQuery = true)
   List<RtacSummaryProjection> findRtacSummariesByInstanceIds(@Param("schemas") String schemas, @Param("instanceIds") UUID[] instanceIds, @Param("onlyShared") boolean onlyShared);
 
+  @Query(value = """
+        SELECT source_schema AS sourceSchema, instance_id AS instanceId, version
+        FROM rtac_instance_versions_multi_tenant(:schemas, :instanceIds)""",
+      nativeQuery = true)
+  List<RtacInstanceVersionProjection> findInstanceVersions(@Param("schemas") String schemas, @Param("instanceIds") UUID[] instanceIds);
+
   @Query(value = "SELECT public.delete_old_holdings_all_tenants(:cutoffTime)", nativeQuery = true)
   int deleteOldHoldingsAllTenants(@Param("cutoffTime") Instant cutoffTime);
 
+  @Transactional
   @Modifying(clearAutomatically = true, flushAutomatically = true)
   @Query(value = "DELETE FROM rtac_holding WHERE instance_id IN (:instanceIds)", nativeQuery = true)
   void deleteAllByIdInstanceIdIn(@Param("instanceIds") List<UUID> instanceIds);
@@ -1,24 +1,28 @@
 package org.folio.rtaccache.repository;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import org.folio.rtaccache.domain.RtacHoldingEntity;
+import org.folio.rtaccache.domain.RawRtacHolding;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 /**
  * Interface for custom repository methods for RtacHoldingEntity.
  */
-public interface RtacHoldingRepositoryCustom {
+public interface RtacHoldingRepositoryCustom extends RtacHoldingPageRepository {
 
   /**
-   * Performs a dynamic search for RtacHoldingEntity records.
+   * Retrieves the first records of each of the given instances across the given schemas, with the stored json
+   * returned as is. Only the id and the sort properties are populated.
    *
    * @param schemas A comma-separated string of database schemas to search across.
-   * @param instanceId The instance ID to search within.
-   * @param query A space-separated string of search terms.
-   * @param available A flag to filter by availability status.
-   * @param pageable Pagination information.
-   * @return A page of matching RtacHoldingEntity records.
+   * @param instanceIds The instance IDs to retrieve records for.
+   * @param onlyShared A flag to restrict the result to shared records.
+   * @param sort Order of the records within an instance.
+   * @param limit Maximum number of records returned per instance.
+   * @return First page of records by instance ID, instances without records are absent.
    */
-  Page<RtacHoldingEntity> search(String schemas, UUID instanceId, String query, Boolean available, boolean onlyShared, Pageable pageable);
+  Map<UUID, Page<RawRtacHolding>> findRawByIdInstanceIdIn(String schemas, List<UUID> instanceIds, boolean onlyShared,
+                                                          Sort sort, int limit);
 }
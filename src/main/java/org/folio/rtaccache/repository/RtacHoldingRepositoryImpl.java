@@ -3,101 +3,252 @@ package org.folio.rtaccache.repository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import org.folio.rtaccache.domain.KeysetPage;
+import org.folio.rtaccache.domain.RawRtacHolding;
+import org.folio.rtaccache.domain.RtacHoldingCursor;
 import org.folio.rtaccache.domain.RtacHoldingEntity;
 import org.hibernate.Session;
 import org.hibernate.query.NativeQuery;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
 public class RtacHoldingRepositoryImpl implements RtacHoldingRepositoryCustom {
 
-  private static final Pattern SPLIT_PATTERN = Pattern.compile("\\s+");
+  private static final String FROM_SQL = "FROM rtac_holdings_multi_tenant(:schemas, :instanceIds, :onlyShared) h";
+  private static final String TOTAL_COUNT_COLUMN = "total_count";
+  private static final String RAW_ID_COLUMN = "holding_id";
+  private static final String RAW_JSON_COLUMN = "raw_json";
+  private static final String SORT_VALUE_COLUMN = "sort_value";
+  private static final String GROUP_INSTANCE_ID_COLUMN = "group_instance_id";
+  private static final Projection<RtacHoldingEntity> ENTITY_PROJECTION = new Projection<>(
+    "h.instance_id, h.type, h.id, h.rtac_holding_json, h.created_at, h.shared",
+    query -> query.addEntity(RtacHoldingEntity.class), row -> (RtacHoldingEntity) row[0]);
 
   @PersistenceContext
   private EntityManager entityManager;
 
   @Override
-  public Page<RtacHoldingEntity> search(String schemas, UUID instanceId, String query, Boolean available, boolean onlyShared, Pageable pageable) {
+  public Page<RtacHoldingEntity> findAllByIdInstanceId(String schemas, UUID instanceId, boolean onlyShared, Pageable pageable,
+                                                       RtacHoldingCursor after) {
+    return findPage(baseParams(schemas, instanceId, onlyShared), "", pageable, after, ENTITY_PROJECTION);
+  }
+
+  @Override
+  public Page<RawRtacHolding> findRawByIdInstanceId(String schemas, UUID instanceId, boolean onlyShared, Pageable pageable,
+                                                    RtacHoldingCursor after) {
+    return findPage(baseParams(schemas, instanceId, onlyShared), "", pageable, after, rawProjection(pageable.getSort()));
+  }
+
+  @Override
+  public Page<RtacHoldingEntity> search(String schemas, UUID instanceId, String query, Boolean available, boolean onlyShared,
+                                        Pageable pageable, RtacHoldingCursor after) {
+    var params = baseParams(schemas, instanceId, onlyShared);
+    return findPage(params, searchWhereClause(params, query, available), pageable, after, ENTITY_PROJECTION);
+  }
+
+  @Override
+  public Page<RawRtacHolding> searchRaw(String schemas, UUID instanceId, String query, Boolean available, boolean onlyShared,
+                                        Pageable pageable, RtacHoldingCursor after) {
+    var params = baseParams(schemas, instanceId, onlyShared);
+    return findPage(params, searchWhereClause(params, query, available), pageable, after,
+      rawProjection(pageable.getSort()));
+  }
+
+  /**
+   * Reads the first rows of every instance in a single pass over rtac_holdings_multi_tenant, the rows are numbered
+   * and counted per instance by window functions.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public Map<UUID, Page<RawRtacHolding>> findRawByIdInstanceIdIn(String schemas, List<UUID> instanceIds, boolean onlyShared,
+                                                                 Sort sort, int limit) {
+    var projection = rawProjection(sort);
+    var orderBy = sort.isUnsorted()
+      ? " ORDER BY h.id ASC"
+      : RtacHoldingSql.toOrderByClause(sort);
+    String dataSql = """
+      SELECT * FROM (
+        SELECT %s, h.instance_id AS %s,
+          row_number() OVER (PARTITION BY h.instance_id %s) AS instance_row,
+          count(*) OVER (PARTITION BY h.instance_id) AS %s
+        %s
+      ) h
+      WHERE h.instance_row <= :limit
+      ORDER BY h.%s, h.instance_row
+      """.formatted(projection.columns(), GROUP_INSTANCE_ID_COLUMN, orderBy, TOTAL_COUNT_COLUMN, FROM_SQL,
+      GROUP_INSTANCE_ID_COLUMN);
+
     var params = new HashMap<String, Object>();
     params.put("schemas", schemas);
-    params.put("instanceIds", new UUID[]{instanceId});
+    params.put("instanceIds", instanceIds.toArray(new UUID[0]));
     params.put("onlyShared", onlyShared);
+    params.put("limit", limit);
 
-    var whereClause = new ArrayList<String>();
+    NativeQuery<Object[]> dataQuery = entityManager.unwrap(Session.class).createNativeQuery(dataSql);
+    projection.registration().accept(dataQuery);
+    dataQuery.addScalar(GROUP_INSTANCE_ID_COLUMN, UUID.class);
+    dataQuery.addScalar(TOTAL_COUNT_COLUMN, Long.class);
+    params.forEach(dataQuery::setParameter);
+    List<Object[]> rows = dataQuery.getResultList();
+
+    var rowsByInstanceId = rows.stream()
+      .collect(Collectors.groupingBy(row -> (UUID) row[row.length - 2], LinkedHashMap::new, Collectors.toList()));
+    var pageable = PageRequest.of(0, limit, sort);
+    var pages = new LinkedHashMap<UUID, Page<RawRtacHolding>>();
+    rowsByInstanceId.forEach((instanceId, instanceRows) -> pages.put(instanceId,
+      new PageImpl<>(instanceRows.stream().map(projection.mapper()).toList(), pageable, getTotalCount(instanceRows))));
+    return pages;
+  }
 
-    var terms = Arrays.stream(SPLIT_PATTERN.split(query))
-      .filter(s -> !s.isEmpty())
-      .toList();
+  private String searchWhereClause(Map<String, Object> params, String query, Boolean available) {
+    var conditions = RtacHoldingSql.searchConditions(params, query, available);
+    return conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions);
+  }
 
-    IntStream.range(0, terms.size()).forEach(i -> {
-      String paramName = "term" + i;
-      whereClause.add("rtac_holding_search_text(h.rtac_holding_json) ILIKE :" + paramName);
-      params.put(paramName, "%" + terms.get(i) + "%");
-    });
+  private Map<String, Object> baseParams(String schemas, UUID instanceId, boolean onlyShared) {
+    var params = new HashMap<String, Object>();
+    params.put("schemas", schemas);
+    params.put("instanceIds", new UUID[]{instanceId});
+    params.put("onlyShared", onlyShared);
+    return params;
+  }
 
-    if (Boolean.TRUE.equals(available)) {
-      whereClause.add("cast(h.rtac_holding_json ->> 'status' as text) = 'Available'");
-    }
+  private <T> Page<T> findPage(Map<String, Object> params, String whereSql, Pageable pageable, RtacHoldingCursor after,
+                                Projection<T> projection) {
+    return after == null
+      ? findOffsetPage(params, whereSql, pageable, projection)
+      : findKeysetPage(params, whereSql, pageable, after, projection);
+  }
 
-    String fromSql = "FROM rtac_holdings_multi_tenant(:schemas, :instanceIds, :onlyShared) h";
-    String whereSql = whereClause.isEmpty() ? "" : "WHERE " + String.join(" AND ", whereClause);
-    String orderByClause = toOrderByClause(pageable.getSort());
-    String countSql = """
-      SELECT count(*)
-      %s
-      %s
-      """.formatted(fromSql, whereSql);
+  /**
+   * Fetches the requested page together with the total number of matching rows, calculated by a window count
+   * in the same pass over rtac_holdings_multi_tenant. A separate count query is only needed when the page is
+   * requested beyond the last matching row.
+   */
+  private <T> Page<T> findOffsetPage(Map<String, Object> params, String whereSql, Pageable pageable,
+                                     Projection<T> projection) {
     String dataSql = """
-      SELECT *
+      SELECT %s, count(*) OVER () AS %s
       %s
       %s
       %s
-      """.formatted(fromSql, whereSql, orderByClause);
+      """.formatted(projection.columns(), TOTAL_COUNT_COLUMN, FROM_SQL, whereSql,
+      RtacHoldingSql.toOrderByClause(pageable.getSort()));
 
     var session = entityManager.unwrap(Session.class);
+    List<Object[]> rows = getRows(session, dataSql, params, projection, (int) pageable.getOffset(), pageable.getPageSize());
+    if (rows.isEmpty()) {
+      long total = pageable.getOffset() > 0 ? count(session, params, whereSql) : 0;
+      return new PageImpl<>(List.of(), pageable, total);
+    }
 
-    NativeQuery<Long> countQuery = session.createNativeQuery(countSql, Long.class);
-    params.forEach(countQuery::setParameter);
-    long total = countQuery.getSingleResult();
+    var content = rows.stream().map(projection.mapper()).toList();
+    return new PageImpl<>(content, pageable, getTotalCount(rows));
+  }
 
-    NativeQuery<RtacHoldingEntity> dataQuery = session.createNativeQuery(dataSql, RtacHoldingEntity.class);
-    params.forEach(dataQuery::setParameter);
-    dataQuery.setFirstResult((int) pageable.getOffset());
-    dataQuery.setMaxResults(pageable.getPageSize());
+  /**
+   * Fetches the rows following the cursor position in the requested sort, so the cost of a page does not depend
+   * on how deep it is. The total is counted before the seek predicate is applied, one extra row tells
+   * whether more rows follow.
+   */
+  private <T> Page<T> findKeysetPage(Map<String, Object> params, String whereSql, Pageable pageable,
+                                     RtacHoldingCursor after, Projection<T> projection) {
+    var sort = pageable.getSort();
+    String dataSql = """
+      SELECT %s, h.%s FROM (
+        SELECT h.*, count(*) OVER () AS %s, %s AS after_cursor
+        %s
+        %s
+      ) h
+      WHERE h.after_cursor
+      %s
+      """.formatted(projection.columns(), TOTAL_COUNT_COLUMN, TOTAL_COUNT_COLUMN,
+      RtacHoldingSql.toSeekPredicate(sort, after, params), FROM_SQL, whereSql,
+      RtacHoldingSql.toOrderByClause(sort));
 
-    List<RtacHoldingEntity> content = total > pageable.getOffset() ? dataQuery.getResultList() : List.of();
+    var session = entityManager.unwrap(Session.class);
+    List<Object[]> rows = getRows(session, dataSql, params, projection, 0, pageable.getPageSize() + 1);
+    if (rows.isEmpty()) {
+      return new KeysetPage<>(List.of(), sort, count(session, params, whereSql), false);
+    }
 
-    return new PageImpl<>(content, pageable, total);
+    var content = rows.stream().limit(pageable.getPageSize()).map(projection.mapper()).toList();
+    return new KeysetPage<>(content, sort, getTotalCount(rows), rows.size() > pageable.getPageSize());
   }
 
-  private String toOrderByClause(Sort sort) {
-    if (sort.isUnsorted()) {
-      return "";
-    }
-    var orders = new ArrayList<String>();
-    for (var order : sort) {
-      orders.add(toSqlOrder(order));
+  @SuppressWarnings("unchecked")
+  private List<Object[]> getRows(Session session, String sql, Map<String, Object> params, Projection<?> projection,
+                                 int offset, int limit) {
+    NativeQuery<Object[]> dataQuery = session.createNativeQuery(sql);
+    projection.registration().accept(dataQuery);
+    dataQuery.addScalar(TOTAL_COUNT_COLUMN, Long.class);
+    params.forEach(dataQuery::setParameter);
+    dataQuery.setFirstResult(offset);
+    dataQuery.setMaxResults(limit);
+    return dataQuery.getResultList();
+  }
+
+  private static long getTotalCount(List<Object[]> rows) {
+    var row = rows.getFirst();
+    return (Long) row[row.length - 1];
+  }
+
+  /**
+   * Selects the stored json as text along with the id and the values of the sort properties,
+   * which are the only fields needed besides the json itself.
+   */
+  private Projection<RawRtacHolding> rawProjection(Sort sort) {
+    var properties = sort.stream().map(Sort.Order::getProperty).toList();
+    var columns = new ArrayList<String>();
+    columns.add("h.id AS " + RAW_ID_COLUMN);
+    // null and empty fields are stripped to match the non_empty inclusion the DTOs are serialized with
+    columns.add("CAST(rtac_jsonb_strip_empty(h.rtac_holding_json) AS text) AS " + RAW_JSON_COLUMN);
+    for (int i = 0; i < properties.size(); i++) {
+      columns.add(RtacHoldingSql.toSqlExpression(properties.get(i)) + " AS " + SORT_VALUE_COLUMN + i);
     }
-    return " ORDER BY " + String.join(", ", orders);
-  }
-
-  private String toSqlOrder(Sort.Order order) {
-    String property = switch (order.getProperty()) {
-      case "libraryName" -> "h.rtac_holding_json->'library'->>'name'";
-      case "locationName" -> "h.rtac_holding_json->'location'->>'name'";
-      case "effectiveShelvingOrder" -> "h.rtac_holding_json->>'effectiveShelvingOrder'";
-      case "status" -> "h.rtac_holding_json->>'status'";
-      case "id" -> "h.id";
-      default -> throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
-    };
-    return property + " " + order.getDirection();
+    return new Projection<>(String.join(", ", columns),
+      query -> {
+        query.addScalar(RAW_ID_COLUMN, UUID.class);
+        query.addScalar(RAW_JSON_COLUMN, String.class);
+        for (int i = 0; i < properties.size(); i++) {
+          query.addScalar(SORT_VALUE_COLUMN + i, String.class);
+        }
+      },
+      row -> toRawRtacHolding(row, properties));
+  }
+
+  private static RawRtacHolding toRawRtacHolding(Object[] row, List<String> sortProperties) {
+    var sortValues = IntStream.range(0, sortProperties.size()).mapToObj(i -> (String) row[i + 2]).toList();
+    return RtacHoldingSql.toRawRtacHolding((UUID) row[0], (String) row[1], sortProperties, sortValues);
+  }
+
+  private long count(Session session, Map<String, Object> params, String whereSql) {
+    String countSql = """
+      SELECT count(*)
+      %s
+      %s
+      """.formatted(FROM_SQL, whereSql);
+    NativeQuery<Long> countQuery = session.createNativeQuery(countSql, Long.class);
+    params.forEach(countQuery::setParameter);
+    return countQuery.getSingleResult();
+  }
+
+  /**
+   * Columns selected from the holdings relation, how they are registered on the query and how a row is mapped.
+   * The total count is always registered last.
+   */
+  private record Projection<T>(String columns, Consumer<NativeQuery<?>> registration, Function<Object[], T> mapper) {
   }
 }
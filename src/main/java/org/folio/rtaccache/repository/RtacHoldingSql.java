@@ -0,0 +1,141 @@
+package org.folio.rtaccache.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import org.folio.rtaccache.domain.RawRtacHolding;
+import org.folio.rtaccache.domain.RtacHoldingCursor;
+import org.folio.rtaccache.domain.dto.RtacHoldingLibrary;
+import org.folio.rtaccache.domain.dto.RtacHoldingLocation;
+import org.springframework.data.domain.Sort;
+
+/**
+ * SQL fragments over rtac_holding rows aliased as h, shared by the multi-tenant and the per-schema queries.
+ * Parameters are added to the given map and referenced by name.
+ */
+final class RtacHoldingSql {
+
+  /**
+   * Collation of text sort keys in both query engines. It orders text by code point, which the merge of per-schema
+   * results can reproduce in Java, so both engines return rows in the same order regardless of the database locale.
+   */
+  private static final String COLLATION = " COLLATE \"C\"";
+
+  private static final Pattern SPLIT_PATTERN = Pattern.compile("\\s+");
+
+  private RtacHoldingSql() {
+  }
+
+  static List<String> searchConditions(Map<String, Object> params, String query, Boolean available) {
+    var conditions = new ArrayList<String>();
+
+    var terms = Arrays.stream(SPLIT_PATTERN.split(query))
+      .filter(s -> !s.isEmpty())
+      .toList();
+
+    IntStream.range(0, terms.size()).forEach(i -> {
+      String paramName = "term" + i;
+      conditions.add("rtac_holding_search_text(h.rtac_holding_json) ILIKE :" + paramName);
+      params.put(paramName, "%" + terms.get(i) + "%");
+    });
+
+    if (Boolean.TRUE.equals(available)) {
+      conditions.add("cast(h.rtac_holding_json ->> 'status' as text) = 'Available'");
+    }
+    return conditions;
+  }
+
+  /**
+   * Builds a predicate matching rows that follow the cursor in the given sort with the id as a tiebreaker.
+   * Every sort key is compared as a (is null, value) pair to follow the default NULLS LAST / NULLS FIRST ordering.
+   */
+  static String toSeekPredicate(Sort sort, RtacHoldingCursor after, Map<String, Object> params) {
+    after.requireSort(sort);
+    var disjunction = new ArrayList<String>();
+    var equalities = new ArrayList<String>();
+    int i = 0;
+    for (var order : sort) {
+      var value = after.values().get(i);
+      var key = "((%1$s) IS NULL, COALESCE(%1$s, '')%2$s)".formatted(toSqlExpression(order.getProperty()), COLLATION);
+      var seekKey = "(:seekNull%1$d, :seekValue%1$d)".formatted(i);
+      params.put("seekNull" + i, value == null);
+      params.put("seekValue" + i, value == null ? "" : value);
+      var operator = order.isAscending() ? ">" : "<";
+      disjunction.add(joinConditions(equalities, key + " " + operator + " " + seekKey));
+      equalities.add(key + " = " + seekKey);
+      i++;
+    }
+    params.put("seekId", after.id());
+    disjunction.add(joinConditions(equalities, "h.id > :seekId"));
+    return "(" + String.join(" OR ", disjunction) + ")";
+  }
+
+  static String toOrderByClause(Sort sort) {
+    if (sort.isUnsorted()) {
+      return "";
+    }
+    var orders = new ArrayList<String>();
+    for (var order : sort) {
+      orders.add(toSqlOrder(order));
+    }
+    // id keeps the order of rows with equal sort keys stable, which continuation tokens rely on
+    orders.add("h.id ASC");
+    return " ORDER BY " + String.join(", ", orders);
+  }
+
+  static String toSqlExpression(String property) {
+    return switch (property) {
+      case "libraryName" -> "h.rtac_holding_json->'library'->>'name'";
+      case "locationName" -> "h.rtac_holding_json->'location'->>'name'";
+      case "effectiveShelvingOrder" -> "h.rtac_holding_json->>'effectiveShelvingOrder'";
+      case "status" -> "h.rtac_holding_json->>'status'";
+      default -> throw new IllegalArgumentException("Unsupported sort property: " + property);
+    };
+  }
+
+  /**
+   * Creates a holding of the stored json text with the id and the given sort property values populated.
+   */
+  static RawRtacHolding toRawRtacHolding(UUID id, String json, List<String> sortProperties, List<String> sortValues) {
+    var rawRtacHolding = new RawRtacHolding(json);
+    rawRtacHolding.setId(id.toString());
+    for (int i = 0; i < sortProperties.size(); i++) {
+      var value = sortValues.get(i);
+      if (value == null) {
+        continue;
+      }
+      switch (sortProperties.get(i)) {
+        case "libraryName" -> rawRtacHolding.setLibrary(new RtacHoldingLibrary().name(value));
+        case "locationName" -> rawRtacHolding.setLocation(new RtacHoldingLocation().name(value));
+        case "effectiveShelvingOrder" -> rawRtacHolding.setEffectiveShelvingOrder(value);
+        case "status" -> rawRtacHolding.setStatus(value);
+        default -> throw new IllegalArgumentException("Unsupported sort property: " + sortProperties.get(i));
+      }
+    }
+    return rawRtacHolding;
+  }
+
+  /**
+   * Quotes a schema or table name for statements that cannot take it as a parameter.
+   */
+  static String quoteIdentifier(String identifier) {
+    return "\"" + identifier.replace("\"", "\"\"") + "\"";
+  }
+
+  private static String toSqlOrder(Sort.Order order) {
+    if ("id".equals(order.getProperty())) {
+      return "h.id " + order.getDirection();
+    }
+    return toSqlExpression(order.getProperty()) + COLLATION + " " + order.getDirection();
+  }
+
+  private static String joinConditions(List<String> equalities, String condition) {
+    var conditions = new ArrayList<>(equalities);
+    conditions.add(condition);
+    return "(" + String.join(" AND ", conditions) + ")";
+  }
+}
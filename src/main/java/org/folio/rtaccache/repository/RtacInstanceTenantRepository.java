@@ -0,0 +1,200 @@
+package org.folio.rtaccache.repository;
+
+import static org.folio.rtaccache.repository.RtacHoldingSql.quoteIdentifier;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.folio.rtaccache.domain.RtacInstanceTenants;
+import org.folio.rtaccache.domain.exception.RtacDataProcessingException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reads and writes the rtac_instance_tenant directory of the given schema. The schema is passed explicitly, as
+ * member tenants write to the directory of the central tenant. Statements run on their own connection, outside of
+ * the transaction of the caller, so a failed directory write does not abort it.
+ */
+@Service
+@RequiredArgsConstructor
+public class RtacInstanceTenantRepository {
+
+  private static final String FIND_TENANTS_SQL = """
+    SELECT instance_id, tenant_id FROM %s.rtac_instance_tenant WHERE instance_id = ANY(?)
+  """;
+
+  private static final String FIND_TENANTS_WITH_REFRESHED_AT_SQL = """
+    SELECT instance_id, tenant_id, refreshed_at IS NULL OR refreshed_at < now() - make_interval(secs => ?) AS stale
+    FROM %s.rtac_instance_tenant WHERE instance_id = ANY(?)
+  """;
+
+  private static final String INSERT_TENANTS_SQL = """
+    INSERT INTO %s.rtac_instance_tenant (instance_id, tenant_id)
+    SELECT * FROM unnest(?::uuid[], ?::text[])
+    ON CONFLICT DO NOTHING
+  """;
+
+  private static final String REFRESH_TENANTS_SQL = """
+    WITH inserted AS (
+      INSERT INTO %1$s.rtac_instance_tenant (instance_id, tenant_id, refreshed_at)
+      SELECT instance_id, tenant_id, now() FROM unnest(?::uuid[], ?::text[]) AS u(instance_id, tenant_id)
+      ON CONFLICT DO NOTHING
+    )
+    UPDATE %1$s.rtac_instance_tenant SET refreshed_at = now() WHERE instance_id = ANY(?)
+  """;
+
+  // The remaining entries of an instance that lost a tenant are looked up again, the tenant may still hold
+  // holdings of the instance that are not cached
+  private static final String DELETE_ABSENT_TENANTS_SQL = """
+    WITH deleted AS (
+      DELETE FROM %1$s.rtac_instance_tenant t
+      WHERE t.tenant_id = ? AND t.instance_id = ANY(?)
+        AND NOT EXISTS (SELECT 1 FROM %2$s.rtac_holding h WHERE h.instance_id = t.instance_id)
+      RETURNING t.instance_id
+    ), unrefreshed AS (
+      UPDATE %1$s.rtac_instance_tenant SET refreshed_at = NULL
+      WHERE tenant_id <> ? AND instance_id IN (SELECT instance_id FROM deleted)
+    )
+    SELECT count(*) FROM deleted
+  """;
+
+  private static final String DELETE_TENANT_SQL = """
+    WITH deleted AS (
+      DELETE FROM %1$s.rtac_instance_tenant WHERE tenant_id = ? RETURNING instance_id
+    ), unrefreshed AS (
+      UPDATE %1$s.rtac_instance_tenant SET refreshed_at = NULL
+      WHERE tenant_id <> ? AND instance_id IN (SELECT instance_id FROM deleted)
+    )
+    SELECT count(*) FROM deleted
+  """;
+
+  private final DataSource dataSource;
+
+  public Map<UUID, Set<String>> findTenantsByInstanceIds(String schema, Collection<UUID> instanceIds) {
+    try (var connection = dataSource.getConnection();
+         var ps = connection.prepareStatement(FIND_TENANTS_SQL.formatted(quoteIdentifier(schema)))) {
+      ps.setArray(1, connection.createArrayOf("uuid", instanceIds.toArray()));
+      var instanceTenants = new HashMap<UUID, Set<String>>();
+      try (var rs = ps.executeQuery()) {
+        while (rs.next()) {
+          instanceTenants.computeIfAbsent(rs.getObject(1, UUID.class), k -> new HashSet<>()).add(rs.getString(2));
+        }
+      }
+      return instanceTenants;
+    } catch (SQLException e) {
+      throw new RtacDataProcessingException("Failed to read instance tenants from schema: " + schema, e);
+    }
+  }
+
+  /**
+   * Returns the tenants of the given instances, and the instances whose tenants were not all confirmed by a lookup
+   * within the given age.
+   */
+  public RtacInstanceTenants findTenantsByInstanceIds(String schema, Collection<UUID> instanceIds, Duration maxAge) {
+    try (var connection = dataSource.getConnection();
+         var ps = connection.prepareStatement(FIND_TENANTS_WITH_REFRESHED_AT_SQL.formatted(quoteIdentifier(schema)))) {
+      ps.setDouble(1, maxAge.toMillis() / 1000.0);
+      ps.setArray(2, connection.createArrayOf("uuid", instanceIds.toArray()));
+      var instanceTenants = new HashMap<UUID, Set<String>>();
+      var staleInstanceIds = new HashSet<UUID>();
+      try (var rs = ps.executeQuery()) {
+        while (rs.next()) {
+          var instanceId = rs.getObject(1, UUID.class);
+          instanceTenants.computeIfAbsent(instanceId, k -> new HashSet<>()).add(rs.getString(2));
+          if (rs.getBoolean(3)) {
+            staleInstanceIds.add(instanceId);
+          }
+        }
+      }
+      return new RtacInstanceTenants(instanceTenants, staleInstanceIds);
+    } catch (SQLException e) {
+      throw new RtacDataProcessingException("Failed to read instance tenants from schema: " + schema, e);
+    }
+  }
+
+  public void saveAll(String schema, Map<UUID, Set<String>> instanceTenants) {
+    var instanceIds = new ArrayList<UUID>();
+    var tenantIds = new ArrayList<String>();
+    instanceTenants.forEach((instanceId, tenants) -> tenants.forEach(tenantId -> {
+      instanceIds.add(instanceId);
+      tenantIds.add(tenantId);
+    }));
+    if (instanceIds.isEmpty()) {
+      return;
+    }
+    try (var connection = dataSource.getConnection();
+         var ps = connection.prepareStatement(INSERT_TENANTS_SQL.formatted(quoteIdentifier(schema)))) {
+      ps.setArray(1, connection.createArrayOf("uuid", instanceIds.toArray()));
+      ps.setArray(2, connection.createArrayOf("text", tenantIds.toArray()));
+      ps.executeUpdate();
+    } catch (SQLException e) {
+      throw new RtacDataProcessingException("Failed to save instance tenants to schema: " + schema, e);
+    }
+  }
+
+  /**
+   * Saves the tenants of the given instances looked up in mod-search and marks all entries of the instances as
+   * confirmed now, including entries the lookup did not return.
+   */
+  public void refresh(String schema, Collection<UUID> instanceIds, Map<UUID, Set<String>> instanceTenants) {
+    var tenantInstanceIds = new ArrayList<UUID>();
+    var tenantIds = new ArrayList<String>();
+    instanceTenants.forEach((instanceId, tenants) -> tenants.forEach(tenantId -> {
+      tenantInstanceIds.add(instanceId);
+      tenantIds.add(tenantId);
+    }));
+    try (var connection = dataSource.getConnection();
+         var ps = connection.prepareStatement(REFRESH_TENANTS_SQL.formatted(quoteIdentifier(schema)))) {
+      ps.setArray(1, connection.createArrayOf("uuid", tenantInstanceIds.toArray()));
+      ps.setArray(2, connection.createArrayOf("text", tenantIds.toArray()));
+      ps.setArray(3, connection.createArrayOf("uuid", instanceIds.toArray()));
+      ps.executeUpdate();
+    } catch (SQLException e) {
+      throw new RtacDataProcessingException("Failed to refresh instance tenants in schema: " + schema, e);
+    }
+  }
+
+  /**
+   * Deletes the entries of the tenant for the given instances that have no rows left in the schema of the tenant.
+   */
+  public int deleteAbsent(String schema, String tenantSchema, String tenantId, Collection<UUID> instanceIds) {
+    try (var connection = dataSource.getConnection();
+         var ps = connection.prepareStatement(DELETE_ABSENT_TENANTS_SQL.formatted(quoteIdentifier(schema),
+           quoteIdentifier(tenantSchema)))) {
+      ps.setString(1, tenantId);
+      ps.setArray(2, connection.createArrayOf("uuid", instanceIds.toArray()));
+      ps.setString(3, tenantId);
+      return countDeleted(ps);
+    } catch (SQLException e) {
+      throw new RtacDataProcessingException("Failed to delete instance tenants from schema: " + schema, e);
+    }
+  }
+
+  /**
+   * Deletes all entries of the tenant.
+   */
+  public int deleteTenant(String schema, String tenantId) {
+    try (var connection = dataSource.getConnection();
+         var ps = connection.prepareStatement(DELETE_TENANT_SQL.formatted(quoteIdentifier(schema)))) {
+      ps.setString(1, tenantId);
+      ps.setString(2, tenantId);
+      return countDeleted(ps);
+    } catch (SQLException e) {
+      throw new RtacDataProcessingException("Failed to delete instance tenants from schema: " + schema, e);
+    }
+  }
+
+  private static int countDeleted(PreparedStatement ps) throws SQLException {
+    try (var rs = ps.executeQuery()) {
+      return rs.next() ? rs.getInt(1) : 0;
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package org.folio.rtaccache.repository;
+
+import java.util.UUID;
+
+public record RtacInstanceVersionProjection(
+    String sourceSchema,
+    UUID instanceId,
+    Long version
+) {}
@@ -3,13 +3,17 @@ package org.folio.rtaccache.rest;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.folio.rtac.rest.resource.RtacApi;
+import org.folio.rtaccache.domain.RtacHoldingCursor;
 import org.folio.rtaccache.domain.dto.RtacHolding;
 import org.folio.rtaccache.domain.dto.RtacHoldings;
 import org.folio.rtaccache.domain.dto.RtacHoldingsBatch;
+import org.folio.rtaccache.domain.dto.RtacHoldingsDetailsBatch;
 import org.folio.rtaccache.domain.dto.RtacPreWarmingJob;
 import org.folio.rtaccache.domain.dto.RtacPreWarmingJobs;
 import org.folio.rtaccache.domain.dto.RtacRequest;
@@ -42,46 +46,62 @@ public class RtacCacheController implements RtacApi {
     "locationName",
     "status"
   );
+  private static final String WEAK_ENTITY_TAG_PREFIX = "W/";
 
   private final RtacHoldingStorageService rtacHoldingStorageService;
   private final RtacCachePreWarmingService rtacCachePreWarmingService;
 
 
   @Override
-  public ResponseEntity<RtacHoldings> searchRtacCacheHoldings(UUID instanceId, String query, Boolean available, List<String> sort, Integer offset, Integer limit) {
+  public ResponseEntity<RtacHoldings> searchRtacCacheHoldings(UUID instanceId, String query, Boolean available, List<String> sort,
+                                                              Integer offset, Integer limit, String continuationToken) {
     log.info("Received request to search RTAC holdings by query: {}, available: {}, offset: {}, limit: {}", query, available, offset, limit);
 
-    Page<RtacHolding> pagedRtacHoldings =
-      rtacHoldingStorageService.searchRtacHoldings(instanceId, query, available, buildPageable(offset, limit, sort));
+    var pageable = buildPageable(offset, limit, sort);
+    Page<RtacHolding> pagedRtacHoldings = rtacHoldingStorageService.searchRawRtacHoldings(instanceId, query, available,
+      pageable, parseContinuationToken(continuationToken, pageable.getSort()));
 
     var rtacHoldings = new RtacHoldings();
     rtacHoldings.setHoldings(new ArrayList<>(pagedRtacHoldings.getContent()));
     rtacHoldings.setTotalRecords((int) pagedRtacHoldings.getTotalElements());
+    rtacHoldings.setNextContinuationToken(RtacHoldingCursor.nextToken(pagedRtacHoldings));
 
     log.info("Returning {} RTAC holdings for query: {}", rtacHoldings.getHoldings().size(), query);
     return new ResponseEntity<>(rtacHoldings, HttpStatus.OK);
   }
 
   @Override
-  public ResponseEntity<RtacHoldings> getRtacCacheHoldingsById(UUID instanceId, List<String> sort, Integer offset, Integer limit) {
+  public ResponseEntity<RtacHoldings> getRtacCacheHoldingsById(UUID instanceId, List<String> sort, Integer offset, Integer limit,
+                                                               String continuationToken, String ifNoneMatch) {
 
     log.info("Received request to get RTAC holdings by instanceId: {}, offset: {}, limit: {}", instanceId, offset, limit);
 
-    Page<RtacHolding> pagedRtacHoldings =
-      rtacHoldingStorageService.getRtacHoldingsByInstanceId(instanceId, buildPageable(offset, limit, sort));
+    var pageable = buildPageable(offset, limit, sort);
+    var after = parseContinuationToken(continuationToken, pageable.getSort());
+    rtacHoldingStorageService.lazyLoadRtacHoldings(instanceId);
+    var entityTag = rtacHoldingStorageService.getRtacHoldingsEntityTag(List.of(instanceId),
+      getPageVariant(pageable.getSort(), offset, limit, continuationToken)).orElse(null);
+    if (isNotModified(ifNoneMatch, entityTag)) {
+      log.info("RTAC holdings for instanceId: {} have not been modified", instanceId);
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag).build();
+    }
+
+    Page<RtacHolding> pagedRtacHoldings = rtacHoldingStorageService.getRawRtacHoldingsByInstanceId(instanceId,
+      pageable, after);
 
     var rtacHoldings = new RtacHoldings();
     rtacHoldings.setInstanceId(instanceId.toString());
     rtacHoldings.setHoldings(new ArrayList<>(pagedRtacHoldings.getContent()));
     rtacHoldings.setTotalRecords((int) pagedRtacHoldings.getTotalElements());
+    rtacHoldings.setNextContinuationToken(RtacHoldingCursor.nextToken(pagedRtacHoldings));
 
     log.info("Returning {} RTAC holdings for instanceId: {}", rtacHoldings.getHoldings().size(), instanceId);
-    return new ResponseEntity<>(rtacHoldings, HttpStatus.OK);
+    return withEntityTag(rtacHoldings, entityTag);
   }
 
   @Override
   public ResponseEntity<RtacHoldingsBatch> postRtacCacheBatchHoldings(
-    @RequestBody RtacRequest rtacRequest) {
+    @RequestBody RtacRequest rtacRequest, String ifNoneMatch) {
 
     log.info("Received batch request for RTAC holdings summary with {} instance ids", rtacRequest.getInstanceIds().size());
 
@@ -89,10 +109,42 @@ public class RtacCacheController implements RtacApi {
       .map(UUID::fromString)
       .toList();
 
-    RtacHoldingsBatch rtacHoldingsBatch = rtacHoldingStorageService.getRtacHoldingsSummaryForInstanceIds(instanceIds);
+    var lazyLoadResult = rtacHoldingStorageService.lazyLoadRtacHoldings(instanceIds);
+    // A response with pending or failed instances is incomplete and must not be revalidated, the summaries are
+    // returned in the order of the requested instance ids
+    String entityTag = null;
+    if (lazyLoadResult.pendingInstanceIds().isEmpty() && lazyLoadResult.exceptions().isEmpty()) {
+      entityTag = rtacHoldingStorageService.getRtacHoldingsEntityTag(instanceIds,
+        instanceIds.stream().map(UUID::toString).collect(Collectors.joining(","))).orElse(null);
+    }
+    if (isNotModified(ifNoneMatch, entityTag)) {
+      log.info("RTAC holdings for {} instance ids have not been modified", instanceIds.size());
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag).build();
+    }
+
+    RtacHoldingsBatch rtacHoldingsBatch = rtacHoldingStorageService.getRtacHoldingsSummaryForInstanceIds(instanceIds,
+      lazyLoadResult);
+
+    log.info("Returning batch summary with {} holdings, {} errors and {} pending instances", rtacHoldingsBatch.getHoldings().size(),
+      rtacHoldingsBatch.getErrors().size(), rtacHoldingsBatch.getPendingInstanceIds().size());
+    return withEntityTag(rtacHoldingsBatch, entityTag);
+  }
+
+  @Override
+  public ResponseEntity<RtacHoldingsDetailsBatch> postRtacCacheBatchHoldingsDetails(RtacRequest rtacRequest, List<String> sort,
+                                                                                     Integer limit) {
+    log.info("Received batch request for RTAC holdings of {} instance ids, limit: {}", rtacRequest.getInstanceIds().size(), limit);
+
+    List<UUID> instanceIds = rtacRequest.getInstanceIds().stream()
+      .map(UUID::fromString)
+      .distinct()
+      .toList();
+
+    var rtacHoldingsDetailsBatch = rtacHoldingStorageService.getRawRtacHoldingsForInstanceIds(instanceIds, buildSort(sort), limit);
 
-    log.info("Returning batch summary with {} holdings and {} errors", rtacHoldingsBatch.getHoldings().size(), rtacHoldingsBatch.getErrors().size());
-    return new ResponseEntity<>(rtacHoldingsBatch, HttpStatus.OK);
+    log.info("Returning RTAC holdings of {} instances and {} errors", rtacHoldingsDetailsBatch.getInstances().size(),
+      rtacHoldingsDetailsBatch.getErrors().size());
+    return new ResponseEntity<>(rtacHoldingsDetailsBatch, HttpStatus.OK);
   }
 
   @Override
@@ -140,6 +192,10 @@ public class RtacCacheController implements RtacApi {
   }
 
   private Pageable buildPageable(Integer offset, Integer limit, List<String> sort) {
+    return PageRequest.of(offset / limit, limit, buildSort(sort));
+  }
+
+  private Sort buildSort(List<String> sort) {
     Sort sortOrder;
     if (sort == null || sort.isEmpty()) {
       sortOrder = Sort.by(
@@ -172,7 +228,56 @@ public class RtacCacheController implements RtacApi {
       }
       sortOrder = Sort.by(orders);
     }
-    return PageRequest.of(offset / limit, limit, sortOrder);
+    return sortOrder;
+  }
+
+  private RtacHoldingCursor parseContinuationToken(String continuationToken, Sort sort) {
+    if (continuationToken == null) {
+      return null;
+    }
+    RtacHoldingCursor cursor;
+    try {
+      cursor = RtacHoldingCursor.fromToken(continuationToken);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid continuation token", e);
+    }
+    try {
+      cursor.requireSort(sort);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+    }
+    return cursor;
+  }
+
+  /**
+   * Identifies the requested page of a listing, pages of the same instances differ by their sort, offset, limit
+   * and continuation token.
+   */
+  private static String getPageVariant(Sort sort, Integer offset, Integer limit, String continuationToken) {
+    return String.join(";", RtacHoldingCursor.toSortSignature(sort), String.valueOf(offset), String.valueOf(limit),
+      Objects.toString(continuationToken, ""));
+  }
+
+  /**
+   * The entity tag is taken after the lazy load but before the holdings are read, so a write racing with the request
+   * can only make the tag older than the returned holdings, never newer.
+   */
+  private static <T> ResponseEntity<T> withEntityTag(T body, String entityTag) {
+    var response = ResponseEntity.ok();
+    if (entityTag != null) {
+      response.eTag(entityTag);
+    }
+    return response.body(body);
+  }
+
+  private static boolean isNotModified(String ifNoneMatch, String entityTag) {
+    if (ifNoneMatch == null || entityTag == null) {
+      return false;
+    }
+    return Arrays.stream(ifNoneMatch.split(","))
+      .map(String::trim)
+      .map(tag -> tag.startsWith(WEAK_ENTITY_TAG_PREFIX) ? tag.substring(WEAK_ENTITY_TAG_PREFIX.length()) : tag)
+      .anyMatch(tag -> tag.equals("*") || tag.equals(entityTag));
   }
 
   private void validateSortProperty(String property) {
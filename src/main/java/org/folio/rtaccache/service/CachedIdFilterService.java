@@ -0,0 +1,310 @@
+package org.folio.rtaccache.service;
+
+import com.google.common.collect.Lists;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.folio.rtaccache.config.CachedIdFilterProperties;
+import org.folio.rtaccache.domain.RtacHoldingEntity;
+import org.folio.rtaccache.domain.dto.CirculationResourceEvent;
+import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
+import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
+import org.folio.rtaccache.repository.RtacHoldingRepository;
+import org.folio.rtaccache.util.ResourceEventUtil;
+import org.folio.spring.FolioExecutionContext;
+import org.folio.spring.service.SystemUserScopedExecutionService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps a Bloom filter of the cached instance, holdings and item ids of each tenant, so Kafka events of records that
+ * are not cached can be dropped without a query. The filter of a tenant is built from the database in the background
+ * on its first event, until then all events of the tenant pass. Filters are built one after another, so the first
+ * events of a consortium do not scan the tables of all its tenants at once. A scheduled job rebuilds filters that are
+ * older than the rebuild interval or too full.
+ * <p>
+ * Rows written by this module instance are added once committed, so the filter has no false negatives for them. Rows
+ * written by other instances are only seen by the next rebuild, so the ids of dropped events are recorded as well: a
+ * rebuild deletes the cache of instances with rows it finds for the first time and whose events were dropped, they
+ * are loaded again on the next read.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class CachedIdFilterService {
+
+  private static final Funnel<UUID> UUID_FUNNEL = (id, into) -> into
+    .putLong(id.getMostSignificantBits())
+    .putLong(id.getLeastSignificantBits());
+  private static final int INVALIDATION_BATCH_SIZE = 500;
+
+  private final CachedIdFilterProperties properties;
+  private final RtacHoldingBulkRepository holdingBulkRepository;
+  private final RtacHoldingRepository holdingRepository;
+  private final SystemUserScopedExecutionService executionService;
+  private final FolioExecutionContext folioExecutionContext;
+  @Qualifier("applicationTaskExecutor")
+  private final AsyncTaskExecutor taskExecutor;
+  private final Map<String, TenantFilter> filters = new ConcurrentHashMap<>();
+  private final Map<String, BloomFilter<UUID>> pendingFilters = new ConcurrentHashMap<>();
+  private final Queue<PendingBuild> pendingBuilds = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean building = new AtomicBoolean();
+
+  /**
+   * Whether the inventory event may touch cached rows of the tenant, judged by the record, instance, holdings and
+   * item ids of its old and new state.
+   */
+  public boolean mightBeCached(String tenantId, InventoryResourceEvent resourceEvent) {
+    return mightContainAny(tenantId, getIds(resourceEvent.getOld(), resourceEvent.getNew()));
+  }
+
+  /**
+   * Whether the circulation event may touch cached rows of the tenant, judged by the item and instance ids of its
+   * old and new state.
+   */
+  public boolean mightBeCached(String tenantId, CirculationResourceEvent resourceEvent) {
+    var data = resourceEvent.getData();
+    if (data == null) {
+      return true;
+    }
+    return mightContainAny(tenantId, getIds(data.getOld(), data.getNew()));
+  }
+
+  /**
+   * Adds the instance ids and ids of rows written for the current tenant once the rows are committed: right away
+   * without a transaction, otherwise after it has committed. A filter built meanwhile reads the committed rows
+   * itself, and a filter being built receives the ids as well.
+   */
+  public void add(Collection<RtacHoldingEntity> holdings) {
+    if (!properties.isEnabled() || holdings.isEmpty()) {
+      return;
+    }
+    var tenantId = folioExecutionContext.getTenantId();
+    var ids = new HashSet<UUID>();
+    holdings.forEach(holding -> {
+      ids.add(holding.getId().getInstanceId());
+      ids.add(holding.getId().getId());
+    });
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      put(tenantId, ids);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        put(tenantId, ids);
+      }
+    });
+  }
+
+  /**
+   * Rebuilds the filters that are older than the rebuild interval or hold more ids than they are sized for. Events
+   * keep being filtered by the current filter of a tenant until its rebuild is done.
+   */
+  @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+  public void rebuildStaleFilters() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    filters.forEach((tenantId, tenantFilter) -> {
+      if (isStale(tenantFilter)) {
+        scheduleBuild(tenantId, tenantFilter);
+      }
+    });
+  }
+
+  private boolean mightContainAny(String tenantId, Set<UUID> ids) {
+    if (!properties.isEnabled() || tenantId == null || ids.isEmpty()) {
+      return true;
+    }
+    var tenantFilter = filters.get(tenantId);
+    if (tenantFilter == null) {
+      scheduleBuild(tenantId, null);
+      return true;
+    }
+    if (ids.stream().anyMatch(tenantFilter.ids()::mightContain)) {
+      return true;
+    }
+    ids.forEach(tenantFilter.dropped()::put);
+    return false;
+  }
+
+  private boolean isStale(TenantFilter tenantFilter) {
+    var rebuildInterval = properties.getRebuildInterval();
+    if (rebuildInterval != null && !rebuildInterval.isZero()
+      && Duration.between(tenantFilter.builtAt(), Instant.now()).compareTo(rebuildInterval) > 0) {
+      return true;
+    }
+    return tenantFilter.ids().approximateElementCount() > tenantFilter.expectedIds()
+      || tenantFilter.dropped().approximateElementCount() > tenantFilter.expectedIds();
+  }
+
+  private void scheduleBuild(String tenantId, TenantFilter current) {
+    var expectedIds = Math.max(1L, properties.getExpectedIds());
+    if (current != null) {
+      expectedIds = Math.max(expectedIds, 2 * current.ids().approximateElementCount());
+    }
+    var pending = BloomFilter.create(UUID_FUNNEL, expectedIds, properties.getFalsePositiveRate());
+    if (pendingFilters.putIfAbsent(tenantId, pending) != null) {
+      return;
+    }
+    pendingBuilds.add(new PendingBuild(tenantId, pending, expectedIds));
+    runPendingBuilds();
+  }
+
+  /**
+   * Runs the pending builds one after another on a single task of the executor, unless such a task is running.
+   */
+  private void runPendingBuilds() {
+    if (!building.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      taskExecutor.execute(() -> {
+        try {
+          PendingBuild pendingBuild;
+          while ((pendingBuild = pendingBuilds.poll()) != null) {
+            build(pendingBuild);
+          }
+        } finally {
+          building.set(false);
+        }
+        // A build scheduled after the last poll found the task still running
+        if (!pendingBuilds.isEmpty()) {
+          runPendingBuilds();
+        }
+      });
+    } catch (RuntimeException e) {
+      building.set(false);
+      log.warn("Error during scheduling filter builds of cached ids, events of their tenants are not filtered", e);
+      PendingBuild pendingBuild;
+      while ((pendingBuild = pendingBuilds.poll()) != null) {
+        pendingFilters.remove(pendingBuild.tenantId());
+      }
+    }
+  }
+
+  private void build(PendingBuild pendingBuild) {
+    var tenantId = pendingBuild.tenantId();
+    var pending = pendingBuild.ids();
+    var previous = filters.get(tenantId);
+    // Ids the previous filter has never seen belong to rows written by other module instances
+    var newIds = new HashMap<UUID, List<UUID>>();
+    try {
+      executionService.executeSystemUserScoped(tenantId, () -> {
+        holdingBulkRepository.forEachCachedId((instanceId, id) -> {
+          pending.put(instanceId);
+          pending.put(id);
+          if (previous != null && !(previous.ids().mightContain(instanceId) && previous.ids().mightContain(id))) {
+            newIds.computeIfAbsent(instanceId, k -> new ArrayList<>()).add(id);
+          }
+        });
+        return null;
+      });
+      filters.put(tenantId, new TenantFilter(pending, newDroppedIds(pendingBuild.expectedIds()),
+        previous == null ? null : previous.dropped(), pendingBuild.expectedIds(), Instant.now()));
+      log.info("Built filter of cached ids of tenant: {} with about {} ids", tenantId,
+        pending.approximateElementCount());
+    } catch (Exception e) {
+      log.warn("Error during building filter of cached ids of tenant: {}, its events are not filtered", tenantId, e);
+      return;
+    } finally {
+      pendingFilters.remove(tenantId);
+    }
+    if (previous != null) {
+      invalidateInstancesWithDroppedEvents(tenantId, previous, newIds);
+    }
+  }
+
+  /**
+   * Deletes the cache of instances whose rows were new to the previous filter of the tenant and which had events
+   * dropped by it, the dropped events may have changed them. Rows written after the previous build read the table
+   * may have had events dropped by the filter before, so its dropped ids are checked too.
+   */
+  private void invalidateInstancesWithDroppedEvents(String tenantId, TenantFilter previous,
+    Map<UUID, List<UUID>> newIds) {
+    var instanceIds = newIds.entrySet().stream()
+      .filter(entry -> previous.wasDropped(entry.getKey()) || entry.getValue().stream().anyMatch(previous::wasDropped))
+      .map(Map.Entry::getKey)
+      .toList();
+    if (instanceIds.isEmpty()) {
+      return;
+    }
+    try {
+      executionService.executeSystemUserScoped(tenantId, () -> {
+        Lists.partition(instanceIds, INVALIDATION_BATCH_SIZE).forEach(holdingRepository::deleteAllByIdInstanceIdIn);
+        return null;
+      });
+      log.info("Deleted RTAC cache of {} instances of tenant: {} whose events were dropped before their rows were "
+        + "seen", instanceIds.size(), tenantId);
+    } catch (Exception e) {
+      log.error("Error during deleting RTAC cache of instances: {} of tenant: {} whose events were dropped",
+        instanceIds, tenantId, e);
+    }
+  }
+
+  private BloomFilter<UUID> newDroppedIds(long expectedIds) {
+    return BloomFilter.create(UUID_FUNNEL, expectedIds, properties.getFalsePositiveRate());
+  }
+
+  private void put(String tenantId, Set<UUID> ids) {
+    var tenantFilter = filters.get(tenantId);
+    var pending = pendingFilters.get(tenantId);
+    ids.forEach(id -> {
+      if (tenantFilter != null) {
+        tenantFilter.ids().put(id);
+      }
+      if (pending != null) {
+        pending.put(id);
+      }
+    });
+  }
+
+  private static Set<UUID> getIds(Object... payloads) {
+    var ids = new HashSet<UUID>();
+    for (var payload : payloads) {
+      for (var id : ResourceEventUtil.getReferencedIds(payload)) {
+        try {
+          ids.add(UUID.fromString(id));
+        } catch (IllegalArgumentException e) {
+          log.debug("Ignoring id of event payload, it is not a UUID: {}", id);
+        }
+      }
+    }
+    return ids;
+  }
+
+  /**
+   * The cached ids of a tenant, the ids of the events it dropped and the ids the filter it replaced dropped.
+   */
+  private record TenantFilter(BloomFilter<UUID> ids, BloomFilter<UUID> dropped, BloomFilter<UUID> droppedBefore,
+                              long expectedIds, Instant builtAt) {
+
+    private boolean wasDropped(UUID id) {
+      return dropped.mightContain(id) || droppedBefore != null && droppedBefore.mightContain(id);
+    }
+  }
+
+  private record PendingBuild(String tenantId, BloomFilter<UUID> ids, long expectedIds) {
+  }
+}
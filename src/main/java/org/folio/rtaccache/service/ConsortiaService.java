@@ -23,8 +23,26 @@ public class ConsortiaService {
   public static final String CONSORTIA_TENANTS_CACHE = "consortiaTenantsCache";
   public static final int CONSORTIA_TENANTS_LIMIT = 1000;
 
-  @Cacheable(value = IS_CENTRAL_TENANT_CACHE, key = "@folioExecutionContext.getTenantId()")
+  @Cacheable(value = IS_CENTRAL_TENANT_CACHE, key = "@folioExecutionContext.getTenantId()", sync = true)
   public boolean isCentralTenant() {
+    return loadIsCentralTenant();
+  }
+
+  @Cacheable(value = CONSORTIA_TENANTS_CACHE, key = "@folioExecutionContext.getTenantId()", sync = true)
+  public List<String> getConsortiaTenants() {
+    return loadConsortiaTenants();
+  }
+
+  @Cacheable(value = CENTRAL_TENANT_CACHE, key = "@folioExecutionContext.getTenantId()", sync = true)
+  public Optional<String> getCentralTenantId() {
+    return loadCentralTenantId();
+  }
+
+  /**
+   * Loads the consortium topology of the current tenant bypassing the cache. The load methods are used by the cached
+   * getters and by the background refresh of the cached values.
+   */
+  public boolean loadIsCentralTenant() {
     var userTenants = userClient.getUserTenants();
     if (userTenants.getTotalRecords() == 0) {
       return false;
@@ -32,8 +50,7 @@ public class ConsortiaService {
     return folioExecutionContext.getTenantId().equals(userTenants.getUserTenants().get(0).getCentralTenantId());
   }
 
-  @Cacheable(value = CONSORTIA_TENANTS_CACHE, key = "@folioExecutionContext.getTenantId()")
-  public List<String> getConsortiaTenants() {
+  public List<String> loadConsortiaTenants() {
     var userTenants = userClient.getUserTenants();
     if (userTenants.getTotalRecords() == 0) {
       return Collections.emptyList();
@@ -45,8 +62,7 @@ public class ConsortiaService {
       .toList();
   }
 
-  @Cacheable(value = CENTRAL_TENANT_CACHE, key = "@folioExecutionContext.getTenantId()")
-  public Optional<String> getCentralTenantId() {
+  public Optional<String> loadCentralTenantId() {
     var userTenants = userClient.getUserTenants();
     if (userTenants.getTotalRecords() == 0) {
       return Optional.empty();
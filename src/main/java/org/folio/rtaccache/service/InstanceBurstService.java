@@ -0,0 +1,161 @@
+package org.folio.rtaccache.service;
+
+import com.google.common.collect.Lists;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.folio.rtaccache.config.InstanceBurstProperties;
+import org.folio.rtaccache.domain.dto.HoldingsRecord;
+import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
+import org.folio.rtaccache.domain.kafka.KafkaItem;
+import org.folio.spring.service.SystemUserScopedExecutionService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Counts the holdings and item events of each instance, so moving thousands of items or a batch update of inventory
+ * does not patch the cache of the same instance once per event. Once an instance gets more events within the window
+ * than the threshold, its events are dropped and its cache is deleted a single time when the events have calmed down,
+ * it is loaded again on the next read.
+ *
+ * <p>The events are counted in memory of each module instance, which only sees the events of its own Kafka
+ * partitions. With N module instances sharing the events of an instance, it takes up to N times the threshold of
+ * events for the instance to be in a burst, and the cache of an instance in a burst on one module instance may be
+ * patched by events of another until the cache is deleted, at the latest after the maximum delay.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class InstanceBurstService {
+
+  private static final int DELETE_BATCH_SIZE = 500;
+
+  private final InstanceBurstProperties properties;
+  private final RtacHoldingStorageService holdingStorageService;
+  private final SystemUserScopedExecutionService executionService;
+  private final Map<InstanceKey, EventWindow> windows = new ConcurrentHashMap<>();
+  private final Map<InstanceKey, DirtyInstance> dirtyInstances = new ConcurrentHashMap<>();
+
+  /**
+   * Counts the holdings or item event against the instances it belongs to, before and after a move. Returns whether
+   * one of them is in a burst, the event need not be applied then as the cache of all of them is deleted once the
+   * burst is over. An event redelivered after a failed poll is counted once.
+   */
+  public boolean absorb(String tenantId, InventoryResourceEvent resourceEvent) {
+    if (!properties.isEnabled() || tenantId == null) {
+      return false;
+    }
+    var instanceIds = getInstanceIds(resourceEvent);
+    if (instanceIds.isEmpty()) {
+      return false;
+    }
+    var now = Instant.now();
+    var eventId = resourceEvent.getEventId() != null ? resourceEvent.getEventId() : UUID.randomUUID().toString();
+    var bursting = false;
+    for (var instanceId : instanceIds) {
+      var key = new InstanceKey(tenantId, instanceId);
+      var eventWindow = windows.compute(key, (k, current) -> {
+        var window = current == null || isOver(current, now) ? new EventWindow(now, new HashSet<>()) : current;
+        // The ids are kept up to the threshold only, beyond it the instance is in a burst anyway
+        if (window.count() <= properties.getThreshold()) {
+          window.eventIds().add(eventId);
+        }
+        return window;
+      });
+      bursting |= eventWindow.count() > properties.getThreshold() || dirtyInstances.containsKey(key);
+    }
+    if (bursting) {
+      instanceIds.forEach(instanceId -> dirtyInstances.compute(new InstanceKey(tenantId, instanceId),
+        (key, current) -> new DirtyInstance(current == null ? now : current.since(), now)));
+    }
+    return bursting;
+  }
+
+  /**
+   * Deletes the cache of instances whose burst is over or has lasted longer than the maximum delay, and forgets the
+   * event counts of past windows.
+   */
+  @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.SECONDS)
+  public void invalidateInstancesAfterBurst() {
+    var now = Instant.now();
+    windows.values().removeIf(eventWindow -> isOver(eventWindow, now));
+    var instanceIdsByTenant = new HashMap<String, List<UUID>>();
+    dirtyInstances.forEach((key, dirtyInstance) -> {
+      if (isDue(dirtyInstance, now) && dirtyInstances.remove(key, dirtyInstance)) {
+        instanceIdsByTenant.computeIfAbsent(key.tenantId(), tenantId -> new ArrayList<>()).add(key.instanceId());
+      }
+    });
+    instanceIdsByTenant.forEach(this::invalidate);
+  }
+
+  private void invalidate(String tenantId, List<UUID> instanceIds) {
+    try {
+      executionService.executeSystemUserScoped(tenantId, () -> {
+        Lists.partition(instanceIds, DELETE_BATCH_SIZE).forEach(holdingStorageService::deleteByInstanceIds);
+        return null;
+      });
+      log.info("Deleted RTAC cache of {} instances of tenant: {} after a burst of events", instanceIds.size(),
+        tenantId);
+    } catch (Exception e) {
+      log.error("Error during deleting RTAC cache of instances: {} of tenant: {} after a burst of events",
+        instanceIds, tenantId, e);
+    }
+  }
+
+  private boolean isOver(EventWindow eventWindow, Instant now) {
+    return Duration.between(eventWindow.startedAt(), now).compareTo(properties.getWindow()) >= 0;
+  }
+
+  private boolean isDue(DirtyInstance dirtyInstance, Instant now) {
+    return Duration.between(dirtyInstance.lastEventAt(), now).compareTo(properties.getDebounce()) >= 0
+      || Duration.between(dirtyInstance.since(), now).compareTo(properties.getMaxDelay()) >= 0;
+  }
+
+  private static Set<UUID> getInstanceIds(InventoryResourceEvent resourceEvent) {
+    var instanceIds = new LinkedHashSet<UUID>(2);
+    for (var payload : new Object[] {resourceEvent.getOld(), resourceEvent.getNew()}) {
+      var instanceId = switch (payload) {
+        case HoldingsRecord holdingsRecord -> holdingsRecord.getInstanceId();
+        case KafkaItem item -> item.getInstanceId();
+        case Map<?, ?> map when map.get("instanceId") != null -> map.get("instanceId").toString();
+        case null, default -> null;
+      };
+      if (instanceId == null) {
+        continue;
+      }
+      try {
+        instanceIds.add(UUID.fromString(instanceId));
+      } catch (IllegalArgumentException e) {
+        log.debug("Ignoring instance id of event payload, it is not a UUID: {}", instanceId);
+      }
+    }
+    return instanceIds;
+  }
+
+  private record InstanceKey(String tenantId, UUID instanceId) {
+  }
+
+  /**
+   * Ids of the events counted within a window, changed only within a compute of the window map.
+   */
+  private record EventWindow(Instant startedAt, Set<String> eventIds) {
+
+    int count() {
+      return eventIds.size();
+    }
+  }
+
+  private record DirtyInstance(Instant since, Instant lastEventAt) {
+  }
+}
@@ -1,13 +1,26 @@
 package org.folio.rtaccache.service;
 
+import static org.folio.rtaccache.constant.RtacCacheConstant.HOLDINGS_NOTE_CACHE_KEY_PREFIX;
 import static org.folio.rtaccache.constant.RtacCacheConstant.HOLDINGS_NOTE_CACHE_NAME;
+import static org.folio.rtaccache.constant.RtacCacheConstant.LIBRARY_CACHE_KEY_PREFIX;
 import static org.folio.rtaccache.constant.RtacCacheConstant.LIBRARY_CACHE_NAME;
+import static org.folio.rtaccache.constant.RtacCacheConstant.LOAN_TYPES_CACHE_KEY_PREFIX;
 import static org.folio.rtaccache.constant.RtacCacheConstant.LOAN_TYPES_CACHE_NAME;
+import static org.folio.rtaccache.constant.RtacCacheConstant.LOCATIONS_CACHE_KEY_PREFIX;
 import static org.folio.rtaccache.constant.RtacCacheConstant.LOCATIONS_CACHE_NAME;
+import static org.folio.rtaccache.constant.RtacCacheConstant.MATERIAL_TYPES_CACHE_KEY_PREFIX;
 import static org.folio.rtaccache.constant.RtacCacheConstant.MATERIAL_TYPES_CACHE_NAME;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
 import org.folio.rtaccache.client.InventoryClient;
 import org.folio.rtaccache.domain.dto.HoldingsNoteType;
 import org.folio.rtaccache.domain.dto.LoanType;
@@ -15,20 +28,38 @@ import org.folio.rtaccache.domain.dto.Location;
 import org.folio.rtaccache.domain.dto.Loclib;
 import org.folio.rtaccache.domain.dto.MaterialType;
 import org.folio.rtaccache.util.QueryParametersUtil;
+import org.folio.spring.FolioExecutionContext;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
+@Log4j2
 public class InventoryReferenceDataService {
 
+  private static final int MAX_LOAD_ATTEMPTS = 3;
+
   private final InventoryClient inventoryClient;
   private final QueryParametersUtil queryParametersUtil;
+  private final CacheManager cacheManager;
+  private final FolioExecutionContext folioExecutionContext;
+  private final Lock cachePatchLock = new ReentrantLock();
+  private final Map<String, AtomicLong> patchCounts = new ConcurrentHashMap<>();
 
   @Cacheable(value = LOCATIONS_CACHE_NAME,
-    key = "'locations'.concat('_').concat(@folioExecutionContext.getTenantId())",
-    unless = "#result == null || #result.isEmpty()")
+    key = "T(org.folio.rtaccache.constant.RtacCacheConstant).LOCATIONS_CACHE_KEY_PREFIX"
+      + " + '_' + @folioExecutionContext.getTenantId()",
+    sync = true)
   public Map<String, Location> getLocationsMap() {
+    return loadUnpatched(LOCATIONS_CACHE_KEY_PREFIX, this::loadLocationsMap);
+  }
+
+  /**
+   * Loads the locations of the current tenant bypassing the cache. The load methods are used by the cached getters
+   * and by the background refresh of the cached maps.
+   */
+  public Map<String, Location> loadLocationsMap() {
     var queryParametersMap = queryParametersUtil.toMap(null, Integer.MAX_VALUE, 0);
     return inventoryClient.getLocations(queryParametersMap)
       .getLocations()
@@ -42,9 +73,14 @@ public class InventoryReferenceDataService {
   }
 
   @Cacheable(value = LIBRARY_CACHE_NAME,
-    key = "'library'.concat('_').concat(@folioExecutionContext.getTenantId())",
-    unless = "#result == null || #result.isEmpty()")
+    key = "T(org.folio.rtaccache.constant.RtacCacheConstant).LIBRARY_CACHE_KEY_PREFIX"
+      + " + '_' + @folioExecutionContext.getTenantId()",
+    sync = true)
   public Map<String, Loclib> getLibraryMap() {
+    return loadUnpatched(LIBRARY_CACHE_KEY_PREFIX, this::loadLibraryMap);
+  }
+
+  public Map<String, Loclib> loadLibraryMap() {
     var queryParametersMap = queryParametersUtil.toMap(null, Integer.MAX_VALUE, 0);
     return inventoryClient.getLibraries(queryParametersMap)
       .getLoclibs()
@@ -58,9 +94,14 @@ public class InventoryReferenceDataService {
   }
 
   @Cacheable(value = MATERIAL_TYPES_CACHE_NAME,
-    key = "'materialTypes'.concat('_').concat(@folioExecutionContext.getTenantId())",
-    unless = "#result == null || #result.isEmpty()")
+    key = "T(org.folio.rtaccache.constant.RtacCacheConstant).MATERIAL_TYPES_CACHE_KEY_PREFIX"
+      + " + '_' + @folioExecutionContext.getTenantId()",
+    sync = true)
   public Map<String, MaterialType> getMaterialTypesMap() {
+    return loadUnpatched(MATERIAL_TYPES_CACHE_KEY_PREFIX, this::loadMaterialTypesMap);
+  }
+
+  public Map<String, MaterialType> loadMaterialTypesMap() {
     var queryParametersMap = queryParametersUtil.toMap(null, Integer.MAX_VALUE, 0);
     return inventoryClient.getMaterialTypes(queryParametersMap)
       .getMtypes()
@@ -74,9 +115,14 @@ public class InventoryReferenceDataService {
   }
 
   @Cacheable(value = LOAN_TYPES_CACHE_NAME,
-    key = "'loanTypes'.concat('_').concat(@folioExecutionContext.getTenantId())",
-    unless = "#result == null || #result.isEmpty()")
+    key = "T(org.folio.rtaccache.constant.RtacCacheConstant).LOAN_TYPES_CACHE_KEY_PREFIX"
+      + " + '_' + @folioExecutionContext.getTenantId()",
+    sync = true)
   public Map<String, LoanType> getLoanTypesMap() {
+    return loadUnpatched(LOAN_TYPES_CACHE_KEY_PREFIX, this::loadLoanTypesMap);
+  }
+
+  public Map<String, LoanType> loadLoanTypesMap() {
     var queryParametersMap = queryParametersUtil.toMap(null, Integer.MAX_VALUE, 0);
     return inventoryClient.getLoanTypes(queryParametersMap)
       .getLoantypes()
@@ -90,9 +136,14 @@ public class InventoryReferenceDataService {
   }
 
   @Cacheable(value = HOLDINGS_NOTE_CACHE_NAME,
-    key = "'holdingsNotesTypes'.concat('_').concat(@folioExecutionContext.getTenantId())",
-    unless = "#result == null || #result.isEmpty()")
+    key = "T(org.folio.rtaccache.constant.RtacCacheConstant).HOLDINGS_NOTE_CACHE_KEY_PREFIX"
+      + " + '_' + @folioExecutionContext.getTenantId()",
+    sync = true)
   public Map<String, HoldingsNoteType> getHoldingsNoteTypesMap() {
+    return loadUnpatched(HOLDINGS_NOTE_CACHE_KEY_PREFIX, this::loadHoldingsNoteTypesMap);
+  }
+
+  public Map<String, HoldingsNoteType> loadHoldingsNoteTypesMap() {
     var queryParametersMap = queryParametersUtil.toMap(null, Integer.MAX_VALUE, 0);
     return inventoryClient.getHoldingsNoteTypes(queryParametersMap)
       .getHoldingsNoteTypes()
@@ -105,4 +156,111 @@ public class InventoryReferenceDataService {
       );
   }
 
+  public void putLocation(Location location) {
+    putCachedEntry(LOCATIONS_CACHE_NAME, LOCATIONS_CACHE_KEY_PREFIX, location == null ? null : location.getId(), location);
+  }
+
+  public void removeLocation(Location location) {
+    removeCachedEntry(LOCATIONS_CACHE_NAME, LOCATIONS_CACHE_KEY_PREFIX, location == null ? null : location.getId());
+  }
+
+  public void putLibrary(Loclib library) {
+    putCachedEntry(LIBRARY_CACHE_NAME, LIBRARY_CACHE_KEY_PREFIX, library == null ? null : library.getId(), library);
+  }
+
+  public void removeLibrary(Loclib library) {
+    removeCachedEntry(LIBRARY_CACHE_NAME, LIBRARY_CACHE_KEY_PREFIX, library == null ? null : library.getId());
+  }
+
+  public void putMaterialType(MaterialType materialType) {
+    putCachedEntry(MATERIAL_TYPES_CACHE_NAME, MATERIAL_TYPES_CACHE_KEY_PREFIX,
+      materialType == null ? null : materialType.getId(), materialType);
+  }
+
+  public void removeMaterialType(MaterialType materialType) {
+    removeCachedEntry(MATERIAL_TYPES_CACHE_NAME, MATERIAL_TYPES_CACHE_KEY_PREFIX,
+      materialType == null ? null : materialType.getId());
+  }
+
+  public void putLoanType(LoanType loanType) {
+    putCachedEntry(LOAN_TYPES_CACHE_NAME, LOAN_TYPES_CACHE_KEY_PREFIX, loanType == null ? null : loanType.getId(), loanType);
+  }
+
+  public void removeLoanType(LoanType loanType) {
+    removeCachedEntry(LOAN_TYPES_CACHE_NAME, LOAN_TYPES_CACHE_KEY_PREFIX, loanType == null ? null : loanType.getId());
+  }
+
+  private <T> void putCachedEntry(String cacheName, String keyPrefix, String id, T value) {
+    patchCachedMap(cacheName, keyPrefix, id, map -> map.put(id, value));
+  }
+
+  private void removeCachedEntry(String cacheName, String keyPrefix, String id) {
+    patchCachedMap(cacheName, keyPrefix, id, map -> map.remove(id));
+  }
+
+  /**
+   * Loads a map to be cached and loads it again when an event patched the map of the tenant meanwhile. Such a patch
+   * finds nothing cached to apply to while the first load is in flight, and the loaded map may predate its change.
+   */
+  private <T> Map<String, T> loadUnpatched(String keyPrefix, Supplier<Map<String, T>> loader) {
+    var patchCount = getPatchCount(cacheKey(keyPrefix));
+    for (var attempt = 1; ; attempt++) {
+      var patchesBeforeLoad = patchCount.get();
+      var map = loader.get();
+      if (patchCount.get() == patchesBeforeLoad) {
+        return map;
+      }
+      if (attempt == MAX_LOAD_ATTEMPTS) {
+        log.warn("Reference data {} kept changing while loaded, caching the last load", keyPrefix);
+        return map;
+      }
+      log.debug("Reference data {} changed while loaded, loading again", keyPrefix);
+    }
+  }
+
+  /**
+   * Patches the cached map of the current tenant with a single entry of an event. The cached map is shared with
+   * reference data snapshots, so it is replaced by a patched copy rather than modified. A map that is not cached is
+   * left to be loaded on the next lookup, and a load in flight is repeated to include the change of the event. An
+   * event without an id evicts the map of the tenant to have it reloaded in full.
+   */
+  private <T> void patchCachedMap(String cacheName, String keyPrefix, String id, Consumer<Map<String, T>> patch) {
+    var cache = cacheManager.getCache(cacheName);
+    if (cache == null) {
+      return;
+    }
+    var key = cacheKey(keyPrefix);
+    getPatchCount(key).incrementAndGet();
+    if (id == null) {
+      log.warn("Reference data event without id, evicting cached {} of tenant: {}", cacheName,
+        folioExecutionContext.getTenantId());
+      cache.evict(key);
+      return;
+    }
+    cachePatchLock.lock();
+    try {
+      var cached = cache.get(key);
+      if (cached == null || !(cached.get() instanceof Map<?, ?> cachedMap)) {
+        return;
+      }
+      @SuppressWarnings("unchecked")
+      var patched = new HashMap<>((Map<String, T>) cachedMap);
+      patch.accept(patched);
+      if (patched.isEmpty()) {
+        cache.evict(key);
+      } else {
+        cache.put(key, patched);
+      }
+    } finally {
+      cachePatchLock.unlock();
+    }
+  }
+
+  private AtomicLong getPatchCount(String key) {
+    return patchCounts.computeIfAbsent(key, k -> new AtomicLong());
+  }
+
+  private String cacheKey(String keyPrefix) {
+    return keyPrefix + "_" + folioExecutionContext.getTenantId();
+  }
 }
@@ -0,0 +1,146 @@
+package org.folio.rtaccache.service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.folio.rtaccache.domain.ItemDueDate;
+import org.folio.rtaccache.domain.dto.CirculationEntityType;
+import org.folio.rtaccache.domain.dto.CirculationResourceEvent;
+import org.folio.rtaccache.domain.dto.InventoryEntityType;
+import org.folio.rtaccache.domain.dto.InventoryEventType;
+import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
+import org.folio.rtaccache.domain.exception.RtacKafkaUpdateException;
+import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
+import org.folio.rtaccache.service.handler.EventHandlerFactory;
+import org.folio.rtaccache.service.handler.LoanEventHandler;
+import org.folio.rtaccache.util.ResourceEventUtil;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Applies the events of one poll of a batch listener for a single tenant. Updates of the same record within the poll
+ * are collapsed first, so bulk edits and check-in rushes rewrite each cached row once per poll instead of once per
+ * event.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class KafkaEventBatchService {
+
+  private final EventHandlerFactory eventHandlerFactory;
+  private final RtacHoldingBulkRepository holdingRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Collapses consecutive update events of the same record into one event with the old state of the first and the
+   * new state of the last update, so moves and changed fields are still detected against the state before the poll.
+   * Create and delete events are kept as they are and end the collapsing of their record, the order of the events of
+   * a record is preserved.
+   */
+  public List<InventoryResourceEvent> coalesce(List<InventoryResourceEvent> resourceEvents) {
+    var coalesced = new ArrayList<InventoryResourceEvent>(resourceEvents.size());
+    var pendingUpdates = new HashMap<String, Integer>();
+    for (var resourceEvent : resourceEvents) {
+      var recordId = getRecordId(resourceEvent);
+      if (recordId == null) {
+        coalesced.add(resourceEvent);
+        continue;
+      }
+      if (resourceEvent.getType() != InventoryEventType.UPDATE) {
+        pendingUpdates.remove(recordId);
+        coalesced.add(resourceEvent);
+        continue;
+      }
+      var pendingIndex = pendingUpdates.get(recordId);
+      if (pendingIndex == null) {
+        pendingUpdates.put(recordId, coalesced.size());
+        coalesced.add(resourceEvent);
+      } else {
+        coalesced.set(pendingIndex, merge(coalesced.get(pendingIndex), resourceEvent));
+      }
+    }
+    if (coalesced.size() < resourceEvents.size()) {
+      log.debug("Coalesced {} inventory events into {}", resourceEvents.size(), coalesced.size());
+    }
+    return coalesced;
+  }
+
+  /**
+   * Handles the coalesced inventory events of the current tenant in a single transaction. If it fails, the events are
+   * handled again one by one, each in its own transaction, so a single broken event does not discard the rest of the
+   * poll. Writes outside the database, like the instance tenant directory and the cached id filters, are made after
+   * commit, so the failed transaction leaves none of them behind to be made a second time.
+   */
+  public void handleInventoryEvents(List<InventoryResourceEvent> resourceEvents, InventoryEntityType entityType) {
+    var coalesced = coalesce(resourceEvents);
+    try {
+      transactionTemplate.executeWithoutResult(status ->
+        coalesced.forEach(resourceEvent -> handleInventoryEvent(resourceEvent, entityType)));
+    } catch (Exception e) {
+      log.warn("Error during handling batch of {} {} events, handling them one by one", coalesced.size(), entityType,
+        e);
+      coalesced.forEach(resourceEvent -> {
+        try {
+          transactionTemplate.executeWithoutResult(status -> handleInventoryEvent(resourceEvent, entityType));
+        } catch (Exception ex) {
+          log.error("Error during handling {} {} event: {}", entityType, resourceEvent.getType(),
+            resourceEvent.getEventId(), ex);
+        }
+      });
+    }
+  }
+
+  /**
+   * Applies the loan events of the current tenant with one statement. Every loan event sets the due date of its item
+   * as a whole, so only the last due date of each item is written.
+   */
+  public void handleLoanEvents(List<CirculationResourceEvent> resourceEvents) {
+    var itemDueDates = new LinkedHashMap<UUID, ItemDueDate>();
+    for (var resourceEvent : resourceEvents) {
+      eventHandlerFactory.getCirculationHandler(resourceEvent.getType(), CirculationEntityType.LOAN)
+        .filter(LoanEventHandler.class::isInstance)
+        .map(LoanEventHandler.class::cast)
+        .flatMap(handler -> handler.getItemDueDate(resourceEvent))
+        .ifPresent(itemDueDate -> itemDueDates.put(itemDueDate.itemId(), itemDueDate));
+    }
+    if (itemDueDates.isEmpty()) {
+      return;
+    }
+    log.debug("Updating due dates of {} items from {} loan events", itemDueDates.size(), resourceEvents.size());
+    try {
+      holdingRepository.updateItemsDueDates(new ArrayList<>(itemDueDates.values()));
+    } catch (SQLException e) {
+      log.error("Error during updating RTAC holdings with due dates of {} items", itemDueDates.size(), e);
+      throw new RtacKafkaUpdateException(e);
+    }
+  }
+
+  /**
+   * Returns the id of the record of the event, taken from its new or, for deletes, its old state.
+   */
+  public String getRecordId(InventoryResourceEvent resourceEvent) {
+    var payload = resourceEvent.getNew() != null ? resourceEvent.getNew() : resourceEvent.getOld();
+    return ResourceEventUtil.getRecordId(payload);
+  }
+
+  private void handleInventoryEvent(InventoryResourceEvent resourceEvent, InventoryEntityType entityType) {
+    eventHandlerFactory.getInventoryHandler(resourceEvent.getType(), entityType)
+      .ifPresent(handler -> handler.handle(resourceEvent));
+  }
+
+  private static InventoryResourceEvent merge(InventoryResourceEvent first, InventoryResourceEvent last) {
+    return new InventoryResourceEvent()
+      .eventId(last.getEventId())
+      .type(last.getType())
+      .tenant(last.getTenant())
+      .eventTs(last.getEventTs())
+      .old(first.getOld())
+      ._new(last.getNew());
+  }
+
+}
@@ -0,0 +1,179 @@
+package org.folio.rtaccache.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.log4j.Log4j2;
+import org.folio.rtaccache.config.EventDispatchProperties;
+import org.folio.rtaccache.domain.exception.RtacKafkaUpdateException;
+import org.folio.spring.service.SystemUserScopedExecutionService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the work of Kafka listeners on ordered lanes. Work is assigned to a lane by tenant and key, each lane runs its
+ * work one after another on a virtual thread, so events of the same record are applied in the order they were
+ * consumed. Lanes are bounded: dispatching to a full lane blocks the listener, which stops its consumer from polling
+ * until the lane catches up. The listeners wait for their work before they return, so offsets are committed only
+ * after the events have been processed, and failed work is retried by the listener container.
+ */
+@Log4j2
+@Service
+public class KafkaEventDispatcher {
+
+  private final SystemUserScopedExecutionService executionService;
+  private final List<Lane> lanes;
+
+  public KafkaEventDispatcher(SystemUserScopedExecutionService executionService,
+                              EventDispatchProperties eventDispatchProperties) {
+    this.executionService = executionService;
+    var laneCount = Math.max(1, eventDispatchProperties.getLanes());
+    var laneCapacity = Math.max(1, eventDispatchProperties.getLaneCapacity());
+    this.lanes = new ArrayList<>(laneCount);
+    for (var i = 0; i < laneCount; i++) {
+      var lane = new Lane(i, new ArrayBlockingQueue<>(laneCapacity));
+      lane.start();
+      lanes.add(lane);
+    }
+  }
+
+  /**
+   * Queues the action on the lane of the tenant and key and runs it within the scope of the tenant.
+   *
+   * @return future completed once the action has run
+   */
+  public CompletableFuture<Void> dispatch(String tenantId, String key, Runnable action) {
+    return enqueue(getLane(tenantId, key), tenantId, action);
+  }
+
+  /**
+   * Splits the items by the lane of the tenant and their key and queues the action once per lane with its items, in
+   * the order they were given. Items of the same key are handled by the same action, after the work dispatched for
+   * their key before, while items of other lanes are handled in parallel.
+   *
+   * @return futures completed once the actions have run
+   */
+  public <T> List<CompletableFuture<Void>> dispatchAll(String tenantId, List<T> items, Function<T, String> keyExtractor,
+                                                      Consumer<List<T>> action) {
+    var itemsByLane = new LinkedHashMap<Lane, List<T>>();
+    items.forEach(item -> itemsByLane.computeIfAbsent(getLane(tenantId, keyExtractor.apply(item)),
+      lane -> new ArrayList<>()).add(item));
+    var futures = new ArrayList<CompletableFuture<Void>>(itemsByLane.size());
+    itemsByLane.forEach((lane, laneItems) -> futures.add(enqueue(lane, tenantId, () -> action.accept(laneItems))));
+    return futures;
+  }
+
+  /**
+   * Waits until all dispatched actions have run and rethrows their failures afterwards, so the listener container
+   * retries the records or hands them to its recoverer.
+   */
+  public void await(Collection<CompletableFuture<Void>> futures) {
+    RtacKafkaUpdateException failure = null;
+    for (var future : futures) {
+      try {
+        future.join();
+      } catch (CompletionException e) {
+        if (failure == null) {
+          failure = new RtacKafkaUpdateException("Error during handling Kafka events", e.getCause());
+        } else {
+          failure.addSuppressed(e.getCause());
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    lanes.forEach(Lane::stop);
+  }
+
+  private Lane getLane(String tenantId, String key) {
+    return lanes.get(Math.floorMod(Objects.hash(tenantId, key), lanes.size()));
+  }
+
+  private CompletableFuture<Void> enqueue(Lane lane, String tenantId, Runnable action) {
+    var future = new CompletableFuture<Void>();
+    lane.enqueue(() -> {
+      try {
+        executionService.executeSystemUserScoped(tenantId, () -> {
+          action.run();
+          return null;
+        });
+        future.complete(null);
+      } catch (Throwable e) {
+        future.completeExceptionally(e);
+      }
+    });
+    return future;
+  }
+
+  private static final class Lane implements Runnable {
+
+    private final int index;
+    private final BlockingQueue<Runnable> queue;
+    private Thread thread;
+
+    private Lane(int index, BlockingQueue<Runnable> queue) {
+      this.index = index;
+      this.queue = queue;
+    }
+
+    private void start() {
+      thread = Thread.ofVirtual().name("kafka-event-lane-" + index).start(this);
+    }
+
+    private void stop() {
+      thread.interrupt();
+    }
+
+    private void enqueue(Runnable task) {
+      if (queue.offer(task)) {
+        return;
+      }
+      log.debug("Kafka event lane {} is full, blocking the listener until it has room", index);
+      try {
+        queue.put(task);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for Kafka event lane " + index, e);
+      }
+    }
+
+    @Override
+    public void run() {
+      while (!Thread.currentThread().isInterrupted()) {
+        Runnable task;
+        try {
+          task = queue.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        runTask(task);
+      }
+    }
+
+    /**
+     * Runs a task without letting it end the lane, as the tasks queued after it would never run and their listeners
+     * would wait for them forever.
+     */
+    private void runTask(Runnable task) {
+      try {
+        task.run();
+      } catch (Throwable e) {
+        log.error("Unexpected error on Kafka event lane {}", index, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package org.folio.rtaccache.service;
+
+import static org.folio.rtaccache.constant.RtacCacheConstant.HOLDINGS_NOTE_CACHE_KEY_PREFIX;
+import static org.folio.rtaccache.constant.RtacCacheConstant.HOLDINGS_NOTE_CACHE_NAME;
+import static org.folio.rtaccache.constant.RtacCacheConstant.LIBRARY_CACHE_KEY_PREFIX;
+import static org.folio.rtaccache.constant.RtacCacheConstant.LIBRARY_CACHE_NAME;
+import static org.folio.rtaccache.constant.RtacCacheConstant.LOAN_TYPES_CACHE_KEY_PREFIX;
+import static org.folio.rtaccache.constant.RtacCacheConstant.LOAN_TYPES_CACHE_NAME;
+import static org.folio.rtaccache.constant.RtacCacheConstant.LOCATIONS_CACHE_KEY_PREFIX;
+import static org.folio.rtaccache.constant.RtacCacheConstant.LOCATIONS_CACHE_NAME;
+import static org.folio.rtaccache.constant.RtacCacheConstant.MATERIAL_TYPES_CACHE_KEY_PREFIX;
+import static org.folio.rtaccache.constant.RtacCacheConstant.MATERIAL_TYPES_CACHE_NAME;
+import static org.folio.rtaccache.service.ConsortiaService.CENTRAL_TENANT_CACHE;
+import static org.folio.rtaccache.service.ConsortiaService.CONSORTIA_TENANTS_CACHE;
+import static org.folio.rtaccache.service.ConsortiaService.IS_CENTRAL_TENANT_CACHE;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.folio.spring.service.SystemUserScopedExecutionService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reloads entries of the in-memory caches in the background once they are older than their refresh age. The cache
+ * keys hold the tenant of an entry, so the value is loaded again within the scope of that tenant. The services are
+ * looked up lazily, because they depend on the cache manager that depends on this reloader.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class LocalCacheReloader {
+
+  public static final List<String> CACHE_NAMES = List.of(IS_CENTRAL_TENANT_CACHE, CONSORTIA_TENANTS_CACHE,
+    CENTRAL_TENANT_CACHE, LOCATIONS_CACHE_NAME, LIBRARY_CACHE_NAME, MATERIAL_TYPES_CACHE_NAME, LOAN_TYPES_CACHE_NAME,
+    HOLDINGS_NOTE_CACHE_NAME);
+
+  private final SystemUserScopedExecutionService executionService;
+  private final ObjectProvider<ConsortiaService> consortiaService;
+  private final ObjectProvider<InventoryReferenceDataService> inventoryReferenceDataService;
+
+  public Object reload(String cacheName, Object key) {
+    var tenantId = getTenantId(cacheName, key.toString());
+    log.debug("Refreshing cache: {}, tenant: {}", cacheName, tenantId);
+    return executionService.executeSystemUserScoped(tenantId, () -> load(cacheName));
+  }
+
+  private Object load(String cacheName) {
+    return switch (cacheName) {
+      case IS_CENTRAL_TENANT_CACHE -> consortiaService.getObject().loadIsCentralTenant();
+      case CONSORTIA_TENANTS_CACHE -> consortiaService.getObject().loadConsortiaTenants();
+      case CENTRAL_TENANT_CACHE -> consortiaService.getObject().loadCentralTenantId();
+      case LOCATIONS_CACHE_NAME -> inventoryReferenceDataService.getObject().loadLocationsMap();
+      case LIBRARY_CACHE_NAME -> inventoryReferenceDataService.getObject().loadLibraryMap();
+      case MATERIAL_TYPES_CACHE_NAME -> inventoryReferenceDataService.getObject().loadMaterialTypesMap();
+      case LOAN_TYPES_CACHE_NAME -> inventoryReferenceDataService.getObject().loadLoanTypesMap();
+      case HOLDINGS_NOTE_CACHE_NAME -> inventoryReferenceDataService.getObject().loadHoldingsNoteTypesMap();
+      default -> throw new IllegalArgumentException("Cache cannot be reloaded: " + cacheName);
+    };
+  }
+
+  private static String getTenantId(String cacheName, String key) {
+    var keyPrefix = switch (cacheName) {
+      case LOCATIONS_CACHE_NAME -> LOCATIONS_CACHE_KEY_PREFIX;
+      case LIBRARY_CACHE_NAME -> LIBRARY_CACHE_KEY_PREFIX;
+      case MATERIAL_TYPES_CACHE_NAME -> MATERIAL_TYPES_CACHE_KEY_PREFIX;
+      case LOAN_TYPES_CACHE_NAME -> LOAN_TYPES_CACHE_KEY_PREFIX;
+      case HOLDINGS_NOTE_CACHE_NAME -> HOLDINGS_NOTE_CACHE_KEY_PREFIX;
+      default -> null;
+    };
+    return keyPrefix == null ? key : key.substring(keyPrefix.length() + 1);
+  }
+}
@@ -1,7 +1,11 @@
 package org.folio.rtaccache.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.folio.rtaccache.client.OrdersClient;
+import org.folio.rtaccache.domain.dto.Piece;
 import org.folio.rtaccache.domain.dto.PieceCollection;
 import org.folio.rtaccache.util.QueryParametersUtil;
 import org.springframework.stereotype.Service;
@@ -13,11 +17,30 @@ public class OrdersService {
   private final OrdersClient ordersClient;
   private final QueryParametersUtil queryParametersUtil;
   private static final Integer MAX_RECORDS = 1000;
+  private static final String PIECES_BY_HOLDINGS_CQL = "holdingId==(%s) and displayToPublic==true and displayOnHolding==true";
 
   public PieceCollection getPiecesByHoldingId(String holdingId) {
-    var cql = String.format("holdingId==(%s) and displayToPublic==true and displayOnHolding==true", holdingId);
+    var cql = String.format(PIECES_BY_HOLDINGS_CQL, holdingId);
     var request = queryParametersUtil.toMap(cql, MAX_RECORDS, 0);
     return ordersClient.getPieces(request);
   }
 
+  /**
+   * Returns the pieces of all given holdings, fetched page by page with a single query until a short page.
+   */
+  public List<Piece> getPiecesByHoldingIds(List<String> holdingIds) {
+    var cql = String.format(PIECES_BY_HOLDINGS_CQL, holdingIds.stream()
+      .map(id -> "\"" + id + "\"")
+      .collect(Collectors.joining(" or ")));
+    var pieces = new ArrayList<Piece>();
+    var offset = 0;
+    PieceCollection response;
+    do {
+      response = ordersClient.getPieces(queryParametersUtil.toMap(cql, MAX_RECORDS, offset));
+      pieces.addAll(response.getPieces());
+      offset += MAX_RECORDS;
+    } while (response.getPieces().size() >= MAX_RECORDS);
+    return pieces;
+  }
+
 }
@@ -1,30 +1,44 @@
 package org.folio.rtaccache.service;
 
+import com.google.common.collect.Lists;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.Strings;
 import org.folio.rtaccache.client.InventoryClient;
+import org.folio.rtaccache.domain.ReferenceDataSnapshot;
 import org.folio.rtaccache.domain.RtacHoldingEntity;
 import org.folio.rtaccache.domain.RtacHoldingId;
 import org.folio.rtaccache.domain.dto.BoundWithPart;
+import org.folio.rtaccache.domain.dto.BoundWithParts;
 import org.folio.rtaccache.domain.dto.FolioCqlRequest;
+import org.folio.rtaccache.domain.dto.HoldingRecords;
 import org.folio.rtaccache.domain.dto.HoldingsRecord;
 import org.folio.rtaccache.domain.dto.Instance;
 import org.folio.rtaccache.domain.dto.Item;
+import org.folio.rtaccache.domain.dto.Items;
 import org.folio.rtaccache.domain.dto.ItemStatus.NameEnum;
+import org.folio.rtaccache.domain.dto.RtacHolding;
+import org.folio.rtaccache.domain.exception.RtacDataProcessingException;
 import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
 import org.folio.rtaccache.util.QueryParametersUtil;
 import org.folio.spring.FolioExecutionContext;
 import org.folio.spring.service.SystemUserScopedExecutionService;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -32,195 +46,390 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class RtacCacheGenerationService {
 
-  @Qualifier("applicationTaskExecutor")
-  private final AsyncTaskExecutor taskExecutor;
   private final InventoryClient inventoryClient;
   private final RtacHoldingBulkRepository rtacHoldingBulkRepository;
   private final RtacHoldingMappingService rtacHoldingMappingService;
   private final CirculationService circulationService;
   private final OrdersService ordersService;
   private final ConsortiaService consortiaService;
+  private final RtacInstanceTenantService rtacInstanceTenantService;
   private final SystemUserScopedExecutionService systemUserExecutionService;
   private final FolioExecutionContext folioExecutionContext;
   private final QueryParametersUtil queryParametersUtil;
+  private final RtacGenerationStages stages;
+  private final CachedIdFilterService cachedIdFilterService;
   private static final Integer HOLDINGS_BATCH_SIZE = 50;
   private static final Integer ITEMS_BATCH_SIZE = 500;
   private static final Integer BOUND_WITH_BATCH_SIZE = 500;
+  private static final Integer INSTANCES_HOLDINGS_BATCH_SIZE = 500;
+  // Number of ids in a single CQL query of the batched generation
+  private static final int IDS_BATCH_SIZE = 50;
   public static final String CONSORTIUM_SOURCE = "CONSORTIUM";
 
   public CompletableFuture<Void> generateRtacCache(String instanceId) {
     log.info("Started RTAC cache generation for instance id: {} in tenant: {}", instanceId, folioExecutionContext.getTenantId());
-    var holdingsOffset = 0;
     var instance = getInstanceById(instanceId);
     if (instance == null) {
       log.warn("Instance with id: {} not found. RTAC cache generation aborted.", instanceId);
       return CompletableFuture.completedFuture(null);
     }
-    var totalHoldings = getHoldingsTotalRecords(instanceId);
+    var referenceData = rtacHoldingMappingService.getReferenceDataSnapshot();
     var futures = new ArrayList<CompletableFuture<Void>>();
-    while (totalHoldings != 0 && holdingsOffset < totalHoldings) {
-      var holdingsCql = getHoldingsByInstanceIdCql(instanceId);
-      var holdingsRequest = new FolioCqlRequest(holdingsCql, HOLDINGS_BATCH_SIZE, holdingsOffset);
-      var holdingsResponse = inventoryClient.getHoldings(holdingsRequest);
-      for (var holding : holdingsResponse.getHoldingsRecords()) {
-        futures.add(taskExecutor.submitCompletable(processIndividualHolding(instance, holding)));
+    forEachHoldingsPage(getHoldingsByInstanceIdCql(instanceId), HOLDINGS_BATCH_SIZE, holdings -> {
+      if (futures.isEmpty()) {
+        rtacInstanceTenantService.addCurrentTenant(UUID.fromString(instanceId));
       }
-      holdingsOffset += HOLDINGS_BATCH_SIZE;
-    }
+      for (var holding : holdings) {
+        futures.add(processIndividualHolding(instance, holding, referenceData));
+      }
+    });
     return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
   }
 
-  private Runnable processIndividualHolding(Instance instance, HoldingsRecord holding) {
-    return () -> {
-      log.info("Processing holding id : {}", holding.getId());
-      saveHolding(instance, holding);
-      var itemsFuture = processDirectItemsForHolding(instance, holding)
-        .thenCompose(v -> processItemsBoundWithHolding(instance, holding));
-      var piecesFuture = processPiecesForHolding(instance, holding, folioExecutionContext.getTenantId());
-      var centralPiecesFuture = processPiecesInCentralForHolding(instance, holding);
-      itemsFuture.join();
-      piecesFuture.join();
-      centralPiecesFuture.join();
-    };
+  /**
+   * Generates the cache of several instances at once. Instances, holdings, items, bound-with parts and pieces are
+   * requested for up to {@value #IDS_BATCH_SIZE} instances or holdings at a time and assigned to their instances
+   * locally. Returns a future per requested instance id that completes once all rows of the instance are saved,
+   * instances that do not exist complete without any rows. The reference data is resolved once for all instances.
+   */
+  public Map<String, CompletableFuture<Void>> generateRtacCacheBatch(List<String> instanceIds) {
+    log.info("Started batched RTAC cache generation for {} instances in tenant: {}", instanceIds.size(),
+      folioExecutionContext.getTenantId());
+    ReferenceDataSnapshot referenceData;
+    try {
+      referenceData = rtacHoldingMappingService.getReferenceDataSnapshot();
+    } catch (RuntimeException e) {
+      var failed = CompletableFuture.<Void>failedFuture(e);
+      return instanceIds.stream().distinct().collect(Collectors.toMap(Function.identity(), instanceId -> failed));
+    }
+    var futures = new HashMap<String, CompletableFuture<Void>>();
+    for (var instanceIdsBatch : Lists.partition(instanceIds, IDS_BATCH_SIZE)) {
+      futures.putAll(generateRtacCacheForInstancesBatch(instanceIdsBatch, referenceData));
+    }
+    return futures;
   }
 
-  private void saveHolding(Instance instance, HoldingsRecord holding) {
-    var rtacHolding = rtacHoldingMappingService.mapFrom(holding);
-    rtacHolding.setInstanceFormatIds(instance.getInstanceFormatIds());
-    var entityId = RtacHoldingId.from(rtacHolding);
-    var rtacHoldingEntity = new RtacHoldingEntity(entityId, isInstanceShared(instance), rtacHolding, Instant.now());
+  private Map<String, CompletableFuture<Void>> generateRtacCacheForInstancesBatch(List<String> instanceIds,
+    ReferenceDataSnapshot referenceData) {
+    Map<String, Instance> instances;
+    List<HoldingsRecord> holdings;
     try {
-      rtacHoldingBulkRepository.bulkUpsert(List.of(rtacHoldingEntity));
-    } catch (Exception e) {
-      log.error("Error during bulk upsert of RTAC holdings for holding: {}", e.getMessage(), e);
+      instances = getInstancesByIds(instanceIds);
+      holdings = instances.isEmpty() ? List.of() : getHoldingsByInstanceIds(instances.keySet());
+    } catch (RuntimeException e) {
+      var failed = CompletableFuture.<Void>failedFuture(e);
+      return instanceIds.stream().collect(Collectors.toMap(Function.identity(), instanceId -> failed));
     }
-  }
+    holdings.stream()
+      .map(HoldingsRecord::getInstanceId)
+      .distinct()
+      .forEach(instanceId -> rtacInstanceTenantService.addCurrentTenant(UUID.fromString(instanceId)));
 
-  private CompletableFuture<Void> processDirectItemsForHolding(Instance instance, HoldingsRecord holding) {
-    var itemsOffset = 0;
-    var totalItems = getItemsTotalRecords(holding.getId());
-    var futures = new ArrayList<CompletableFuture<Void>>();
-    while (totalItems != 0 && itemsOffset < totalItems) {
-      var itemsCql = getByHoldingsIdCql(holding.getId());
-      var itemsRequest = new FolioCqlRequest(itemsCql, ITEMS_BATCH_SIZE, itemsOffset);
-      futures.add(processItemsBatch(instance, holding, itemsRequest));
-      itemsOffset += ITEMS_BATCH_SIZE;
+    // The future of an instance completes with all holdings batches that contain any of its holdings
+    var holdingsBatchFutures = new HashMap<String, List<CompletableFuture<Void>>>();
+    for (var holdingsBatch : Lists.partition(holdings, IDS_BATCH_SIZE)) {
+      var future = processHoldingsBatch(instances, holdingsBatch, referenceData);
+      holdingsBatch.stream()
+        .map(HoldingsRecord::getInstanceId)
+        .distinct()
+        .forEach(instanceId -> holdingsBatchFutures.computeIfAbsent(instanceId, k -> new ArrayList<>()).add(future));
     }
-    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
-  }
 
-  private CompletableFuture<Void> processItemsBoundWithHolding(Instance instance, HoldingsRecord holdings) {
-    log.info("Processing bound-with items for holding id : {}", holdings.getId());
-    var boundWithPartOffset = 0;
-    var totalBoundWithParts = getBoundWithTotal(holdings);
-    log.info("Total bound-with parts for holding id {} : {}", holdings.getId(), totalBoundWithParts);
-    var futures = new ArrayList<CompletableFuture<Void>>();
-    while (totalBoundWithParts != 0 && boundWithPartOffset < totalBoundWithParts) {
-      var boundWithPartsCql = getByHoldingsIdCql(holdings.getId());
-      var boundWithPartsRequest = queryParametersUtil.toMap(boundWithPartsCql, ITEMS_BATCH_SIZE, boundWithPartOffset);
-      futures.add(processBondWithItemBatch(instance, holdings, boundWithPartsRequest));
-      boundWithPartOffset += BOUND_WITH_BATCH_SIZE;
+    var futures = new HashMap<String, CompletableFuture<Void>>();
+    for (var instanceId : instanceIds) {
+      if (!instances.containsKey(instanceId)) {
+        log.warn("Instance with id: {} not found. RTAC cache generation skipped.", instanceId);
+      }
+      var instanceFutures = holdingsBatchFutures.getOrDefault(instanceId, List.of());
+      futures.put(instanceId, CompletableFuture.allOf(instanceFutures.toArray(new CompletableFuture[0])));
     }
-    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    return futures;
+  }
+
+  private CompletableFuture<Void> processHoldingsBatch(Map<String, Instance> instances, List<HoldingsRecord> holdings,
+    ReferenceDataSnapshot referenceData) {
+    log.info("Processing batch of {} holdings", holdings.size());
+    var holdingsById = holdings.stream()
+      .collect(Collectors.toMap(HoldingsRecord::getId, Function.identity(), (first, second) -> first));
+    var rtacHoldings = holdings.stream()
+      .map(holding -> toRtacHoldingEntity(instances.get(holding.getInstanceId()),
+        rtacHoldingMappingService.mapFrom(holding, referenceData)))
+      .toList();
+    return CompletableFuture.allOf(
+      writeRtacHoldings(rtacHoldings, "holdings batch"),
+      processDirectItemsForHoldings(instances, holdingsById, referenceData),
+      processItemsBoundWithHoldings(instances, holdingsById, referenceData),
+      processPiecesForHoldings(instances, holdingsById, folioExecutionContext.getTenantId(), referenceData),
+      stages.fetch(consortiaService::getCentralTenantId)
+        .thenCompose(centralTenantId -> centralTenantId
+          .map(tenantId -> processPiecesForHoldings(instances, holdingsById, tenantId, referenceData))
+          .orElseGet(() -> CompletableFuture.completedFuture(null))));
+  }
+
+  private CompletableFuture<Void> processDirectItemsForHoldings(Map<String, Instance> instances,
+    Map<String, HoldingsRecord> holdingsById, ReferenceDataSnapshot referenceData) {
+    return processItemsPages(instances, getByHoldingsIdsCql(holdingsById.keySet()),
+      item -> List.of(holdingsById.get(item.getHoldingsRecordId())), referenceData);
+  }
+
+  private CompletableFuture<Void> processItemsBoundWithHoldings(Map<String, Instance> instances,
+    Map<String, HoldingsRecord> holdingsById, ReferenceDataSnapshot referenceData) {
+    return processBoundWithPartsPages(getByHoldingsIdsCql(holdingsById.keySet()), boundWithParts -> {
+      // An item can be bound with several holdings of the batch
+      var itemHoldings = boundWithParts.stream()
+        .collect(Collectors.groupingBy(BoundWithPart::getItemId,
+          Collectors.mapping(part -> holdingsById.get(part.getHoldingsRecordId()), Collectors.toList())));
+      if (itemHoldings.isEmpty()) {
+        return CompletableFuture.completedFuture(null);
+      }
+      var itemIds = List.copyOf(itemHoldings.keySet());
+      var itemsRequest = new FolioCqlRequest(buildIdOrCql(itemIds), itemIds.size(), 0);
+      return processItemsBatch(instances, itemsRequest, item -> itemHoldings.getOrDefault(item.getId(), List.of()),
+        referenceData);
+    });
+  }
+
+  private CompletableFuture<Void> processPiecesForHoldings(Map<String, Instance> instances,
+    Map<String, HoldingsRecord> holdingsById, String piecesTenantId, ReferenceDataSnapshot referenceData) {
+    return stages.fetch(() -> {
+      log.info("Sending request for pieces of {} holdings in tenant: {}", holdingsById.size(), piecesTenantId);
+      return systemUserExecutionService.executeSystemUserScoped(piecesTenantId,
+        () -> ordersService.getPiecesByHoldingIds(List.copyOf(holdingsById.keySet())));
+    }).thenCompose(pieces -> {
+      var rtacHoldings = pieces.stream()
+        .filter(piece -> holdingsById.containsKey(piece.getHoldingId()))
+        .map(piece -> {
+          var holding = holdingsById.get(piece.getHoldingId());
+          return toRtacHoldingEntity(instances.get(holding.getInstanceId()),
+            rtacHoldingMappingService.mapFrom(holding, piece, referenceData));
+        })
+        .toList();
+      return writeRtacHoldings(rtacHoldings, "pieces of holdings batch");
+    });
   }
 
-  private CompletableFuture<Void> processBondWithItemBatch(Instance instance, HoldingsRecord holdings,
-    Map<String, String> boundWithPartsRequest) {
-    return CompletableFuture.supplyAsync(() -> {
-      var boundWithPartsResponse = inventoryClient.getBoundWithParts(boundWithPartsRequest);
-      log.info("Fetched {} bound-with parts for holding id: {}", boundWithPartsResponse.getTotalRecords(), holdings.getId());
-      return boundWithPartsResponse.getBoundWithParts()
-        .stream()
+  /**
+   * Runs the stages of a holding: the holding row is written while its items, bound-with items and pieces in the
+   * current and the central tenant are fetched independently of each other.
+   */
+  private CompletableFuture<Void> processIndividualHolding(Instance instance, HoldingsRecord holding,
+    ReferenceDataSnapshot referenceData) {
+    log.info("Processing holding id : {}", holding.getId());
+    var rtacHolding = toRtacHoldingEntity(instance, rtacHoldingMappingService.mapFrom(holding, referenceData));
+    return CompletableFuture.allOf(
+      writeRtacHoldings(List.of(rtacHolding), "holding: " + holding.getId()),
+      processDirectItemsForHolding(instance, holding, referenceData),
+      processItemsBoundWithHolding(instance, holding, referenceData),
+      processPiecesForHolding(instance, holding, folioExecutionContext.getTenantId(), referenceData),
+      processPiecesInCentralForHolding(instance, holding, referenceData));
+  }
+
+  private CompletableFuture<Void> processDirectItemsForHolding(Instance instance, HoldingsRecord holding,
+    ReferenceDataSnapshot referenceData) {
+    return processItemsPages(Map.of(holding.getInstanceId(), instance), getByHoldingsIdCql(holding.getId()),
+      item -> List.of(holding), referenceData);
+  }
+
+  private CompletableFuture<Void> processItemsBoundWithHolding(Instance instance, HoldingsRecord holdings,
+    ReferenceDataSnapshot referenceData) {
+    log.info("Processing bound-with items for holding id : {}", holdings.getId());
+    return processBoundWithPartsPages(getByHoldingsIdCql(holdings.getId()), boundWithParts -> {
+      log.info("Fetched {} bound-with parts for holding id: {}", boundWithParts.size(), holdings.getId());
+      var boundWithItemIds = boundWithParts.stream()
         .map(BoundWithPart::getItemId)
         .toList();
-    }, taskExecutor)
-      .thenComposeAsync(boundWithItemIds -> {
-        if (CollectionUtils.isEmpty(boundWithItemIds)) {
-          log.info("No bound-with itemIds collected for holding id: {}", holdings.getId());
-          return CompletableFuture.completedFuture(null);
-        }
-        var queryParamValue = buildIdOrCql(boundWithItemIds);
-        var folioCqlRequest = new FolioCqlRequest(queryParamValue, boundWithItemIds.size(), 0);
-        return processItemsBatch(instance, holdings, folioCqlRequest);
-      }, taskExecutor);
+      if (CollectionUtils.isEmpty(boundWithItemIds)) {
+        log.info("No bound-with itemIds collected for holding id: {}", holdings.getId());
+        return CompletableFuture.completedFuture(null);
+      }
+      var queryParamValue = buildIdOrCql(boundWithItemIds);
+      var folioCqlRequest = new FolioCqlRequest(queryParamValue, boundWithItemIds.size(), 0);
+      return processItemsBatch(instance, holdings, folioCqlRequest, referenceData);
+    });
   }
 
-  private CompletableFuture<Void> processPiecesForHolding(Instance instance, HoldingsRecord holding, String piecesTenantId) {
-    return CompletableFuture.supplyAsync(() -> {
+  private CompletableFuture<Void> processPiecesForHolding(Instance instance, HoldingsRecord holding, String piecesTenantId,
+    ReferenceDataSnapshot referenceData) {
+    return stages.fetch(() -> {
       log.info("Sending request for pieces for holding id: {}", holding.getId());
       return systemUserExecutionService.executeSystemUserScoped(piecesTenantId, () -> ordersService.getPiecesByHoldingId(holding.getId()));
-    }, taskExecutor).thenAcceptAsync(response -> {
+    }).thenCompose(response -> {
       log.info("Processing pieces for holding id: {}", holding.getId());
-      if (response.getTotalRecords() != 0) {
-        var pieces = response.getPieces();
-        var rtacHoldings = pieces.stream()
-          .map(piece ->  {
-            var rtacHolding = rtacHoldingMappingService.mapFrom(holding, piece);
-            rtacHolding.setInstanceFormatIds(instance.getInstanceFormatIds());
-            return rtacHolding;
-          })
-          .map(rtacHolding -> new RtacHoldingEntity(
-            RtacHoldingId.from(rtacHolding), isInstanceShared(instance), rtacHolding, Instant.now()))
-          .toList();
-        try {
-          rtacHoldingBulkRepository.bulkUpsert(rtacHoldings);
-          log.info("Saved pieces for holding: {}", holding.getId());
-        } catch (Exception e) {
-          log.error("Error during bulk upsert of RTAC holdings for pieces: {}", e.getMessage(), e);
-        }
-      }
-    }, taskExecutor);
+      var rtacHoldings = response.getPieces().stream()
+        .map(piece -> toRtacHoldingEntity(instance, rtacHoldingMappingService.mapFrom(holding, piece, referenceData)))
+        .toList();
+      return writeRtacHoldings(rtacHoldings, "pieces of holding: " + holding.getId());
+    });
   }
 
-  private CompletableFuture<Void> processPiecesInCentralForHolding(Instance instance, HoldingsRecord holding) {
-    return CompletableFuture.supplyAsync(consortiaService::getCentralTenantId, taskExecutor)
-      .thenAcceptAsync(centralTenantId -> {
-        if(centralTenantId.isEmpty()) {
-          return;
+  private CompletableFuture<Void> processPiecesInCentralForHolding(Instance instance, HoldingsRecord holding,
+    ReferenceDataSnapshot referenceData) {
+    return stages.fetch(consortiaService::getCentralTenantId)
+      .thenCompose(centralTenantId -> {
+        if (centralTenantId.isEmpty()) {
+          return CompletableFuture.completedFuture(null);
         }
         log.info("Sending request for pieces in central tenant for holding id: {}", holding.getId());
-        processPiecesForHolding(instance, holding, centralTenantId.get()).join();
-      }, taskExecutor);
+        return processPiecesForHolding(instance, holding, centralTenantId.get(), referenceData);
+      });
   }
 
-  private CompletableFuture<Void> processItemsBatch(Instance instance, HoldingsRecord holding, FolioCqlRequest request) {
-    return CompletableFuture.supplyAsync(() -> {
-      log.info("Sending request for items batch for holding id: {}, offset {}", holding.getId(), request.getOffset());
+  private CompletableFuture<Void> processItemsBatch(Instance instance, HoldingsRecord holding, FolioCqlRequest request,
+    ReferenceDataSnapshot referenceData) {
+    return processItemsBatch(Map.of(holding.getInstanceId(), instance), request, item -> List.of(holding),
+      referenceData);
+  }
+
+  /**
+   * Fetches a batch of items and saves an item row for every holding the given function assigns an item to.
+   * The instances are looked up by the instance id of the holdings.
+   */
+  private CompletableFuture<Void> processItemsBatch(Map<String, Instance> instances, FolioCqlRequest request,
+    Function<Item, List<HoldingsRecord>> itemHoldings, ReferenceDataSnapshot referenceData) {
+    return stages.fetch(() -> {
+      log.info("Sending request for items batch, offset {}", request.getOffset());
       var itemsResponse = inventoryClient.getItems(request);
       return itemsResponse.getItems();
-    }, taskExecutor).thenAcceptAsync(items -> {
-      log.info("Processing items batch {}", request.getOffset());
-      var itemsHoldCountMap = retrieveItemsHoldCountMap(items);
-      var itemsLoanDueDateMap = retrieveItemsLoanDueDateMap(items);
-      var rtacHoldings = items.stream()
-        .map(item -> processIndividualItem(instance, holding, item, itemsLoanDueDateMap, itemsHoldCountMap))
-        .toList();
+    }).thenCompose(items -> processItems(instances, items, itemHoldings, request.getOffset(), referenceData));
+  }
+
+  /**
+   * Processes the items matching the query page by page, see {@link #processPages}.
+   */
+  private CompletableFuture<Void> processItemsPages(Map<String, Instance> instances, String itemsCql,
+    Function<Item, List<HoldingsRecord>> itemHoldings, ReferenceDataSnapshot referenceData) {
+    return processPages(ITEMS_BATCH_SIZE,
+      offset -> inventoryClient.getItems(new FolioCqlRequest(itemsCql, ITEMS_BATCH_SIZE, offset)),
+      Items::getItems, Items::getTotalRecords,
+      (page, offset) -> processItems(instances, page.getItems(), itemHoldings, offset, referenceData));
+  }
+
+  /**
+   * Processes the bound-with parts matching the query page by page, see {@link #processPages}.
+   */
+  private CompletableFuture<Void> processBoundWithPartsPages(String boundWithPartsCql,
+    Function<List<BoundWithPart>, CompletableFuture<Void>> processBoundWithParts) {
+    return processPages(BOUND_WITH_BATCH_SIZE,
+      offset -> inventoryClient.getBoundWithParts(
+        queryParametersUtil.toMap(boundWithPartsCql, BOUND_WITH_BATCH_SIZE, offset)),
+      BoundWithParts::getBoundWithParts, BoundWithParts::getTotalRecords,
+      (page, offset) -> processBoundWithParts.apply(page.getBoundWithParts()));
+  }
+
+  /**
+   * Fetches the first page without a separate count request. A short first page is the only one, otherwise the
+   * total records of the first page tell how many more pages there are, which are then fetched in the fetch stage.
+   */
+  private <P> CompletableFuture<Void> processPages(int pageSize, IntFunction<P> fetchPage,
+    Function<P, List<?>> pageRecords, ToIntFunction<P> totalRecords,
+    BiFunction<P, Integer, CompletableFuture<Void>> processPage) {
+    return stages.fetch(() -> fetchPage.apply(0))
+      .thenCompose(firstPage -> {
+        var futures = new ArrayList<CompletableFuture<Void>>();
+        futures.add(processPage.apply(firstPage, 0));
+        if (pageRecords.apply(firstPage).size() >= pageSize) {
+          var total = totalRecords.applyAsInt(firstPage);
+          for (var offset = pageSize; offset < total; offset += pageSize) {
+            var pageOffset = offset;
+            futures.add(stages.fetch(() -> fetchPage.apply(pageOffset))
+              .thenCompose(page -> processPage.apply(page, pageOffset)));
+          }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+      });
+  }
+
+  /**
+   * Enriches the items with their loans and hold requests in the enrich stage, then writes an item row for every
+   * holding the given function assigns an item to.
+   */
+  private CompletableFuture<Void> processItems(Map<String, Instance> instances, List<Item> items,
+    Function<Item, List<HoldingsRecord>> itemHoldings, int offset, ReferenceDataSnapshot referenceData) {
+    log.info("Processing items batch {}", offset);
+    var itemsHoldCount = stages.enrich(() -> retrieveItemsHoldCountMap(items));
+    var itemsLoanDueDate = stages.enrich(() -> retrieveItemsLoanDueDateMap(items));
+    return itemsHoldCount.thenCombine(itemsLoanDueDate, (itemsHoldCountMap, itemsLoanDueDateMap) -> items.stream()
+        .flatMap(item -> itemHoldings.apply(item).stream()
+          .map(holding -> processIndividualItem(instances.get(holding.getInstanceId()), holding, item,
+            itemsLoanDueDateMap, itemsHoldCountMap, referenceData)))
+        .toList())
+      .thenCompose(rtacHoldings -> writeRtacHoldings(rtacHoldings, "items batch offset: " + offset));
+  }
+
+  /**
+   * Upserts the rows in the write stage. A failed upsert fails the generation, so the rows of the instance that
+   * were not regenerated are not taken for deleted.
+   */
+  private CompletableFuture<Void> writeRtacHoldings(List<RtacHoldingEntity> rtacHoldings, String description) {
+    if (rtacHoldings.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return stages.write(() -> {
       try {
         rtacHoldingBulkRepository.bulkUpsert(rtacHoldings);
-        log.info("Saved items batch for holding: {} offset: {}", holding.getId(), request.getOffset());
+        cachedIdFilterService.add(rtacHoldings);
+        log.info("Saved {} RTAC holdings of {}", rtacHoldings.size(), description);
       } catch (Exception e) {
-        log.error("Error during bulk upsert of RTAC holdings: {}", e.getMessage(), e);
+        log.error("Error during bulk upsert of RTAC holdings of {}: {}", description, e.getMessage(), e);
+        throw new RtacDataProcessingException("Failed to save RTAC holdings of " + description, e);
       }
-    }, taskExecutor);
+    });
+  }
+
+  private RtacHoldingEntity toRtacHoldingEntity(Instance instance, RtacHolding rtacHolding) {
+    rtacHolding.setInstanceFormatIds(instance.getInstanceFormatIds());
+    return new RtacHoldingEntity(RtacHoldingId.from(rtacHolding), isInstanceShared(instance), rtacHolding,
+      Instant.now());
   }
 
   private Instance getInstanceById(String instanceId) {
     var cql = "id==" + instanceId;
     var request = queryParametersUtil.toMap(cql, 1, 0);
-    var response = inventoryClient.getInstances(request);
+    var response = stages.fetchNow(() -> inventoryClient.getInstances(request));
     if (response.getTotalRecords() == 0) {
       return null;
     }
     return response.getInstances().get(0);
   }
 
+  private Map<String, Instance> getInstancesByIds(List<String> instanceIds) {
+    var request = queryParametersUtil.toMap("id==(" + toQuotedIds(instanceIds) + ")", instanceIds.size(), 0);
+    return stages.fetchNow(() -> inventoryClient.getInstances(request)).getInstances().stream()
+      .collect(Collectors.toMap(Instance::getId, Function.identity(), (first, second) -> first));
+  }
+
+  private List<HoldingsRecord> getHoldingsByInstanceIds(Collection<String> instanceIds) {
+    var holdings = new ArrayList<HoldingsRecord>();
+    forEachHoldingsPage("instanceId==(" + toQuotedIds(instanceIds) + ")", INSTANCES_HOLDINGS_BATCH_SIZE,
+      holdings::addAll);
+    return holdings;
+  }
+
+  /**
+   * Passes the holdings matching the query to the consumer page by page, until a short page. The total records are
+   * not relied on, so a result of an exact multiple of the page size takes one more, empty, page. Empty results are
+   * not passed.
+   */
+  private void forEachHoldingsPage(String holdingsCql, int pageSize, Consumer<List<HoldingsRecord>> holdingsConsumer) {
+    var holdingsOffset = 0;
+    HoldingRecords holdingsResponse;
+    do {
+      var holdingsRequest = new FolioCqlRequest(holdingsCql, pageSize, holdingsOffset);
+      holdingsResponse = stages.fetchNow(() -> inventoryClient.getHoldings(holdingsRequest));
+      if (!holdingsResponse.getHoldingsRecords().isEmpty()) {
+        holdingsConsumer.accept(holdingsResponse.getHoldingsRecords());
+      }
+      holdingsOffset += pageSize;
+    } while (holdingsResponse.getHoldingsRecords().size() >= pageSize);
+  }
+
   private boolean isInstanceShared(Instance instance) {
     return instance.getSource() != null && instance.getSource().contains(CONSORTIUM_SOURCE);
   }
 
   private RtacHoldingEntity processIndividualItem(Instance instance, HoldingsRecord holding, Item item,
-    Map<String, Date> dueDateMap, Map<String, Long> holdCountMap) {
-    var rtacHolding = rtacHoldingMappingService.mapFrom(holding, item);
+    Map<String, Date> dueDateMap, Map<String, Long> holdCountMap, ReferenceDataSnapshot referenceData) {
+    var rtacHolding = rtacHoldingMappingService.mapFrom(holding, item, referenceData);
     rtacHolding.setDueDate(dueDateMap.getOrDefault(rtacHolding.getId(), null));
     rtacHolding.setTotalHoldRequests(Math.toIntExact(holdCountMap.getOrDefault(rtacHolding.getId(), 0L)));
     rtacHolding.setIsBoundWith(isItemBoundWithHoldings(item, holding));
@@ -251,33 +460,20 @@ public class RtacCacheGenerationService {
     return "instanceId==" + instanceId;
   }
 
-  private Integer getHoldingsTotalRecords(String instanceId) {
-    var holdingsResponse = inventoryClient.getHoldings(
-      new FolioCqlRequest(getHoldingsByInstanceIdCql(instanceId), 0, 0)
-    );
-    return holdingsResponse.getTotalRecords();
-  }
-
   private String getByHoldingsIdCql(String holdingsId) {
     return "holdingsRecordId==" + holdingsId;
   }
 
-  private Integer getItemsTotalRecords(String holdingId) {
-    var itemsResponse = inventoryClient.getItems(
-      new FolioCqlRequest(getByHoldingsIdCql(holdingId), 0, 0)
-    );
-    return itemsResponse.getTotalRecords();
+  private String getByHoldingsIdsCql(Collection<String> holdingsIds) {
+    return "holdingsRecordId==(" + toQuotedIds(holdingsIds) + ")";
   }
 
-  private int getBoundWithTotal(HoldingsRecord holdings) {
-    var getByHoldingsIdCql = getByHoldingsIdCql(holdings.getId());
-    var request = queryParametersUtil.toMap(getByHoldingsIdCql, 0, 0);
-    var response = inventoryClient.getBoundWithParts(request);
-    return response.getTotalRecords();
+  private static String toQuotedIds(Collection<String> ids) {
+    return ids.stream().map(id -> "\"" + id + "\"").collect(Collectors.joining(" or "));
   }
 
   private String buildIdOrCql(List<String> ids) {
-    return ids.stream().map(id -> "id==" + id).collect(java.util.stream.Collectors.joining(" or "));
+    return ids.stream().map(id -> "id==" + id).collect(Collectors.joining(" or "));
   }
 
   private boolean isItemBoundWithHoldings(Item item, HoldingsRecord holdings) {
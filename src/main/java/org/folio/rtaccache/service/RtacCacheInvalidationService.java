@@ -4,6 +4,7 @@ import java.time.Duration;
 import java.time.Instant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.folio.rtaccache.config.CacheFreshnessProperties;
 import org.folio.rtaccache.config.CacheInvalidationJobProperties;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -17,11 +18,17 @@ public class RtacCacheInvalidationService {
 
   private final RtacHoldingRepository rtacHoldingRepository;
   private final CacheInvalidationJobProperties properties;
+  private final CacheFreshnessProperties freshnessProperties;
 
   @Scheduled(cron = "#{@cacheInvalidationJobProperties.cron}")
   @Transactional
   public void invalidateOldHoldingEntries() {
-    Instant cutoffTime = Instant.now().minus(Duration.ofDays(properties.getRetentionDays()));
+    // Entries within the hard TTL are still served, refreshing them is left to the lazy loading
+    var retention = Duration.ofDays(properties.getRetentionDays());
+    if (retention.compareTo(freshnessProperties.getHardTtl()) < 0) {
+      retention = freshnessProperties.getHardTtl();
+    }
+    Instant cutoffTime = Instant.now().minus(retention);
     log.info("Starting cache invalidation for entries older than {} retention: {} days", cutoffTime, properties.getRetentionDays());
 
     int deletedCount = rtacHoldingRepository.deleteOldHoldingsAllTenants(cutoffTime);
@@ -82,9 +82,11 @@ public class RtacCachePreWarmingService {
     for (int i = 0; i < instanceIds.size(); i += PRE_WARM_BATCH_SIZE) {
       List<UUID> batch = instanceIds.subList(i, Math.min(i + PRE_WARM_BATCH_SIZE, instanceIds.size()));
       chain = chain.thenCompose(v -> {
-        CompletableFuture<?>[] futures = batch.stream()
-          .map(instanceId -> rtacCacheGenerationService.generateRtacCache(instanceId.toString())
-            .whenCompleteAsync((r, ex) -> handlePreWarmingCompletion(instanceId, ex), taskExecutor))
+        CompletableFuture<?>[] futures = rtacCacheGenerationService
+          .generateRtacCacheBatch(batch.stream().map(UUID::toString).toList())
+          .entrySet().stream()
+          .map(generation -> generation.getValue().whenCompleteAsync(
+            (r, ex) -> handlePreWarmingCompletion(UUID.fromString(generation.getKey()), ex), taskExecutor))
           .toArray(CompletableFuture[]::new);
         return CompletableFuture.allOf(futures);
       });
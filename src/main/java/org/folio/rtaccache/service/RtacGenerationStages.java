@@ -0,0 +1,69 @@
+package org.folio.rtaccache.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import org.folio.rtaccache.config.GenerationProperties;
+import org.folio.rtaccache.domain.exception.RtacDataProcessingException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stages of the RTAC cache generation pipeline: fetch from inventory and orders, enrich with circulation data and
+ * write to the database. Every stage runs its tasks on the application task executor, but only as many at once as
+ * its configured concurrency allows across all generations of the module. Further tasks wait for a permit, which
+ * holds back the stages feeding them.
+ */
+@Component
+public class RtacGenerationStages {
+
+  private final AsyncTaskExecutor taskExecutor;
+  private final Semaphore fetchPermits;
+  private final Semaphore enrichPermits;
+  private final Semaphore writePermits;
+
+  public RtacGenerationStages(@Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                              GenerationProperties generationProperties) {
+    this.taskExecutor = taskExecutor;
+    this.fetchPermits = new Semaphore(generationProperties.getFetchConcurrency());
+    this.enrichPermits = new Semaphore(generationProperties.getEnrichConcurrency());
+    this.writePermits = new Semaphore(generationProperties.getWriteConcurrency());
+  }
+
+  public <T> CompletableFuture<T> fetch(Supplier<T> request) {
+    return taskExecutor.submitCompletable(() -> withPermit(fetchPermits, request));
+  }
+
+  /**
+   * Same as {@link #fetch(Supplier)}, but runs the request in the calling thread.
+   */
+  public <T> T fetchNow(Supplier<T> request) {
+    return withPermit(fetchPermits, request);
+  }
+
+  public <T> CompletableFuture<T> enrich(Supplier<T> request) {
+    return taskExecutor.submitCompletable(() -> withPermit(enrichPermits, request));
+  }
+
+  public CompletableFuture<Void> write(Runnable write) {
+    return taskExecutor.submitCompletable(() -> withPermit(writePermits, () -> {
+      write.run();
+      return null;
+    }));
+  }
+
+  private static <T> T withPermit(Semaphore permits, Supplier<T> task) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RtacDataProcessingException("Interrupted while waiting for a generation stage permit", e);
+    }
+    try {
+      return task.get();
+    } finally {
+      permits.release();
+    }
+  }
+}
@@ -1,24 +1,36 @@
 package org.folio.rtaccache.service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.folio.rtaccache.client.SearchClient;
-import org.folio.rtaccache.domain.RtacBatchCountProjection;
+import org.folio.rtaccache.config.AdvisoryLockProperties;
+import org.folio.rtaccache.config.CacheFreshnessProperties;
+import org.folio.rtaccache.domain.RtacLazyLoadResult;
 import org.folio.rtaccache.domain.dto.BatchIdsDto;
 import org.folio.rtaccache.domain.dto.BatchIdsDto.IdentifierTypeEnum;
 import org.folio.rtaccache.domain.dto.ConsortiumHoldings;
+import org.folio.rtaccache.repository.RtacAdvisoryLockRepository;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
+import org.folio.spring.FolioExecutionContext;
 import org.folio.spring.service.SystemUserScopedExecutionService;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.task.AsyncTaskExecutor;
@@ -32,78 +44,400 @@ import org.springframework.web.server.ResponseStatusException;
 @Slf4j
 public class RtacHoldingLazyLoadingService {
 
+  private static final String LAZY_LOAD_LOCK_PREFIX = "rtac-lazy-load:";
+
   private final RtacHoldingRepository rtacHoldingRepository;
+  private final RtacAdvisoryLockRepository rtacAdvisoryLockRepository;
   private final RtacCacheGenerationService rtacCacheGenerationService;
   private final SearchClient searchClient;
+  private final RtacInstanceTenantService rtacInstanceTenantService;
   private final SystemUserScopedExecutionService executionService;
+  private final FolioExecutionContext folioExecutionContext;
+  private final CacheFreshnessProperties cacheFreshnessProperties;
+  private final AdvisoryLockProperties advisoryLockProperties;
   @Qualifier("applicationTaskExecutor")
   private final AsyncTaskExecutor taskExecutor;
+  // In-flight lazy loads and background refreshes keyed by tenant and instance id, so concurrent callers share
+  // a single generation
+  private final ConcurrentMap<String, CompletableFuture<Void>> inFlightLazyLoads = new ConcurrentHashMap<>();
 
+  /**
+   * Makes sure the cache of the instance can be served. Instances past the soft TTL are served as they are and
+   * refreshed in the background, only missing instances and instances past the hard TTL are generated before
+   * returning.
+   */
   public void lazyLoadRtacHoldings(UUID instanceId) {
-    if (rtacHoldingRepository.countByIdInstanceId(instanceId) == 0) {
-      try {
-        var future = rtacCacheGenerationService.generateRtacCache(instanceId.toString());
-        future.join();
-      } catch (Exception ex) {
-        Throwable rootCause = unwrapCompletionException(ex);
-        if (isNotFound(rootCause)) {
-          log.warn("Instance {} not found during RTAC cache generation; skipping.", instanceId);
-          rtacHoldingRepository.deleteAllByIdInstanceId(instanceId);
-          return;
-        }
-        log.error("RTAC cache generation failed for instanceId: {}", instanceId, ex);
-        rtacHoldingRepository.deleteAllByIdInstanceId(instanceId);
-        throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
-          String.format("RTAC cache generation failed for instanceId: %s", instanceId));
+    var latestCreatedAt = rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId);
+    if (latestCreatedAt.isPresent() && !isExpired(latestCreatedAt.get())) {
+      if (isStale(latestCreatedAt.get())) {
+        refreshRtacHoldingsInBackground(instanceId);
+      }
+      return;
+    }
+    var lazyLoadKey = getLazyLoadKey(instanceId);
+    var lazyLoad = new CompletableFuture<Void>();
+    var inFlightLazyLoad = inFlightLazyLoads.putIfAbsent(lazyLoadKey, lazyLoad);
+    if (inFlightLazyLoad != null) {
+      log.debug("Waiting for in-flight RTAC cache generation for instanceId: {}", instanceId);
+      awaitLazyLoad(inFlightLazyLoad);
+      return;
+    }
+    try {
+      // The advisory lock covers concurrent lazy loads of the same instance from other module instances
+      var locked = rtacAdvisoryLockRepository.executeWithLock(LAZY_LOAD_LOCK_PREFIX + lazyLoadKey,
+        advisoryLockProperties.getWaitTimeout(), () -> generateRtacHoldingsIfAbsentOrExpired(instanceId));
+      if (!locked) {
+        log.info("Generating RTAC cache without lock for instanceId: {}, it is locked by another module instance",
+          instanceId);
+        generateRtacHoldingsIfAbsentOrExpired(instanceId);
       }
+      lazyLoad.complete(null);
+    } catch (RuntimeException ex) {
+      lazyLoad.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      inFlightLazyLoads.remove(lazyLoadKey, lazyLoad);
     }
   }
 
   public List<Throwable> lazyLoadRtacHoldings(List<UUID> instanceIds) {
-    var foundInstanceIds = rtacHoldingRepository.countBatchByIdInstanceIdIn(instanceIds).stream()
-      .map(RtacBatchCountProjection::instanceId).toList();
-    var missingInstanceIds = instanceIds.stream().filter(id -> !foundInstanceIds.contains(id))
+    return lazyLoadRtacHoldings(instanceIds, Duration.ZERO).exceptions();
+  }
+
+  /**
+   * Same as {@link #lazyLoadRtacHoldings(List)}, but waits for the generation of missing instances at most for the
+   * given time budget, a time budget of zero waits without a limit. Instances still generating when it runs out are reported as
+   * pending, their generation continues in the background.
+   */
+  public RtacLazyLoadResult lazyLoadRtacHoldings(List<UUID> instanceIds, Duration timeout) {
+    var futures = new HashMap<UUID, List<CompletableFuture<Void>>>();
+    lazyLoadRtacHoldingsBatch(instanceIds).forEach((instanceId, future) -> futures.put(instanceId, List.of(future)));
+    return awaitLazyLoads(futures, timeout);
+  }
+
+  public List<Throwable> lazyLoadRtacHoldingsEcs(List<UUID> instanceIds) {
+    return lazyLoadRtacHoldingsEcs(instanceIds, Duration.ZERO).exceptions();
+  }
+
+  /**
+   * Same as {@link #lazyLoadRtacHoldingsEcs(List)}, but waits at most for the given time budget, see
+   * {@link #lazyLoadRtacHoldings(List, Duration)}.
+   */
+  public RtacLazyLoadResult lazyLoadRtacHoldingsEcs(List<UUID> instanceIds, Duration timeout) {
+    var instanceTenantMap = getInstanceTenants(instanceIds);
+    var tenantInstanceIds = new HashMap<String, List<UUID>>();
+    instanceTenantMap.forEach((instanceId, tenantIds) -> tenantIds.forEach(tenantId ->
+      tenantInstanceIds.computeIfAbsent(tenantId, k -> new ArrayList<>()).add(instanceId)));
+    var futures = new HashMap<UUID, List<CompletableFuture<Void>>>();
+    tenantInstanceIds.forEach((tenantId, tenantInstanceIdList) -> {
+      var tenantLazyLoads = taskExecutor.submitCompletable(() -> {
+        try {
+          return executionService.executeSystemUserScoped(tenantId, () -> lazyLoadRtacHoldingsBatch(tenantInstanceIdList));
+        } catch (Exception e) {
+          log.error("Error during lazy loading RTAC holdings for instanceIds: {} in tenant: {}", tenantInstanceIdList,
+            tenantId, e);
+          return Map.<UUID, CompletableFuture<Void>>of();
+        }
+      });
+      for (var instanceId : tenantInstanceIdList) {
+        futures.computeIfAbsent(instanceId, k -> new ArrayList<>()).add(tenantLazyLoads.thenCompose(lazyLoads ->
+          lazyLoads.getOrDefault(instanceId, CompletableFuture.completedFuture(null)).exceptionally(e -> {
+            log.error("Error during lazy loading RTAC holdings for instanceId: {} in tenant: {}", instanceId, tenantId, e);
+            return null;
+          })));
+      }
+    });
+    return awaitLazyLoads(futures, timeout);
+  }
+
+  /**
+   * Starts the lazy load of the given instances in the current tenant and returns a future per instance that
+   * completes once the instance can be served. Stale instances are refreshed in the background. Missing and
+   * expired instances are generated together by a single batched generation, instances already being generated
+   * join the generation in flight.
+   */
+  private Map<UUID, CompletableFuture<Void>> lazyLoadRtacHoldingsBatch(List<UUID> instanceIds) {
+    var servableInstanceIds = new HashSet<UUID>();
+    for (var instanceAge : rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(instanceIds)) {
+      if (isExpired(instanceAge.latestCreatedAt())) {
+        continue;
+      }
+      servableInstanceIds.add(instanceAge.instanceId());
+      if (isStale(instanceAge.latestCreatedAt())) {
+        refreshRtacHoldingsInBackground(instanceAge.instanceId());
+      }
+    }
+    var futures = new HashMap<UUID, CompletableFuture<Void>>();
+    var lazyLoads = new HashMap<UUID, CompletableFuture<Void>>();
+    for (var instanceId : instanceIds) {
+      if (servableInstanceIds.contains(instanceId) || futures.containsKey(instanceId)) {
+        continue;
+      }
+      var lazyLoad = new CompletableFuture<Void>();
+      var inFlightLazyLoad = inFlightLazyLoads.putIfAbsent(getLazyLoadKey(instanceId), lazyLoad);
+      if (inFlightLazyLoad != null) {
+        futures.put(instanceId, inFlightLazyLoad);
+      } else {
+        lazyLoads.put(instanceId, lazyLoad);
+        futures.put(instanceId, lazyLoad);
+      }
+    }
+    if (!lazyLoads.isEmpty()) {
+      var tenantId = folioExecutionContext.getTenantId();
+      try {
+        taskExecutor.submitCompletable(() -> generateRtacHoldingsBatch(tenantId, lazyLoads))
+          .whenComplete((result, ex) -> {
+            if (ex != null) {
+              failLazyLoads(tenantId, lazyLoads, ex);
+            }
+          });
+      } catch (RuntimeException ex) {
+        failLazyLoads(tenantId, lazyLoads, ex);
+      }
+    }
+    return futures;
+  }
+
+  private void generateRtacHoldingsBatch(String tenantId, Map<UUID, CompletableFuture<Void>> lazyLoads) {
+    var lockKeys = lazyLoads.keySet().stream()
+      .map(instanceId -> LAZY_LOAD_LOCK_PREFIX + tenantId + ":" + instanceId)
       .toList();
-    var futures = new ArrayList<CompletableFuture<Void>>();
-    for (var instanceId : missingInstanceIds) {
-      futures.add(taskExecutor.submitCompletable(() -> lazyLoadRtacHoldings(instanceId)));
+    // The advisory locks cover concurrent lazy loads of the same instances from other module instances. They only
+    // save duplicate work: instances still locked after the short wait are generated anyway, as regenerating an
+    // instance twice leaves the same rows.
+    rtacAdvisoryLockRepository.executeWithLocks(lockKeys, advisoryLockProperties.getWaitTimeout(),
+      lockedKeys -> {
+        if (lockedKeys.size() < lockKeys.size()) {
+          log.info("Generating RTAC cache without lock for {} of {} instances, they are locked by another module "
+            + "instance", lockKeys.size() - lockedKeys.size(), lockKeys.size());
+        }
+        return generateRtacHoldingsBatchIfAbsentOrExpired(tenantId, new HashMap<>(lazyLoads));
+      });
+  }
+
+  /**
+   * Generates the instances of a batch and returns a future that completes once all of their lazy loads are
+   * completed, the advisory locks are held until then.
+   */
+  private CompletableFuture<Void> generateRtacHoldingsBatchIfAbsentOrExpired(String tenantId,
+    Map<UUID, CompletableFuture<Void>> lazyLoads) {
+    // The cache may have been generated by another module instance while waiting for the locks
+    for (var instanceAge : rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(List.copyOf(lazyLoads.keySet()))) {
+      if (!isExpired(instanceAge.latestCreatedAt())) {
+        var lazyLoad = lazyLoads.remove(instanceAge.instanceId());
+        if (lazyLoad != null) {
+          lazyLoad.complete(null);
+          inFlightLazyLoads.remove(tenantId + ":" + instanceAge.instanceId(), lazyLoad);
+        }
+      }
+    }
+    if (lazyLoads.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
     }
+    var generationStartedAt = Instant.now();
+    var generations = rtacCacheGenerationService.generateRtacCacheBatch(
+      lazyLoads.keySet().stream().map(UUID::toString).toList());
+    var completions = new ArrayList<CompletableFuture<?>>();
+    lazyLoads.forEach((instanceId, lazyLoad) -> {
+      var generation = generations.get(instanceId.toString());
+      if (generation == null) {
+        log.error("No RTAC cache generation was started for instanceId: {}", instanceId);
+        failLazyLoad(tenantId, instanceId, lazyLoad, generationFailedException(instanceId));
+        return;
+      }
+      completions.add(generation.handle((result, ex) -> {
+        completeLazyLoad(tenantId, instanceId, lazyLoad, generationStartedAt, ex);
+        return null;
+      }));
+    });
+    return CompletableFuture.allOf(completions.toArray(new CompletableFuture[0]));
+  }
+
+  private void completeLazyLoad(String tenantId, UUID instanceId, CompletableFuture<Void> lazyLoad,
+    Instant generationStartedAt, Throwable generationException) {
     try {
-      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-    } catch (Exception e) {
-      log.error("Error during lazy loading RTAC holdings for instanceIds: {}", missingInstanceIds, e);
-      return gatherExceptions(futures);
+      if (generationException == null) {
+        deleteRowsNotRegenerated(instanceId, generationStartedAt);
+      } else {
+        handleGenerationFailure(instanceId, generationException);
+      }
+      lazyLoad.complete(null);
+    } catch (RuntimeException ex) {
+      lazyLoad.completeExceptionally(ex);
+    } finally {
+      inFlightLazyLoads.remove(tenantId + ":" + instanceId, lazyLoad);
     }
-    return Collections.emptyList();
   }
 
-  public List<Throwable> lazyLoadRtacHoldingsEcs(List<UUID> instanceIds) {
-    var consortiumHoldings = searchClient.getConsortiumHoldings(getBatchIdsDto(instanceIds));
-    var instanceTenantMap = instanceTenantMap(consortiumHoldings);
-    var futures = new ArrayList<CompletableFuture<Void>>();
-    for (var entry : instanceTenantMap.entrySet()) {
-      var instanceId = entry.getKey();
-      var tenantIds = entry.getValue();
-      for (var tenantId : tenantIds) {
-        futures.add(taskExecutor.submitCompletable(() -> {
-          try {
-            executionService.executeSystemUserScoped(tenantId, () -> {
-              lazyLoadRtacHoldings(instanceId);
-              return null;
-            });
-          } catch (Exception e) {
-            log.error("Error during lazy loading RTAC holdings for instanceId: {} in tenant: {}", instanceId, tenantId, e);
-          }
+  /**
+   * Fails the lazy loads of a batch that could not be run. Their generation may not have started, so the cached
+   * rows are left in place. Lazy loads already completed keep their result.
+   */
+  private void failLazyLoads(String tenantId, Map<UUID, CompletableFuture<Void>> lazyLoads, Throwable ex) {
+    log.error("Batched RTAC cache generation failed for instanceIds: {}", lazyLoads.keySet(), ex);
+    lazyLoads.forEach((instanceId, lazyLoad) ->
+      failLazyLoad(tenantId, instanceId, lazyLoad, generationFailedException(instanceId)));
+  }
+
+  private void failLazyLoad(String tenantId, UUID instanceId, CompletableFuture<Void> lazyLoad, Throwable ex) {
+    lazyLoad.completeExceptionally(ex);
+    inFlightLazyLoads.remove(tenantId + ":" + instanceId, lazyLoad);
+  }
+
+  /**
+   * Resolves the tenants holding the given instances from the instance tenant directory. Only instances missing
+   * from the directory, or whose entries are past the soft TTL or lost a tenant, are looked up in mod-search, and the
+   * result is recorded in the directory. Tenants of the directory the lookup does not know of yet are kept.
+   */
+  private Map<UUID, Set<String>> getInstanceTenants(List<UUID> instanceIds) {
+    var instanceTenants = rtacInstanceTenantService.getInstanceTenants(instanceIds, cacheFreshnessProperties.getSoftTtl());
+    var instanceTenantMap = new HashMap<>(instanceTenants.tenants());
+    var unknownInstanceIds = instanceIds.stream()
+      .filter(id -> !instanceTenantMap.containsKey(id) || instanceTenants.staleInstanceIds().contains(id))
+      .toList();
+    if (!unknownInstanceIds.isEmpty()) {
+      var consortiumHoldings = searchClient.getConsortiumHoldings(getBatchIdsDto(unknownInstanceIds));
+      var searchInstanceTenantMap = instanceTenantMap(consortiumHoldings);
+      rtacInstanceTenantService.refreshInstanceTenants(unknownInstanceIds, searchInstanceTenantMap);
+      searchInstanceTenantMap.forEach((instanceId, tenantIds) -> instanceTenantMap.merge(instanceId, tenantIds,
+        (directoryTenantIds, searchTenantIds) -> {
+          var mergedTenantIds = new HashSet<>(directoryTenantIds);
+          mergedTenantIds.addAll(searchTenantIds);
+          return mergedTenantIds;
         }));
+    }
+    return instanceTenantMap;
+  }
+
+  /**
+   * Refreshes the cache of a stale instance on the task executor unless a generation of the instance is already
+   * in flight. Callers keep being served the stale rows meanwhile, a failed refresh leaves them in place.
+   */
+  private void refreshRtacHoldingsInBackground(UUID instanceId) {
+    var tenantId = folioExecutionContext.getTenantId();
+    var lazyLoadKey = getLazyLoadKey(instanceId);
+    var refresh = new CompletableFuture<Void>();
+    if (inFlightLazyLoads.putIfAbsent(lazyLoadKey, refresh) != null) {
+      return;
+    }
+    log.debug("Refreshing stale RTAC cache in background for instanceId: {}", instanceId);
+    try {
+      taskExecutor.submitCompletable(() -> executionService.executeSystemUserScoped(tenantId, () -> {
+          var locked = rtacAdvisoryLockRepository.executeWithLock(LAZY_LOAD_LOCK_PREFIX + lazyLoadKey,
+            advisoryLockProperties.getWaitTimeout(), () -> refreshRtacHoldingsIfStale(instanceId));
+          if (!locked) {
+            log.info("Skipped background refresh of RTAC cache for instanceId: {}, it is locked by another module "
+              + "instance", instanceId);
+          }
+          return null;
+        }))
+        .whenComplete((result, ex) -> {
+          if (ex != null) {
+            log.warn("Background refresh of RTAC cache failed for instanceId: {}", instanceId, ex);
+          }
+          // Callers waiting for the refresh are served the cached rows either way
+          refresh.complete(null);
+          inFlightLazyLoads.remove(lazyLoadKey, refresh);
+        });
+    } catch (RuntimeException ex) {
+      log.warn("Failed to schedule background refresh of RTAC cache for instanceId: {}", instanceId, ex);
+      refresh.complete(null);
+      inFlightLazyLoads.remove(lazyLoadKey, refresh);
+    }
+  }
+
+  private void refreshRtacHoldingsIfStale(UUID instanceId) {
+    // The cache may have been refreshed by another module instance while waiting for the lock
+    var latestCreatedAt = rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId);
+    if (latestCreatedAt.isEmpty() || !isStale(latestCreatedAt.get())) {
+      return;
+    }
+    var refreshStartedAt = Instant.now();
+    try {
+      rtacCacheGenerationService.generateRtacCache(instanceId.toString()).join();
+    } catch (RuntimeException ex) {
+      if (isNotFound(unwrapCompletionException(ex))) {
+        log.warn("Instance {} not found during RTAC cache refresh; deleting cached holdings.", instanceId);
+        rtacHoldingRepository.deleteAllByIdInstanceId(instanceId);
+        rtacInstanceTenantService.removeCurrentTenant(List.of(instanceId));
+        return;
       }
+      throw ex;
     }
+    deleteRowsNotRegenerated(instanceId, refreshStartedAt);
+  }
+
+  private void generateRtacHoldingsIfAbsentOrExpired(UUID instanceId) {
+    // The cache may have been generated by another module instance while waiting for the lock
+    var latestCreatedAt = rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId);
+    if (latestCreatedAt.isPresent() && !isExpired(latestCreatedAt.get())) {
+      return;
+    }
+    var generationStartedAt = Instant.now();
     try {
-      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-    } catch (Exception e) {
-      log.error("Error during lazy loading RTAC holdings for instanceIds: {}", instanceTenantMap.keySet(), e);
-      return gatherExceptions(futures);
+      var future = rtacCacheGenerationService.generateRtacCache(instanceId.toString());
+      future.join();
+    } catch (Exception ex) {
+      handleGenerationFailure(instanceId, ex);
+      return;
+    }
+    if (latestCreatedAt.isPresent()) {
+      deleteRowsNotRegenerated(instanceId, generationStartedAt);
+    }
+  }
+
+  /**
+   * Deletes the partially generated cache of the instance. Fails unless the instance does not exist.
+   */
+  private void handleGenerationFailure(UUID instanceId, Throwable ex) {
+    Throwable rootCause = unwrapCompletionException(ex);
+    if (isNotFound(rootCause)) {
+      log.warn("Instance {} not found during RTAC cache generation; skipping.", instanceId);
+      rtacHoldingRepository.deleteAllByIdInstanceId(instanceId);
+      rtacInstanceTenantService.removeCurrentTenant(List.of(instanceId));
+      return;
+    }
+    log.error("RTAC cache generation failed for instanceId: {}", instanceId, ex);
+    rtacHoldingRepository.deleteAllByIdInstanceId(instanceId);
+    throw generationFailedException(instanceId);
+  }
+
+  private static ResponseStatusException generationFailedException(UUID instanceId) {
+    return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+      String.format("RTAC cache generation failed for instanceId: %s", instanceId));
+  }
+
+  /**
+   * Regeneration upserts every row that still exists in the source modules, the rows it did not touch are gone.
+   */
+  private void deleteRowsNotRegenerated(UUID instanceId, Instant generationStartedAt) {
+    var deleted = rtacHoldingRepository.deleteAllByIdInstanceIdAndCreatedAtBefore(instanceId, generationStartedAt);
+    if (deleted > 0) {
+      log.debug("Deleted {} RTAC holdings not found during regeneration of instanceId: {}", deleted, instanceId);
+    }
+  }
+
+  private boolean isStale(Instant latestCreatedAt) {
+    return latestCreatedAt.isBefore(Instant.now().minus(cacheFreshnessProperties.getSoftTtl()));
+  }
+
+  private boolean isExpired(Instant latestCreatedAt) {
+    return latestCreatedAt.isBefore(Instant.now().minus(cacheFreshnessProperties.getHardTtl()));
+  }
+
+  private String getLazyLoadKey(UUID instanceId) {
+    return folioExecutionContext.getTenantId() + ":" + instanceId;
+  }
+
+  private static void awaitLazyLoad(CompletableFuture<Void> lazyLoad) {
+    try {
+      lazyLoad.join();
+    } catch (CompletionException ex) {
+      if (unwrapCompletionException(ex) instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw ex;
     }
-    return Collections.emptyList();
   }
 
   private BatchIdsDto getBatchIdsDto(List<UUID> instanceId) {
@@ -125,6 +459,31 @@ public class RtacHoldingLazyLoadingService {
     return instanceTenantMap;
   }
 
+  private RtacLazyLoadResult awaitLazyLoads(Map<UUID, List<CompletableFuture<Void>>> futures, Duration timeout) {
+    var allFutures = futures.values().stream().flatMap(List::stream).toList();
+    try {
+      var allOf = CompletableFuture.allOf(allFutures.toArray(new CompletableFuture[0]));
+      if (timeout.isPositive()) {
+        allOf.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+      } else {
+        allOf.get();
+      }
+      return new RtacLazyLoadResult(Collections.emptyList(), Collections.emptySet());
+    } catch (TimeoutException e) {
+      log.info("Lazy loading RTAC holdings exceeded time budget of {} for instanceIds: {}", timeout, futures.keySet());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("Interrupted while lazy loading RTAC holdings for instanceIds: {}", futures.keySet());
+    } catch (Exception e) {
+      log.error("Error during lazy loading RTAC holdings for instanceIds: {}", futures.keySet(), e);
+    }
+    var pendingInstanceIds = futures.entrySet().stream()
+      .filter(entry -> !entry.getValue().stream().allMatch(CompletableFuture::isDone))
+      .map(Map.Entry::getKey)
+      .collect(Collectors.toSet());
+    return new RtacLazyLoadResult(gatherExceptions(allFutures), pendingInstanceIds);
+  }
+
   private List<Throwable> gatherExceptions(List<CompletableFuture<Void>> futures) {
     return futures.stream()
       .filter(CompletableFuture::isCompletedExceptionally)
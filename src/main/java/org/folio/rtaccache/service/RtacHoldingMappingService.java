@@ -8,15 +8,14 @@ import java.time.Instant;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.Map;
 import java.util.StringJoiner;
 import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.util.Strings;
+import org.folio.rtaccache.domain.ReferenceDataSnapshot;
 import org.folio.rtaccache.domain.dto.HoldingsNote;
-import org.folio.rtaccache.domain.dto.HoldingsNoteType;
 import org.folio.rtaccache.domain.dto.HoldingsRecord;
 import org.folio.rtaccache.domain.dto.HoldingsStatement;
 import org.folio.rtaccache.domain.dto.Item;
@@ -37,7 +36,23 @@ public class RtacHoldingMappingService {
 
   private final InventoryReferenceDataService inventoryReferenceDataService;
 
+  /**
+   * Resolves the reference data of the current tenant once, to be passed to the mappers of a whole generation or
+   * event instead of looking it up through the cache proxies per mapped row.
+   */
+  public ReferenceDataSnapshot getReferenceDataSnapshot() {
+    return new ReferenceDataSnapshot(inventoryReferenceDataService.getLocationsMap(),
+      inventoryReferenceDataService.getLibraryMap(),
+      inventoryReferenceDataService.getMaterialTypesMap(),
+      inventoryReferenceDataService.getLoanTypesMap(),
+      inventoryReferenceDataService.getHoldingsNoteTypesMap());
+  }
+
   public RtacHolding mapFrom(HoldingsRecord holding, Item item) {
+    return mapFrom(holding, item, getReferenceDataSnapshot());
+  }
+
+  public RtacHolding mapFrom(HoldingsRecord holding, Item item, ReferenceDataSnapshot referenceData) {
     var rtacHolding = new RtacHolding();
     rtacHolding.setId(item.getId());
     rtacHolding.setType(TypeEnum.ITEM);
@@ -51,20 +66,24 @@ public class RtacHoldingMappingService {
     rtacHolding.setEffectiveShelvingOrder(item.getEffectiveShelvingOrder());
     rtacHolding.setStatus(item.getStatus().getName().getValue());
     rtacHolding.setSuppressFromDiscovery(item.getDiscoverySuppress());
-    rtacHolding.setLocation(mapLocationFrom(item.getEffectiveLocationId()));
-    rtacHolding.setLibrary(mapLibraryFrom(item.getEffectiveLocationId()));
-    rtacHolding.setMaterialType(mapMaterialTypeFrom(item));
-    rtacHolding.setTemporaryLoanType(mapLoanTypeFrom(item.getTemporaryLoanTypeId()));
-    rtacHolding.setPermanentLoanType(mapLoanTypeFrom(item.getPermanentLoanTypeId()));
+    rtacHolding.setLocation(mapLocationFrom(item.getEffectiveLocationId(), referenceData));
+    rtacHolding.setLibrary(mapLibraryFrom(item.getEffectiveLocationId(), referenceData));
+    rtacHolding.setMaterialType(mapMaterialTypeFrom(item, referenceData));
+    rtacHolding.setTemporaryLoanType(mapLoanTypeFrom(item.getTemporaryLoanTypeId(), referenceData));
+    rtacHolding.setPermanentLoanType(mapLoanTypeFrom(item.getPermanentLoanTypeId(), referenceData));
     rtacHolding.setHoldingsStatements(mapArraySafe(holding.getHoldingsStatements(), this::mapHoldingsStatementFrom));
     rtacHolding.setHoldingsStatementsForIndexes(mapArraySafe(holding.getHoldingsStatementsForIndexes(), this::mapHoldingsStatementFrom));
     rtacHolding.setHoldingsStatementsForSupplements(mapArraySafe(holding.getHoldingsStatementsForSupplements(), this::mapHoldingsStatementFrom));
-    rtacHolding.setNotes(mapHoldingsNotesFrom(holding));
+    rtacHolding.setNotes(mapHoldingsNotesFrom(holding, referenceData));
     rtacHolding.setCreatedAt(Date.from(Instant.now()));
     return rtacHolding;
   }
 
   public RtacHolding mapFrom(HoldingsRecord holding) {
+    return mapFrom(holding, getReferenceDataSnapshot());
+  }
+
+  public RtacHolding mapFrom(HoldingsRecord holding, ReferenceDataSnapshot referenceData) {
     var rtacHolding = new RtacHolding();
     rtacHolding.setId(holding.getId());
     rtacHolding.setType(TypeEnum.HOLDING);
@@ -74,17 +93,21 @@ public class RtacHoldingMappingService {
     rtacHolding.setHoldingsCopyNumber(holding.getCopyNumber());
     rtacHolding.setStatus(mapHoldingsStatusFrom(holding));
     rtacHolding.setSuppressFromDiscovery(holding.getDiscoverySuppress());
-    rtacHolding.setLocation(mapLocationFrom(holding.getEffectiveLocationId()));
-    rtacHolding.setLibrary(mapLibraryFrom(holding.getEffectiveLocationId()));
+    rtacHolding.setLocation(mapLocationFrom(holding.getEffectiveLocationId(), referenceData));
+    rtacHolding.setLibrary(mapLibraryFrom(holding.getEffectiveLocationId(), referenceData));
     rtacHolding.setHoldingsStatements(mapArraySafe(holding.getHoldingsStatements(), this::mapHoldingsStatementFrom));
     rtacHolding.setHoldingsStatementsForIndexes(mapArraySafe(holding.getHoldingsStatementsForIndexes(), this::mapHoldingsStatementFrom));
     rtacHolding.setHoldingsStatementsForSupplements(mapArraySafe(holding.getHoldingsStatementsForSupplements(), this::mapHoldingsStatementFrom));
-    rtacHolding.setNotes(mapHoldingsNotesFrom(holding));
+    rtacHolding.setNotes(mapHoldingsNotesFrom(holding, referenceData));
     rtacHolding.setCreatedAt(Date.from(Instant.now()));
     return rtacHolding;
   }
 
   public RtacHolding mapFrom(HoldingsRecord holding, Piece piece) {
+    return mapFrom(holding, piece, getReferenceDataSnapshot());
+  }
+
+  public RtacHolding mapFrom(HoldingsRecord holding, Piece piece, ReferenceDataSnapshot referenceData) {
     var rtacHolding = new RtacHolding();
     rtacHolding.setId(piece.getId());
     rtacHolding.setType(TypeEnum.PIECE);
@@ -95,17 +118,21 @@ public class RtacHoldingMappingService {
     rtacHolding.setStatus(piece.getReceivingStatus().getValue());
     rtacHolding.setVolume(mapVolumeFrom(piece));
     rtacHolding.setSuppressFromDiscovery(holding.getDiscoverySuppress());
-    rtacHolding.setLocation(mapLocationFrom(holding.getEffectiveLocationId()));
-    rtacHolding.setLibrary(mapLibraryFrom(holding.getEffectiveLocationId()));
+    rtacHolding.setLocation(mapLocationFrom(holding.getEffectiveLocationId(), referenceData));
+    rtacHolding.setLibrary(mapLibraryFrom(holding.getEffectiveLocationId(), referenceData));
     rtacHolding.setHoldingsStatements(mapArraySafe(holding.getHoldingsStatements(), this::mapHoldingsStatementFrom));
     rtacHolding.setHoldingsStatementsForIndexes(mapArraySafe(holding.getHoldingsStatementsForIndexes(), this::mapHoldingsStatementFrom));
     rtacHolding.setHoldingsStatementsForSupplements(mapArraySafe(holding.getHoldingsStatementsForSupplements(), this::mapHoldingsStatementFrom));
-    rtacHolding.setNotes(mapHoldingsNotesFrom(holding));
+    rtacHolding.setNotes(mapHoldingsNotesFrom(holding, referenceData));
     rtacHolding.setCreatedAt(Date.from(Instant.now()));
     return rtacHolding;
   }
 
   public RtacHolding mapForItemTypeFrom(RtacHolding existingRtacHolding, Item item) {
+    return mapForItemTypeFrom(existingRtacHolding, item, getReferenceDataSnapshot());
+  }
+
+  public RtacHolding mapForItemTypeFrom(RtacHolding existingRtacHolding, Item item, ReferenceDataSnapshot referenceData) {
     var newRtacHolding = new RtacHolding();
     newRtacHolding.setId(item.getId());
     newRtacHolding.setType(TypeEnum.ITEM);
@@ -120,11 +147,11 @@ public class RtacHoldingMappingService {
     newRtacHolding.setEffectiveShelvingOrder(item.getEffectiveShelvingOrder());
     newRtacHolding.setStatus(item.getStatus().getName().getValue());
     newRtacHolding.setSuppressFromDiscovery(item.getDiscoverySuppress());
-    newRtacHolding.setLocation(mapLocationFrom(item.getEffectiveLocationId()));
-    newRtacHolding.setLibrary(mapLibraryFrom(item.getEffectiveLocationId()));
-    newRtacHolding.setMaterialType(mapMaterialTypeFrom(item));
-    newRtacHolding.setTemporaryLoanType(mapLoanTypeFrom(item.getTemporaryLoanTypeId()));
-    newRtacHolding.setPermanentLoanType(mapLoanTypeFrom(item.getPermanentLoanTypeId()));
+    newRtacHolding.setLocation(mapLocationFrom(item.getEffectiveLocationId(), referenceData));
+    newRtacHolding.setLibrary(mapLibraryFrom(item.getEffectiveLocationId(), referenceData));
+    newRtacHolding.setMaterialType(mapMaterialTypeFrom(item, referenceData));
+    newRtacHolding.setTemporaryLoanType(mapLoanTypeFrom(item.getTemporaryLoanTypeId(), referenceData));
+    newRtacHolding.setPermanentLoanType(mapLoanTypeFrom(item.getPermanentLoanTypeId(), referenceData));
     newRtacHolding.setHoldingsStatements(existingRtacHolding.getHoldingsStatements());
     newRtacHolding.setHoldingsStatementsForIndexes(existingRtacHolding.getHoldingsStatementsForIndexes());
     newRtacHolding.setHoldingsStatementsForSupplements(existingRtacHolding.getHoldingsStatementsForSupplements());
@@ -133,6 +160,10 @@ public class RtacHoldingMappingService {
   }
 
   public RtacHolding mapForUpdateItemFrom(Item item) {
+    return mapForUpdateItemFrom(item, getReferenceDataSnapshot());
+  }
+
+  public RtacHolding mapForUpdateItemFrom(Item item, ReferenceDataSnapshot referenceData) {
     var newRtacHolding = new RtacHolding();
     newRtacHolding.setId(item.getId());
     newRtacHolding.setType(TypeEnum.ITEM);
@@ -143,11 +174,11 @@ public class RtacHoldingMappingService {
     newRtacHolding.setEffectiveShelvingOrder(item.getEffectiveShelvingOrder());
     newRtacHolding.setStatus(item.getStatus().getName().getValue());
     newRtacHolding.setSuppressFromDiscovery(item.getDiscoverySuppress());
-    newRtacHolding.setLocation(mapLocationFrom(item.getEffectiveLocationId()));
-    newRtacHolding.setLibrary(mapLibraryFrom(item.getEffectiveLocationId()));
-    newRtacHolding.setMaterialType(mapMaterialTypeFrom(item));
-    newRtacHolding.setTemporaryLoanType(mapLoanTypeFrom(item.getTemporaryLoanTypeId()));
-    newRtacHolding.setPermanentLoanType(mapLoanTypeFrom(item.getPermanentLoanTypeId()));
+    newRtacHolding.setLocation(mapLocationFrom(item.getEffectiveLocationId(), referenceData));
+    newRtacHolding.setLibrary(mapLibraryFrom(item.getEffectiveLocationId(), referenceData));
+    newRtacHolding.setMaterialType(mapMaterialTypeFrom(item, referenceData));
+    newRtacHolding.setTemporaryLoanType(mapLoanTypeFrom(item.getTemporaryLoanTypeId(), referenceData));
+    newRtacHolding.setPermanentLoanType(mapLoanTypeFrom(item.getPermanentLoanTypeId(), referenceData));
     return newRtacHolding;
   }
 
@@ -182,6 +213,10 @@ public class RtacHoldingMappingService {
   }
 
   public RtacHolding mapForPieceTypeFrom(RtacHolding existingRtacHolding, HoldingsRecord holding) {
+    return mapForPieceTypeFrom(existingRtacHolding, holding, getReferenceDataSnapshot());
+  }
+
+  public RtacHolding mapForPieceTypeFrom(RtacHolding existingRtacHolding, HoldingsRecord holding, ReferenceDataSnapshot referenceData) {
     var newRtacHolding = new RtacHolding();
     newRtacHolding.setId(existingRtacHolding.getId());
     newRtacHolding.setType(TypeEnum.PIECE);
@@ -192,12 +227,12 @@ public class RtacHoldingMappingService {
     newRtacHolding.setStatus(existingRtacHolding.getStatus());
     newRtacHolding.setVolume(existingRtacHolding.getVolume());
     newRtacHolding.setSuppressFromDiscovery(holding.getDiscoverySuppress());
-    newRtacHolding.setLocation(mapLocationFrom(holding.getEffectiveLocationId()));
-    newRtacHolding.setLibrary(mapLibraryFrom(holding.getEffectiveLocationId()));
+    newRtacHolding.setLocation(mapLocationFrom(holding.getEffectiveLocationId(), referenceData));
+    newRtacHolding.setLibrary(mapLibraryFrom(holding.getEffectiveLocationId(), referenceData));
     newRtacHolding.setHoldingsStatements(mapArraySafe(holding.getHoldingsStatements(), this::mapHoldingsStatementFrom));
     newRtacHolding.setHoldingsStatementsForIndexes(mapArraySafe(holding.getHoldingsStatementsForIndexes(), this::mapHoldingsStatementFrom));
     newRtacHolding.setHoldingsStatementsForSupplements(mapArraySafe(holding.getHoldingsStatementsForSupplements(), this::mapHoldingsStatementFrom));
-    newRtacHolding.setNotes(mapHoldingsNotesFrom(holding));
+    newRtacHolding.setNotes(mapHoldingsNotesFrom(holding, referenceData));
     return newRtacHolding;
   }
 
@@ -223,12 +258,12 @@ public class RtacHoldingMappingService {
     return newRtacHolding;
   }
 
-  private RtacHoldingLocation mapLocationFrom(String locationId) {
+  private RtacHoldingLocation mapLocationFrom(String locationId, ReferenceDataSnapshot referenceData) {
     var location = new RtacHoldingLocation();
     if (locationId == null || locationId.isEmpty()) {
       return location;
     }
-    var itemLocation = inventoryReferenceDataService.getLocationsMap().get(locationId);
+    var itemLocation = referenceData.location(locationId);
     location.setId(locationId);
     if (itemLocation != null) {
       location.setName(itemLocation.getName());
@@ -237,54 +272,49 @@ public class RtacHoldingMappingService {
     return location;
   }
 
-  private RtacHoldingLibrary mapLibraryFrom(String locationId) {
-    var location = inventoryReferenceDataService.getLocationsMap().get(locationId);
+  private RtacHoldingLibrary mapLibraryFrom(String locationId, ReferenceDataSnapshot referenceData) {
     var rtacHoldingLibrary = new RtacHoldingLibrary();
-    if (location != null) {
-      var libraryMap = inventoryReferenceDataService.getLibraryMap();
-      var library = libraryMap.get(location.getLibraryId());
-      if (library != null) {
-        rtacHoldingLibrary.setId(library.getId());
-        rtacHoldingLibrary.setCode(library.getCode());
-        rtacHoldingLibrary.setName(library.getName());
-      }
+    var library = referenceData.library(locationId);
+    if (library != null) {
+      rtacHoldingLibrary.setId(library.getId());
+      rtacHoldingLibrary.setCode(library.getCode());
+      rtacHoldingLibrary.setName(library.getName());
     }
     return rtacHoldingLibrary;
   }
 
-  private RtacHoldingMaterialType mapMaterialTypeFrom(Item item) {
+  private RtacHoldingMaterialType mapMaterialTypeFrom(Item item, ReferenceDataSnapshot referenceData) {
     if (StringUtils.isBlank(item.getMaterialTypeId())) {
       return null;
     }
-    var materialType = inventoryReferenceDataService.getMaterialTypesMap().get(item.getMaterialTypeId());
+    var materialType = referenceData.materialType(item.getMaterialTypeId());
     var rtacHoldingMaterialType = new RtacHoldingMaterialType();
     rtacHoldingMaterialType.setId(item.getMaterialTypeId());
     rtacHoldingMaterialType.setName(materialType != null ? materialType.getName() : null);
     return rtacHoldingMaterialType;
   }
 
-  private String mapLoanTypeFrom(String loanTypeId) {
+  private String mapLoanTypeFrom(String loanTypeId, ReferenceDataSnapshot referenceData) {
     if (loanTypeId == null || loanTypeId.isEmpty()) {
       return null;
     }
-    var loanType = inventoryReferenceDataService.getLoanTypesMap().get(loanTypeId);
+    var loanType = referenceData.loanType(loanTypeId);
     return loanType != null ? loanType.getName() : null;
   }
 
-  private List<RtacHoldingNotesInner> mapHoldingsNotesFrom(HoldingsRecord holding) {
+  private List<RtacHoldingNotesInner> mapHoldingsNotesFrom(HoldingsRecord holding, ReferenceDataSnapshot referenceData) {
     if (holding.getNotes() == null) {
       return Collections.emptyList();
     }
-    var noteTypesMap = inventoryReferenceDataService.getHoldingsNoteTypesMap();
     return holding.getNotes().stream()
       .filter(note -> !note.getStaffOnly())
-      .map(note -> mapHoldingsNoteFrom(note, noteTypesMap))
+      .map(note -> mapHoldingsNoteFrom(note, referenceData))
       .toList();
   }
 
-  private RtacHoldingNotesInner mapHoldingsNoteFrom(HoldingsNote note, Map<String, HoldingsNoteType> holdingsNoteTypeMap) {
+  private RtacHoldingNotesInner mapHoldingsNoteFrom(HoldingsNote note, ReferenceDataSnapshot referenceData) {
     var rtacHoldingNote = new RtacHoldingNotesInner();
-    var noteType = holdingsNoteTypeMap.get(note.getHoldingsNoteTypeId());
+    var noteType = referenceData.holdingsNoteType(note.getHoldingsNoteTypeId());
     rtacHoldingNote.setHoldingsNoteTypeName(noteType != null ? noteType.getName() : null);
     rtacHoldingNote.setNote(note.getNote());
     return rtacHoldingNote;
@@ -1,29 +1,45 @@
 package org.folio.rtaccache.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.folio.rtaccache.config.BatchRequestProperties;
+import org.folio.rtaccache.config.EcsReadProperties;
+import org.folio.rtaccache.domain.RawRtacHolding;
+import org.folio.rtaccache.domain.RtacHoldingCursor;
 import org.folio.rtaccache.domain.RtacHoldingEntity;
+import org.folio.rtaccache.domain.RtacLazyLoadResult;
 import org.folio.rtaccache.domain.dto.Error;
 import org.folio.rtaccache.domain.dto.Parameter;
 import org.folio.rtaccache.domain.dto.RtacHolding;
+import org.folio.rtaccache.domain.dto.RtacHoldings;
 import org.folio.rtaccache.domain.dto.RtacHoldingsBatch;
+import org.folio.rtaccache.domain.dto.RtacHoldingsDetailsBatch;
 import org.folio.rtaccache.domain.dto.RtacHoldingsSummary;
 import org.folio.rtaccache.domain.dto.StatusSummary;
+import org.folio.rtaccache.repository.RtacHoldingFanOutRepository;
+import org.folio.rtaccache.repository.RtacHoldingPageRepository;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
+import org.folio.rtaccache.repository.RtacInstanceVersionProjection;
 import org.folio.rtaccache.repository.RtacSummaryProjection;
 import org.folio.rtaccache.util.EcsUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.server.ResponseStatusException;
 import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.ObjectMapper;
@@ -40,34 +56,91 @@ public class RtacHoldingStorageService {
   private final RtacHoldingLazyLoadingService rtacHoldingLazyLoadingService;
   private final ObjectMapper objectMapper;
   private final EcsUtil ecsUtil;
+  private final RtacHoldingFanOutRepository rtacHoldingFanOutRepository;
+  private final EcsReadProperties ecsReadProperties;
+  private final BatchRequestProperties batchRequestProperties;
+  private final RtacInstanceTenantService rtacInstanceTenantService;
 
   public Page<RtacHolding> searchRtacHoldings(UUID instanceId, String query, Boolean available, Pageable pageable) {
+    return searchRtacHoldings(instanceId, query, available, pageable, null);
+  }
+
+  public Page<RtacHolding> searchRtacHoldings(UUID instanceId, String query, Boolean available, Pageable pageable,
+                                              RtacHoldingCursor after) {
     var isCentral = consortiaService.isCentralTenant();
-    var schema = ecsUtil.getSchemaName();
-    var lazyLoadExceptions = lazyLoadInstances(List.of(instanceId), isCentral);
-    if (!lazyLoadExceptions.isEmpty()) {
-      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to lazy load RTAC holdings for instanceId: " + instanceId, lazyLoadExceptions.get(0));
-    }
-    return rtacHoldingRepository.search(schema, instanceId, query, available, isCentral, pageable)
+    lazyLoadInstance(instanceId, isCentral);
+    return pageRepository(isCentral).search(ecsUtil.getSchemaName(List.of(instanceId)), instanceId, query, available, isCentral, pageable, after)
       .map(RtacHoldingEntity::getRtacHolding);
   }
 
+  /**
+   * Same as {@link #searchRtacHoldings(UUID, String, Boolean, Pageable, RtacHoldingCursor)}, but the holdings are
+   * {@link RawRtacHolding} instances serialized from the stored json as is.
+   */
+  public Page<RtacHolding> searchRawRtacHoldings(UUID instanceId, String query, Boolean available, Pageable pageable,
+                                                 RtacHoldingCursor after) {
+    var isCentral = consortiaService.isCentralTenant();
+    lazyLoadInstance(instanceId, isCentral);
+    return pageRepository(isCentral).searchRaw(ecsUtil.getSchemaName(List.of(instanceId)), instanceId, query, available, isCentral, pageable, after)
+      .map(RtacHolding.class::cast);
+  }
+
   public Page<RtacHolding> getRtacHoldingsByInstanceId(UUID instanceId, Pageable pageable) {
+    return getRtacHoldingsByInstanceId(instanceId, pageable, null);
+  }
+
+  public Page<RtacHolding> getRtacHoldingsByInstanceId(UUID instanceId, Pageable pageable, RtacHoldingCursor after) {
     var isCentral = consortiaService.isCentralTenant();
-    var schema = ecsUtil.getSchemaName();
-    var lazyLoadExceptions = lazyLoadInstances(List.of(instanceId), isCentral);
-    if (!lazyLoadExceptions.isEmpty()) {
-      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to lazy load RTAC holdings for instanceId: " + instanceId, lazyLoadExceptions.get(0));
-    }
-    return rtacHoldingRepository.findAllByIdInstanceId(schema, instanceId, isCentral, pageable)
+    lazyLoadInstance(instanceId, isCentral);
+    return pageRepository(isCentral).findAllByIdInstanceId(ecsUtil.getSchemaName(List.of(instanceId)), instanceId, isCentral, pageable, after)
       .map(RtacHoldingEntity::getRtacHolding);
   }
 
+  /**
+   * Same as {@link #getRtacHoldingsByInstanceId(UUID, Pageable, RtacHoldingCursor)}, but the holdings are
+   * {@link RawRtacHolding} instances serialized from the stored json as is. The instance is not lazy loaded, callers
+   * lazy load it with {@link #lazyLoadRtacHoldings(UUID)} first, so the entity tag of the holdings can be taken
+   * in between.
+   */
+  public Page<RtacHolding> getRawRtacHoldingsByInstanceId(UUID instanceId, Pageable pageable, RtacHoldingCursor after) {
+    var isCentral = consortiaService.isCentralTenant();
+    return pageRepository(isCentral).findRawByIdInstanceId(ecsUtil.getSchemaName(List.of(instanceId)), instanceId, isCentral, pageable, after)
+      .map(RtacHolding.class::cast);
+  }
+
+  /**
+   * Makes sure the cache of the instance can be served, see {@link RtacHoldingLazyLoadingService#lazyLoadRtacHoldings(UUID)}.
+   */
+  public void lazyLoadRtacHoldings(UUID instanceId) {
+    lazyLoadInstance(instanceId, consortiaService.isCentralTenant());
+  }
+
+  /**
+   * Makes sure the caches of the given instances can be served, waiting for their generation at most for the batch
+   * time budget.
+   */
+  public RtacLazyLoadResult lazyLoadRtacHoldings(List<UUID> instanceIds) {
+    return lazyLoadInstances(instanceIds, consortiaService.isCentralTenant(), batchRequestProperties.getDeadline());
+  }
+
+  /**
+   * Returns the summaries of the given instances. Instances that are not generated within the batch time budget
+   * are returned as pending, without a summary.
+   */
   public RtacHoldingsBatch getRtacHoldingsSummaryForInstanceIds(List<UUID> instanceIds) {
+    return getRtacHoldingsSummaryForInstanceIds(instanceIds, lazyLoadRtacHoldings(instanceIds));
+  }
+
+  /**
+   * Same as {@link #getRtacHoldingsSummaryForInstanceIds(List)}, but for instances already lazy loaded with
+   * {@link #lazyLoadRtacHoldings(List)}.
+   */
+  public RtacHoldingsBatch getRtacHoldingsSummaryForInstanceIds(List<UUID> instanceIds, RtacLazyLoadResult lazyLoadResult) {
     var isCentral = consortiaService.isCentralTenant();
-    var schema = ecsUtil.getSchemaName();
-    var lazyLoadExceptions = lazyLoadInstances(instanceIds, isCentral);
-    List<RtacSummaryProjection> projections = rtacHoldingRepository.findRtacSummariesByInstanceIds(schema, instanceIds.toArray(new UUID[0]), isCentral);
+    var pendingInstanceIds = lazyLoadResult.pendingInstanceIds();
+    var readyInstanceIds = instanceIds.stream().filter(id -> !pendingInstanceIds.contains(id)).toList();
+    var schema = ecsUtil.getSchemaName(instanceIds);
+    List<RtacSummaryProjection> projections = rtacHoldingRepository.findRtacSummariesByInstanceIds(schema, readyInstanceIds.toArray(new UUID[0]), isCentral);
 
     Map<UUID, RtacSummaryProjection> summaryMap = projections.stream()
       .collect(Collectors.toMap(RtacSummaryProjection::instanceId, p -> p));
@@ -76,7 +149,7 @@ public class RtacHoldingStorageService {
     final var holdings = new ArrayList<RtacHoldingsSummary>();
     final var errors = new ArrayList<Error>();
 
-    instanceIds.forEach(id -> {
+    readyInstanceIds.forEach(id -> {
       RtacSummaryProjection projection = summaryMap.get(id);
       if (projection != null) {
         var summary = new RtacHoldingsSummary();
@@ -90,40 +163,130 @@ public class RtacHoldingStorageService {
         }
         holdings.add(summary);
       } else {
-        var parameter = new Parameter();
-        parameter.setKey("instanceId");
-        parameter.setValue(id.toString());
-        var error = new Error();
-        error.setCode(String.valueOf(HttpStatus.NOT_FOUND.value()));
-        error.setMessage(String.format(INSTANCE_NOT_FOUND_MESSAGE, id));
-        error.setParameters(List.of(parameter));
-        errors.add(error);
-        log.warn("Instance ID not found: {}", id);
+        errors.add(instanceNotFoundError(id));
       }
     });
 
-    for (Throwable exception : lazyLoadExceptions) {
-      var error = new Error();
-      error.setCode(String.valueOf(HttpStatus.INTERNAL_SERVER_ERROR.value()));
-      error.setMessage(exception.getMessage());
-      errors.add(error);
-    }
+    lazyLoadResult.exceptions().forEach(exception -> errors.add(lazyLoadError(exception)));
 
     result.setHoldings(holdings);
     result.setErrors(errors);
+    result.setPendingInstanceIds(instanceIds.stream()
+      .filter(pendingInstanceIds::contains)
+      .map(UUID::toString)
+      .toList());
     return result;
   }
 
+  /**
+   * Returns the first holdings of every instance in the requested order, read for all instances at once.
+   * The holdings are {@link RawRtacHolding} instances serialized from the stored json as is.
+   */
+  public RtacHoldingsDetailsBatch getRawRtacHoldingsForInstanceIds(List<UUID> instanceIds, Sort sort, int limit) {
+    var isCentral = consortiaService.isCentralTenant();
+    var lazyLoadExceptions = lazyLoadInstances(instanceIds, isCentral);
+    var schema = ecsUtil.getSchemaName(instanceIds);
+    var pages = rtacHoldingRepository.findRawByIdInstanceIdIn(schema, instanceIds, isCentral, sort, limit);
+
+    final var instances = new ArrayList<RtacHoldings>();
+    final var errors = new ArrayList<Error>();
+    instanceIds.forEach(id -> {
+      var page = pages.get(id);
+      if (page != null) {
+        var rtacHoldings = new RtacHoldings();
+        rtacHoldings.setInstanceId(id.toString());
+        rtacHoldings.setHoldings(new ArrayList<>(page.getContent()));
+        rtacHoldings.setTotalRecords((int) page.getTotalElements());
+        rtacHoldings.setNextContinuationToken(RtacHoldingCursor.nextToken(page));
+        instances.add(rtacHoldings);
+      } else {
+        errors.add(instanceNotFoundError(id));
+      }
+    });
+    lazyLoadExceptions.forEach(exception -> errors.add(lazyLoadError(exception)));
+
+    var result = new RtacHoldingsDetailsBatch();
+    result.setInstances(instances);
+    result.setErrors(errors);
+    return result;
+  }
+
+  /**
+   * Builds an entity tag of the cached holdings of the given instances from their versions, which change on every
+   * write to the holdings of an instance, and the variant of the response, e.g. the requested page. The tag is empty
+   * when any of the instances is not cached yet. The instances are expected to be lazy loaded first, otherwise the tag
+   * may describe expired holdings that are about to be generated again.
+   */
+  public Optional<String> getRtacHoldingsEntityTag(List<UUID> instanceIds, String variant) {
+    var isCentral = consortiaService.isCentralTenant();
+    var schema = ecsUtil.getSchemaName(instanceIds);
+    var versions = rtacHoldingRepository.findInstanceVersions(schema, instanceIds.toArray(new UUID[0]));
+
+    var versionedInstanceIds = versions.stream().map(RtacInstanceVersionProjection::instanceId).collect(Collectors.toSet());
+    if (!versionedInstanceIds.containsAll(instanceIds)) {
+      return Optional.empty();
+    }
+
+    var tagSource = versions.stream()
+      .sorted(Comparator.comparing(RtacInstanceVersionProjection::instanceId)
+        .thenComparing(RtacInstanceVersionProjection::sourceSchema))
+      .map(version -> version.sourceSchema() + ":" + version.instanceId() + ":" + version.version())
+      .collect(Collectors.joining(",", schema + ";" + isCentral + ";" + variant + ";", ""));
+    return Optional.of("\"" + DigestUtils.md5DigestAsHex(tagSource.getBytes(StandardCharsets.UTF_8)) + "\"");
+  }
+
   @Transactional
   public void deleteByInstanceIds(List<UUID> instanceIds) {
     log.debug("Deleting RTAC cache entries for instance IDs: {}", instanceIds);
     rtacHoldingRepository.deleteAllByIdInstanceIdIn(instanceIds);
+    rtacInstanceTenantService.removeCurrentTenant(instanceIds);
   }
 
   @Transactional
   public void deleteAllCacheEntries() {
     log.info("Deleting all RTAC cache entries");
     rtacHoldingRepository.deleteAll();
+    rtacInstanceTenantService.removeCurrentTenantFromAll();
+  }
+
+  private Error instanceNotFoundError(UUID id) {
+    var parameter = new Parameter();
+    parameter.setKey("instanceId");
+    parameter.setValue(id.toString());
+    var error = new Error();
+    error.setCode(String.valueOf(HttpStatus.NOT_FOUND.value()));
+    error.setMessage(String.format(INSTANCE_NOT_FOUND_MESSAGE, id));
+    error.setParameters(List.of(parameter));
+    log.warn("Instance ID not found: {}", id);
+    return error;
+  }
+
+  private Error lazyLoadError(Throwable exception) {
+    var error = new Error();
+    error.setCode(String.valueOf(HttpStatus.INTERNAL_SERVER_ERROR.value()));
+    error.setMessage(exception.getMessage());
+    return error;
+  }
+
+  private RtacHoldingPageRepository pageRepository(boolean isCentral) {
+    return isCentral && ecsReadProperties.getEngine() == EcsReadProperties.Engine.FAN_OUT
+      ? rtacHoldingFanOutRepository
+      : rtacHoldingRepository;
+  }
+
+  private void lazyLoadInstance(UUID instanceId, boolean isCentral) {
+    var lazyLoadExceptions = lazyLoadInstances(List.of(instanceId), isCentral);
+    if (!lazyLoadExceptions.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to lazy load RTAC holdings for instanceId: " + instanceId, lazyLoadExceptions.get(0));
+    }
+  }
+
+  private RtacLazyLoadResult lazyLoadInstances(List<UUID> instanceIds, boolean isCentral, Duration timeout) {
+    if (isCentral) {
+      return rtacHoldingLazyLoadingService.lazyLoadRtacHoldingsEcs(instanceIds, timeout);
+    } else {
+      return rtacHoldingLazyLoadingService.lazyLoadRtacHoldings(instanceIds, timeout);
+    }
   }
 
   private List<Throwable> lazyLoadInstances(List<UUID> instanceIds, boolean isCentral) {
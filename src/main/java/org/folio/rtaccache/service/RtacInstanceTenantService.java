@@ -0,0 +1,142 @@
+package org.folio.rtaccache.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.folio.rtaccache.domain.RtacInstanceTenants;
+import org.folio.rtaccache.domain.exception.RtacDataProcessingException;
+import org.folio.rtaccache.repository.RtacInstanceTenantRepository;
+import org.folio.spring.FolioExecutionContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Maintains the directory of the tenants that hold holdings of an instance in the central tenant schema.
+ * Entries of the current tenant are written once its transaction has committed, so an entry is only removed when the
+ * committed rows of the tenant no longer hold the instance, and a concurrent add is not lost. Entries are confirmed
+ * by lookups in mod-search, the tenants of an instance are looked up again once its entries are older than the given
+ * age or one of its tenants was removed, so tenants whose holdings were never or no longer cached are found again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RtacInstanceTenantService {
+
+  private final RtacInstanceTenantRepository rtacInstanceTenantRepository;
+  private final ConsortiaService consortiaService;
+  private final FolioExecutionContext folioExecutionContext;
+
+  /**
+   * Returns the tenants of the given instances known to the directory of the current (central) tenant.
+   * Instances without entries are absent from the result.
+   */
+  public Map<UUID, Set<String>> getInstanceTenants(Collection<UUID> instanceIds) {
+    return rtacInstanceTenantRepository.findTenantsByInstanceIds(getSchemaName(folioExecutionContext.getTenantId()),
+      instanceIds);
+  }
+
+  /**
+   * Same as {@link #getInstanceTenants(Collection)}, but also returns the instances whose tenants were not all
+   * confirmed by a lookup within the given age.
+   */
+  public RtacInstanceTenants getInstanceTenants(Collection<UUID> instanceIds, Duration maxAge) {
+    return rtacInstanceTenantRepository.findTenantsByInstanceIds(getSchemaName(folioExecutionContext.getTenantId()),
+      instanceIds, maxAge);
+  }
+
+  /**
+   * Records the tenants of the given instances looked up in mod-search in the directory of the current (central)
+   * tenant, confirming all entries of the instances.
+   */
+  public void refreshInstanceTenants(Collection<UUID> instanceIds, Map<UUID, Set<String>> instanceTenants) {
+    rtacInstanceTenantRepository.refresh(getSchemaName(folioExecutionContext.getTenantId()), instanceIds,
+      instanceTenants);
+  }
+
+  /**
+   * Records that the current tenant holds holdings of the instance in the directory of its central tenant.
+   * Does nothing for tenants outside a consortium. A failed write is only logged, the module may not be enabled
+   * for the central tenant.
+   */
+  public void addCurrentTenant(UUID instanceId) {
+    consortiaService.getCentralTenantId().ifPresent(centralTenantId -> {
+      var tenantId = folioExecutionContext.getTenantId();
+      runAfterCommit(() -> {
+        log.debug("Adding tenant: {} of instance: {} to directory of central tenant: {}", tenantId, instanceId,
+          centralTenantId);
+        try {
+          rtacInstanceTenantRepository.saveAll(getSchemaName(centralTenantId), Map.of(instanceId, Set.of(tenantId)));
+        } catch (RtacDataProcessingException e) {
+          log.warn("Failed to add tenant: {} of instance: {} to directory of central tenant: {}", tenantId, instanceId,
+            centralTenantId, e);
+        }
+      });
+    });
+  }
+
+  /**
+   * Removes the current tenant from the directory of its central tenant for the given instances it no longer holds
+   * holdings of. Does nothing for tenants outside a consortium. A failed delete is only logged, the stale entry just
+   * costs an empty read of the schema of the tenant.
+   */
+  public void removeCurrentTenant(Collection<UUID> instanceIds) {
+    if (instanceIds.isEmpty()) {
+      return;
+    }
+    consortiaService.getCentralTenantId().ifPresent(centralTenantId -> {
+      var tenantId = folioExecutionContext.getTenantId();
+      runAfterCommit(() -> {
+        try {
+          var deleted = rtacInstanceTenantRepository.deleteAbsent(getSchemaName(centralTenantId),
+            getSchemaName(tenantId), tenantId, instanceIds);
+          log.debug("Removed tenant: {} of {} instances from directory of central tenant: {}", tenantId, deleted,
+            centralTenantId);
+        } catch (RtacDataProcessingException e) {
+          log.warn("Failed to remove tenant: {} of instances: {} from directory of central tenant: {}", tenantId,
+            instanceIds, centralTenantId, e);
+        }
+      });
+    });
+  }
+
+  /**
+   * Removes all entries of the current tenant from the directory of its central tenant, once all of its cached rows
+   * are deleted. Does nothing for tenants outside a consortium.
+   */
+  public void removeCurrentTenantFromAll() {
+    consortiaService.getCentralTenantId().ifPresent(centralTenantId -> {
+      var tenantId = folioExecutionContext.getTenantId();
+      runAfterCommit(() -> {
+        try {
+          var deleted = rtacInstanceTenantRepository.deleteTenant(getSchemaName(centralTenantId), tenantId);
+          log.info("Removed tenant: {} of {} instances from directory of central tenant: {}", tenantId, deleted,
+            centralTenantId);
+        } catch (RtacDataProcessingException e) {
+          log.warn("Failed to remove tenant: {} from directory of central tenant: {}", tenantId, centralTenantId, e);
+        }
+      });
+    });
+  }
+
+  private void runAfterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private String getSchemaName(String tenantId) {
+    return folioExecutionContext.getFolioModuleMetadata().getDBSchemaName(tenantId);
+  }
+}
@@ -0,0 +1,15 @@
+package org.folio.rtaccache.service.handler;
+
+import java.util.Optional;
+import org.folio.rtaccache.domain.ItemDueDate;
+import org.folio.rtaccache.domain.dto.CirculationResourceEvent;
+
+public interface LoanEventHandler extends CirculationEventHandler {
+
+  /**
+   * Returns the due date the event sets on its item, or empty if the event leaves the item as it is. Every loan event
+   * sets the due date as a whole, so of several events for the same item only the last one has to be applied.
+   */
+  Optional<ItemDueDate> getItemDueDate(CirculationResourceEvent resourceEvent);
+
+}
@@ -1,6 +1,7 @@
 package org.folio.rtaccache.service.handler.impl;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.collections4.CollectionUtils;
@@ -12,7 +13,9 @@ import org.folio.rtaccache.domain.dto.InventoryEventType;
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
 import org.folio.rtaccache.domain.dto.RtacHolding.TypeEnum;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
+import org.folio.rtaccache.service.CachedIdFilterService;
 import org.folio.rtaccache.service.RtacHoldingMappingService;
+import org.folio.rtaccache.service.RtacInstanceTenantService;
 import org.folio.rtaccache.service.handler.InventoryEventHandler;
 import org.folio.rtaccache.util.ResourceEventUtil;
 import org.springframework.stereotype.Service;
@@ -25,6 +28,8 @@ public class HoldingsCreateEventHandler implements InventoryEventHandler {
   private final RtacHoldingMappingService rtacHoldingMappingService;
   private final RtacHoldingRepository holdingRepository;
   private final ResourceEventUtil resourceEventUtil;
+  private final CachedIdFilterService cachedIdFilterService;
+  private final RtacInstanceTenantService rtacInstanceTenantService;
 
 
   @Override
@@ -32,6 +37,8 @@ public class HoldingsCreateEventHandler implements InventoryEventHandler {
   public void handle(InventoryResourceEvent resourceEvent) {
     var holdingsData = resourceEventUtil.getNewFromInventoryEvent(resourceEvent, HoldingsRecord.class);
     var instanceId = UUID.fromString(holdingsData.getInstanceId());
+    // The directory is maintained regardless of the cache state, it decides which tenants are read for the instance
+    rtacInstanceTenantService.addCurrentTenant(instanceId);
     if (holdingRepository.countByIdInstanceId(instanceId) > 0) {
       var existingRtacHoldings = holdingRepository.findAllByIdInstanceIdAndIdType(instanceId, TypeEnum.HOLDING);
       if (CollectionUtils.isEmpty(existingRtacHoldings)) {
@@ -48,6 +55,7 @@ public class HoldingsCreateEventHandler implements InventoryEventHandler {
       rtacHoldingEntity.setCreatedAt(Instant.now());
       rtacHoldingEntity.setRtacHolding(rtacHolding);
       holdingRepository.save(rtacHoldingEntity);
+      cachedIdFilterService.add(List.of(rtacHoldingEntity));
     }
   }
 
@@ -1,11 +1,14 @@
 package org.folio.rtaccache.service.handler.impl;
 
+import java.util.List;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.folio.rtaccache.domain.dto.HoldingsRecord;
 import org.folio.rtaccache.domain.dto.InventoryEntityType;
 import org.folio.rtaccache.domain.dto.InventoryEventType;
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
+import org.folio.rtaccache.service.RtacInstanceTenantService;
 import org.folio.rtaccache.service.handler.InventoryEventHandler;
 import org.folio.rtaccache.util.ResourceEventUtil;
 import org.springframework.stereotype.Service;
@@ -17,12 +20,14 @@ public class HoldingsDeleteEventHandler implements InventoryEventHandler {
 
   private final RtacHoldingRepository holdingRepository;
   private final ResourceEventUtil resourceEventUtil;
+  private final RtacInstanceTenantService rtacInstanceTenantService;
 
   @Override
   @Transactional
   public void handle(InventoryResourceEvent resourceEvent) {
     var holdingsData = resourceEventUtil.getOldFromInventoryEvent(resourceEvent, HoldingsRecord.class);
     holdingRepository.deleteAllByHoldingsId(holdingsData.getId());
+    rtacInstanceTenantService.removeCurrentTenant(List.of(UUID.fromString(holdingsData.getInstanceId())));
   }
 
   @Override
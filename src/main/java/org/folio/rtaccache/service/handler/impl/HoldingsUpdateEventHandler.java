@@ -1,6 +1,7 @@
 package org.folio.rtaccache.service.handler.impl;
 
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +14,7 @@ import org.folio.rtaccache.domain.exception.RtacKafkaUpdateException;
 import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
 import org.folio.rtaccache.service.RtacHoldingMappingService;
+import org.folio.rtaccache.service.RtacInstanceTenantService;
 import org.folio.rtaccache.service.handler.InventoryEventHandler;
 import org.folio.rtaccache.util.ResourceEventUtil;
 import org.springframework.stereotype.Service;
@@ -27,6 +29,7 @@ public class HoldingsUpdateEventHandler implements InventoryEventHandler {
   private final RtacHoldingBulkRepository holdingBulkRepository;
   private final RtacHoldingRepository holdingRepository;
   private final ResourceEventUtil resourceEventUtil;
+  private final RtacInstanceTenantService rtacInstanceTenantService;
 
   @Override
   @Transactional
@@ -40,6 +43,8 @@ public class HoldingsUpdateEventHandler implements InventoryEventHandler {
     var holdingsId = UUID.fromString(oldHoldingsData.getId());
     try {
       if (!Objects.equals(oldHoldingsData.getInstanceId(), holdingsData.getInstanceId())) {
+        rtacInstanceTenantService.addCurrentTenant(newInstanceId);
+        rtacInstanceTenantService.removeCurrentTenant(List.of(oldInstanceId, newInstanceId));
         if (holdingRepository.countByIdInstanceId(newInstanceId) > 0) {
           var updated = holdingBulkRepository.moveHoldingsHierarchyToInstance(oldInstanceId, newInstanceId, oldHoldingsData.getId());
           if (updated == 0) {
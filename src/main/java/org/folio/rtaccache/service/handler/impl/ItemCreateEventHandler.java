@@ -1,6 +1,7 @@
 package org.folio.rtaccache.service.handler.impl;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.folio.rtaccache.domain.RtacHoldingEntity;
@@ -11,6 +12,7 @@ import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
 import org.folio.rtaccache.domain.dto.Item;
 import org.folio.rtaccache.domain.dto.RtacHolding.TypeEnum;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
+import org.folio.rtaccache.service.CachedIdFilterService;
 import org.folio.rtaccache.service.RtacHoldingMappingService;
 import org.folio.rtaccache.service.handler.InventoryEventHandler;
 import org.folio.rtaccache.util.ResourceEventUtil;
@@ -24,6 +26,7 @@ public class ItemCreateEventHandler implements InventoryEventHandler {
   private final RtacHoldingMappingService rtacHoldingMappingService;
   private final RtacHoldingRepository holdingRepository;
   private final ResourceEventUtil resourceEventUtil;
+  private final CachedIdFilterService cachedIdFilterService;
 
   @Override
   @Transactional
@@ -40,6 +43,7 @@ public class ItemCreateEventHandler implements InventoryEventHandler {
         newHoldingEntity.setCreatedAt(Instant.now());
         newHoldingEntity.setRtacHolding(newRtacHolding);
         holdingRepository.save(newHoldingEntity);
+        cachedIdFilterService.add(List.of(newHoldingEntity));
       });
   }
 
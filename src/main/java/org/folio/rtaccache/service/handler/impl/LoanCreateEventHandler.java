@@ -2,16 +2,18 @@ package org.folio.rtaccache.service.handler.impl;
 
 
 import java.sql.SQLException;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.folio.rtaccache.domain.ItemDueDate;
 import org.folio.rtaccache.domain.dto.CirculationEntityType;
 import org.folio.rtaccache.domain.dto.CirculationEventType;
 import org.folio.rtaccache.domain.dto.CirculationResourceEvent;
 import org.folio.rtaccache.domain.dto.Loan;
 import org.folio.rtaccache.domain.exception.RtacKafkaUpdateException;
 import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
-import org.folio.rtaccache.service.handler.CirculationEventHandler;
+import org.folio.rtaccache.service.handler.LoanEventHandler;
 import org.folio.rtaccache.util.ResourceEventUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,7 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 @Log4j2
-public class LoanCreateEventHandler implements CirculationEventHandler {
+public class LoanCreateEventHandler implements LoanEventHandler {
 
   private final RtacHoldingBulkRepository holdingRepository;
   private final ResourceEventUtil resourceEventUtil;
@@ -27,20 +29,29 @@ public class LoanCreateEventHandler implements CirculationEventHandler {
   @Override
   @Transactional
   public void handle(CirculationResourceEvent resourceEvent) {
-    var loanData = resourceEventUtil.getNewFromCirculationEvent(resourceEvent, Loan.class);
-    var dueDate = loanData.getDueDate();
-    if(dueDate == null) {
+    var itemDueDate = getItemDueDate(resourceEvent);
+    if (itemDueDate.isEmpty()) {
       return;
     }
-    var itemId = UUID.fromString(loanData.getItemId());
+    var itemId = itemDueDate.get().itemId();
     try {
-      holdingRepository.updateItemsDueDate(itemId, dueDate);
+      holdingRepository.updateItemsDueDate(itemId, itemDueDate.get().dueDate());
     } catch (SQLException e) {
       log.error("Error during updating RTAC holdings with due date by item id: {}", itemId, e);
       throw new RtacKafkaUpdateException(e);
     }
   }
 
+  @Override
+  public Optional<ItemDueDate> getItemDueDate(CirculationResourceEvent resourceEvent) {
+    var loanData = resourceEventUtil.getNewFromCirculationEvent(resourceEvent, Loan.class);
+    var dueDate = loanData.getDueDate();
+    if (dueDate == null) {
+      return Optional.empty();
+    }
+    return Optional.of(new ItemDueDate(UUID.fromString(loanData.getItemId()), dueDate));
+  }
+
   @Override
   public CirculationEventType getEventType() {
     return CirculationEventType.CREATED;
@@ -1,7 +1,5 @@
 package org.folio.rtaccache.service.handler.impl;
 
-import static org.folio.rtaccache.constant.RtacCacheConstant.LOAN_TYPES_CACHE_NAME;
-
 import java.sql.SQLException;
 import java.util.Objects;
 import lombok.RequiredArgsConstructor;
@@ -11,8 +9,8 @@ import org.folio.rtaccache.domain.dto.InventoryEventType;
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
 import org.folio.rtaccache.domain.dto.LoanType;
 import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
+import org.folio.rtaccache.service.InventoryReferenceDataService;
 import org.folio.rtaccache.service.handler.InventoryEventHandler;
-import org.folio.rtaccache.util.CacheUtil;
 import org.folio.rtaccache.util.ResourceEventUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,15 +22,14 @@ public class LoanTypeUpdateEventHandler implements InventoryEventHandler {
 
   private final RtacHoldingBulkRepository rtacHoldingBulkRepository;
   private final ResourceEventUtil resourceEventUtil;
-  private final CacheUtil cacheUtil;
+  private final InventoryReferenceDataService inventoryReferenceDataService;
 
   @Override
   @Transactional
   public void handle(InventoryResourceEvent resourceEvent) {
-    cacheUtil.clearCache(LOAN_TYPES_CACHE_NAME);
-
     var oldLoanType = resourceEventUtil.getOldFromInventoryEvent(resourceEvent, LoanType.class);
     var newLoanType = resourceEventUtil.getNewFromInventoryEvent(resourceEvent, LoanType.class);
+    inventoryReferenceDataService.putLoanType(newLoanType);
     if (oldLoanType == null || newLoanType == null
       || oldLoanType.getName() == null
       || Objects.equals(oldLoanType.getName(), newLoanType.getName())) {
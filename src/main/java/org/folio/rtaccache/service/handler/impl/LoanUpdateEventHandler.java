@@ -1,22 +1,24 @@
 package org.folio.rtaccache.service.handler.impl;
 
 import java.sql.SQLException;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.folio.rtaccache.domain.ItemDueDate;
 import org.folio.rtaccache.domain.dto.CirculationEntityType;
 import org.folio.rtaccache.domain.dto.CirculationEventType;
 import org.folio.rtaccache.domain.dto.CirculationResourceEvent;
 import org.folio.rtaccache.domain.dto.Loan;
 import org.folio.rtaccache.domain.exception.RtacKafkaUpdateException;
 import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
-import org.folio.rtaccache.service.handler.CirculationEventHandler;
+import org.folio.rtaccache.service.handler.LoanEventHandler;
 import org.folio.rtaccache.util.ResourceEventUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class LoanUpdateEventHandler implements CirculationEventHandler {
+public class LoanUpdateEventHandler implements LoanEventHandler {
 
   private final RtacHoldingBulkRepository holdingRepository;
   private final ResourceEventUtil resourceEventUtil;
@@ -24,10 +26,23 @@ public class LoanUpdateEventHandler implements CirculationEventHandler {
   @Override
   @Transactional
   public void handle(CirculationResourceEvent resourceEvent) {
+    var itemDueDate = getItemDueDate(resourceEvent);
+    if (itemDueDate.isEmpty()) {
+      return;
+    }
+    try {
+      holdingRepository.updateItemsDueDate(itemDueDate.get().itemId(), itemDueDate.get().dueDate());
+    } catch (SQLException e) {
+      throw new RtacKafkaUpdateException(e);
+    }
+  }
+
+  @Override
+  public Optional<ItemDueDate> getItemDueDate(CirculationResourceEvent resourceEvent) {
     var loanData = resourceEventUtil.getNewFromCirculationEvent(resourceEvent, Loan.class);
     var loanStatus = loanData.getStatus();
     if (loanStatus == null) {
-      return;
+      return Optional.empty();
     }
     var statusName = loanStatus.getName();
     var itemId = UUID.fromString(loanData.getItemId());
@@ -35,11 +50,7 @@ public class LoanUpdateEventHandler implements CirculationEventHandler {
     if ("Closed".equalsIgnoreCase(statusName)) {
       dueDate = null;
     }
-    try {
-      holdingRepository.updateItemsDueDate(itemId, dueDate);
-    } catch (SQLException e) {
-      throw new RtacKafkaUpdateException(e);
-    }
+    return Optional.of(new ItemDueDate(itemId, dueDate));
   }
 
   @Override
@@ -1,24 +1,26 @@
 package org.folio.rtaccache.service.handler.impl;
 
-import static org.folio.rtaccache.constant.RtacCacheConstant.LOCATIONS_CACHE_NAME;
-
 import lombok.RequiredArgsConstructor;
 import org.folio.rtaccache.domain.dto.InventoryEntityType;
 import org.folio.rtaccache.domain.dto.InventoryEventType;
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
+import org.folio.rtaccache.domain.dto.Location;
+import org.folio.rtaccache.service.InventoryReferenceDataService;
 import org.folio.rtaccache.service.handler.InventoryEventHandler;
-import org.folio.rtaccache.util.CacheUtil;
+import org.folio.rtaccache.util.ResourceEventUtil;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
 public class LocationCreateEventHandler implements InventoryEventHandler {
 
-  private final CacheUtil cacheUtil;
+  private final InventoryReferenceDataService inventoryReferenceDataService;
+  private final ResourceEventUtil resourceEventUtil;
 
   @Override
   public void handle(InventoryResourceEvent resourceEvent) {
-    cacheUtil.clearCache(LOCATIONS_CACHE_NAME);
+    var location = resourceEventUtil.getNewFromInventoryEvent(resourceEvent, Location.class);
+    inventoryReferenceDataService.putLocation(location);
   }
 
   @Override
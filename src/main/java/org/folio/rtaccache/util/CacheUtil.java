@@ -1,20 +0,0 @@
-package org.folio.rtaccache.util;
-
-import lombok.RequiredArgsConstructor;
-import org.springframework.cache.CacheManager;
-import org.springframework.stereotype.Service;
-
-@Service
-@RequiredArgsConstructor
-public class CacheUtil {
-
-  private final CacheManager cacheManager;
-
-  public void clearCache(String cacheName) {
-    var cache = cacheManager.getCache(cacheName);
-    if (cache != null) {
-      cache.clear();
-    }
-  }
-
-}
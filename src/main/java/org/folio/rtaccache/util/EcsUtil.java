@@ -1,8 +1,12 @@
 package org.folio.rtaccache.util;
 
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.folio.rtaccache.service.ConsortiaService;
+import org.folio.rtaccache.service.RtacInstanceTenantService;
 import org.folio.spring.FolioExecutionContext;
 import org.springframework.stereotype.Service;
 
@@ -12,6 +16,7 @@ public class EcsUtil {
 
   private final FolioExecutionContext folioExecutionContext;
   private final ConsortiaService consortiaService;
+  private final RtacInstanceTenantService rtacInstanceTenantService;
 
   public String getSchemaName() {
     if (consortiaService.isCentralTenant()) {
@@ -21,6 +26,29 @@ public class EcsUtil {
     }
   }
 
+  /**
+   * Same as {@link #getSchemaName()}, but in the central tenant only the schemas of the tenants that hold the
+   * given instances according to the instance tenant directory. Falls back to all tenant schemas when any of the
+   * instances is not in the directory.
+   */
+  public String getSchemaName(Collection<UUID> instanceIds) {
+    if (!consortiaService.isCentralTenant()) {
+      return getCurrentTenantSchemaName();
+    }
+    var instanceTenants = rtacInstanceTenantService.getInstanceTenants(instanceIds);
+    if (!instanceTenants.keySet().containsAll(instanceIds)) {
+      return getAllTenantsSchemaName();
+    }
+    var consortiaTenants = consortiaService.getConsortiaTenants();
+    return instanceTenants.values().stream()
+      .flatMap(Set::stream)
+      .filter(consortiaTenants::contains)
+      .distinct()
+      .sorted()
+      .map(tenantId -> folioExecutionContext.getFolioModuleMetadata().getDBSchemaName(tenantId))
+      .collect(Collectors.joining(","));
+  }
+
   public String getCurrentTenantSchemaName() {
     return folioExecutionContext.getFolioModuleMetadata().getDBSchemaName(folioExecutionContext.getTenantId());
   }
@@ -1,8 +1,19 @@
 package org.folio.rtaccache.util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
+import org.folio.rtaccache.domain.dto.BoundWithPart;
 import org.folio.rtaccache.domain.dto.CirculationResourceEvent;
+import org.folio.rtaccache.domain.dto.HoldingsRecord;
+import org.folio.rtaccache.domain.dto.Instance;
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
+import org.folio.rtaccache.domain.dto.Item;
+import org.folio.rtaccache.domain.dto.Loan;
+import org.folio.rtaccache.domain.dto.Request;
+import org.folio.rtaccache.domain.kafka.KafkaItem;
 import org.springframework.stereotype.Service;
 import tools.jackson.databind.ObjectMapper;
 
@@ -10,6 +21,8 @@ import tools.jackson.databind.ObjectMapper;
 @RequiredArgsConstructor
 public class ResourceEventUtil {
 
+  private static final List<String> REFERENCED_ID_FIELDS = List.of("id", "instanceId", "holdingsRecordId", "itemId");
+
   private final ObjectMapper objectMapper;
 
   public <T> T getNewFromInventoryEvent(InventoryResourceEvent event, Class<T> type) {
@@ -32,7 +45,71 @@ public class ResourceEventUtil {
     return convert(payload, type);
   }
 
+  /**
+   * Returns the id of the record of an event payload, or {@code null} if it has none.
+   */
+  public static String getRecordId(Object payload) {
+    return switch (payload) {
+      case Instance instance -> instance.getId();
+      case HoldingsRecord holdingsRecord -> holdingsRecord.getId();
+      case Item item -> item.getId();
+      case Map<?, ?> map when map.get("id") != null -> map.get("id").toString();
+      case null, default -> null;
+    };
+  }
+
+  /**
+   * Returns the record, instance, holdings and item ids an event payload refers to, those that are not set are left
+   * out.
+   */
+  public static List<String> getReferencedIds(Object payload) {
+    var ids = new ArrayList<String>(3);
+    switch (payload) {
+      case Instance instance -> ids.add(instance.getId());
+      case HoldingsRecord holdingsRecord -> {
+        ids.add(holdingsRecord.getId());
+        ids.add(holdingsRecord.getInstanceId());
+      }
+      case KafkaItem item -> {
+        ids.add(item.getId());
+        ids.add(item.getInstanceId());
+        ids.add(item.getHoldingsRecordId());
+      }
+      case Item item -> {
+        ids.add(item.getId());
+        ids.add(item.getHoldingsRecordId());
+      }
+      case BoundWithPart boundWithPart -> {
+        ids.add(boundWithPart.getInstanceId());
+        ids.add(boundWithPart.getHoldingsRecordId());
+        ids.add(boundWithPart.getItemId());
+      }
+      case Loan loan -> ids.add(loan.getItemId());
+      case Request request -> {
+        ids.add(request.getInstanceId());
+        ids.add(request.getItemId());
+      }
+      case Map<?, ?> map -> REFERENCED_ID_FIELDS.forEach(field -> {
+        if (map.get(field) != null) {
+          ids.add(map.get(field).toString());
+        }
+      });
+      case null, default -> {
+        // Payloads of other records refer to no cached ids
+      }
+    }
+    ids.removeIf(Objects::isNull);
+    return ids;
+  }
+
+  /**
+   * Returns payloads that were already bound to the requested type by the Kafka deserializer as they are, others,
+   * e.g. maps, are converted.
+   */
   private <T> T convert(Object source, Class<T> type) {
+    if (type.isInstance(source)) {
+      return type.cast(source);
+    }
     return objectMapper.convertValue(source, type);
   }
 }
@@ -0,0 +1,66 @@
+-- Row level trigger that sets rtac_holding.visible on every written row.
+-- A row is visible when neither the row nor its parent holding is suppressed from discovery.
+CREATE OR REPLACE FUNCTION rtac_holding_visibility_row_trigger()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    parent_suppressed boolean := FALSE;
+BEGIN
+    IF NEW.type <> 'HOLDING' AND NEW.rtac_holding_json->>'holdingsId' IS NOT NULL THEN
+        EXECUTE format(
+          'SELECT EXISTS (
+             SELECT 1 FROM %I.rtac_holding p
+             WHERE p.instance_id = $1
+               AND p.type = ''HOLDING''
+               AND p.id = $2
+               AND COALESCE((p.rtac_holding_json->>''suppressFromDiscovery'')::boolean, FALSE)
+           )',
+          TG_TABLE_SCHEMA
+        ) INTO parent_suppressed USING NEW.instance_id, (NEW.rtac_holding_json->>'holdingsId')::uuid;
+    END IF;
+
+    NEW.visible := NOT COALESCE((NEW.rtac_holding_json->>'suppressFromDiscovery')::boolean, FALSE)
+      AND NOT parent_suppressed;
+    RETURN NEW;
+END;
+$$;
+
+-- Statement level trigger that recalculates visibility of items and pieces of the written or deleted holdings,
+-- as the row trigger only sees the parent holding state at the time the child row is written.
+CREATE OR REPLACE FUNCTION rtac_holding_visibility_statement_trigger()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    changes text;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        changes := 'SELECT instance_id, type, id FROM new_rows';
+    ELSIF TG_OP = 'DELETE' THEN
+        changes := 'SELECT instance_id, type, id FROM old_rows';
+    ELSE
+        changes := 'SELECT instance_id, type, id FROM old_rows UNION SELECT instance_id, type, id FROM new_rows';
+    END IF;
+
+    EXECUTE format(
+      'WITH parents AS (
+         SELECT DISTINCT c.instance_id, c.id, COALESCE((p.rtac_holding_json->>''suppressFromDiscovery'')::boolean, FALSE) AS suppressed
+         FROM (%2$s) c
+         LEFT JOIN %1$I.rtac_holding p ON p.instance_id = c.instance_id AND p.type = c.type AND p.id = c.id
+         WHERE c.type = ''HOLDING''
+       )
+       UPDATE %1$I.rtac_holding r
+       SET visible = NOT COALESCE((r.rtac_holding_json->>''suppressFromDiscovery'')::boolean, FALSE) AND NOT parents.suppressed
+       FROM parents
+       WHERE r.instance_id = parents.instance_id
+         AND r.type <> ''HOLDING''
+         AND r.rtac_holding_json->>''holdingsId'' = parents.id::text
+         AND r.visible IS DISTINCT FROM
+           (NOT COALESCE((r.rtac_holding_json->>''suppressFromDiscovery'')::boolean, FALSE) AND NOT parents.suppressed)',
+      TG_TABLE_SCHEMA, changes
+    );
+
+    RETURN NULL;
+END;
+$$;
@@ -7,15 +7,32 @@ RETURNS SETOF rtac_holding
 LANGUAGE plpgsql
 AS $$
 DECLARE
+    has_item_query text;
     union_query text;
 BEGIN
-    -- Build a UNION ALL query across all tenant schemas
-    union_query := (
+    -- Holdings are only returned for instances without items in any of the tenant schemas
+    has_item_query := (
         SELECT string_agg(
             format(
-              'SELECT * FROM %I.rtac_holding h WHERE h.instance_id = ANY($1) AND ($2 IS NOT TRUE OR h.shared = TRUE)',
+              'EXISTS (SELECT 1 FROM %I.rtac_holding i WHERE i.instance_id = h.instance_id AND i.type = ''ITEM'' AND ($2 IS NOT TRUE OR i.shared = TRUE))',
               schema_name
             ),
+            ' OR '
+        )
+        FROM unnest(string_to_array(schemas_str, ',')) AS schema_name
+    );
+
+    -- Build a UNION ALL query across all tenant schemas, visibility is maintained on write by rtac_holding triggers
+    union_query := (
+        SELECT string_agg(
+            format(
+              'SELECT h.* FROM %I.rtac_holding h
+               WHERE h.instance_id = ANY($1)
+                 AND ($2 IS NOT TRUE OR h.shared = TRUE)
+                 AND h.visible
+                 AND (h.type IN (''PIECE'', ''ITEM'') OR NOT (%s))',
+              schema_name, has_item_query
+            ),
             ' UNION ALL '
         )
         FROM unnest(string_to_array(schemas_str, ',')) AS schema_name
@@ -26,36 +43,6 @@ BEGIN
         RETURN;
     END IF;
 
-    RETURN QUERY EXECUTE
-        'WITH all_tenants AS MATERIALIZED (' || union_query || '),
-         holding_suppression AS (
-           SELECT
-             instance_id,
-             id AS holding_id,
-             COALESCE((rtac_holding_json->>''suppressFromDiscovery'')::boolean, FALSE) AS is_suppressed
-           FROM all_tenants
-           WHERE type = ''HOLDING''
-         ),
-         instance_item_presence AS (
-           SELECT
-             instance_id,
-             bool_or(type = ''ITEM'') AS has_item
-           FROM all_tenants
-           GROUP BY instance_id
-         )
-         SELECT h.*
-         FROM all_tenants h
-         LEFT JOIN holding_suppression hs
-           ON hs.instance_id = h.instance_id
-          AND hs.holding_id = (h.rtac_holding_json->>''holdingsId'')::uuid
-         JOIN instance_item_presence ip
-           ON ip.instance_id = h.instance_id
-         WHERE COALESCE((h.rtac_holding_json->>''suppressFromDiscovery'')::boolean, FALSE) = FALSE
-           AND COALESCE(hs.is_suppressed, FALSE) = FALSE
-           AND (
-             h.type IN (''PIECE'', ''ITEM'')
-             OR (h.type = ''HOLDING'' AND ip.has_item IS NOT TRUE)
-           )'
-    USING instance_ids, only_shared;
+    RETURN QUERY EXECUTE union_query USING instance_ids, only_shared;
 END;
 $$;
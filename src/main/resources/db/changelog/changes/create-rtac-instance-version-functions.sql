@@ -0,0 +1,60 @@
+-- Statement level trigger that assigns a new version to every instance touched by an rtac_holding write.
+-- Versions are taken from a sequence, so they only grow even when the instance rows are deleted and regenerated.
+CREATE OR REPLACE FUNCTION rtac_instance_version_trigger()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    schema_name text := TG_TABLE_SCHEMA;
+    changes text;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        changes := 'SELECT instance_id FROM new_rows';
+    ELSIF TG_OP = 'DELETE' THEN
+        changes := 'SELECT instance_id FROM old_rows';
+    ELSE
+        changes := 'SELECT instance_id FROM old_rows UNION SELECT instance_id FROM new_rows';
+    END IF;
+
+    EXECUTE format(
+      'INSERT INTO %1$I.rtac_instance_version AS t (instance_id, version)
+       SELECT instance_id, nextval(%2$L)
+       FROM (SELECT DISTINCT instance_id FROM (%3$s) changes ORDER BY instance_id) changed_instances
+       ON CONFLICT (instance_id) DO UPDATE SET version = EXCLUDED.version',
+      schema_name, quote_ident(schema_name) || '.rtac_instance_version_seq', changes
+    );
+
+    RETURN NULL;
+END;
+$$;
+
+-- Versions of the given instances across all tenant schemas
+CREATE OR REPLACE FUNCTION rtac_instance_versions_multi_tenant(
+    schemas_str text, -- comma-separated
+    instance_ids uuid[]
+)
+RETURNS TABLE (source_schema text, instance_id uuid, version bigint)
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    union_query text;
+BEGIN
+    -- Build a UNION ALL query across all tenant schemas
+    union_query := (
+        SELECT string_agg(
+            format(
+              'SELECT %L::text, v.instance_id, v.version FROM %I.rtac_instance_version v WHERE v.instance_id = ANY($1)',
+              schema_name, schema_name
+            ),
+            ' UNION ALL '
+        )
+        FROM unnest(string_to_array(schemas_str, ',')) AS schema_name
+    );
+
+    IF union_query IS NULL THEN
+        RETURN;
+    END IF;
+
+    RETURN QUERY EXECUTE union_query USING instance_ids;
+END;
+$$;
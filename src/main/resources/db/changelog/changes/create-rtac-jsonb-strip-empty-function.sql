@@ -0,0 +1,24 @@
+-- Removes object fields that are null, empty strings or empty arrays at any depth, the same fields the
+-- non_empty inclusion leaves out when the holdings DTOs are serialized. Nested objects and array elements
+-- are kept even if they are empty, as the DTOs keep them too.
+CREATE OR REPLACE FUNCTION rtac_jsonb_strip_empty(value jsonb)
+RETURNS jsonb
+LANGUAGE sql
+IMMUTABLE
+PARALLEL SAFE
+AS $$
+  SELECT CASE jsonb_typeof(value)
+    WHEN 'object' THEN (
+      SELECT COALESCE(jsonb_object_agg(f.key, rtac_jsonb_strip_empty(f.value)), '{}'::jsonb)
+      FROM jsonb_each(value) f
+      WHERE jsonb_typeof(f.value) <> 'null'
+        AND f.value <> '""'::jsonb
+        AND f.value <> '[]'::jsonb
+    )
+    WHEN 'array' THEN (
+      SELECT jsonb_agg(rtac_jsonb_strip_empty(e.value) ORDER BY e.ordinality)
+      FROM jsonb_array_elements(value) WITH ORDINALITY e
+    )
+    ELSE value
+  END
+$$;
@@ -0,0 +1,67 @@
+CREATE OR REPLACE FUNCTION public.delete_old_holdings_all_tenants(
+    cutoff_time timestamp with time zone
+)
+RETURNS integer
+LANGUAGE plpgsql
+SECURITY DEFINER
+AS $$
+DECLARE
+    schema_name text;
+    tenant_name text;
+    tenant_schema_name text;
+    total_deleted integer := 0;
+    deleted_count integer;
+BEGIN
+    -- Iterate over all tenant schemas matching the pattern
+    FOR schema_name IN
+        SELECT nspname
+        FROM pg_catalog.pg_namespace
+        WHERE nspname LIKE '%_mod_rtac_cache'
+    LOOP
+        -- Delete all holdings for instances that have at least one expired holding
+        EXECUTE format(
+            'DELETE FROM %I.rtac_holding h
+             USING %I.rtac_holding old
+             WHERE h.instance_id = old.instance_id
+               AND old.created_at < $1',
+            schema_name, schema_name
+        ) USING cutoff_time;
+
+        GET DIAGNOSTICS deleted_count = ROW_COUNT;
+        total_deleted := total_deleted + deleted_count;
+
+        RAISE NOTICE 'Deleted % old entries from schema %', deleted_count, schema_name;
+    END LOOP;
+
+    -- Remove the instance tenant directory entries of tenants that no longer hold rows of the instance
+    FOR schema_name IN
+        SELECT n.nspname
+        FROM pg_catalog.pg_namespace n
+        WHERE n.nspname LIKE '%_mod_rtac_cache'
+          AND to_regclass(format('%I.rtac_instance_tenant', n.nspname)) IS NOT NULL
+    LOOP
+        FOR tenant_name IN
+            EXECUTE format('SELECT DISTINCT tenant_id FROM %I.rtac_instance_tenant', schema_name)
+        LOOP
+            tenant_schema_name := tenant_name || '_mod_rtac_cache';
+            IF to_regclass(format('%I.rtac_holding', tenant_schema_name)) IS NULL THEN
+                EXECUTE format('DELETE FROM %I.rtac_instance_tenant WHERE tenant_id = $1', schema_name)
+                USING tenant_name;
+            ELSE
+                EXECUTE format(
+                    'DELETE FROM %I.rtac_instance_tenant t
+                     WHERE t.tenant_id = $1
+                       AND NOT EXISTS (SELECT 1 FROM %I.rtac_holding h WHERE h.instance_id = t.instance_id)',
+                    schema_name, tenant_schema_name
+                ) USING tenant_name;
+            END IF;
+
+            GET DIAGNOSTICS deleted_count = ROW_COUNT;
+            RAISE NOTICE 'Deleted % directory entries of tenant % from schema %', deleted_count, tenant_name,
+                schema_name;
+        END LOOP;
+    END LOOP;
+
+    RETURN total_deleted;
+END;
+$$;
@@ -0,0 +1,105 @@
+-- Row level trigger that stores rtac_holding.visible of a written row from the start, so the summary and version
+-- triggers count it with its final visibility. A row is visible when neither the row nor its parent holding is
+-- suppressed from discovery. The parent holding is only looked up for an unsuppressed item or piece whose
+-- suppression or holding changed, updates of other fields keep the stored visibility.
+CREATE OR REPLACE FUNCTION rtac_holding_visibility_row_trigger()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    parent_suppressed boolean := FALSE;
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        -- Set by the statement trigger for the items and pieces of a written holding
+        IF NEW.visible IS DISTINCT FROM OLD.visible THEN
+            RETURN NEW;
+        END IF;
+        IF NEW.rtac_holding_json->>'suppressFromDiscovery' IS NOT DISTINCT FROM OLD.rtac_holding_json->>'suppressFromDiscovery'
+          AND NEW.rtac_holding_json->>'holdingsId' IS NOT DISTINCT FROM OLD.rtac_holding_json->>'holdingsId' THEN
+            RETURN NEW;
+        END IF;
+    END IF;
+
+    IF COALESCE((NEW.rtac_holding_json->>'suppressFromDiscovery')::boolean, FALSE) THEN
+        NEW.visible := FALSE;
+        RETURN NEW;
+    END IF;
+
+    IF NEW.type <> 'HOLDING' AND NEW.rtac_holding_json->>'holdingsId' IS NOT NULL THEN
+        EXECUTE format(
+          'SELECT EXISTS (
+             SELECT 1 FROM %I.rtac_holding p
+             WHERE p.instance_id = $1
+               AND p.type = ''HOLDING''
+               AND p.id = $2
+               AND COALESCE((p.rtac_holding_json->>''suppressFromDiscovery'')::boolean, FALSE)
+           )',
+          TG_TABLE_SCHEMA
+        ) INTO parent_suppressed USING NEW.instance_id, (NEW.rtac_holding_json->>'holdingsId')::uuid;
+    END IF;
+
+    NEW.visible := NOT parent_suppressed;
+    RETURN NEW;
+END;
+$$;
+
+-- Statement level trigger that maintains rtac_holding.visible for the items and pieces of the written or deleted
+-- holdings, and for written rows whose holding is written later in the same statement. Its triggers fire after the
+-- summary and version triggers, so the summary counts the rows of a statement before their visibility moves.
+CREATE OR REPLACE FUNCTION rtac_holding_visibility_statement_trigger()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    changes text;
+BEGIN
+    -- The visibility update below fires this trigger again, it has nothing left to recalculate
+    IF pg_trigger_depth() > 1 THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'INSERT' THEN
+        changes := 'SELECT instance_id, type, id FROM new_rows';
+    ELSIF TG_OP = 'DELETE' THEN
+        changes := 'SELECT instance_id, type, id FROM old_rows';
+    ELSE
+        changes := 'SELECT instance_id, type, id FROM old_rows UNION SELECT instance_id, type, id FROM new_rows';
+    END IF;
+
+    EXECUTE format(
+      'WITH changes AS (%2$s),
+       targets AS (
+         SELECT c.instance_id, c.type, c.id FROM changes c
+         UNION
+         SELECT r.instance_id, r.type, r.id
+         FROM changes c
+         JOIN %1$I.rtac_holding r ON r.instance_id = c.instance_id
+           AND r.type <> ''HOLDING''
+           AND r.rtac_holding_json->>''holdingsId'' = c.id::text
+         WHERE c.type = ''HOLDING''
+       ),
+       visibility AS (
+         SELECT r.instance_id, r.type, r.id,
+           NOT COALESCE((r.rtac_holding_json->>''suppressFromDiscovery'')::boolean, FALSE)
+             AND NOT COALESCE((p.rtac_holding_json->>''suppressFromDiscovery'')::boolean, FALSE) AS visible
+         FROM targets t
+         JOIN %1$I.rtac_holding r ON r.instance_id = t.instance_id AND r.type = t.type AND r.id = t.id
+         LEFT JOIN %1$I.rtac_holding p ON r.type <> ''HOLDING''
+           AND p.instance_id = r.instance_id
+           AND p.type = ''HOLDING''
+           AND p.id = (r.rtac_holding_json->>''holdingsId'')::uuid
+       )
+       UPDATE %1$I.rtac_holding r
+       SET visible = visibility.visible
+       FROM visibility
+       WHERE r.instance_id = visibility.instance_id
+         AND r.type = visibility.type
+         AND r.id = visibility.id
+         AND r.visible IS DISTINCT FROM visibility.visible',
+      TG_TABLE_SCHEMA, changes
+    );
+
+    RETURN NULL;
+END;
+$$;
+
@@ -0,0 +1,142 @@
+-- Per-row summary attributes of rtac_holding rows read from the given relation.
+-- Visibility is maintained on rtac_holding by the visibility triggers.
+CREATE OR REPLACE FUNCTION rtac_instance_summary_rows_sql(
+    schema_name text,
+    source_relation text,
+    sign integer
+)
+RETURNS text
+LANGUAGE sql
+IMMUTABLE
+AS $$
+    SELECT format(
+      'SELECT
+         r.instance_id,
+         COALESCE(r.shared, FALSE) AS shared,
+         r.visible,
+         r.type,
+         COALESCE(r.rtac_holding_json->>''status'', '''') AS status,
+         COALESCE(r.rtac_holding_json->''library''->>''id'', '''') AS library_id,
+         COALESCE(r.rtac_holding_json->''location''->>''id'', '''') AS location_id,
+         COALESCE(r.rtac_holding_json->''location''->>''code'', '''') AS location_code,
+         (COALESCE(r.rtac_holding_json->>''volume'', '''') <> '''')::integer AS has_volume,
+         r.rtac_holding_json->>''instanceFormatIds'' AS instance_format_ids,
+         %s AS sign
+       FROM %s r',
+      sign, source_relation
+    );
+$$;
+
+-- Recalculates summary rows of the given instances from rtac_holding
+CREATE OR REPLACE FUNCTION rtac_instance_summary_rebuild(
+    schema_name text,
+    instance_ids uuid[]
+)
+RETURNS void
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    holding_rows text;
+BEGIN
+    EXECUTE format('SELECT %I.rtac_instance_summary_rows_sql($1, $2, 1)', schema_name)
+    INTO holding_rows USING schema_name, format('%I.rtac_holding', schema_name);
+
+    EXECUTE format('DELETE FROM %I.rtac_instance_summary WHERE instance_id = ANY($1)', schema_name)
+    USING instance_ids;
+
+    EXECUTE format(
+      'INSERT INTO %I.rtac_instance_summary
+         (instance_id, shared, visible, type, status, library_id, location_id, location_code,
+          status_count, volume_count, instance_format_ids)
+       SELECT instance_id, shared, visible, type, status, library_id, location_id, location_code,
+              count(*), sum(has_volume), max(instance_format_ids)
+       FROM (%s WHERE r.instance_id = ANY($1)) holding_rows
+       GROUP BY instance_id, shared, visible, type, status, library_id, location_id, location_code',
+      schema_name, holding_rows
+    ) USING instance_ids;
+END;
+$$;
+
+-- Statement level trigger that applies rtac_holding changes to rtac_instance_summary as count deltas.
+-- Visibility changes of items and pieces caused by a holding suppression arrive as separate row updates.
+CREATE OR REPLACE FUNCTION rtac_instance_summary_trigger()
+RETURNS trigger
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    schema_name text := TG_TABLE_SCHEMA;
+    old_changes text;
+    new_changes text;
+    changes text;
+BEGIN
+    -- Helper functions are schema qualified, the trigger may fire from public.delete_old_holdings_all_tenants
+    EXECUTE format('SELECT %I.rtac_instance_summary_rows_sql($1, ''old_rows'', -1), %I.rtac_instance_summary_rows_sql($1, ''new_rows'', 1)',
+      schema_name, schema_name)
+    INTO old_changes, new_changes USING schema_name;
+
+    IF TG_OP = 'INSERT' THEN
+        changes := new_changes;
+    ELSIF TG_OP = 'DELETE' THEN
+        changes := old_changes;
+    ELSE
+        changes := old_changes || ' UNION ALL ' || new_changes;
+    END IF;
+
+    EXECUTE format(
+      'INSERT INTO %I.rtac_instance_summary AS t
+         (instance_id, shared, visible, type, status, library_id, location_id, location_code,
+          status_count, volume_count, instance_format_ids)
+       SELECT instance_id, shared, visible, type, status, library_id, location_id, location_code,
+              sum(sign), sum(sign * has_volume), max(instance_format_ids) FILTER (WHERE sign > 0)
+       FROM (%s) changes
+       GROUP BY instance_id, shared, visible, type, status, library_id, location_id, location_code
+       ORDER BY instance_id, shared, visible, type, status, library_id, location_id, location_code
+       ON CONFLICT (instance_id, shared, visible, type, status, library_id, location_id, location_code) DO UPDATE SET
+         status_count = t.status_count + EXCLUDED.status_count,
+         volume_count = t.volume_count + EXCLUDED.volume_count,
+         instance_format_ids = COALESCE(EXCLUDED.instance_format_ids, t.instance_format_ids)',
+      schema_name, changes
+    );
+
+    EXECUTE format(
+      'DELETE FROM %I.rtac_instance_summary
+       WHERE instance_id IN (SELECT instance_id FROM (%s) changes)
+         AND status_count <= 0',
+      schema_name, changes
+    );
+
+    RETURN NULL;
+END;
+$$;
+
+-- Summary rows of the given instances across all tenant schemas
+CREATE OR REPLACE FUNCTION rtac_instance_summaries_multi_tenant(
+    schemas_str text, -- comma-separated
+    instance_ids uuid[],
+    only_shared boolean -- when true, restrict to shared holdings
+)
+RETURNS SETOF rtac_instance_summary
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    union_query text;
+BEGIN
+    -- Build a UNION ALL query across all tenant schemas
+    union_query := (
+        SELECT string_agg(
+            format(
+              'SELECT * FROM %I.rtac_instance_summary s WHERE s.instance_id = ANY($1) AND ($2 IS NOT TRUE OR s.shared = TRUE)',
+              schema_name
+            ),
+            ' UNION ALL '
+        )
+        FROM unnest(string_to_array(schemas_str, ',')) AS schema_name
+    );
+
+    IF union_query IS NULL THEN
+        RETURN;
+    END IF;
+
+    RETURN QUERY EXECUTE union_query USING instance_ids, only_shared;
+END;
+$$;
@@ -0,0 +1,73 @@
+package org.folio.rtaccache.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.folio.rtaccache.constant.RtacCacheConstant.LOCATIONS_CACHE_NAME;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.folio.rtaccache.SameThreadAsyncTaskExecutor;
+import org.folio.rtaccache.service.ConsortiaService;
+import org.folio.rtaccache.service.LocalCacheReloader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+@ExtendWith(MockitoExtension.class)
+class LocalCacheConfigurationTest {
+
+  private static final String KEY = "locations_test_tenant";
+
+  @Mock
+  private LocalCacheReloader localCacheReloader;
+
+  @Test
+  void cacheManager_shouldApplyPerCacheLimits() {
+    var properties = new LocalCacheProperties();
+    properties.getCaches().put(ConsortiaService.CONSORTIA_TENANTS_CACHE,
+      new LocalCacheProperties.Spec(10L, null, null));
+
+    var cacheManager = new LocalCacheConfiguration(properties)
+      .cacheManager(localCacheReloader, new SameThreadAsyncTaskExecutor());
+
+    assertThat(cacheManager.getCacheNames()).containsAll(LocalCacheReloader.CACHE_NAMES);
+    var consortiaTenants = nativeCache(cacheManager.getCache(ConsortiaService.CONSORTIA_TENANTS_CACHE));
+    assertThat(consortiaTenants.policy().eviction()).hasValueSatisfying(
+      eviction -> assertThat(eviction.getMaximum()).isEqualTo(10L));
+    assertThat(consortiaTenants.policy().expireAfterWrite()).hasValueSatisfying(
+      expiration -> assertThat(expiration.getExpiresAfter()).isEqualTo(Duration.ofHours(1)));
+    var locations = nativeCache(cacheManager.getCache(LOCATIONS_CACHE_NAME));
+    assertThat(locations.policy().eviction()).hasValueSatisfying(
+      eviction -> assertThat(eviction.getMaximum()).isEqualTo(1000L));
+    assertThat(locations.policy().isRecordingStats()).isTrue();
+  }
+
+  @Test
+  void cacheManager_shouldReloadStaleEntriesAndServeOldValueMeanwhile() throws InterruptedException {
+    var properties = new LocalCacheProperties();
+    properties.getCaches().put(LOCATIONS_CACHE_NAME, new LocalCacheProperties.Spec(null, null, Duration.ofMillis(1)));
+    var reloaded = Map.of("loc2", "Reloaded");
+    when(localCacheReloader.reload(LOCATIONS_CACHE_NAME, KEY)).thenReturn(reloaded);
+    var cache = new LocalCacheConfiguration(properties)
+      .cacheManager(localCacheReloader, new SameThreadAsyncTaskExecutor())
+      .getCache(LOCATIONS_CACHE_NAME);
+    assertThat(cache).isNotNull();
+
+    assertThat(cache.get(KEY, () -> Map.of("loc1", "Cached"))).isEqualTo(Map.of("loc1", "Cached"));
+    TimeUnit.MILLISECONDS.sleep(10);
+
+    assertThat(cache.get(KEY)).isNotNull();
+    verify(localCacheReloader).reload(LOCATIONS_CACHE_NAME, KEY);
+    assertThat(cache.get(KEY, Map.class)).isEqualTo(reloaded);
+  }
+
+  private static Cache<Object, Object> nativeCache(org.springframework.cache.Cache cache) {
+    assertThat(cache).isInstanceOf(CaffeineCache.class);
+    return ((CaffeineCache) cache).getNativeCache();
+  }
+}
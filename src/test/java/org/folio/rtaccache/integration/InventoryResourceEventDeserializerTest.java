@@ -0,0 +1,100 @@
+package org.folio.rtaccache.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import org.folio.rtaccache.domain.dto.InventoryEntityType;
+import org.folio.rtaccache.domain.dto.InventoryEventType;
+import org.folio.rtaccache.domain.kafka.KafkaItem;
+import org.folio.rtaccache.service.handler.EventHandlerFactory;
+import org.folio.rtaccache.service.handler.InventoryEventHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryResourceEventDeserializerTest {
+
+  private static final String ITEM_TOPIC = "folio.ALL.inventory.item";
+  private static final String INSTANCE_TOPIC = "folio.ALL.inventory.instance";
+  private static final String ITEM_ID = "7212ba6a-8dcf-45a1-be9a-ffaa847c4423";
+
+  @Mock
+  private EventHandlerFactory eventHandlerFactory;
+  @Mock
+  private InventoryEventHandler inventoryEventHandler;
+
+  private InventoryResourceEventDeserializer deserializer;
+
+  @BeforeEach
+  void setUp() {
+    when(eventHandlerFactory.getInventoryHandler(InventoryEventType.UPDATE, InventoryEntityType.ITEM))
+      .thenReturn(Optional.of(inventoryEventHandler));
+    deserializer = new InventoryResourceEventDeserializer(eventHandlerFactory);
+  }
+
+  @Test
+  void deserialize_shouldBindRecordsToTypeOfTopicSkippingUnreadFields() {
+    var event = deserializer.deserialize(ITEM_TOPIC, bytes("""
+      {
+        "eventId": "e1",
+        "tenant": "diku",
+        "eventTs": 1700000000000,
+        "old": {"id": "%1$s", "instanceId": "i1", "holdingsRecordId": "h1", "barcode": "old",
+                "notes": [{"note": "long note"}], "circulationNotes": [{"note": "check in note"}]},
+        "new": {"id": "%1$s", "instanceId": "i1", "holdingsRecordId": "h2", "barcode": "new",
+                "status": {"name": "Available"}, "unknownField": {"nested": [1, 2, 3]}},
+        "type": "UPDATE"
+      }""".formatted(ITEM_ID)));
+
+    assertThat(event).isNotNull();
+    assertThat(event.getType()).isEqualTo(InventoryEventType.UPDATE);
+    assertThat(event.getTenant()).isEqualTo("diku");
+    assertThat(event.getEventTs()).isEqualTo(1700000000000L);
+    assertThat(event.getOld()).isInstanceOfSatisfying(KafkaItem.class, item -> {
+      assertThat(item.getBarcode()).isEqualTo("old");
+      assertThat(item.getNotes()).isNullOrEmpty();
+      assertThat(item.getCirculationNotes()).isNullOrEmpty();
+    });
+    assertThat(event.getNew()).isInstanceOfSatisfying(KafkaItem.class, item -> {
+      assertThat(item.getId()).isEqualTo(ITEM_ID);
+      assertThat(item.getInstanceId()).isEqualTo("i1");
+      assertThat(item.getHoldingsRecordId()).isEqualTo("h2");
+      assertThat(item.getStatus().getName().getValue()).isEqualTo("Available");
+    });
+  }
+
+  @Test
+  void deserialize_shouldDropEvent_whenNoHandlerExistsForItsType() {
+    var event = deserializer.deserialize(INSTANCE_TOPIC, bytes("""
+      {"type": "CREATE", "tenant": "diku", "new": {"id": "%s", "title": "Title"}}""".formatted(ITEM_ID)));
+
+    assertThat(event).isNull();
+  }
+
+  @Test
+  void deserialize_shouldDropEvent_whenTypeIsUnknown() {
+    var event = deserializer.deserialize(ITEM_TOPIC, bytes("""
+      {"type": "DELETE_ALL", "tenant": "diku"}"""));
+
+    assertThat(event).isNull();
+  }
+
+  @Test
+  void deserialize_shouldReadRecordsAsMaps_whenTopicIsUnknown() {
+    var event = deserializer.deserialize("folio.ALL.inventory.other", bytes("""
+      {"type": "CREATE", "tenant": "diku", "new": {"id": "%s"}}""".formatted(ITEM_ID)));
+
+    assertThat(event).isNotNull();
+    assertThat(event.getNew()).isEqualTo(Map.of("id", ITEM_ID));
+  }
+
+  private static byte[] bytes(String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -12,6 +12,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import lombok.extern.log4j.Log4j2;
 import org.apache.kafka.clients.producer.ProducerRecord;
@@ -97,6 +98,7 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
   private static final String NEW_LOCATION_ID = "2d65e095-5750-56ee-ca60-5584eg7ce39b";
   private static final String LIBRARY_ID = "79f1cd00-09cc-4c9c-99c1-d8ad1b77d128";
   private static final String MATERIAL_TYPE_ID = "1a54b431-2e4f-452d-9cae-9cee66c9a892";
+  private static final String LOAN_TYPE_ID = "2b94c631-fca9-4892-a730-03ee529ffe27";
   private static final String NEW_HOLDINGS_COPY_NUMBER = "Test";
   private static final String OLD_HOLDINGS_COPY_NUMBER = "Old copy number";
   private static final String NEW_NOTE_VALUE = "Test";
@@ -453,7 +455,7 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
 
   @Test
   @Order(18)
-  void shouldClearLocationsCache_whenLocationCreateEventIsSent() {
+  void shouldPutLocationIntoCache_whenLocationCreateEventIsSent() {
     withinTenant(TEST_TENANT, () -> {
       // Given
       //preload cache
@@ -463,9 +465,8 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
       sendLocationKafkaMessage(event);
       // Then
       await().atMost(Duration.ofSeconds(60)).untilAsserted(() -> {
-        var updatedCache = cacheManager.getCache("locationsMap");
-        assertThat(updatedCache).isNotNull();
-        assertThat(updatedCache.get("locations_" + TEST_TENANT)).isNull();
+        assertThat(getCachedMap("locationsMap", "locations_" + TEST_TENANT))
+          .extractingByKey(OLD_LOCATION_ID).extracting("name").isEqualTo("Old location name");
       });
     });
   }
@@ -492,7 +493,7 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
   @Test
   @Order(20)
   @Execution(ExecutionMode.SAME_THREAD)
-  void shouldClearLocationsCache_whenLocationDeleteEventIsSent() {
+  void shouldRemoveLocationFromCache_whenLocationDeleteEventIsSent() {
     withinTenant(TEST_TENANT, () -> {
       // Given
       //preload cache
@@ -502,9 +503,7 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
       sendLocationKafkaMessage(event);
       // Then
       await().atMost(Duration.ofSeconds(60)).untilAsserted(() -> {
-        var updatedCache = cacheManager.getCache("locationsMap");
-        assertThat(updatedCache).isNotNull();
-        assertThat(updatedCache.get("locations_" + TEST_TENANT)).isNull();
+        assertThat(getCachedMap("locationsMap", "locations_" + TEST_TENANT)).doesNotContainKey(OLD_LOCATION_ID);
       });
     });
   }
@@ -512,7 +511,7 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
   @Test
   @Order(21)
   @Execution(ExecutionMode.SAME_THREAD)
-  void shouldClearLibraryCache_whenLibraryCreateEventIsSent() {
+  void shouldPutLibraryIntoCache_whenLibraryCreateEventIsSent() {
     withinTenant(TEST_TENANT, () -> {
       // Given
       //preload cache
@@ -522,9 +521,8 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
       sendLibraryKafkaMessage(event);
       // Then
       await().atMost(Duration.ofSeconds(60)).untilAsserted(() -> {
-        var updatedCache = cacheManager.getCache("libraryMap");
-        assertThat(updatedCache).isNotNull();
-        assertThat(updatedCache.get("library_" + TEST_TENANT)).isNull();
+        assertThat(getCachedMap("libraryMap", "library_" + TEST_TENANT))
+          .extractingByKey(LIBRARY_ID).extracting("name").isEqualTo("Old library name");
       });
     });
   }
@@ -551,7 +549,7 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
   @Test
   @Order(23)
   @Execution(ExecutionMode.SAME_THREAD)
-  void shouldClearLibraryCache_whenLibraryDeleteEventIsSent() {
+  void shouldRemoveLibraryFromCache_whenLibraryDeleteEventIsSent() {
     withinTenant(TEST_TENANT, () -> {
       // Given
       //preload cache
@@ -561,9 +559,7 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
       sendLibraryKafkaMessage(event);
       // Then
       await().atMost(Duration.ofSeconds(60)).untilAsserted(() -> {
-        var updatedCache = cacheManager.getCache("libraryMap");
-        assertThat(updatedCache).isNotNull();
-        assertThat(updatedCache.get("library_" + TEST_TENANT)).isNull();
+        assertThat(getCachedMap("libraryMap", "library_" + TEST_TENANT)).doesNotContainKey(LIBRARY_ID);
       });
     });
   }
@@ -571,7 +567,7 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
   @Test
   @Order(24)
   @Execution(ExecutionMode.SAME_THREAD)
-  void shouldClearMaterialTypesCache_whenMaterialTypeCreateEventIsSent() {
+  void shouldPutMaterialTypeIntoCache_whenMaterialTypeCreateEventIsSent() {
     withinTenant(TEST_TENANT, () -> {
       // Given
       inventoryReferenceDataService.getMaterialTypesMap();
@@ -582,16 +578,15 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
 
       // Then
       await().atMost(Duration.ofSeconds(60)).untilAsserted(() -> {
-        var updatedCache = cacheManager.getCache("materialTypesMap");
-        assertThat(updatedCache).isNotNull();
-        assertThat(updatedCache.get("materialTypes_" + TEST_TENANT)).isNull();
+        assertThat(getCachedMap("materialTypesMap", "materialTypes_" + TEST_TENANT))
+          .extractingByKey(MATERIAL_TYPE_ID).extracting("name").isEqualTo(NEW_MATERIAL_TYPE_NAME);
       });
     });
   }
 
   @Test
   @Order(25)
-  void shouldUpdateRtacHoldingMaterialTypeAndClearCache_whenMaterialTypeUpdateEventIsSent() {
+  void shouldUpdateRtacHoldingMaterialTypeAndCache_whenMaterialTypeUpdateEventIsSent() {
     withinTenant(TEST_TENANT, () -> {
       // Given
       createExistingRtacHoldingEntity(ITEM_ID, TypeEnum.ITEM);
@@ -608,9 +603,8 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
       await().atMost(Duration.ofSeconds(60)).untilAsserted(() -> {
         var updatedHolding = holdingRepository.findByIdId(UUID.fromString(ITEM_ID)).orElseThrow();
         assertThat(updatedHolding.getRtacHolding().getMaterialType().getName()).isEqualTo(UPDATED_MATERIAL_TYPE_NAME);
-        var updatedCache = cacheManager.getCache("materialTypesMap");
-        assertThat(updatedCache).isNotNull();
-        assertThat(updatedCache.get("materialTypes_" + TEST_TENANT)).isNull();
+        assertThat(getCachedMap("materialTypesMap", "materialTypes_" + TEST_TENANT))
+          .extractingByKey(MATERIAL_TYPE_ID).extracting("name").isEqualTo(UPDATED_MATERIAL_TYPE_NAME);
       });
     });
   }
@@ -618,7 +612,7 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
   @Test
   @Order(26)
   @Execution(ExecutionMode.SAME_THREAD)
-  void shouldClearLoanTypesCache_whenLoanTypeCreateEventIsSent() {
+  void shouldPutLoanTypeIntoCache_whenLoanTypeCreateEventIsSent() {
     withinTenant(TEST_TENANT, () -> {
       // Given
       inventoryReferenceDataService.getLoanTypesMap();
@@ -629,16 +623,15 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
 
       // Then
       await().atMost(Duration.ofSeconds(60)).untilAsserted(() -> {
-        var updatedCache = cacheManager.getCache("loanTypesMap");
-        assertThat(updatedCache).isNotNull();
-        assertThat(updatedCache.get("loanTypes_" + TEST_TENANT)).isNull();
+        assertThat(getCachedMap("loanTypesMap", "loanTypes_" + TEST_TENANT))
+          .extractingByKey(LOAN_TYPE_ID).extracting("name").isEqualTo(OLD_LOAN_TYPE_NAME);
       });
     });
   }
 
   @Test
   @Order(27)
-  void shouldUpdateTemporaryAndPermanentLoanTypesAndClearCache_whenLoanTypeUpdateEventIsSent() {
+  void shouldUpdateTemporaryAndPermanentLoanTypesAndCache_whenLoanTypeUpdateEventIsSent() {
     withinTenant(TEST_TENANT, () -> {
       // Given
       createExistingRtacHoldingEntity(ITEM_ID, TypeEnum.ITEM);
@@ -670,9 +663,8 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
         assertThat(sameHolding.getRtacHolding().getTemporaryLoanType()).isEqualTo(UNCHANGED_LOAN_TYPE_NAME);
         assertThat(sameHolding.getRtacHolding().getPermanentLoanType()).isEqualTo(UNCHANGED_LOAN_TYPE_NAME);
 
-        var updatedCache = cacheManager.getCache("loanTypesMap");
-        assertThat(updatedCache).isNotNull();
-        assertThat(updatedCache.get("loanTypes_" + TEST_TENANT)).isNull();
+        assertThat(getCachedMap("loanTypesMap", "loanTypes_" + TEST_TENANT))
+          .extractingByKey(LOAN_TYPE_ID).extracting("name").isEqualTo(NEW_LOAN_TYPE_NAME);
       });
     });
   }
@@ -964,4 +956,13 @@ class KafkaMessageListenerIT extends BaseIntegrationTest {
     var boundWithRecord = new ProducerRecord<>(TestConstant.BOUND_WITH_TOPIC, ITEM_ID, event);
     inventoryKafkaTemplate.send(boundWithRecord);
   }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> getCachedMap(String cacheName, String key) {
+    var cache = cacheManager.getCache(cacheName);
+    assertThat(cache).isNotNull();
+    var cached = cache.get(key);
+    assertThat(cached).isNotNull();
+    return (Map<String, Object>) cached.get();
+  }
 }
@@ -13,6 +13,7 @@ import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 import org.folio.rtaccache.BaseEcsIntegrationTest;
 import org.folio.rtaccache.TestConstant;
+import org.folio.rtaccache.repository.RtacHoldingFanOutRepository;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -38,6 +39,9 @@ class EcsLoadedDataRepositoryPerfTest extends BaseEcsIntegrationTest {
   @Autowired
   private RtacHoldingRepository rtacHoldingRepository;
 
+  @Autowired
+  private RtacHoldingFanOutRepository rtacHoldingFanOutRepository;
+
   @Autowired
   private MockMvc mockMvc;
 
@@ -100,10 +104,10 @@ class EcsLoadedDataRepositoryPerfTest extends BaseEcsIntegrationTest {
 
     withinTenant(TestConstant.TEST_CENTRAL_TENANT, () -> {
       // Warm-up
-      rtacHoldingRepository.findAllByIdInstanceId(schemasParam, instanceId, true, pageable).getContent();
+      rtacHoldingRepository.findAllByIdInstanceId(schemasParam, instanceId, true, pageable, null).getContent();
 
       long minMs = measureMinMs(5, () -> rtacHoldingRepository
-        .findAllByIdInstanceId(schemasParam, instanceId, true, pageable)
+        .findAllByIdInstanceId(schemasParam, instanceId, true, pageable, null)
         .getContent());
 
       log.info("RTAC PERF GET pageQuery (defaultSort=jsonKeys) minMs={}", minMs);
@@ -131,12 +135,12 @@ class EcsLoadedDataRepositoryPerfTest extends BaseEcsIntegrationTest {
 
     withinTenant(TestConstant.TEST_CENTRAL_TENANT, () -> {
       // Warm-up
-      var warmup = rtacHoldingRepository.search(schemasParam, instanceId, "Library", null, true, pageable)
+      var warmup = rtacHoldingRepository.search(schemasParam, instanceId, "Library", null, true, pageable, null)
         .getContent();
       assertThat(warmup).isNotEmpty();
 
       long minMs = measureMinMs(5, () -> rtacHoldingRepository
-        .search(schemasParam, instanceId, "Library", null, true, pageable)
+        .search(schemasParam, instanceId, "Library", null, true, pageable, null)
         .getContent());
 
       log.info("RTAC PERF SEARCH query (defaultSort=jsonKeys) minMs={}", minMs);
@@ -151,6 +155,68 @@ class EcsLoadedDataRepositoryPerfTest extends BaseEcsIntegrationTest {
     });
   }
 
+  @Test
+  void perf_getRtacCacheHoldingsById_pageQuery_fanOut() {
+    var pageable = PageRequest.of(0, 100,
+      Sort.by(
+        Sort.Order.desc("effectiveShelvingOrder"),
+        Sort.Order.asc("status"),
+        Sort.Order.asc("libraryName"),
+        Sort.Order.asc("locationName")
+      )
+    );
+
+    withinTenant(TestConstant.TEST_CENTRAL_TENANT, () -> {
+      // Warm-up
+      var warmup = rtacHoldingFanOutRepository.findAllByIdInstanceId(schemasParam, instanceId, true, pageable, null);
+      var union = rtacHoldingRepository.findAllByIdInstanceId(schemasParam, instanceId, true, pageable, null);
+      assertThat(warmup.getTotalElements()).isEqualTo(union.getTotalElements());
+
+      long unionMinMs = measureMinMs(5, () -> rtacHoldingRepository
+        .findAllByIdInstanceId(schemasParam, instanceId, true, pageable, null)
+        .getContent());
+      long fanOutMinMs = measureMinMs(5, () -> rtacHoldingFanOutRepository
+        .findAllByIdInstanceId(schemasParam, instanceId, true, pageable, null)
+        .getContent());
+
+      log.info("RTAC PERF GET pageQuery (defaultSort=jsonKeys) engine=UNION minMs={} engine=FAN_OUT minMs={}",
+        unionMinMs, fanOutMinMs);
+
+      assertOptionalMaxMs("perf.maxFanOutGetMs", fanOutMinMs);
+    });
+  }
+
+  @Test
+  void perf_searchRtacCacheHoldings_query_fanOut() {
+    var pageable = PageRequest.of(0, 100,
+      Sort.by(
+        Sort.Order.desc("effectiveShelvingOrder"),
+        Sort.Order.asc("status"),
+        Sort.Order.asc("libraryName"),
+        Sort.Order.asc("locationName")
+      )
+    );
+
+    withinTenant(TestConstant.TEST_CENTRAL_TENANT, () -> {
+      // Warm-up
+      var warmup = rtacHoldingFanOutRepository.search(schemasParam, instanceId, "Library", null, true, pageable, null);
+      var union = rtacHoldingRepository.search(schemasParam, instanceId, "Library", null, true, pageable, null);
+      assertThat(warmup.getTotalElements()).isEqualTo(union.getTotalElements());
+
+      long unionMinMs = measureMinMs(5, () -> rtacHoldingRepository
+        .search(schemasParam, instanceId, "Library", null, true, pageable, null)
+        .getContent());
+      long fanOutMinMs = measureMinMs(5, () -> rtacHoldingFanOutRepository
+        .search(schemasParam, instanceId, "Library", null, true, pageable, null)
+        .getContent());
+
+      log.info("RTAC PERF SEARCH query (defaultSort=jsonKeys) engine=UNION minMs={} engine=FAN_OUT minMs={}",
+        unionMinMs, fanOutMinMs);
+
+      assertOptionalMaxMs("perf.maxFanOutSearchMs", fanOutMinMs);
+    });
+  }
+
   @Test
   void perf_postRtacCacheBatch_holdingsSummaryQuery() {
     UUID[] instanceIds = {instanceId};
@@ -239,32 +305,38 @@ class EcsLoadedDataRepositoryPerfTest extends BaseEcsIntegrationTest {
     applyExplainSessionSettings(connection);
     String sql = """
       EXPLAIN (ANALYZE, BUFFERS)
-      WITH Filtered AS (
-        SELECT * FROM rtac_holdings_multi_tenant(?, ARRAY[?]::uuid[], ?)
+      WITH Summary AS (
+        SELECT * FROM rtac_instance_summaries_multi_tenant(?, ARRAY[?]::uuid[], ?)
+      ),
+      ItemPresence AS (
+        SELECT instance_id, bool_or(type = 'ITEM') AS hasItem
+        FROM Summary
+        GROUP BY instance_id
+      ),
+      Visible AS (
+        SELECT s.*
+        FROM Summary s
+        JOIN ItemPresence ip ON ip.instance_id = s.instance_id
+        WHERE s.visible AND (s.type IN ('PIECE', 'ITEM') OR (s.type = 'HOLDING' AND ip.hasItem IS NOT TRUE))
       ),
       LocationStatusCounts AS (
         SELECT
-          h_inner.instance_id,
-          (h_inner.rtac_holding_json->'library'->>'id') AS libraryId,
-          (h_inner.rtac_holding_json->'location'->>'id') AS locationId,
-          (h_inner.rtac_holding_json->'location'->>'code') AS locationCode,
-          (h_inner.rtac_holding_json->>'type') AS type,
-          (h_inner.rtac_holding_json->>'status') AS status,
-          COUNT(*) AS statusCount
+          v.instance_id,
+          NULLIF(v.library_id, '') AS libraryId,
+          NULLIF(v.location_id, '') AS locationId,
+          NULLIF(v.location_code, '') AS locationCode,
+          lower(v.type) AS type,
+          NULLIF(v.status, '') AS status,
+          SUM(v.status_count) AS statusCount
         FROM
-          Filtered h_inner
+          Visible v
         GROUP BY
-          h_inner.instance_id,
-          (h_inner.rtac_holding_json->'library'->>'id'),
-          (h_inner.rtac_holding_json->'location'->>'id'),
-          (h_inner.rtac_holding_json->'location'->>'code'),
-          (h_inner.rtac_holding_json->>'type'),
-          (h_inner.rtac_holding_json->>'status')
+          v.instance_id, v.library_id, v.location_id, v.location_code, v.type, v.status
       )
       SELECT
-        h.instance_id AS instanceId,
-        bool_or(h.rtac_holding_json->>'volume' IS NOT NULL AND h.rtac_holding_json->>'volume' != '') AS hasVolumes,
-        (SELECT h_if.rtac_holding_json->>'instanceFormatIds' FROM Filtered h_if WHERE h_if.instance_id = h.instance_id LIMIT 1) AS instanceFormatIds,
+        v.instance_id AS instanceId,
+        SUM(v.volume_count) > 0 AS hasVolumes,
+        MAX(v.instance_format_ids) AS instanceFormatIds,
         (
           SELECT
             json_agg(
@@ -280,12 +352,12 @@ class EcsLoadedDataRepositoryPerfTest extends BaseEcsIntegrationTest {
           FROM
             LocationStatusCounts lsc
           WHERE
-            lsc.instance_id = h.instance_id
+            lsc.instance_id = v.instance_id
         ) AS locationStatusJson
       FROM
-        Filtered h
+        Visible v
       GROUP BY
-        h.instance_id
+        v.instance_id
       """;
 
     log.info("RTAC PERF EXPLAIN BATCH begin");
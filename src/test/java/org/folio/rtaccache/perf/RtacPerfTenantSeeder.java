@@ -15,7 +15,7 @@ final class RtacPerfTenantSeeder {
 
   static void resetAndSeed(Connection connection, SeedOptions options) throws SQLException {
     try (Statement statement = connection.createStatement()) {
-      statement.execute("TRUNCATE TABLE rtac_holding;");
+      statement.execute("TRUNCATE TABLE rtac_holding, rtac_instance_summary;");
     }
 
     connection.setAutoCommit(false);
@@ -2,13 +2,19 @@ package org.folio.rtaccache.repository;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.IntStream;
 import org.folio.rtaccache.BaseIntegrationTest;
 import org.folio.rtaccache.TestConstant;
+import org.folio.rtaccache.domain.ItemDueDate;
 import org.folio.rtaccache.domain.RtacHoldingEntity;
 import org.folio.rtaccache.domain.RtacHoldingId;
 import org.folio.rtaccache.domain.dto.LoanType;
@@ -23,6 +29,7 @@ import org.folio.rtaccache.domain.dto.RtacHoldingMaterialType;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 class RtacHoldingBulkRepositoryTest extends BaseIntegrationTest {
 
@@ -30,6 +37,8 @@ class RtacHoldingBulkRepositoryTest extends BaseIntegrationTest {
   private RtacHoldingBulkRepository rtacHoldingBulkRepository;
   @Autowired
   private RtacHoldingRepository rtacHoldingRepository;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
 
   private static final String INSTANCE_ID = UUID.randomUUID().toString();
   private static final String ITEM_ID_1 = UUID.randomUUID().toString();
@@ -86,6 +95,87 @@ class RtacHoldingBulkRepositoryTest extends BaseIntegrationTest {
     });
   }
 
+  @Test
+  void bulkUpsert_copiesRecordsAboveCopyThreshold() {
+    withinTenant(TestConstant.TEST_TENANT, () -> {
+      var holdings = IntStream.range(0, 250)
+        .mapToObj(i -> getRtacHolding(UUID.randomUUID().toString(), INSTANCE_ID))
+        .map(rtacHolding -> new RtacHoldingEntity(RtacHoldingId.from(rtacHolding), false, rtacHolding, Instant.now()))
+        .toList();
+
+      rtacHoldingBulkRepository.bulkUpsert(holdings);
+      holdings.forEach(holding -> holding.getRtacHolding().setBarcode("bar\"code, with\nquotes"));
+      rtacHoldingBulkRepository.bulkUpsert(holdings);
+
+      var retrieved = rtacHoldingRepository.findAll();
+      assertEquals(250, retrieved.size());
+      assertTrue(retrieved.stream()
+        .allMatch(holding -> "bar\"code, with\nquotes".equals(holding.getRtacHolding().getBarcode())));
+    });
+  }
+
+  @Test
+  void bulkUpsert_maintainsVisibilityOfHoldingsAndTheirItems() {
+    withinTenant(TestConstant.TEST_TENANT, () -> {
+      var holdingId = UUID.randomUUID().toString();
+      var holding = getRtacHolding(holdingId, INSTANCE_ID).type(TypeEnum.HOLDING).holdingsId(holdingId)
+        .suppressFromDiscovery(true);
+      var item1 = getRtacHolding(ITEM_ID_1, INSTANCE_ID).holdingsId(holdingId).suppressFromDiscovery(false);
+      var item2 = getRtacHolding(ITEM_ID_2, INSTANCE_ID).holdingsId(holdingId).suppressFromDiscovery(false);
+
+      rtacHoldingBulkRepository.bulkUpsert(List.of(
+        new RtacHoldingEntity(RtacHoldingId.from(holding), false, holding, Instant.now()),
+        new RtacHoldingEntity(RtacHoldingId.from(item1), false, item1, Instant.now())));
+      assertEquals(false, isVisible(holdingId));
+      assertEquals(false, isVisible(ITEM_ID_1));
+      assertEquals(Map.of(false, 1), itemCountsByVisibility());
+
+      // An item written after its suppressed holding
+      rtacHoldingBulkRepository.bulkUpsert(List.of(
+        new RtacHoldingEntity(RtacHoldingId.from(item2), false, item2, Instant.now())));
+      assertEquals(false, isVisible(ITEM_ID_2));
+      assertEquals(Map.of(false, 2), itemCountsByVisibility());
+
+      // A holding written after its items
+      holding.setSuppressFromDiscovery(false);
+      rtacHoldingBulkRepository.bulkUpsert(List.of(
+        new RtacHoldingEntity(RtacHoldingId.from(holding), false, holding, Instant.now())));
+      assertEquals(true, isVisible(holdingId));
+      assertEquals(true, isVisible(ITEM_ID_1));
+      assertEquals(true, isVisible(ITEM_ID_2));
+      assertEquals(Map.of(true, 2), itemCountsByVisibility());
+
+      // An item suppressed on its own
+      item1.setSuppressFromDiscovery(true);
+      rtacHoldingBulkRepository.bulkUpsert(List.of(
+        new RtacHoldingEntity(RtacHoldingId.from(item1), false, item1, Instant.now())));
+      assertEquals(false, isVisible(ITEM_ID_1));
+      assertEquals(true, isVisible(ITEM_ID_2));
+      assertEquals(Map.of(true, 1, false, 1), itemCountsByVisibility());
+    });
+  }
+
+  @Test
+  void updateItemsDueDates_setsAndClearsDueDatesWithSingleStatement() {
+    withinTenant(TestConstant.TEST_TENANT, () -> {
+      var rtacHolding1 = getRtacHolding(ITEM_ID_1, INSTANCE_ID);
+      var rtacHolding2 = getRtacHolding(ITEM_ID_2, INSTANCE_ID);
+      rtacHolding2.setDueDate(new Date());
+      rtacHoldingBulkRepository.bulkUpsert(List.of(
+        new RtacHoldingEntity(RtacHoldingId.from(rtacHolding1), false, rtacHolding1, Instant.now()),
+        new RtacHoldingEntity(RtacHoldingId.from(rtacHolding2), false, rtacHolding2, Instant.now())));
+      var dueDate = Date.from(Instant.parse("2026-01-12T23:59:59Z"));
+
+      rtacHoldingBulkRepository.updateItemsDueDates(List.of(
+        new ItemDueDate(UUID.fromString(ITEM_ID_1), dueDate),
+        new ItemDueDate(UUID.fromString(ITEM_ID_2), null)));
+
+      var retrieved = rtacHoldingRepository.findAll();
+      assertEquals(dueDate, findByRtacHoldingId(retrieved, ITEM_ID_1).getRtacHolding().getDueDate());
+      assertNull(findByRtacHoldingId(retrieved, ITEM_ID_2).getRtacHolding().getDueDate());
+    });
+  }
+
   @Test
   void bulkUpdateLocationData_updatesEmbeddedLocation() {
     withinTenant(TestConstant.TEST_TENANT, () -> {
@@ -225,6 +315,22 @@ class RtacHoldingBulkRepositoryTest extends BaseIntegrationTest {
     });
   }
 
+  private Boolean isVisible(String id) {
+    return jdbcTemplate.queryForObject("SELECT visible FROM rtac_holding WHERE id = ?::uuid", Boolean.class, id);
+  }
+
+  private Map<Boolean, Integer> itemCountsByVisibility() {
+    var counts = new HashMap<Boolean, Integer>();
+    jdbcTemplate.query("""
+        SELECT visible, sum(status_count) AS item_count FROM rtac_instance_summary
+        WHERE instance_id = ?::uuid AND type = 'ITEM'
+        GROUP BY visible""",
+      rs -> {
+        counts.put(rs.getBoolean("visible"), rs.getInt("item_count"));
+      }, INSTANCE_ID);
+    return counts;
+  }
+
   private RtacHolding getRtacHolding(String itemId1, String instanceId) {
     var rtacHolding1 = new RtacHolding();
     rtacHolding1.setId(itemId1);
@@ -0,0 +1,197 @@
+package org.folio.rtaccache.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.folio.rtaccache.TestConstant.TEST_CENTRAL_TENANT;
+import static org.folio.rtaccache.TestConstant.TEST_MEMBER_TENANT;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.folio.rtaccache.BaseEcsIntegrationTest;
+import org.folio.rtaccache.domain.RtacHoldingCursor;
+import org.folio.rtaccache.domain.RtacHoldingEntity;
+import org.folio.rtaccache.domain.RtacHoldingId;
+import org.folio.rtaccache.domain.dto.RtacHolding;
+import org.folio.rtaccache.domain.dto.RtacHolding.TypeEnum;
+import org.folio.rtaccache.domain.dto.RtacHoldingLibrary;
+import org.folio.rtaccache.domain.dto.RtacHoldingsStatement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import tools.jackson.databind.ObjectMapper;
+
+class RtacHoldingFanOutRepositoryTest extends BaseEcsIntegrationTest {
+
+  private static final UUID INSTANCE_ID = UUID.randomUUID();
+  private static final Sort SORT = Sort.by(Sort.Order.asc("libraryName"), Sort.Order.desc("status"));
+
+  @Autowired
+  private RtacHoldingFanOutRepository rtacHoldingFanOutRepository;
+  @Autowired
+  private RtacHoldingRepository rtacHoldingRepository;
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private String schemas;
+
+  @BeforeEach
+  void setUp() {
+    schemas = folioModuleMetadata.getDBSchemaName(TEST_CENTRAL_TENANT) + ","
+      + folioModuleMetadata.getDBSchemaName(TEST_MEMBER_TENANT);
+    withinTenant(TEST_CENTRAL_TENANT, () -> {
+      save(TypeEnum.ITEM, "Library B", "Available");
+      save(TypeEnum.ITEM, null, "Checked out");
+      save(TypeEnum.HOLDING, "Library A", "Available");
+    });
+    withinTenant(TEST_MEMBER_TENANT, () -> {
+      save(TypeEnum.ITEM, "Library A", "Checked out");
+      save(TypeEnum.ITEM, "Library B", "Available");
+      save(TypeEnum.ITEM, "Library B", "Available");
+      save(TypeEnum.PIECE, "Library C", "Expected");
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    withinTenant(TEST_CENTRAL_TENANT, rtacHoldingRepository::deleteAll);
+    withinTenant(TEST_MEMBER_TENANT, rtacHoldingRepository::deleteAll);
+  }
+
+  @Test
+  void findAllByIdInstanceId_shouldReturnSameOffsetPagesAsUnion() {
+    withinTenant(TEST_CENTRAL_TENANT, () -> {
+      for (int page = 0; page < 4; page++) {
+        var pageable = PageRequest.of(page, 2, SORT);
+        var union = rtacHoldingRepository.findAllByIdInstanceId(schemas, INSTANCE_ID, true, pageable, null);
+        var fanOut = rtacHoldingFanOutRepository.findAllByIdInstanceId(schemas, INSTANCE_ID, true, pageable, null);
+
+        assertThat(ids(fanOut)).isEqualTo(ids(union));
+        assertThat(fanOut.getTotalElements()).isEqualTo(union.getTotalElements()).isEqualTo(6);
+      }
+    });
+  }
+
+  @Test
+  void findRawByIdInstanceId_shouldReturnSameKeysetPagesAsUnion() {
+    withinTenant(TEST_CENTRAL_TENANT, () -> {
+      var pageable = PageRequest.of(0, 2, SORT);
+      var unionIds = new ArrayList<String>();
+      var fanOutIds = new ArrayList<String>();
+      RtacHoldingCursor unionCursor = null;
+      RtacHoldingCursor fanOutCursor = null;
+      for (int page = 0; page < 3; page++) {
+        var union = rtacHoldingRepository.findRawByIdInstanceId(schemas, INSTANCE_ID, true, pageable, unionCursor);
+        var fanOut = rtacHoldingFanOutRepository.findRawByIdInstanceId(schemas, INSTANCE_ID, true, pageable, fanOutCursor);
+        unionIds.addAll(union.getContent().stream().map(RtacHolding::getId).toList());
+        fanOutIds.addAll(fanOut.getContent().stream().map(RtacHolding::getId).toList());
+        assertThat(fanOut.hasNext()).isEqualTo(union.hasNext());
+        assertThat(fanOut.getTotalElements()).isEqualTo(union.getTotalElements());
+        unionCursor = RtacHoldingCursor.of(union.getContent().getLast(), SORT);
+        fanOutCursor = RtacHoldingCursor.of(fanOut.getContent().getLast(), SORT);
+      }
+      assertThat(fanOutIds).hasSize(6).isEqualTo(unionIds);
+    });
+  }
+
+  @Test
+  void search_shouldHideHoldingsOfInstanceWithItemsInAnotherSchema() {
+    withinTenant(TEST_CENTRAL_TENANT, () -> {
+      var pageable = PageRequest.of(0, 10, SORT);
+      var fanOut = rtacHoldingFanOutRepository.search(schemas, INSTANCE_ID, "Library", true, true, pageable, null);
+      var union = rtacHoldingRepository.search(schemas, INSTANCE_ID, "Library", true, true, pageable, null);
+
+      assertThat(ids(fanOut)).isEqualTo(ids(union)).hasSize(3);
+      assertThat(fanOut.getContent()).allMatch(entity -> entity.getId().getType() == TypeEnum.ITEM);
+    });
+  }
+
+  @Test
+  void findRawByIdInstanceId_shouldServeSameJsonAsEntities_whenHoldingHasEmptyValues() {
+    var instanceId = UUID.randomUUID();
+    var rtacHolding = new RtacHolding()
+      .id(UUID.randomUUID().toString())
+      .instanceId(instanceId.toString())
+      .type(TypeEnum.HOLDING)
+      .status("Available")
+      .holdingsCopyNumber("")
+      .notes(new ArrayList<>())
+      .holdingsStatements(List.of(new RtacHoldingsStatement().statement("v.1").note("")));
+    withinTenant(TEST_CENTRAL_TENANT, () -> {
+      rtacHoldingRepository.save(
+        new RtacHoldingEntity(RtacHoldingId.from(rtacHolding), true, rtacHolding, Instant.now()));
+      var pageable = PageRequest.of(0, 10, SORT);
+      var entities = rtacHoldingRepository.findAllByIdInstanceId(schemas, instanceId, true, pageable, null);
+      var union = rtacHoldingRepository.findRawByIdInstanceId(schemas, instanceId, true, pageable, null);
+      var fanOut = rtacHoldingFanOutRepository.findRawByIdInstanceId(schemas, instanceId, true, pageable, null);
+
+      var expected = objectMapper.readTree(
+        objectMapper.writeValueAsString(entities.getContent().getFirst().getRtacHolding()));
+      assertThat(expected.has("notes")).isFalse();
+      assertThat(expected.has("holdingsCopyNumber")).isFalse();
+      assertThat(objectMapper.readTree(objectMapper.writeValueAsString(union.getContent().getFirst())))
+        .isEqualTo(expected);
+      assertThat(objectMapper.readTree(objectMapper.writeValueAsString(fanOut.getContent().getFirst())))
+        .isEqualTo(expected);
+    });
+  }
+
+  @Test
+  void findRawByIdInstanceId_shouldOrderAccentedAndMixedCaseValuesAsUnion() {
+    var instanceId = UUID.randomUUID();
+    withinTenant(TEST_CENTRAL_TENANT, () -> {
+      save(instanceId, TypeEnum.ITEM, "école", "Available");
+      save(instanceId, TypeEnum.ITEM, "library b", "Available");
+      save(instanceId, TypeEnum.ITEM, "Zoo", "Available");
+    });
+    withinTenant(TEST_MEMBER_TENANT, () -> {
+      save(instanceId, TypeEnum.ITEM, "Ärzte", "Available");
+      save(instanceId, TypeEnum.ITEM, "Library a", "Available");
+    });
+    var sort = Sort.by("libraryName");
+    withinTenant(TEST_CENTRAL_TENANT, () -> {
+      var unionNames = new ArrayList<String>();
+      var fanOutNames = new ArrayList<String>();
+      RtacHoldingCursor unionCursor = null;
+      RtacHoldingCursor fanOutCursor = null;
+      for (int page = 0; page < 3; page++) {
+        var pageable = PageRequest.of(0, 2, sort);
+        var union = rtacHoldingRepository.findRawByIdInstanceId(schemas, instanceId, true, pageable, unionCursor);
+        var fanOut = rtacHoldingFanOutRepository.findRawByIdInstanceId(schemas, instanceId, true, pageable, fanOutCursor);
+        unionNames.addAll(union.getContent().stream().map(holding -> holding.getLibrary().getName()).toList());
+        fanOutNames.addAll(fanOut.getContent().stream().map(holding -> holding.getLibrary().getName()).toList());
+        unionCursor = RtacHoldingCursor.of(union.getContent().getLast(), sort);
+        fanOutCursor = RtacHoldingCursor.of(fanOut.getContent().getLast(), sort);
+      }
+      assertThat(unionNames).containsExactly("Library a", "Zoo", "library b", "Ärzte", "école");
+      assertThat(fanOutNames).isEqualTo(unionNames);
+
+      var offsetPageable = PageRequest.of(1, 2, sort);
+      var union = rtacHoldingRepository.findAllByIdInstanceId(schemas, instanceId, true, offsetPageable, null);
+      var fanOut = rtacHoldingFanOutRepository.findAllByIdInstanceId(schemas, instanceId, true, offsetPageable, null);
+      assertThat(ids(fanOut)).isEqualTo(ids(union)).hasSize(2);
+    });
+  }
+
+  private void save(TypeEnum type, String libraryName, String status) {
+    save(INSTANCE_ID, type, libraryName, status);
+  }
+
+  private void save(UUID instanceId, TypeEnum type, String libraryName, String status) {
+    var rtacHolding = new RtacHolding()
+      .id(UUID.randomUUID().toString())
+      .instanceId(instanceId.toString())
+      .type(type)
+      .status(status)
+      .library(libraryName == null ? null : new RtacHoldingLibrary().name(libraryName));
+    rtacHoldingRepository.save(new RtacHoldingEntity(RtacHoldingId.from(rtacHolding), true, rtacHolding, Instant.now()));
+  }
+
+  private static List<UUID> ids(Page<RtacHoldingEntity> page) {
+    return page.getContent().stream().map(entity -> entity.getId().getId()).toList();
+  }
+}
@@ -0,0 +1,43 @@
+package org.folio.rtaccache.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.folio.rtaccache.domain.dto.RtacHolding;
+import org.folio.rtaccache.domain.dto.RtacHoldingLocation;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+class RtacHoldingJsonWriterTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final RtacHoldingJsonWriter rtacHoldingJsonWriter = new RtacHoldingJsonWriter(objectMapper);
+
+  @Test
+  void writeCsvValue_shouldQuoteJsonAndKeepStreamOpen() throws Exception {
+    var rtacHolding = new RtacHolding().barcode("say \"ä\", \"b\"");
+    var out = new ByteArrayOutputStream();
+
+    rtacHoldingJsonWriter.writeCsvValue(out, rtacHolding);
+    out.write(',');
+
+    var json = objectMapper.writeValueAsString(rtacHolding);
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("\"" + json.replace("\"", "\"\"") + "\",");
+  }
+
+  @Test
+  void writeFragment_shouldReuseJsonOfEqualFragments() {
+    var first = rtacHoldingJsonWriter.writeFragment(new RtacHoldingLocation().id("1").code("A").name("Annex"));
+    var second = rtacHoldingJsonWriter.writeFragment(new RtacHoldingLocation().id("1").code("A").name("Annex"));
+    var renamed = rtacHoldingJsonWriter.writeFragment(new RtacHoldingLocation().id("1").code("A").name("Main"));
+
+    assertThat(second).isSameAs(first);
+    assertThat(renamed).contains("\"Main\"");
+  }
+
+  @Test
+  void writeFragment_shouldSerializeNull() {
+    assertThat(rtacHoldingJsonWriter.writeFragment(null)).isEqualTo("null");
+  }
+}
@@ -11,6 +11,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import org.folio.rtaccache.BaseIntegrationTest;
@@ -22,12 +24,15 @@ import org.folio.rtaccache.domain.dto.RtacHoldingLibrary;
 import org.folio.rtaccache.domain.dto.RtacHoldingLocation;
 import org.folio.rtaccache.domain.dto.RtacHoldings;
 import org.folio.rtaccache.domain.dto.RtacHoldingsBatch;
+import org.folio.rtaccache.domain.dto.RtacHoldingsDetailsBatch;
 import org.folio.rtaccache.domain.dto.RtacRequest;
+import org.folio.rtaccache.domain.dto.StatusSummary;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 import tools.jackson.databind.ObjectMapper;
 
@@ -119,6 +124,147 @@ class RtacCacheControllerIT extends BaseIntegrationTest {
     var rtacHoldingsBatch = new ObjectMapper().readValue(result.getResponse().getContentAsString(), RtacHoldingsBatch.class);
     assertThat(rtacHoldingsBatch.getHoldings()).hasSize(2);
     assertThat(rtacHoldingsBatch.getErrors()).isEmpty();
+    assertThat(rtacHoldingsBatch.getPendingInstanceIds()).isEmpty();
+  }
+
+  @Test
+  void postRtacCacheBatch_shouldReflectUpdatedAndSuppressedHoldings() throws Exception {
+    var instanceId = UUID.randomUUID();
+    var holdingId = UUID.randomUUID();
+    var itemId1 = UUID.randomUUID();
+    var itemId2 = UUID.randomUUID();
+    var library = new RtacHoldingLibrary().id(UUID.randomUUID().toString());
+    var location = new RtacHoldingLocation().id(UUID.randomUUID().toString()).code("LOC");
+
+    var holding = new RtacHolding().id(holdingId.toString()).holdingsId(holdingId.toString()).type(RtacHolding.TypeEnum.HOLDING)
+      .suppressFromDiscovery(false);
+    var item1 = new RtacHolding().id(itemId1.toString()).holdingsId(holdingId.toString()).type(RtacHolding.TypeEnum.ITEM)
+      .status("Available").library(library).location(location).volume("v.1");
+    var item2 = new RtacHolding().id(itemId2.toString()).holdingsId(holdingId.toString()).type(RtacHolding.TypeEnum.ITEM)
+      .status("Available").library(library).location(location);
+
+    withinTenant(TEST_TENANT, () -> {
+      rtacHoldingRepository.save(new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.HOLDING, holdingId), false, holding, Instant.now()));
+      rtacHoldingRepository.save(new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.ITEM, itemId1), false, item1, Instant.now()));
+      rtacHoldingRepository.save(new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.ITEM, itemId2), false, item2, Instant.now()));
+      rtacHoldingRepository.save(new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.ITEM, itemId2), false,
+        item2.status("Checked out"), Instant.now()));
+    });
+
+    var batch = postRtacCacheBatch(instanceId);
+    assertThat(batch.getHoldings()).hasSize(1);
+    var summary = batch.getHoldings().get(0);
+    assertThat(summary.getHasVolumes()).isTrue();
+    assertThat(summary.getStatusSummaries())
+      .extracting(StatusSummary::getStatus, StatusSummary::getStatusCount, StatusSummary::getType, StatusSummary::getLocationCode)
+      .containsExactlyInAnyOrder(
+        tuple("Available", 1, StatusSummary.TypeEnum.ITEM, "LOC"),
+        tuple("Checked out", 1, StatusSummary.TypeEnum.ITEM, "LOC"));
+
+    withinTenant(TEST_TENANT, () -> rtacHoldingRepository.save(
+      new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.HOLDING, holdingId), false, holding.suppressFromDiscovery(true), Instant.now())));
+
+    var suppressedBatch = postRtacCacheBatch(instanceId);
+    assertThat(suppressedBatch.getHoldings()).isEmpty();
+    assertThat(suppressedBatch.getErrors()).hasSize(1);
+  }
+
+  @Test
+  void postRtacCacheBatch_shouldNotCountInsertedSuppressedItems() throws Exception {
+    var instanceId = UUID.randomUUID();
+    var holdingId = UUID.randomUUID();
+    var itemId1 = UUID.randomUUID();
+    var itemId2 = UUID.randomUUID();
+    var location = new RtacHoldingLocation().id(UUID.randomUUID().toString()).code("LOC");
+
+    var holding = new RtacHolding().id(holdingId.toString()).holdingsId(holdingId.toString()).type(RtacHolding.TypeEnum.HOLDING)
+      .suppressFromDiscovery(false);
+    var item1 = new RtacHolding().id(itemId1.toString()).holdingsId(holdingId.toString()).type(RtacHolding.TypeEnum.ITEM)
+      .status("Available").location(location).suppressFromDiscovery(false);
+    var item2 = new RtacHolding().id(itemId2.toString()).holdingsId(holdingId.toString()).type(RtacHolding.TypeEnum.ITEM)
+      .status("Checked out").location(location).suppressFromDiscovery(true);
+
+    withinTenant(TEST_TENANT, () -> {
+      rtacHoldingRepository.save(new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.HOLDING, holdingId), false, holding, Instant.now()));
+      rtacHoldingRepository.save(new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.ITEM, itemId1), false, item1, Instant.now()));
+      rtacHoldingRepository.save(new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.ITEM, itemId2), false, item2, Instant.now()));
+    });
+
+    var batch = postRtacCacheBatch(instanceId);
+    assertThat(batch.getHoldings()).hasSize(1);
+    assertThat(batch.getHoldings().get(0).getStatusSummaries())
+      .extracting(StatusSummary::getStatus, StatusSummary::getStatusCount, StatusSummary::getType)
+      .containsExactly(tuple("Available", 1, StatusSummary.TypeEnum.ITEM));
+  }
+
+  @Test
+  void postRtacCacheBatch_shouldNotCountItemsInsertedUnderSuppressedHolding() throws Exception {
+    var instanceId = UUID.randomUUID();
+    var holdingId = UUID.randomUUID();
+    var itemId = UUID.randomUUID();
+    var location = new RtacHoldingLocation().id(UUID.randomUUID().toString()).code("LOC");
+
+    var holding = new RtacHolding().id(holdingId.toString()).holdingsId(holdingId.toString()).type(RtacHolding.TypeEnum.HOLDING)
+      .suppressFromDiscovery(true);
+    var item = new RtacHolding().id(itemId.toString()).holdingsId(holdingId.toString()).type(RtacHolding.TypeEnum.ITEM)
+      .status("Available").location(location).suppressFromDiscovery(false);
+
+    withinTenant(TEST_TENANT, () -> {
+      rtacHoldingRepository.save(new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.HOLDING, holdingId), false, holding, Instant.now()));
+      rtacHoldingRepository.save(new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.ITEM, itemId), false, item, Instant.now()));
+    });
+
+    var batch = postRtacCacheBatch(instanceId);
+    assertThat(batch.getHoldings()).isEmpty();
+    assertThat(batch.getErrors()).hasSize(1);
+  }
+
+  private RtacHoldingsBatch postRtacCacheBatch(UUID instanceId) throws Exception {
+    var rtacRequest = new RtacRequest().instanceIds(List.of(instanceId.toString()));
+    var result = mockMvc.perform(post("/rtac-cache/batch")
+        .headers(defaultHeaders(TEST_TENANT, APPLICATION_JSON))
+        .content(new ObjectMapper().writeValueAsString(rtacRequest)))
+      .andExpect(status().isOk())
+      .andReturn();
+    return new ObjectMapper().readValue(result.getResponse().getContentAsString(), RtacHoldingsBatch.class);
+  }
+
+  @Test
+  void postRtacCacheBatchHoldingsDetails_success() throws Exception {
+    var instanceId1 = UUID.randomUUID();
+    var instanceId2 = UUID.randomUUID();
+    var entities = new ArrayList<RtacHoldingEntity>();
+    for (var shelvingOrder : List.of("A", "B", "C")) {
+      var itemId = UUID.randomUUID();
+      var item = new RtacHolding().id(itemId.toString()).effectiveShelvingOrder(shelvingOrder);
+      entities.add(new RtacHoldingEntity(new RtacHoldingId(instanceId1, TypeEnum.ITEM, itemId), false, item, Instant.now()));
+    }
+    var itemId = UUID.randomUUID();
+    var item = new RtacHolding().id(itemId.toString()).effectiveShelvingOrder("D");
+    entities.add(new RtacHoldingEntity(new RtacHoldingId(instanceId2, TypeEnum.ITEM, itemId), false, item, Instant.now()));
+    withinTenant(TEST_TENANT, () -> rtacHoldingRepository.saveAll(entities));
+
+    var rtacRequest = new RtacRequest().instanceIds(List.of(instanceId2.toString(), instanceId1.toString(), EMPTY_INSTANCE_ID.toString()));
+    var result = mockMvc.perform(post("/rtac-cache/batch/holdings?sort=effectiveShelvingOrder,asc&limit=2")
+        .headers(defaultHeaders(TEST_TENANT, APPLICATION_JSON))
+        .content(new ObjectMapper().writeValueAsString(rtacRequest)))
+      .andExpect(status().isOk())
+      .andReturn();
+
+    var batch = new ObjectMapper().readValue(result.getResponse().getContentAsString(), RtacHoldingsDetailsBatch.class);
+    assertThat(batch.getInstances()).extracting(RtacHoldings::getInstanceId)
+      .containsExactly(instanceId2.toString(), instanceId1.toString());
+    assertThat(batch.getInstances().get(0).getHoldings()).extracting(RtacHolding::getEffectiveShelvingOrder).containsExactly("D");
+    assertThat(batch.getInstances().get(0).getNextContinuationToken()).isNull();
+    var holdings1 = batch.getInstances().get(1);
+    assertThat(holdings1.getHoldings()).extracting(RtacHolding::getEffectiveShelvingOrder).containsExactly("A", "B");
+    assertThat(holdings1.getTotalRecords()).isEqualTo(3);
+    assertThat(holdings1.getNextContinuationToken()).isNotNull();
+    assertThat(batch.getErrors()).hasSize(1);
+
+    var nextPage = getHoldings("/rtac-cache/" + instanceId1 + "?sort=effectiveShelvingOrder,asc&limit=2&continuationToken="
+      + holdings1.getNextContinuationToken());
+    assertThat(nextPage.getHoldings()).extracting(RtacHolding::getEffectiveShelvingOrder).containsExactly("C");
   }
 
   @Test
@@ -218,6 +364,110 @@ class RtacCacheControllerIT extends BaseIntegrationTest {
     }).containsExactly("Library Z", "Library M", "Library A");
   }
 
+  @Test
+  void holdingsByInstanceId_withContinuationToken() throws Exception {
+    var instanceId = UUID.randomUUID();
+    var shelvingOrders = Arrays.asList("A", "B", "B", "B", null, "C");
+    var entities = shelvingOrders.stream()
+      .map(shelvingOrder -> {
+        var id = UUID.randomUUID();
+        var rtacHolding = new RtacHolding().id(id.toString()).effectiveShelvingOrder(shelvingOrder);
+        return new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.ITEM, id), false, rtacHolding, Instant.now());
+      })
+      .toList();
+    withinTenant(TEST_TENANT, () -> rtacHoldingRepository.saveAll(entities));
+
+    var allHoldings = getHoldings("/rtac-cache/" + instanceId + "?sort=effectiveShelvingOrder&limit=10");
+    assertThat(allHoldings.getNextContinuationToken()).isNull();
+
+    var pagedIds = new ArrayList<String>();
+    String continuationToken = null;
+    do {
+      var url = "/rtac-cache/" + instanceId + "?sort=effectiveShelvingOrder&limit=2"
+        + (continuationToken == null ? "" : "&continuationToken=" + continuationToken);
+      var page = getHoldings(url);
+      assertThat(page.getTotalRecords()).isEqualTo(6);
+      page.getHoldings().forEach(holding -> pagedIds.add(holding.getId()));
+      continuationToken = page.getNextContinuationToken();
+    } while (continuationToken != null);
+
+    assertThat(pagedIds).containsExactlyElementsOf(allHoldings.getHoldings().stream().map(RtacHolding::getId).toList());
+  }
+
+  @Test
+  void holdingsByInstanceId_withInvalidContinuationToken_shouldReturnBadRequest() throws Exception {
+    var instanceId = UUID.randomUUID();
+
+    mockMvc.perform(get("/rtac-cache/" + instanceId + "?continuationToken=invalid")
+        .headers(defaultHeaders(TEST_TENANT, APPLICATION_JSON)))
+      .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void holdingsByInstanceId_withIfNoneMatch() throws Exception {
+    var instanceId = UUID.randomUUID();
+    var itemId = UUID.randomUUID();
+    var item = new RtacHolding().id(itemId.toString()).status("Available");
+    withinTenant(TEST_TENANT, () -> rtacHoldingRepository.save(
+      new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.ITEM, itemId), false, item, Instant.now())));
+
+    var entityTag = mockMvc.perform(get("/rtac-cache/" + instanceId)
+        .headers(defaultHeaders(TEST_TENANT, APPLICATION_JSON)))
+      .andExpect(status().isOk())
+      .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(entityTag).isNotBlank();
+
+    mockMvc.perform(get("/rtac-cache/" + instanceId)
+        .headers(defaultHeaders(TEST_TENANT, APPLICATION_JSON))
+        .header(HttpHeaders.IF_NONE_MATCH, entityTag))
+      .andExpect(status().isNotModified());
+    // Another page of the same holdings has another entity tag
+    var otherPageEntityTag = mockMvc.perform(get("/rtac-cache/" + instanceId + "?offset=1&limit=1")
+        .headers(defaultHeaders(TEST_TENANT, APPLICATION_JSON))
+        .header(HttpHeaders.IF_NONE_MATCH, entityTag))
+      .andExpect(status().isOk())
+      .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(otherPageEntityTag).isNotBlank().isNotEqualTo(entityTag);
+
+    var rtacRequest = new RtacRequest().instanceIds(List.of(instanceId.toString()));
+    var batchEntityTag = mockMvc.perform(post("/rtac-cache/batch")
+        .headers(defaultHeaders(TEST_TENANT, APPLICATION_JSON))
+        .content(new ObjectMapper().writeValueAsString(rtacRequest)))
+      .andExpect(status().isOk())
+      .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    mockMvc.perform(post("/rtac-cache/batch")
+        .headers(defaultHeaders(TEST_TENANT, APPLICATION_JSON))
+        .header(HttpHeaders.IF_NONE_MATCH, batchEntityTag)
+        .content(new ObjectMapper().writeValueAsString(rtacRequest)))
+      .andExpect(status().isNotModified());
+
+    withinTenant(TEST_TENANT, () -> rtacHoldingRepository.save(
+      new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.ITEM, itemId), false, item.status("Checked out"), Instant.now())));
+
+    var result = mockMvc.perform(get("/rtac-cache/" + instanceId)
+        .headers(defaultHeaders(TEST_TENANT, APPLICATION_JSON))
+        .header(HttpHeaders.IF_NONE_MATCH, entityTag))
+      .andExpect(status().isOk())
+      .andReturn();
+    assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(entityTag);
+    var rtacHoldings = new ObjectMapper().readValue(result.getResponse().getContentAsString(), RtacHoldings.class);
+    assertThat(rtacHoldings.getHoldings()).extracting(RtacHolding::getStatus).containsExactly("Checked out");
+
+    // The version of an instance is deleted with its last row, so a deleted instance is not revalidated
+    withinTenant(TEST_TENANT, () -> rtacHoldingRepository.deleteAllByIdInstanceId(instanceId));
+    var versions = withinTenantWithResult(TEST_TENANT, () -> rtacHoldingRepository.findInstanceVersions(
+      folioModuleMetadata.getDBSchemaName(TEST_TENANT), new UUID[] {instanceId}));
+    assertThat(versions).isEmpty();
+  }
+
+  private RtacHoldings getHoldings(String url) throws Exception {
+    var result = mockMvc.perform(get(url)
+        .headers(defaultHeaders(TEST_TENANT, APPLICATION_JSON)))
+      .andExpect(status().isOk())
+      .andReturn();
+    return new ObjectMapper().readValue(result.getResponse().getContentAsString(), RtacHoldings.class);
+  }
+
   @Test
   void holdingsByInstanceId_withMultiFieldSorting() throws Exception {
     var instanceId = UUID.randomUUID();
@@ -385,6 +635,28 @@ class RtacCacheControllerIT extends BaseIntegrationTest {
     assertThat(rtacHoldings.getHoldings()).isNull();
   }
 
+  @Test
+  void holdingsByInstanceId_shouldFollowSuppressionOfHoldingWrittenAfterItems() throws Exception {
+    var instanceId = UUID.randomUUID();
+    var holdingId = UUID.randomUUID();
+    var itemId = UUID.randomUUID();
+
+    var item = new RtacHolding().id(itemId.toString()).holdingsId(holdingId.toString()).suppressFromDiscovery(false);
+    var holding = new RtacHolding().id(holdingId.toString()).holdingsId(holdingId.toString()).suppressFromDiscovery(true);
+    withinTenant(TEST_TENANT, () -> {
+      rtacHoldingRepository.save(new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.ITEM, itemId), false, item, Instant.now()));
+      rtacHoldingRepository.save(new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.HOLDING, holdingId), false, holding, Instant.now()));
+    });
+
+    assertThat(getHoldings("/rtac-cache/" + instanceId).getHoldings()).isNull();
+
+    withinTenant(TEST_TENANT, () -> rtacHoldingRepository.save(
+      new RtacHoldingEntity(new RtacHoldingId(instanceId, TypeEnum.HOLDING, holdingId), false, holding.suppressFromDiscovery(false), Instant.now())));
+
+    assertThat(getHoldings("/rtac-cache/" + instanceId).getHoldings()).extracting(RtacHolding::getId)
+      .containsExactly(itemId.toString());
+  }
+
   @Test
   void holdingsByInstanceId_shouldReturnItemsIfSuppressFromDiscoveryIsNull() throws Exception {
     var instanceId = UUID.randomUUID();
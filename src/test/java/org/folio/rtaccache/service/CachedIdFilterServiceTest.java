@@ -0,0 +1,249 @@
+package org.folio.rtaccache.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import org.folio.rtaccache.SameThreadAsyncTaskExecutor;
+import org.folio.rtaccache.config.CachedIdFilterProperties;
+import org.folio.rtaccache.domain.RtacHoldingEntity;
+import org.folio.rtaccache.domain.RtacHoldingId;
+import org.folio.rtaccache.domain.dto.CirculationResourceEvent;
+import org.folio.rtaccache.domain.dto.CirculationResourceEventData;
+import org.folio.rtaccache.domain.dto.InventoryEventType;
+import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
+import org.folio.rtaccache.domain.dto.RtacHolding.TypeEnum;
+import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
+import org.folio.rtaccache.repository.RtacHoldingRepository;
+import org.folio.spring.FolioExecutionContext;
+import org.folio.spring.service.SystemUserScopedExecutionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class CachedIdFilterServiceTest {
+
+  private static final String TENANT_ID = "test_tenant";
+  private static final UUID INSTANCE_ID = UUID.randomUUID();
+  private static final UUID ITEM_ID = UUID.randomUUID();
+  private static final UUID HOLDINGS_ID = UUID.randomUUID();
+
+  @Mock
+  private RtacHoldingBulkRepository holdingBulkRepository;
+  @Mock
+  private RtacHoldingRepository holdingRepository;
+  @Mock
+  private SystemUserScopedExecutionService executionService;
+  @Mock
+  private FolioExecutionContext folioExecutionContext;
+
+  private final CachedIdFilterProperties properties = new CachedIdFilterProperties();
+  private CachedIdFilterService cachedIdFilterService;
+
+  @BeforeEach
+  void setUp() {
+    properties.setEnabled(true);
+    properties.setExpectedIds(1000L);
+    lenient().when(executionService.executeSystemUserScoped(anyString(), any()))
+      .thenAnswer(invocation -> invocation.<Callable<?>>getArgument(1).call());
+    cachedIdFilterService = new CachedIdFilterService(properties, holdingBulkRepository, holdingRepository,
+      executionService, folioExecutionContext, new SameThreadAsyncTaskExecutor());
+  }
+
+  @Test
+  void mightBeCached_shouldPassEverything_whenDisabled() {
+    properties.setEnabled(false);
+
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, itemEvent(UUID.randomUUID(), UUID.randomUUID())))
+      .isTrue();
+    verifyNoInteractions(holdingBulkRepository);
+  }
+
+  @Test
+  void mightBeCached_shouldPassEvents_untilFilterOfTenantIsBuilt() throws SQLException {
+    mockCachedIds(INSTANCE_ID, ITEM_ID);
+    var uncached = itemEvent(UUID.randomUUID(), UUID.randomUUID());
+
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, uncached)).isTrue();
+
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, uncached)).isFalse();
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, itemEvent(ITEM_ID, INSTANCE_ID))).isTrue();
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, itemEvent(UUID.randomUUID(), INSTANCE_ID))).isTrue();
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(ITEM_ID))).isTrue();
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(UUID.randomUUID()))).isFalse();
+    verify(holdingBulkRepository, times(1)).forEachCachedId(any());
+  }
+
+  @Test
+  void add_shouldLetEventsOfWrittenRowsPass() throws SQLException {
+    mockCachedIds(INSTANCE_ID, HOLDINGS_ID);
+    when(folioExecutionContext.getTenantId()).thenReturn(TENANT_ID);
+    var newItemId = UUID.randomUUID();
+    cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(newItemId));
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(newItemId))).isFalse();
+
+    var holding = new RtacHoldingEntity(new RtacHoldingId(INSTANCE_ID, TypeEnum.ITEM, newItemId), false, null,
+      Instant.now());
+    cachedIdFilterService.add(List.of(holding));
+
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(newItemId))).isTrue();
+  }
+
+  @Test
+  void add_shouldAddIdsAfterCommit_whenTransactionIsActive() throws SQLException {
+    mockCachedIds(INSTANCE_ID, HOLDINGS_ID);
+    when(folioExecutionContext.getTenantId()).thenReturn(TENANT_ID);
+    var newItemId = UUID.randomUUID();
+    cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(newItemId));
+    var holding = new RtacHoldingEntity(new RtacHoldingId(INSTANCE_ID, TypeEnum.ITEM, newItemId), false, null,
+      Instant.now());
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      cachedIdFilterService.add(List.of(holding));
+      assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(newItemId))).isFalse();
+
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(newItemId))).isTrue();
+  }
+
+  @Test
+  void rebuildStaleFilters_shouldPickUpRowsWrittenByOtherInstances() throws SQLException, InterruptedException {
+    properties.setRebuildInterval(Duration.ofMillis(1));
+    var otherItemId = UUID.randomUUID();
+    mockCachedIds(INSTANCE_ID, HOLDINGS_ID);
+    cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(otherItemId));
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(otherItemId))).isFalse();
+
+    mockCachedIds(INSTANCE_ID, HOLDINGS_ID, INSTANCE_ID, otherItemId);
+    TimeUnit.MILLISECONDS.sleep(5);
+    cachedIdFilterService.rebuildStaleFilters();
+
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(otherItemId))).isTrue();
+    verify(holdingBulkRepository, times(2)).forEachCachedId(any());
+  }
+
+  @Test
+  void rebuildStaleFilters_shouldDeleteCacheOfInstances_whenTheirEventsWereDroppedBeforeTheirRowsWereSeen()
+    throws SQLException, InterruptedException {
+    properties.setRebuildInterval(Duration.ofMillis(1));
+    var otherInstanceId = UUID.randomUUID();
+    var otherItemId = UUID.randomUUID();
+    var untouchedInstanceId = UUID.randomUUID();
+    mockCachedIds(INSTANCE_ID, HOLDINGS_ID);
+    cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(otherItemId));
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(otherItemId))).isFalse();
+
+    mockCachedIds(INSTANCE_ID, HOLDINGS_ID, otherInstanceId, otherItemId, untouchedInstanceId, UUID.randomUUID());
+    TimeUnit.MILLISECONDS.sleep(5);
+    cachedIdFilterService.rebuildStaleFilters();
+
+    verify(holdingRepository).deleteAllByIdInstanceIdIn(List.of(otherInstanceId));
+  }
+
+  @Test
+  void rebuildStaleFilters_shouldKeepCache_whenNoEventsWereDropped() throws SQLException, InterruptedException {
+    properties.setRebuildInterval(Duration.ofMillis(1));
+    mockCachedIds(INSTANCE_ID, HOLDINGS_ID);
+    cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(ITEM_ID));
+
+    mockCachedIds(INSTANCE_ID, HOLDINGS_ID, UUID.randomUUID(), UUID.randomUUID());
+    TimeUnit.MILLISECONDS.sleep(5);
+    cachedIdFilterService.rebuildStaleFilters();
+
+    verify(holdingBulkRepository, times(2)).forEachCachedId(any());
+    verify(holdingRepository, never()).deleteAllByIdInstanceIdIn(any());
+  }
+
+  @Test
+  void mightBeCached_shouldBuildFiltersOfTenantsOneAfterAnother() throws SQLException {
+    var tasks = new ArrayList<Runnable>();
+    cachedIdFilterService = new CachedIdFilterService(properties, holdingBulkRepository, holdingRepository,
+      executionService, folioExecutionContext, new SameThreadAsyncTaskExecutor() {
+        @Override
+        public void execute(Runnable task) {
+          tasks.add(task);
+        }
+      });
+    mockCachedIds(INSTANCE_ID, HOLDINGS_ID);
+    var uncached = itemEvent(UUID.randomUUID(), UUID.randomUUID());
+
+    cachedIdFilterService.mightBeCached("tenant1", uncached);
+    cachedIdFilterService.mightBeCached("tenant2", uncached);
+    cachedIdFilterService.mightBeCached("tenant3", uncached);
+
+    assertThat(tasks).hasSize(1);
+    tasks.getFirst().run();
+    verify(holdingBulkRepository, times(3)).forEachCachedId(any());
+    assertThat(cachedIdFilterService.mightBeCached("tenant2", uncached)).isFalse();
+  }
+
+  @Test
+  void rebuildStaleFilters_shouldKeepFilter_whenItIsFresh() throws SQLException {
+    mockCachedIds(INSTANCE_ID, HOLDINGS_ID);
+    cachedIdFilterService.mightBeCached(TENANT_ID, loanEvent(ITEM_ID));
+
+    cachedIdFilterService.rebuildStaleFilters();
+
+    verify(holdingBulkRepository, times(1)).forEachCachedId(any());
+  }
+
+  @Test
+  void mightBeCached_shouldKeepPassingEvents_whenBuildFails() throws SQLException {
+    doThrow(new SQLException("broken")).when(holdingBulkRepository).forEachCachedId(any());
+    var uncached = itemEvent(UUID.randomUUID(), UUID.randomUUID());
+
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, uncached)).isTrue();
+    assertThat(cachedIdFilterService.mightBeCached(TENANT_ID, uncached)).isTrue();
+  }
+
+  /**
+   * Mocks the cached rows as pairs of instance id and row id.
+   */
+  private void mockCachedIds(UUID... instanceAndRowIds) throws SQLException {
+    doAnswer(invocation -> {
+      BiConsumer<UUID, UUID> consumer = invocation.getArgument(0);
+      for (var i = 0; i < instanceAndRowIds.length; i += 2) {
+        consumer.accept(instanceAndRowIds[i], instanceAndRowIds[i + 1]);
+      }
+      return null;
+    }).when(holdingBulkRepository).forEachCachedId(any());
+  }
+
+  private static InventoryResourceEvent itemEvent(UUID itemId, UUID instanceId) {
+    var item = Map.of("id", itemId.toString(), "instanceId", instanceId.toString());
+    return new InventoryResourceEvent().type(InventoryEventType.UPDATE).old(item)._new(item);
+  }
+
+  private static CirculationResourceEvent loanEvent(UUID itemId) {
+    return new CirculationResourceEvent()
+      .data(new CirculationResourceEventData()._new(Map.of("itemId", itemId.toString())));
+  }
+}
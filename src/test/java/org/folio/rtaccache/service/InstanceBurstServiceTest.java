@@ -0,0 +1,144 @@
+package org.folio.rtaccache.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import org.folio.rtaccache.config.InstanceBurstProperties;
+import org.folio.rtaccache.domain.dto.HoldingsRecord;
+import org.folio.rtaccache.domain.dto.InventoryEventType;
+import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
+import org.folio.rtaccache.domain.kafka.KafkaItem;
+import org.folio.spring.service.SystemUserScopedExecutionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class InstanceBurstServiceTest {
+
+  private static final String TENANT_ID = "test_tenant";
+  private static final UUID INSTANCE_ID = UUID.randomUUID();
+
+  @Mock
+  private RtacHoldingStorageService holdingStorageService;
+  @Mock
+  private SystemUserScopedExecutionService executionService;
+  @Captor
+  private ArgumentCaptor<List<UUID>> instanceIdsCaptor;
+
+  private final InstanceBurstProperties properties = new InstanceBurstProperties();
+  private InstanceBurstService instanceBurstService;
+
+  @BeforeEach
+  void setUp() {
+    properties.setThreshold(3);
+    lenient().when(executionService.executeSystemUserScoped(anyString(), any()))
+      .thenAnswer(invocation -> invocation.<Callable<?>>getArgument(1).call());
+    instanceBurstService = new InstanceBurstService(properties, holdingStorageService, executionService);
+  }
+
+  @Test
+  void absorb_shouldAbsorbEvents_onceThresholdOfInstanceIsExceeded() {
+    for (var i = 0; i < 3; i++) {
+      assertThat(instanceBurstService.absorb(TENANT_ID, itemEvent(INSTANCE_ID, INSTANCE_ID))).isFalse();
+    }
+
+    assertThat(instanceBurstService.absorb(TENANT_ID, itemEvent(INSTANCE_ID, INSTANCE_ID))).isTrue();
+    assertThat(instanceBurstService.absorb(TENANT_ID, itemEvent(UUID.randomUUID(), UUID.randomUUID()))).isFalse();
+    assertThat(instanceBurstService.absorb("other_tenant", itemEvent(INSTANCE_ID, INSTANCE_ID))).isFalse();
+  }
+
+  @Test
+  void absorb_shouldCountRedeliveredEventOnce() {
+    var event = itemEvent(INSTANCE_ID, INSTANCE_ID);
+
+    for (var i = 0; i < 5; i++) {
+      assertThat(instanceBurstService.absorb(TENANT_ID, event)).isFalse();
+    }
+  }
+
+  @Test
+  void absorb_shouldNotAbsorbEvents_whenDisabled() {
+    properties.setEnabled(false);
+
+    for (var i = 0; i < 5; i++) {
+      assertThat(instanceBurstService.absorb(TENANT_ID, itemEvent(INSTANCE_ID, INSTANCE_ID))).isFalse();
+    }
+    instanceBurstService.invalidateInstancesAfterBurst();
+
+    verifyNoInteractions(holdingStorageService);
+  }
+
+  @Test
+  void invalidateInstancesAfterBurst_shouldDeleteCacheOfInstances_onceTheirEventsCalmDown() {
+    var targetInstanceId = UUID.randomUUID();
+    burst(INSTANCE_ID);
+    // An item moved away from an instance in a burst is taken out of the cache of both instances
+    assertThat(instanceBurstService.absorb(TENANT_ID, itemEvent(INSTANCE_ID, targetInstanceId))).isTrue();
+
+    instanceBurstService.invalidateInstancesAfterBurst();
+    verify(holdingStorageService, never()).deleteByInstanceIds(anyList());
+
+    properties.setDebounce(Duration.ZERO);
+    instanceBurstService.invalidateInstancesAfterBurst();
+    instanceBurstService.invalidateInstancesAfterBurst();
+
+    verify(holdingStorageService).deleteByInstanceIds(instanceIdsCaptor.capture());
+    assertThat(instanceIdsCaptor.getValue()).containsExactlyInAnyOrder(INSTANCE_ID, targetInstanceId);
+  }
+
+  @Test
+  void invalidateInstancesAfterBurst_shouldDeleteCacheOfInstance_whenBurstLastsLongerThanMaxDelay() {
+    burst(INSTANCE_ID);
+    properties.setMaxDelay(Duration.ZERO);
+
+    instanceBurstService.invalidateInstancesAfterBurst();
+
+    verify(holdingStorageService).deleteByInstanceIds(List.of(INSTANCE_ID));
+  }
+
+  @Test
+  void absorb_shouldCountHoldingsEventsAgainstTheirInstance() {
+    var holdings = new HoldingsRecord().id(UUID.randomUUID().toString()).instanceId(INSTANCE_ID.toString());
+    var holdingsEvent = new InventoryResourceEvent().type(InventoryEventType.UPDATE).old(holdings)._new(holdings);
+    burst(INSTANCE_ID);
+
+    assertThat(instanceBurstService.absorb(TENANT_ID, holdingsEvent)).isTrue();
+  }
+
+  private void burst(UUID instanceId) {
+    for (var i = 0; i <= properties.getThreshold(); i++) {
+      instanceBurstService.absorb(TENANT_ID, itemEvent(instanceId, instanceId));
+    }
+  }
+
+  private static InventoryResourceEvent itemEvent(UUID oldInstanceId, UUID newInstanceId) {
+    var itemId = UUID.randomUUID().toString();
+    return new InventoryResourceEvent()
+      .eventId(UUID.randomUUID().toString())
+      .type(InventoryEventType.UPDATE)
+      .old(item(itemId, oldInstanceId))
+      ._new(item(itemId, newInstanceId));
+  }
+
+  private static KafkaItem item(String itemId, UUID instanceId) {
+    var item = new KafkaItem();
+    item.setId(itemId);
+    item.setInstanceId(instanceId.toString());
+    return item;
+  }
+}
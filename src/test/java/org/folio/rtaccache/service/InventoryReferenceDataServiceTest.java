@@ -1,13 +1,20 @@
 package org.folio.rtaccache.service;
 
+import static org.folio.rtaccache.constant.RtacCacheConstant.LOAN_TYPES_CACHE_NAME;
+import static org.folio.rtaccache.constant.RtacCacheConstant.LOCATIONS_CACHE_NAME;
+import static org.folio.rtaccache.constant.RtacCacheConstant.MATERIAL_TYPES_CACHE_NAME;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import org.folio.rtaccache.client.InventoryClient;
@@ -22,6 +29,7 @@ import org.folio.rtaccache.domain.dto.Loclibs;
 import org.folio.rtaccache.domain.dto.MaterialType;
 import org.folio.rtaccache.domain.dto.MaterialTypes;
 import org.folio.rtaccache.util.QueryParametersUtil;
+import org.folio.spring.FolioExecutionContext;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
@@ -29,6 +37,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 @ExtendWith(MockitoExtension.class)
 class InventoryReferenceDataServiceTest {
@@ -37,6 +47,10 @@ class InventoryReferenceDataServiceTest {
   InventoryClient inventoryClient;
   @Spy
   QueryParametersUtil queryParametersUtil = new QueryParametersUtil();
+  @Spy
+  CacheManager cacheManager = new ConcurrentMapCacheManager();
+  @Mock
+  FolioExecutionContext folioExecutionContext;
 
   @InjectMocks
   InventoryReferenceDataService service;
@@ -127,4 +141,89 @@ class InventoryReferenceDataServiceTest {
 
     assertThrows(IllegalStateException.class, () -> service.getLoanTypesMap());
   }
+
+  @Test
+  void putLocation_patchesCachedMapOfCurrentTenant() {
+    var cache = cacheManager.getCache(LOCATIONS_CACHE_NAME);
+    Location l1 = new Location().id("loc1").name("Name1");
+    Location l2 = new Location().id("loc2").name("Name2");
+    var cachedMap = Map.of("loc1", l1);
+    cache.put("locations_tenant", cachedMap);
+    cache.put("locations_other", cachedMap);
+    when(folioExecutionContext.getTenantId()).thenReturn("tenant");
+
+    service.putLocation(l2);
+
+    var patched = (Map<?, ?>) cache.get("locations_tenant").get();
+    assertEquals(2, patched.size());
+    assertSame(l2, patched.get("loc2"));
+    assertSame(cachedMap, cache.get("locations_other").get());
+    assertEquals(1, cachedMap.size());
+  }
+
+  @Test
+  void removeLocation_evictsCachedMap_whenLastEntryIsRemoved() {
+    var cache = cacheManager.getCache(LOCATIONS_CACHE_NAME);
+    Location l1 = new Location().id("loc1").name("Name1");
+    cache.put("locations_tenant", Map.of("loc1", l1));
+    when(folioExecutionContext.getTenantId()).thenReturn("tenant");
+
+    service.removeLocation(l1);
+
+    assertNull(cache.get("locations_tenant"));
+  }
+
+  @Test
+  void putLoanType_doesNotCacheMap_whenNotCachedYet() {
+    when(folioExecutionContext.getTenantId()).thenReturn("tenant");
+
+    service.putLoanType(new LoanType("Loan1").id("lt1"));
+
+    assertNull(cacheManager.getCache(LOAN_TYPES_CACHE_NAME).get("loanTypes_tenant"));
+    verifyNoInteractions(inventoryClient);
+  }
+
+  @Test
+  void putMaterialType_evictsCachedMap_whenEventHasNoId() {
+    var cache = cacheManager.getCache(MATERIAL_TYPES_CACHE_NAME);
+    cache.put("materialTypes_tenant", Map.of("m1", new MaterialType().id("m1")));
+    when(folioExecutionContext.getTenantId()).thenReturn("tenant");
+
+    service.putMaterialType(new MaterialType().name("No id"));
+
+    assertNull(cache.get("materialTypes_tenant"));
+  }
+
+  @Test
+  void getLoanTypesMap_loadsAgain_whenPatchedWhileLoading() {
+    LoanType lt1 = new LoanType("Loan1").id("lt1");
+    LoanType lt2 = new LoanType("Loan2").id("lt2");
+    when(folioExecutionContext.getTenantId()).thenReturn("tenant");
+    when(inventoryClient.getLoanTypes(any(Map.class)))
+      .thenAnswer(invocation -> {
+        // The event finds no cached map while the first load is in flight
+        service.putLoanType(lt2);
+        return new LoanTypes(List.of(lt1), 1);
+      })
+      .thenReturn(new LoanTypes(List.of(lt1, lt2), 2));
+
+    Map<String, LoanType> map = service.getLoanTypesMap();
+
+    assertEquals(2, map.size());
+    assertSame(lt2, map.get("lt2"));
+    verify(inventoryClient, times(2)).getLoanTypes(any(Map.class));
+  }
+
+  @Test
+  void getLocationsMap_loadsOnce_whenNotPatchedWhileLoading() {
+    Location l1 = new Location().id("loc1").name("Name1");
+    when(folioExecutionContext.getTenantId()).thenReturn("tenant");
+    when(inventoryClient.getLocations(any(Map.class))).thenReturn(new Locations(List.of(l1), 1));
+    service.putLocation(new Location().id("loc2").name("Name2"));
+
+    Map<String, Location> map = service.getLocationsMap();
+
+    assertEquals(1, map.size());
+    verify(inventoryClient).getLocations(any(Map.class));
+  }
 }
@@ -0,0 +1,147 @@
+package org.folio.rtaccache.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.folio.rtaccache.domain.ItemDueDate;
+import org.folio.rtaccache.domain.dto.CirculationEntityType;
+import org.folio.rtaccache.domain.dto.CirculationEventType;
+import org.folio.rtaccache.domain.dto.CirculationResourceEvent;
+import org.folio.rtaccache.domain.dto.InventoryEntityType;
+import org.folio.rtaccache.domain.dto.InventoryEventType;
+import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
+import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
+import org.folio.rtaccache.service.handler.EventHandlerFactory;
+import org.folio.rtaccache.service.handler.InventoryEventHandler;
+import org.folio.rtaccache.service.handler.LoanEventHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaEventBatchServiceTest {
+
+  private static final String ITEM_ID = UUID.randomUUID().toString();
+  private static final String OTHER_ITEM_ID = UUID.randomUUID().toString();
+
+  @Mock
+  private EventHandlerFactory eventHandlerFactory;
+  @Mock
+  private RtacHoldingBulkRepository holdingRepository;
+  @Mock
+  private TransactionTemplate transactionTemplate;
+  @Mock
+  private InventoryEventHandler inventoryEventHandler;
+  @Mock
+  private LoanEventHandler loanEventHandler;
+
+  @InjectMocks
+  private KafkaEventBatchService kafkaEventBatchService;
+
+  @Test
+  void coalesce_shouldCollapseUpdatesOfSameRecordKeepingFirstOldAndLastNew() {
+    var first = update(ITEM_ID, "A", "B");
+    var other = update(OTHER_ITEM_ID, "X", "Y");
+    var last = update(ITEM_ID, "B", "C");
+
+    var result = kafkaEventBatchService.coalesce(List.of(first, other, last));
+
+    assertThat(result).hasSize(2);
+    assertThat(result.get(0).getOld()).isEqualTo(item(ITEM_ID, "A"));
+    assertThat(result.get(0).getNew()).isEqualTo(item(ITEM_ID, "C"));
+    assertThat(result.get(0).getEventId()).isEqualTo(last.getEventId());
+    assertThat(result.get(1)).isSameAs(other);
+  }
+
+  @Test
+  void coalesce_shouldNotCollapseUpdatesAcrossCreateOrDelete() {
+    var update = update(ITEM_ID, "A", "B");
+    var delete = new InventoryResourceEvent().type(InventoryEventType.DELETE).old(item(ITEM_ID, "B"));
+    var create = new InventoryResourceEvent().type(InventoryEventType.CREATE)._new(item(ITEM_ID, "C"));
+    var nextUpdate = update(ITEM_ID, "C", "D");
+
+    var result = kafkaEventBatchService.coalesce(List.of(update, delete, create, nextUpdate));
+
+    assertThat(result).containsExactly(update, delete, create, nextUpdate);
+  }
+
+  @Test
+  void handleInventoryEvents_shouldHandleCoalescedEventsInOneTransaction() {
+    mockTransaction();
+    when(eventHandlerFactory.getInventoryHandler(InventoryEventType.UPDATE, InventoryEntityType.ITEM))
+      .thenReturn(Optional.of(inventoryEventHandler));
+
+    kafkaEventBatchService.handleInventoryEvents(
+      List.of(update(ITEM_ID, "A", "B"), update(ITEM_ID, "B", "C")), InventoryEntityType.ITEM);
+
+    verify(transactionTemplate).executeWithoutResult(any());
+    verify(inventoryEventHandler, times(1)).handle(any());
+  }
+
+  @Test
+  void handleInventoryEvents_shouldHandleEventsOneByOneInOwnTransactions_whenTransactionFails() {
+    mockTransaction();
+    var failing = update(ITEM_ID, "A", "B");
+    var other = update(OTHER_ITEM_ID, "X", "Y");
+    when(eventHandlerFactory.getInventoryHandler(InventoryEventType.UPDATE, InventoryEntityType.ITEM))
+      .thenReturn(Optional.of(inventoryEventHandler));
+    doThrow(new IllegalStateException("broken")).when(inventoryEventHandler).handle(failing);
+
+    kafkaEventBatchService.handleInventoryEvents(List.of(failing, other), InventoryEntityType.ITEM);
+
+    verify(transactionTemplate, times(3)).executeWithoutResult(any());
+    verify(inventoryEventHandler, times(2)).handle(failing);
+    verify(inventoryEventHandler).handle(other);
+  }
+
+  @Test
+  void handleLoanEvents_shouldWriteLastDueDateOfEachItemWithOneStatement() throws SQLException {
+    var itemId = UUID.fromString(ITEM_ID);
+    var created = new CirculationResourceEvent().type(CirculationEventType.CREATED);
+    var closed = new CirculationResourceEvent().type(CirculationEventType.UPDATED);
+    when(eventHandlerFactory.getCirculationHandler(any(), any())).thenReturn(Optional.of(loanEventHandler));
+    when(loanEventHandler.getItemDueDate(created)).thenReturn(Optional.of(new ItemDueDate(itemId, new Date())));
+    when(loanEventHandler.getItemDueDate(closed)).thenReturn(Optional.of(new ItemDueDate(itemId, null)));
+
+    kafkaEventBatchService.handleLoanEvents(List.of(created, closed));
+
+    verify(eventHandlerFactory).getCirculationHandler(CirculationEventType.CREATED, CirculationEntityType.LOAN);
+    verify(holdingRepository).updateItemsDueDates(List.of(new ItemDueDate(itemId, null)));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mockTransaction() {
+    doAnswer(invocation -> {
+      invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+      return null;
+    }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+  }
+
+  private static InventoryResourceEvent update(String id, String oldBarcode, String newBarcode) {
+    return new InventoryResourceEvent()
+      .eventId(UUID.randomUUID().toString())
+      .type(InventoryEventType.UPDATE)
+      .old(item(id, oldBarcode))
+      ._new(item(id, newBarcode));
+  }
+
+  private static Map<String, String> item(String id, String barcode) {
+    return Map.of("id", id, "barcode", barcode);
+  }
+}
@@ -0,0 +1,142 @@
+package org.folio.rtaccache.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.folio.rtaccache.config.EventDispatchProperties;
+import org.folio.rtaccache.domain.exception.RtacKafkaUpdateException;
+import org.folio.spring.service.SystemUserScopedExecutionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class KafkaEventDispatcherTest {
+
+  private KafkaEventDispatcher dispatcher;
+
+  @AfterEach
+  void tearDown() {
+    dispatcher.shutdown();
+  }
+
+  @Test
+  void dispatch_shouldRunActionsOfSameKeyInOrder() {
+    dispatcher = newDispatcher(4, 100);
+    var applied = new CopyOnWriteArrayList<Integer>();
+    var futures = new ArrayList<CompletableFuture<Void>>();
+
+    for (var i = 0; i < 50; i++) {
+      var value = i;
+      futures.add(dispatcher.dispatch("tenant", "item-1", () -> {
+        sleep(1);
+        applied.add(value);
+      }));
+    }
+    dispatcher.await(futures);
+
+    assertThat(applied).containsExactlyElementsOf(IntStream.range(0, 50).boxed().toList());
+  }
+
+  @Test
+  void dispatch_shouldBlockCaller_whenLaneIsFull() throws InterruptedException {
+    dispatcher = newDispatcher(1, 1);
+    var released = new CountDownLatch(1);
+    var running = dispatcher.dispatch("tenant", "key", () -> awaitLatch(released));
+    var queued = dispatcher.dispatch("tenant", "key", () -> { });
+    var blockedDispatchDone = new CountDownLatch(1);
+    Thread.ofVirtual().start(() -> {
+      dispatcher.dispatch("tenant", "key", () -> { });
+      blockedDispatchDone.countDown();
+    });
+
+    assertThat(blockedDispatchDone.await(100, TimeUnit.MILLISECONDS)).isFalse();
+    released.countDown();
+    assertThat(blockedDispatchDone.await(5, TimeUnit.SECONDS)).isTrue();
+    dispatcher.await(List.of(running, queued));
+  }
+
+  @Test
+  void dispatchAll_shouldHandleItemsOfSameKeyTogetherInOrder() {
+    dispatcher = newDispatcher(4, 100);
+    var batches = new CopyOnWriteArrayList<List<String>>();
+    var items = List.of("a-1", "b-1", "a-2", "c-1", "a-3", "b-2");
+
+    var futures = dispatcher.dispatchAll("tenant", items, item -> item.substring(0, 1), batches::add);
+    dispatcher.await(futures);
+
+    assertThat(batches).hasSameSizeAs(futures).hasSizeLessThanOrEqualTo(3);
+    assertThat(batches.stream().flatMap(List::stream)).containsExactlyInAnyOrderElementsOf(items);
+    assertThat(batches).anySatisfy(batch -> assertThat(batch).containsSubsequence("a-1", "a-2", "a-3"));
+    assertThat(batches).anySatisfy(batch -> assertThat(batch).containsSubsequence("b-1", "b-2"));
+  }
+
+  @Test
+  void await_shouldThrowAfterAllActionsRan_whenActionFails() {
+    dispatcher = newDispatcher(2, 10);
+    var released = new CountDownLatch(1);
+    var failed = dispatcher.dispatch("tenant", "key", () -> {
+      throw new IllegalStateException("broken");
+    });
+    var slow = dispatcher.dispatch("tenant", "other-key", () -> awaitLatch(released));
+    Thread.ofVirtual().start(() -> {
+      sleep(50);
+      released.countDown();
+    });
+
+    var exception = assertThrows(RtacKafkaUpdateException.class, () -> dispatcher.await(List.of(failed, slow)));
+
+    assertThat(exception).hasCauseInstanceOf(IllegalStateException.class);
+    assertThat(slow).isCompleted();
+  }
+
+  @Test
+  void dispatch_shouldKeepLaneRunning_whenActionThrowsError() {
+    dispatcher = newDispatcher(1, 10);
+    var failed = dispatcher.dispatch("tenant", "key", () -> {
+      throw new NoClassDefFoundError("broken");
+    });
+    var next = dispatcher.dispatch("tenant", "key", () -> { });
+
+    assertThrows(RtacKafkaUpdateException.class, () -> dispatcher.await(List.of(failed, next)));
+
+    assertThat(failed).isCompletedExceptionally();
+    assertThat(next).isCompleted().isNotCompletedExceptionally();
+  }
+
+  private static KafkaEventDispatcher newDispatcher(int lanes, int laneCapacity) {
+    var executionService = mock(SystemUserScopedExecutionService.class);
+    lenient().when(executionService.executeSystemUserScoped(anyString(), any()))
+      .thenAnswer(invocation -> invocation.<Callable<?>>getArgument(1).call());
+    var properties = new EventDispatchProperties();
+    properties.setLanes(lanes);
+    properties.setLaneCapacity(laneCapacity);
+    return new KafkaEventDispatcher(executionService, properties);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      TimeUnit.MILLISECONDS.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void awaitLatch(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package org.folio.rtaccache.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import org.folio.rtaccache.domain.dto.Location;
+import org.folio.spring.service.SystemUserScopedExecutionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+@ExtendWith(MockitoExtension.class)
+class LocalCacheReloaderTest {
+
+  private static final String TENANT_ID = "test_tenant";
+
+  @Mock
+  private SystemUserScopedExecutionService executionService;
+  @Mock
+  private ObjectProvider<ConsortiaService> consortiaServiceProvider;
+  @Mock
+  private ObjectProvider<InventoryReferenceDataService> inventoryReferenceDataServiceProvider;
+  @Mock
+  private ConsortiaService consortiaService;
+  @Mock
+  private InventoryReferenceDataService inventoryReferenceDataService;
+
+  private LocalCacheReloader localCacheReloader;
+
+  @BeforeEach
+  void setUp() {
+    localCacheReloader = new LocalCacheReloader(executionService, consortiaServiceProvider,
+      inventoryReferenceDataServiceProvider);
+  }
+
+  @Test
+  void reload_shouldLoadReferenceDataWithinTenantOfKey() {
+    var locations = Map.of("loc1", new Location().id("loc1"));
+    mockExecutionService();
+    when(inventoryReferenceDataServiceProvider.getObject()).thenReturn(inventoryReferenceDataService);
+    when(inventoryReferenceDataService.loadLocationsMap()).thenReturn(locations);
+
+    var result = localCacheReloader.reload("locationsMap", "locations_" + TENANT_ID);
+
+    assertThat(result).isSameAs(locations);
+    verify(executionService).executeSystemUserScoped(eq(TENANT_ID), any());
+  }
+
+  @Test
+  void reload_shouldLoadConsortiumTopologyWithinTenantOfKey() {
+    mockExecutionService();
+    when(consortiaServiceProvider.getObject()).thenReturn(consortiaService);
+    when(consortiaService.loadConsortiaTenants()).thenReturn(List.of(TENANT_ID));
+    when(consortiaService.loadCentralTenantId()).thenReturn(Optional.of(TENANT_ID));
+
+    assertThat(localCacheReloader.reload(ConsortiaService.CONSORTIA_TENANTS_CACHE, TENANT_ID))
+      .isEqualTo(List.of(TENANT_ID));
+    assertThat(localCacheReloader.reload(ConsortiaService.CENTRAL_TENANT_CACHE, TENANT_ID))
+      .isEqualTo(Optional.of(TENANT_ID));
+  }
+
+  @Test
+  void reload_shouldFail_whenCacheIsUnknown() {
+    mockExecutionService();
+
+    assertThatThrownBy(() -> localCacheReloader.reload("unknownCache", TENANT_ID))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private void mockExecutionService() {
+    doAnswer(invocation -> {
+      Callable<?> task = invocation.getArgument(1);
+      return task.call();
+    }).when(executionService).executeSystemUserScoped(eq(TENANT_ID), any());
+  }
+}
@@ -3,10 +3,12 @@ package org.folio.rtaccache.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.stream.IntStream;
 import org.folio.rtaccache.TestUtil;
 import org.folio.rtaccache.client.OrdersClient;
 import org.folio.rtaccache.domain.dto.Piece;
@@ -49,4 +51,34 @@ class OrdersServiceTest {
     verify(ordersClient).getPieces(ArgumentMatchers.any());
     assertEquals(piece, pieces.getPieces().get(0));
   }
+
+  @Test
+  void getPiecesByHoldingIds_shouldStopPaging_whenPageIsShort() {
+    when(ordersClient.getPieces(ArgumentMatchers.any()))
+      .thenReturn(pieces(1000, 5000), pieces(10, 5000));
+
+    var pieces = ordersService.getPiecesByHoldingIds(List.of("hold1", "hold2"));
+
+    assertEquals(1010, pieces.size());
+    verify(ordersClient, times(2)).getPieces(ArgumentMatchers.any());
+  }
+
+  @Test
+  void getPiecesByHoldingIds_shouldFetchEmptyPage_whenPiecesAreExactMultipleOfPageSize() {
+    when(ordersClient.getPieces(argThat(TestUtil.queryContains("hold1"))))
+      .thenReturn(pieces(1000, 1000), pieces(0, 1000));
+
+    var pieces = ordersService.getPiecesByHoldingIds(List.of("hold1"));
+
+    assertEquals(1000, pieces.size());
+    verify(ordersClient).getPieces(argThat(params -> "0".equals(params.get("offset"))));
+    verify(ordersClient).getPieces(argThat(params -> "1000".equals(params.get("offset"))));
+  }
+
+  private static PieceCollection pieces(int count, int totalRecords) {
+    var pieces = IntStream.range(0, count)
+      .mapToObj(i -> new Piece().id(String.valueOf(i)).holdingId("hold1"))
+      .toList();
+    return new PieceCollection().pieces(pieces).totalRecords(totalRecords);
+  }
 }
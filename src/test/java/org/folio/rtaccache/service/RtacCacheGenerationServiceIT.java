@@ -4,7 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.folio.rtaccache.BaseIntegrationTest;
 import org.folio.rtaccache.TestConstant;
 import org.folio.rtaccache.domain.RtacHoldingEntity;
@@ -23,6 +25,10 @@ class RtacCacheGenerationServiceIT extends BaseIntegrationTest {
   private static final String BOUND_WITH_ITEM_ID = "02b9b326-903b-41d7-b947-fc809e9d38c1";
   private static final String PIECE_ID = "aaf7be29-a8cc-4b0a-9975-bf39e9a71696";
   private static final String INSTANCE_FORMAT_ID = "6314d6f5-8f1a-4f2b-9c3d-2e5f6a7b8c9d";
+  private static final String BATCH_INSTANCE_ID_1 = "7e3a4c1d-2b5f-4c8e-9a1d-3f6b8c2e4d10";
+  private static final String BATCH_INSTANCE_ID_2 = "8f4b5d2e-3c6a-4d9f-8b2e-4a7c9d3f5e21";
+  private static final String BATCH_ITEM_ID_1 = "bc7e8a5b-6f9d-4a3c-9e5b-7d1f3a6c8b54";
+  private static final String BATCH_ITEM_ID_2 = "cd8f9b6c-7a1e-4b4d-8f6c-8e2a4b7d9c65";
 
   @Autowired
   private RtacCacheGenerationService rtacCacheGenerationService;
@@ -89,4 +95,26 @@ class RtacCacheGenerationServiceIT extends BaseIntegrationTest {
       assertFalse(rtacHoldingEntity.isShared());
     });
   }
+
+  @Test
+  void generateRtacCacheBatch_shouldProcessInstancesTogether() {
+    withinTenant(TestConstant.TEST_TENANT, () -> {
+      //given
+      var missingInstanceId = UUID.randomUUID().toString();
+      //when
+      var futures = rtacCacheGenerationService.generateRtacCacheBatch(
+        List.of(BATCH_INSTANCE_ID_1, BATCH_INSTANCE_ID_2, missingInstanceId));
+      CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+      //then
+      assertEquals(3, futures.size());
+      var holdings1 = rtacHoldingRepository.findAllByIdInstanceId(UUID.fromString(BATCH_INSTANCE_ID_1), PageRequest.of(0, 50));
+      var holdings2 = rtacHoldingRepository.findAllByIdInstanceId(UUID.fromString(BATCH_INSTANCE_ID_2), PageRequest.of(0, 50));
+      var missingHoldings = rtacHoldingRepository.findAllByIdInstanceId(UUID.fromString(missingInstanceId), PageRequest.of(0, 50));
+      assertEquals(2, holdings1.getTotalElements());
+      assertEquals(2, holdings2.getTotalElements());
+      assertEquals(0, missingHoldings.getTotalElements());
+      assertTrue(holdings1.get().anyMatch(entity -> BATCH_ITEM_ID_1.equals(entity.getRtacHolding().getId())));
+      assertTrue(holdings2.get().anyMatch(entity -> BATCH_ITEM_ID_2.equals(entity.getRtacHolding().getId())));
+    });
+  }
 }
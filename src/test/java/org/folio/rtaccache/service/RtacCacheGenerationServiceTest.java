@@ -0,0 +1,222 @@
+package org.folio.rtaccache.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import org.folio.rtaccache.client.InventoryClient;
+import org.folio.rtaccache.config.GenerationProperties;
+import org.folio.rtaccache.domain.ReferenceDataSnapshot;
+import org.folio.rtaccache.domain.dto.BoundWithParts;
+import org.folio.rtaccache.domain.dto.FolioCqlRequest;
+import org.folio.rtaccache.domain.dto.HoldingRecords;
+import org.folio.rtaccache.domain.dto.HoldingsRecord;
+import org.folio.rtaccache.domain.dto.Instance;
+import org.folio.rtaccache.domain.dto.Instances;
+import org.folio.rtaccache.domain.dto.Item;
+import org.folio.rtaccache.domain.dto.ItemStatus;
+import org.folio.rtaccache.domain.dto.ItemStatus.NameEnum;
+import org.folio.rtaccache.domain.dto.Items;
+import org.folio.rtaccache.domain.dto.PieceCollection;
+import org.folio.rtaccache.domain.dto.RtacHolding;
+import org.folio.rtaccache.domain.dto.RtacHolding.TypeEnum;
+import org.folio.rtaccache.domain.exception.RtacDataProcessingException;
+import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
+import org.folio.rtaccache.util.QueryParametersUtil;
+import org.folio.spring.FolioExecutionContext;
+import org.folio.spring.service.SystemUserScopedExecutionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+@ExtendWith(MockitoExtension.class)
+class RtacCacheGenerationServiceTest {
+
+  private static final String INSTANCE_ID = UUID.randomUUID().toString();
+  private static final String HOLDINGS_ID = UUID.randomUUID().toString();
+
+  @Mock
+  private InventoryClient inventoryClient;
+  @Mock
+  private RtacHoldingBulkRepository rtacHoldingBulkRepository;
+  @Mock
+  private RtacHoldingMappingService rtacHoldingMappingService;
+  @Mock
+  private CirculationService circulationService;
+  @Mock
+  private OrdersService ordersService;
+  @Mock
+  private ConsortiaService consortiaService;
+  @Mock
+  private RtacInstanceTenantService rtacInstanceTenantService;
+  @Mock
+  private SystemUserScopedExecutionService systemUserExecutionService;
+  @Mock
+  private FolioExecutionContext folioExecutionContext;
+  @Mock
+  private QueryParametersUtil queryParametersUtil;
+  @Mock
+  private CachedIdFilterService cachedIdFilterService;
+
+  private RtacCacheGenerationService service;
+
+  @BeforeEach
+  void setUp() {
+    var stages = new RtacGenerationStages(new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor()),
+      new GenerationProperties());
+    service = new RtacCacheGenerationService(inventoryClient, rtacHoldingBulkRepository, rtacHoldingMappingService,
+      circulationService, ordersService, consortiaService, rtacInstanceTenantService, systemUserExecutionService,
+      folioExecutionContext, queryParametersUtil, stages, cachedIdFilterService);
+
+    lenient().when(folioExecutionContext.getTenantId()).thenReturn("test_tenant");
+    lenient().when(consortiaService.getCentralTenantId()).thenReturn(Optional.empty());
+    lenient().when(systemUserExecutionService.executeSystemUserScoped(any(), any())).thenAnswer(invocation -> {
+      Callable<?> task = invocation.getArgument(1);
+      return task.call();
+    });
+    lenient().when(inventoryClient.getInstances(any()))
+      .thenReturn(new Instances().instances(List.of(new Instance().id(INSTANCE_ID))).totalRecords(1));
+    lenient().when(inventoryClient.getHoldings(any(FolioCqlRequest.class))).thenReturn(new HoldingRecords()
+      .holdingsRecords(List.of(new HoldingsRecord().id(HOLDINGS_ID).instanceId(INSTANCE_ID))).totalRecords(1));
+    lenient().when(inventoryClient.getItems(any(FolioCqlRequest.class)))
+      .thenReturn(new Items().items(List.of()).totalRecords(0));
+    lenient().when(inventoryClient.getBoundWithParts(any()))
+      .thenReturn(new BoundWithParts().boundWithParts(List.of()).totalRecords(0));
+    lenient().when(ordersService.getPiecesByHoldingId(any()))
+      .thenReturn(new PieceCollection().pieces(List.of()).totalRecords(0));
+    lenient().when(rtacHoldingMappingService.mapFrom(any(HoldingsRecord.class),
+        nullable(ReferenceDataSnapshot.class)))
+      .thenAnswer(invocation -> new RtacHolding()
+        .id(HOLDINGS_ID)
+        .instanceId(INSTANCE_ID)
+        .type(TypeEnum.HOLDING));
+    lenient().when(rtacHoldingMappingService.mapFrom(any(HoldingsRecord.class), any(Item.class),
+        nullable(ReferenceDataSnapshot.class)))
+      .thenAnswer(invocation -> new RtacHolding()
+        .id(invocation.<Item>getArgument(1).getId())
+        .instanceId(INSTANCE_ID)
+        .type(TypeEnum.ITEM));
+  }
+
+  @Test
+  void generateRtacCache_shouldStopPagingHoldings_whenPageIsShort() {
+    // The total records are only an estimate, the short page ends the holdings
+    when(inventoryClient.getHoldings(any(FolioCqlRequest.class)))
+      .thenReturn(holdingRecords(50, 1000), holdingRecords(10, 1000));
+
+    service.generateRtacCache(INSTANCE_ID).join();
+
+    assertThat(holdingsOffsets()).containsExactly(0, 50);
+  }
+
+  @Test
+  void generateRtacCache_shouldFetchEmptyHoldingsPage_whenHoldingsAreExactMultipleOfPageSize() {
+    when(inventoryClient.getHoldings(any(FolioCqlRequest.class)))
+      .thenReturn(holdingRecords(50, 100), holdingRecords(50, 100), holdingRecords(0, 100));
+
+    service.generateRtacCache(INSTANCE_ID).join();
+
+    assertThat(holdingsOffsets()).containsExactly(0, 50, 100);
+  }
+
+  @Test
+  void generateRtacCache_shouldFetchItemPagesFromTotalOfFirstPage() throws SQLException {
+    when(inventoryClient.getItems(any(FolioCqlRequest.class))).thenAnswer(invocation -> {
+      var offset = invocation.<FolioCqlRequest>getArgument(0).getOffset();
+      return items(offset == 1000 ? 200 : 500, 1200);
+    });
+
+    service.generateRtacCache(INSTANCE_ID).join();
+
+    assertThat(itemsOffsets()).containsExactlyInAnyOrder(0, 500, 1000);
+    var savedItems = ArgumentCaptor.forClass(List.class);
+    verify(rtacHoldingBulkRepository, atLeastOnce()).bulkUpsert(savedItems.capture());
+    assertThat(savedItems.getAllValues().stream().mapToInt(List::size).sum()).isEqualTo(1 + 1200);
+  }
+
+  @Test
+  void generateRtacCache_shouldFetchSingleItemsPage_whenFirstPageIsShort() {
+    // No further page is requested, even though the total records report more items
+    when(inventoryClient.getItems(any(FolioCqlRequest.class))).thenReturn(items(10, 1200));
+
+    service.generateRtacCache(INSTANCE_ID).join();
+
+    assertThat(itemsOffsets()).containsExactly(0);
+  }
+
+  @Test
+  void generateRtacCache_shouldComplete_whenRowsAreSaved() throws SQLException {
+    service.generateRtacCache(INSTANCE_ID).join();
+
+    verify(rtacHoldingBulkRepository).bulkUpsert(anyList());
+  }
+
+  @Test
+  void generateRtacCache_shouldFail_whenRowsCannotBeSaved() throws SQLException {
+    doThrow(new SQLException("Connection reset")).when(rtacHoldingBulkRepository).bulkUpsert(anyList());
+
+    var generation = service.generateRtacCache(INSTANCE_ID);
+
+    var exception = assertThrows(CompletionException.class, generation::join);
+    assertThat(exception).hasCauseInstanceOf(RtacDataProcessingException.class);
+  }
+
+  @Test
+  void generateRtacCacheBatch_shouldFailInstance_whenRowsCannotBeSaved() throws SQLException {
+    when(ordersService.getPiecesByHoldingIds(List.of(HOLDINGS_ID))).thenReturn(List.of());
+    doThrow(new SQLException("Connection reset")).when(rtacHoldingBulkRepository).bulkUpsert(anyList());
+
+    var generations = service.generateRtacCacheBatch(List.of(INSTANCE_ID));
+
+    var exception = assertThrows(CompletionException.class, generations.get(INSTANCE_ID)::join);
+    assertThat(exception).hasCauseInstanceOf(RtacDataProcessingException.class);
+  }
+
+  private List<Integer> holdingsOffsets() {
+    var requests = ArgumentCaptor.forClass(FolioCqlRequest.class);
+    verify(inventoryClient, atLeastOnce()).getHoldings(requests.capture());
+    return requests.getAllValues().stream().map(FolioCqlRequest::getOffset).toList();
+  }
+
+  private List<Integer> itemsOffsets() {
+    var requests = ArgumentCaptor.forClass(FolioCqlRequest.class);
+    verify(inventoryClient, atLeastOnce()).getItems(requests.capture());
+    return requests.getAllValues().stream().map(FolioCqlRequest::getOffset).toList();
+  }
+
+  private static HoldingRecords holdingRecords(int count, int totalRecords) {
+    var holdings = IntStream.range(0, count)
+      .mapToObj(i -> new HoldingsRecord().id(UUID.randomUUID().toString()).instanceId(INSTANCE_ID))
+      .toList();
+    return new HoldingRecords().holdingsRecords(holdings).totalRecords(totalRecords);
+  }
+
+  private static Items items(int count, int totalRecords) {
+    var items = IntStream.range(0, count)
+      .mapToObj(i -> new Item()
+        .id(UUID.randomUUID().toString())
+        .holdingsRecordId(HOLDINGS_ID)
+        .status(new ItemStatus().name(NameEnum.AVAILABLE)))
+      .toList();
+    return new Items().items(items).totalRecords(totalRecords);
+  }
+}
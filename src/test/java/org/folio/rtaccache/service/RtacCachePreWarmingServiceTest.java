@@ -5,7 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.times;
@@ -14,6 +14,7 @@ import static org.mockito.Mockito.when;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -94,18 +95,21 @@ class RtacCachePreWarmingServiceTest {
 
   @Test
   void submitPreWarmingJob_success() {
-    when(rtacCacheGenerationService.generateRtacCache(anyString()))
-      .thenReturn(CompletableFuture.completedFuture(null));
+    var instanceId1 = UUID.randomUUID();
+    var instanceId2 = UUID.randomUUID();
+    when(rtacCacheGenerationService.generateRtacCacheBatch(List.of(instanceId1.toString(), instanceId2.toString())))
+      .thenReturn(Map.of(instanceId1.toString(), CompletableFuture.completedFuture(null),
+        instanceId2.toString(), CompletableFuture.completedFuture(null)));
     when(rtacPreWarmingJobRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
-    var result = service.submitPreWarmingJob(List.of(UUID.randomUUID(), UUID.randomUUID()));
+    var result = service.submitPreWarmingJob(List.of(instanceId1, instanceId2));
 
     assertNotNull(result.getId());
     RtacPreWarmingJobEntity captured = captureJobEntity(result.getId());
 
     assertEquals(JobStatus.COMPLETED, captured.getStatus());
     assertNotNull(captured.getEndDate());
-    verify(rtacCacheGenerationService, times(2)).generateRtacCache(anyString());
+    verify(rtacCacheGenerationService, times(1)).generateRtacCacheBatch(anyList());
     verify(rtacPreWarmingJobRepository, atLeast(2)).save(any());
   }
 
@@ -113,10 +117,9 @@ class RtacCachePreWarmingServiceTest {
   void submitPreWarmingJob_failureRollback() {
     UUID successInstanceId = UUID.randomUUID();
     UUID failedInstanceId = UUID.randomUUID();
-    when(rtacCacheGenerationService.generateRtacCache(successInstanceId.toString()))
-      .thenReturn(CompletableFuture.completedFuture(null));
-    when(rtacCacheGenerationService.generateRtacCache(failedInstanceId.toString()))
-      .thenReturn(CompletableFuture.failedFuture(new RuntimeException("failed")));
+    when(rtacCacheGenerationService.generateRtacCacheBatch(anyList()))
+      .thenReturn(Map.of(successInstanceId.toString(), CompletableFuture.completedFuture(null),
+        failedInstanceId.toString(), CompletableFuture.failedFuture(new RuntimeException("failed"))));
     when(rtacPreWarmingJobRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
     var result = service.submitPreWarmingJob(List.of(successInstanceId, failedInstanceId));
@@ -0,0 +1,73 @@
+package org.folio.rtaccache.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.folio.rtaccache.config.GenerationProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+class RtacGenerationStagesTest {
+
+  @Test
+  void fetch_shouldNotRunMoreRequestsThanFetchConcurrency() {
+    var generationProperties = new GenerationProperties();
+    generationProperties.setFetchConcurrency(2);
+    var stages = new RtacGenerationStages(new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor()),
+      generationProperties);
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+
+    var futures = IntStream.range(0, 10)
+      .mapToObj(i -> stages.fetch(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        sleep();
+        running.decrementAndGet();
+        return i;
+      }))
+      .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(futures).join();
+
+    assertThat(maxRunning.get()).isEqualTo(2);
+  }
+
+  @Test
+  void write_shouldRunIndependentlyOfFetch() {
+    var generationProperties = new GenerationProperties();
+    generationProperties.setFetchConcurrency(1);
+    var stages = new RtacGenerationStages(new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor()),
+      generationProperties);
+    var fetchReleased = new CountDownLatch(1);
+    var fetch = stages.fetch(() -> {
+      awaitLatch(fetchReleased);
+      return null;
+    });
+
+    stages.write(() -> { }).join();
+
+    assertThat(fetch).isNotDone();
+    fetchReleased.countDown();
+    fetch.join();
+  }
+
+  private static void sleep() {
+    try {
+      TimeUnit.MILLISECONDS.sleep(20);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void awaitLatch(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -1,8 +1,10 @@
 package org.folio.rtaccache.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
@@ -12,22 +14,38 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.folio.rtaccache.client.SearchClient;
-import org.folio.rtaccache.domain.RtacBatchCountProjection;
+import org.folio.rtaccache.config.AdvisoryLockProperties;
+import org.folio.rtaccache.config.CacheFreshnessProperties;
+import org.folio.rtaccache.domain.RtacInstanceAgeProjection;
+import org.folio.rtaccache.domain.RtacInstanceTenants;
 import org.folio.rtaccache.domain.dto.ConsortiumHolding;
 import org.folio.rtaccache.domain.dto.ConsortiumHoldings;
+import org.folio.rtaccache.repository.RtacAdvisoryLockRepository;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
+import org.folio.spring.FolioExecutionContext;
 import org.folio.spring.service.SystemUserScopedExecutionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpStatus;
@@ -40,13 +58,23 @@ class RtacHoldingLazyLoadingServiceTest {
   @Mock
   private RtacHoldingRepository rtacHoldingRepository;
   @Mock
+  private RtacAdvisoryLockRepository rtacAdvisoryLockRepository;
+  @Mock
   private RtacCacheGenerationService rtacCacheGenerationService;
   @Mock
   private SearchClient searchClient;
   @Mock
+  private RtacInstanceTenantService rtacInstanceTenantService;
+  @Mock
   private SystemUserScopedExecutionService executionService;
   @Mock
+  private FolioExecutionContext folioExecutionContext;
+  @Mock
   private AsyncTaskExecutor taskExecutor;
+  @Spy
+  private CacheFreshnessProperties cacheFreshnessProperties = new CacheFreshnessProperties();
+  @Spy
+  private AdvisoryLockProperties advisoryLockProperties = new AdvisoryLockProperties();
 
   @InjectMocks
   private RtacHoldingLazyLoadingService service;
@@ -59,6 +87,14 @@ class RtacHoldingLazyLoadingServiceTest {
       task.run();
       return CompletableFuture.completedFuture(null);
     }).when(taskExecutor).submitCompletable(any(Runnable.class));
+    lenient().doAnswer(invocation -> {
+      Callable<?> task = invocation.getArgument(0);
+      try {
+        return CompletableFuture.completedFuture(task.call());
+      } catch (Exception e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }).when(taskExecutor).submitCompletable(any(Callable.class));
 
     // Mock execution service to run tasks in the same thread
     lenient().doAnswer(invocation -> {
@@ -69,12 +105,26 @@ class RtacHoldingLazyLoadingServiceTest {
         throw new RuntimeException(e);
       }
     }).when(executionService).executeSystemUserScoped(any(), any());
+
+    // Mock advisory lock to run the action right away
+    lenient().doAnswer(invocation -> {
+      Runnable action = invocation.getArgument(2);
+      action.run();
+      return true;
+    }).when(rtacAdvisoryLockRepository).executeWithLock(any(), any(), any());
+    lenient().doAnswer(invocation -> {
+      Function<Set<String>, CompletableFuture<?>> action = invocation.getArgument(2);
+      return action.apply(Set.copyOf(invocation.<Collection<String>>getArgument(0)));
+    }).when(rtacAdvisoryLockRepository).executeWithLocks(any(), any(), any());
+    lenient().when(folioExecutionContext.getTenantId()).thenReturn("test_tenant");
+    lenient().when(rtacInstanceTenantService.getInstanceTenants(any(), any()))
+      .thenReturn(new RtacInstanceTenants(Map.of(), Set.of()));
   }
 
   @Test
   void lazyLoadRtacHoldings_shouldNotGenerateCache_whenHoldingsExist() {
     var instanceId = UUID.randomUUID();
-    when(rtacHoldingRepository.countByIdInstanceId(instanceId)).thenReturn(1);
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId)).thenReturn(Optional.of(Instant.now()));
 
     service.lazyLoadRtacHoldings(instanceId);
 
@@ -84,7 +134,7 @@ class RtacHoldingLazyLoadingServiceTest {
   @Test
   void lazyLoadRtacHoldings_shouldGenerateCache_whenHoldingsDoNotExist() {
     var instanceId = UUID.randomUUID();
-    when(rtacHoldingRepository.countByIdInstanceId(instanceId)).thenReturn(0);
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId)).thenReturn(Optional.empty());
     when(rtacCacheGenerationService.generateRtacCache(instanceId.toString()))
       .thenReturn(CompletableFuture.completedFuture(null));
 
@@ -94,22 +144,136 @@ class RtacHoldingLazyLoadingServiceTest {
     verify(rtacHoldingRepository, never()).deleteAllByIdInstanceId(any());
   }
 
+  @Test
+  void lazyLoadRtacHoldings_shouldNotGenerateCache_whenGeneratedWhileWaitingForLock() {
+    var instanceId = UUID.randomUUID();
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId))
+      .thenReturn(Optional.empty(), Optional.of(Instant.now()));
+
+    service.lazyLoadRtacHoldings(instanceId);
+
+    verify(rtacAdvisoryLockRepository).executeWithLock(eq("rtac-lazy-load:test_tenant:" + instanceId), any(), any());
+    verify(rtacCacheGenerationService, never()).generateRtacCache(any());
+  }
+
+  @Test
+  void lazyLoadRtacHoldings_shouldGenerateWithoutLock_whenLockIsNotObtained() {
+    var instanceId = UUID.randomUUID();
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId)).thenReturn(Optional.empty());
+    doReturn(false).when(rtacAdvisoryLockRepository).executeWithLock(any(), any(), any());
+    when(rtacCacheGenerationService.generateRtacCache(instanceId.toString()))
+      .thenReturn(CompletableFuture.completedFuture(null));
+
+    service.lazyLoadRtacHoldings(instanceId);
+
+    verify(rtacAdvisoryLockRepository).executeWithLock(any(), eq(Duration.ofSeconds(2)), any());
+    verify(rtacCacheGenerationService).generateRtacCache(instanceId.toString());
+  }
+
+  @Test
+  void lazyLoadRtacHoldings_shouldGenerateCacheOnce_whenCalledConcurrently() throws InterruptedException {
+    var instanceId = UUID.randomUUID();
+    var generation = new CompletableFuture<Void>();
+    var generationStarted = new CountDownLatch(1);
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId)).thenReturn(Optional.empty());
+    when(rtacCacheGenerationService.generateRtacCache(instanceId.toString())).thenAnswer(invocation -> {
+      generationStarted.countDown();
+      return generation;
+    });
+
+    var leader = Thread.ofPlatform().start(() -> service.lazyLoadRtacHoldings(instanceId));
+    assertThat(generationStarted.await(10, TimeUnit.SECONDS)).isTrue();
+    var follower = Thread.ofPlatform().start(() -> service.lazyLoadRtacHoldings(instanceId));
+    await().atMost(Duration.ofSeconds(10)).until(() -> follower.getState() == Thread.State.WAITING);
+    generation.complete(null);
+    leader.join();
+    follower.join();
+
+    verify(rtacCacheGenerationService, times(1)).generateRtacCache(instanceId.toString());
+  }
+
+  @Test
+  void lazyLoadRtacHoldings_shouldRefreshInBackground_whenHoldingsAreStale() {
+    var instanceId = UUID.randomUUID();
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId))
+      .thenReturn(Optional.of(Instant.now().minus(Duration.ofHours(30))));
+    when(rtacCacheGenerationService.generateRtacCache(instanceId.toString()))
+      .thenReturn(CompletableFuture.completedFuture(null));
+
+    service.lazyLoadRtacHoldings(instanceId);
+
+    verify(executionService).executeSystemUserScoped(eq("test_tenant"), any());
+    verify(rtacCacheGenerationService).generateRtacCache(instanceId.toString());
+    verify(rtacHoldingRepository).deleteAllByIdInstanceIdAndCreatedAtBefore(eq(instanceId), any());
+  }
+
+  @Test
+  void lazyLoadRtacHoldings_shouldServeStaleHoldings_whenBackgroundRefreshFails() {
+    var instanceId = UUID.randomUUID();
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId))
+      .thenReturn(Optional.of(Instant.now().minus(Duration.ofHours(30))));
+    when(rtacCacheGenerationService.generateRtacCache(instanceId.toString()))
+      .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Generation failed")));
+    doAnswer(invocation -> {
+      Runnable task = invocation.getArgument(0);
+      try {
+        task.run();
+        return CompletableFuture.completedFuture(null);
+      } catch (Exception e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }).when(taskExecutor).submitCompletable(any(Runnable.class));
+
+    service.lazyLoadRtacHoldings(instanceId);
+
+    verify(rtacHoldingRepository, never()).deleteAllByIdInstanceId(any());
+    verify(rtacHoldingRepository, never()).deleteAllByIdInstanceIdAndCreatedAtBefore(any(), any());
+  }
+
+  @Test
+  void lazyLoadRtacHoldings_shouldNotRefresh_whenRefreshedWhileWaitingForLock() {
+    var instanceId = UUID.randomUUID();
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId))
+      .thenReturn(Optional.of(Instant.now().minus(Duration.ofHours(30))), Optional.of(Instant.now()));
+
+    service.lazyLoadRtacHoldings(instanceId);
+
+    verify(rtacCacheGenerationService, never()).generateRtacCache(any());
+  }
+
+  @Test
+  void lazyLoadRtacHoldings_shouldRegenerateBeforeServing_whenHoldingsAreExpired() {
+    var instanceId = UUID.randomUUID();
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId))
+      .thenReturn(Optional.of(Instant.now().minus(Duration.ofDays(3))));
+    when(rtacCacheGenerationService.generateRtacCache(instanceId.toString()))
+      .thenReturn(CompletableFuture.completedFuture(null));
+
+    service.lazyLoadRtacHoldings(instanceId);
+
+    verify(executionService, never()).executeSystemUserScoped(any(), any());
+    verify(rtacCacheGenerationService).generateRtacCache(instanceId.toString());
+    verify(rtacHoldingRepository).deleteAllByIdInstanceIdAndCreatedAtBefore(eq(instanceId), any());
+    verify(rtacHoldingRepository, never()).deleteAllByIdInstanceId(any());
+  }
+
   @Test
   void lazyLoadRtacHoldings_shouldSkipAndDeletePartialCache_whenInstanceIsNotFound() {
     var instanceId = UUID.randomUUID();
-    when(rtacHoldingRepository.countByIdInstanceId(instanceId)).thenReturn(0);
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId)).thenReturn(Optional.empty());
     when(rtacCacheGenerationService.generateRtacCache(instanceId.toString()))
       .thenReturn(CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.NOT_FOUND, "Not found")));
 
     service.lazyLoadRtacHoldings(instanceId);
 
     verify(rtacHoldingRepository).deleteAllByIdInstanceId(instanceId);
+    verify(rtacInstanceTenantService).removeCurrentTenant(List.of(instanceId));
   }
 
   @Test
   void lazyLoadRtacHoldings_shouldThrowException_whenCacheGenerationFails() {
     var instanceId = UUID.randomUUID();
-    when(rtacHoldingRepository.countByIdInstanceId(instanceId)).thenReturn(0);
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId)).thenReturn(Optional.empty());
     when(rtacCacheGenerationService.generateRtacCache(instanceId.toString()))
       .thenThrow(new RuntimeException("Generation failed"));
 
@@ -121,7 +285,7 @@ class RtacHoldingLazyLoadingServiceTest {
   @Test
   void lazyLoadRtacHoldings_shouldThrowException_whenCacheGenerationFailsWithNonNotFoundStatus() {
     var instanceId = UUID.randomUUID();
-    when(rtacHoldingRepository.countByIdInstanceId(instanceId)).thenReturn(0);
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId)).thenReturn(Optional.empty());
     when(rtacCacheGenerationService.generateRtacCache(instanceId.toString()))
       .thenReturn(CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bad request")));
 
@@ -134,7 +298,7 @@ class RtacHoldingLazyLoadingServiceTest {
   @Test
   void lazyLoadRtacHoldings_shouldUnwrapExecutionException_whenCacheGenerationFails() {
     var instanceId = UUID.randomUUID();
-    when(rtacHoldingRepository.countByIdInstanceId(instanceId)).thenReturn(0);
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(instanceId)).thenReturn(Optional.empty());
     when(rtacCacheGenerationService.generateRtacCache(instanceId.toString()))
       .thenAnswer(invocation -> {
         throw new ExecutionException(new RuntimeException("Generation failed"));
@@ -147,26 +311,53 @@ class RtacHoldingLazyLoadingServiceTest {
   }
 
   @Test
-  void lazyLoadRtacHoldingsForList_shouldOnlyProcessMissingInstances() {
+  void lazyLoadRtacHoldingsForList_shouldGenerateMissingInstancesInOneBatch() {
     var instanceId1 = UUID.randomUUID();
     var instanceId2 = UUID.randomUUID();
     var instanceId3 = UUID.randomUUID();
     var instanceIds = List.of(instanceId1, instanceId2, instanceId3);
 
-    var projection1 = new RtacBatchCountProjection(instanceId1, 1L);
-    when(rtacHoldingRepository.countBatchByIdInstanceIdIn(instanceIds)).thenReturn(List.of(projection1));
+    var projection1 = new RtacInstanceAgeProjection(instanceId1, Instant.now());
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(any())).thenReturn(List.of(projection1));
+    when(rtacCacheGenerationService.generateRtacCacheBatch(any())).thenAnswer(invocation -> completedGenerations(
+      invocation.getArgument(0)));
+
+    var exceptions = service.lazyLoadRtacHoldings(instanceIds);
 
-    // Mock for the inner call to lazyLoadRtacHoldings(UUID)
-    when(rtacHoldingRepository.countByIdInstanceId(instanceId2)).thenReturn(0);
-    when(rtacHoldingRepository.countByIdInstanceId(instanceId3)).thenReturn(0);
+    assertThat(exceptions).isEmpty();
+    verify(rtacCacheGenerationService).generateRtacCacheBatch(argThat(ids ->
+      Set.copyOf(ids).equals(Set.of(instanceId2.toString(), instanceId3.toString()))));
+    verify(rtacCacheGenerationService, never()).generateRtacCache(any());
+  }
+
+  @Test
+  void lazyLoadRtacHoldingsForList_shouldRegenerateExpiredAndRefreshStaleInstances() {
+    var freshInstanceId = UUID.randomUUID();
+    var staleInstanceId = UUID.randomUUID();
+    var expiredInstanceId = UUID.randomUUID();
+    var instanceIds = List.of(freshInstanceId, staleInstanceId, expiredInstanceId);
+    var staleCreatedAt = Instant.now().minus(Duration.ofHours(30));
+    var expiredCreatedAt = Instant.now().minus(Duration.ofDays(3));
+
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(any())).thenReturn(List.of(
+      new RtacInstanceAgeProjection(freshInstanceId, Instant.now()),
+      new RtacInstanceAgeProjection(staleInstanceId, staleCreatedAt),
+      new RtacInstanceAgeProjection(expiredInstanceId, expiredCreatedAt)));
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceId(staleInstanceId))
+      .thenReturn(Optional.of(staleCreatedAt));
     when(rtacCacheGenerationService.generateRtacCache(any()))
       .thenReturn(CompletableFuture.completedFuture(null));
+    when(rtacCacheGenerationService.generateRtacCacheBatch(List.of(expiredInstanceId.toString())))
+      .thenReturn(completedGenerations(List.of(expiredInstanceId.toString())));
 
-    service.lazyLoadRtacHoldings(instanceIds);
+    var exceptions = service.lazyLoadRtacHoldings(instanceIds);
 
-    verify(rtacCacheGenerationService, times(1)).generateRtacCache(instanceId2.toString());
-    verify(rtacCacheGenerationService, times(1)).generateRtacCache(instanceId3.toString());
-    verify(rtacCacheGenerationService, never()).generateRtacCache(instanceId1.toString());
+    assertThat(exceptions).isEmpty();
+    verify(rtacCacheGenerationService, never()).generateRtacCache(freshInstanceId.toString());
+    verify(rtacCacheGenerationService).generateRtacCache(staleInstanceId.toString());
+    verify(rtacCacheGenerationService).generateRtacCacheBatch(List.of(expiredInstanceId.toString()));
+    verify(rtacHoldingRepository).deleteAllByIdInstanceIdAndCreatedAtBefore(eq(expiredInstanceId), any());
+    verify(executionService).executeSystemUserScoped(eq("test_tenant"), any());
   }
 
   @Test
@@ -175,33 +366,17 @@ class RtacHoldingLazyLoadingServiceTest {
     var instanceId2 = UUID.randomUUID();
     var instanceIds = List.of(instanceId1, instanceId2);
 
-    when(rtacHoldingRepository.countBatchByIdInstanceIdIn(instanceIds)).thenReturn(List.of());
-    when(rtacHoldingRepository.countByIdInstanceId(any())).thenReturn(0);
-
-    var failedFuture = new CompletableFuture<Void>();
-    failedFuture.completeExceptionally(new RuntimeException("Generation failed"));
-
-    when(rtacCacheGenerationService.generateRtacCache(instanceId1.toString()))
-      .thenReturn(CompletableFuture.completedFuture(null));
-    when(rtacCacheGenerationService.generateRtacCache(instanceId2.toString()))
-      .thenReturn(failedFuture);
-
-    doAnswer(invocation -> {
-      Runnable task = invocation.getArgument(0);
-      var future = new CompletableFuture<Void>();
-      try {
-        task.run();
-        future.complete(null);
-      } catch (Exception e) {
-        future.completeExceptionally(e);
-      }
-      return future;
-    }).when(taskExecutor).submitCompletable(any(Runnable.class));
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(any())).thenReturn(List.of());
+    when(rtacCacheGenerationService.generateRtacCacheBatch(any())).thenReturn(Map.of(
+      instanceId1.toString(), CompletableFuture.completedFuture(null),
+      instanceId2.toString(), CompletableFuture.failedFuture(new RuntimeException("Generation failed"))));
 
     var exceptions = service.lazyLoadRtacHoldings(instanceIds);
 
     assertThat(exceptions).hasSize(1);
     assertThat(exceptions.get(0)).isInstanceOf(ResponseStatusException.class);
+    verify(rtacHoldingRepository).deleteAllByIdInstanceId(instanceId2);
+    verify(rtacHoldingRepository, never()).deleteAllByIdInstanceId(instanceId1);
   }
 
   @Test
@@ -209,30 +384,155 @@ class RtacHoldingLazyLoadingServiceTest {
     var instanceId1 = UUID.randomUUID();
     var instanceId2 = UUID.randomUUID();
     var instanceIds = List.of(instanceId1, instanceId2);
-    var responseStatusFuture = CompletableFuture.<Void>failedFuture(new ResponseStatusException(HttpStatus.NOT_FOUND, "Not found"));
-    var restClientFuture = CompletableFuture.<Void>failedFuture(new HttpClientErrorException(HttpStatus.NOT_FOUND));
 
-    when(rtacHoldingRepository.countBatchByIdInstanceIdIn(instanceIds)).thenReturn(List.of());
-    doReturn(responseStatusFuture, restClientFuture).when(taskExecutor).submitCompletable(any(Runnable.class));
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(any())).thenReturn(List.of());
+    when(rtacCacheGenerationService.generateRtacCacheBatch(any())).thenReturn(Map.of(
+      instanceId1.toString(), CompletableFuture.failedFuture(new ResponseStatusException(HttpStatus.NOT_FOUND, "Not found")),
+      instanceId2.toString(), CompletableFuture.failedFuture(new HttpClientErrorException(HttpStatus.NOT_FOUND))));
 
     var exceptions = service.lazyLoadRtacHoldings(instanceIds);
 
     assertThat(exceptions).isEmpty();
+    verify(rtacHoldingRepository).deleteAllByIdInstanceId(instanceId1);
+    verify(rtacHoldingRepository).deleteAllByIdInstanceId(instanceId2);
   }
 
   @Test
   void lazyLoadRtacHoldingsForList_shouldReturnRestClientExceptions_whenStatusIsNotNotFound() {
     var instanceId = UUID.randomUUID();
     var instanceIds = List.of(instanceId);
-    var badRequest = new HttpClientErrorException(HttpStatus.BAD_REQUEST);
-    var failedFuture = CompletableFuture.<Void>failedFuture(badRequest);
 
-    when(rtacHoldingRepository.countBatchByIdInstanceIdIn(instanceIds)).thenReturn(List.of());
-    doReturn(failedFuture).when(taskExecutor).submitCompletable(any(Runnable.class));
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(any())).thenReturn(List.of());
+    when(rtacCacheGenerationService.generateRtacCacheBatch(any())).thenReturn(Map.of(
+      instanceId.toString(), CompletableFuture.failedFuture(new HttpClientErrorException(HttpStatus.BAD_REQUEST))));
+
+    var exceptions = service.lazyLoadRtacHoldings(instanceIds);
+
+    // Failures other than a missing instance are reported as a failed generation of the instance
+    assertThat(exceptions).singleElement()
+      .isInstanceOfSatisfying(ResponseStatusException.class,
+        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR));
+    verify(rtacHoldingRepository).deleteAllByIdInstanceId(instanceId);
+  }
+
+  @Test
+  void lazyLoadRtacHoldingsForList_shouldFailAllInstancesWithoutDeletingCache_whenBatchCannotBeScheduled() {
+    var instanceId = UUID.randomUUID();
+    var instanceIds = List.of(instanceId);
+
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(any())).thenReturn(List.of());
+    doReturn(CompletableFuture.failedFuture(new HttpClientErrorException(HttpStatus.BAD_REQUEST)))
+      .when(taskExecutor).submitCompletable(any(Runnable.class));
+
+    var exceptions = service.lazyLoadRtacHoldings(instanceIds);
+
+    assertThat(exceptions).singleElement().isInstanceOf(ResponseStatusException.class);
+    verify(rtacHoldingRepository, never()).deleteAllByIdInstanceId(any());
+  }
+
+  @Test
+  void lazyLoadRtacHoldingsForList_shouldGenerateUnlockedInstances_whenLockedByAnotherModuleInstance() {
+    var lockedInstanceId = UUID.randomUUID();
+    var busyInstanceId = UUID.randomUUID();
+    var instanceIds = List.of(lockedInstanceId, busyInstanceId);
+
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(any())).thenReturn(List.of());
+    doAnswer(invocation -> {
+      Function<Set<String>, CompletableFuture<?>> action = invocation.getArgument(2);
+      return action.apply(Set.of("rtac-lazy-load:test_tenant:" + lockedInstanceId));
+    }).when(rtacAdvisoryLockRepository).executeWithLocks(any(), any(), any());
+    when(rtacCacheGenerationService.generateRtacCacheBatch(any())).thenAnswer(invocation -> completedGenerations(
+      invocation.getArgument(0)));
 
     var exceptions = service.lazyLoadRtacHoldings(instanceIds);
 
-    assertThat(exceptions).containsExactly(badRequest);
+    assertThat(exceptions).isEmpty();
+    verify(rtacAdvisoryLockRepository).executeWithLocks(argThat(keys -> Set.copyOf(keys).equals(Set.of(
+      "rtac-lazy-load:test_tenant:" + lockedInstanceId, "rtac-lazy-load:test_tenant:" + busyInstanceId))),
+      eq(Duration.ofSeconds(2)), any());
+    verify(rtacCacheGenerationService).generateRtacCacheBatch(argThat(ids ->
+      Set.copyOf(ids).equals(Set.of(lockedInstanceId.toString(), busyInstanceId.toString()))));
+  }
+
+  @Test
+  void lazyLoadRtacHoldingsForList_shouldNotGenerate_whenGeneratedWhileWaitingForLocks() {
+    var instanceId = UUID.randomUUID();
+
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(List.of(instanceId)))
+      .thenReturn(List.of(), List.of(new RtacInstanceAgeProjection(instanceId, Instant.now())));
+
+    var exceptions = service.lazyLoadRtacHoldings(List.of(instanceId));
+
+    assertThat(exceptions).isEmpty();
+    verify(rtacCacheGenerationService, never()).generateRtacCacheBatch(any());
+  }
+
+  @Test
+  void lazyLoadRtacHoldingsForList_shouldFailOnlyAffectedInstance_whenNoGenerationIsStarted() {
+    var instanceId1 = UUID.randomUUID();
+    var instanceId2 = UUID.randomUUID();
+    var instanceIds = List.of(instanceId1, instanceId2);
+
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(any())).thenReturn(List.of());
+    when(rtacCacheGenerationService.generateRtacCacheBatch(any()))
+      .thenReturn(Map.of(instanceId1.toString(), CompletableFuture.completedFuture(null)));
+
+    var exceptions = service.lazyLoadRtacHoldings(instanceIds);
+
+    assertThat(exceptions).singleElement().isInstanceOf(ResponseStatusException.class)
+      .hasMessageContaining(instanceId2.toString());
+    verify(rtacHoldingRepository).deleteAllByIdInstanceIdAndCreatedAtBefore(eq(instanceId1), any());
+    verify(rtacHoldingRepository, never()).deleteAllByIdInstanceId(any());
+  }
+
+  @Test
+  void lazyLoadRtacHoldingsForList_shouldReportPendingInstances_whenTimeBudgetRunsOut() {
+    var fastInstanceId = UUID.randomUUID();
+    var slowInstanceId = UUID.randomUUID();
+    var instanceIds = List.of(fastInstanceId, slowInstanceId);
+
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(any())).thenReturn(List.of());
+    when(rtacCacheGenerationService.generateRtacCacheBatch(any())).thenReturn(Map.of(
+      fastInstanceId.toString(), CompletableFuture.completedFuture(null),
+      slowInstanceId.toString(), new CompletableFuture<>()));
+
+    var result = service.lazyLoadRtacHoldings(instanceIds, Duration.ofMillis(50));
+
+    assertThat(result.exceptions()).isEmpty();
+    assertThat(result.pendingInstanceIds()).containsExactly(slowInstanceId);
+  }
+
+  @Test
+  void lazyLoadRtacHoldingsForList_shouldJoinInFlightGeneration() {
+    var instanceId = UUID.randomUUID();
+    var generation = new CompletableFuture<Void>();
+
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(List.of(instanceId))).thenReturn(List.of());
+    when(rtacCacheGenerationService.generateRtacCacheBatch(any()))
+      .thenReturn(Map.of(instanceId.toString(), generation));
+
+    var firstResult = service.lazyLoadRtacHoldings(List.of(instanceId), Duration.ofMillis(50));
+    var secondResult = service.lazyLoadRtacHoldings(List.of(instanceId), Duration.ofMillis(50));
+    generation.complete(null);
+
+    assertThat(firstResult.pendingInstanceIds()).containsExactly(instanceId);
+    assertThat(secondResult.pendingInstanceIds()).containsExactly(instanceId);
+    verify(rtacCacheGenerationService, times(1)).generateRtacCacheBatch(any());
+  }
+
+  @Test
+  void lazyLoadRtacHoldingsEcs_shouldReportPendingInstance_whenAnyTenantIsStillGenerating() {
+    var instanceId = UUID.randomUUID();
+    when(rtacInstanceTenantService.getInstanceTenants(eq(List.of(instanceId)), any()))
+      .thenReturn(new RtacInstanceTenants(Map.of(instanceId, Set.of("tenant1", "tenant2")), Set.of()));
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(List.of(instanceId))).thenReturn(List.of());
+    when(rtacCacheGenerationService.generateRtacCacheBatch(any())).thenReturn(
+      Map.of(instanceId.toString(), CompletableFuture.completedFuture(null)),
+      Map.of(instanceId.toString(), new CompletableFuture<>()));
+
+    var result = service.lazyLoadRtacHoldingsEcs(List.of(instanceId), Duration.ofMillis(50));
+
+    assertThat(result.pendingInstanceIds()).containsExactly(instanceId);
   }
 
   @Test
@@ -248,16 +548,84 @@ class RtacHoldingLazyLoadingServiceTest {
     var consortiumHoldings = new ConsortiumHoldings().holdings(List.of(holding1, holding2, holding3));
 
     when(searchClient.getConsortiumHoldings(any())).thenReturn(consortiumHoldings);
-    when(rtacHoldingRepository.countByIdInstanceId(any())).thenReturn(0);
-    when(rtacCacheGenerationService.generateRtacCache(any()))
-      .thenReturn(CompletableFuture.completedFuture(null));
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(any())).thenReturn(List.of());
+    when(rtacCacheGenerationService.generateRtacCacheBatch(any())).thenAnswer(invocation -> completedGenerations(
+      invocation.getArgument(0)));
 
     service.lazyLoadRtacHoldingsEcs(List.of(instanceId1, instanceId2));
 
     verify(executionService, times(1)).executeSystemUserScoped(eq(tenant1), any());
-    verify(executionService, times(2)).executeSystemUserScoped(eq(tenant2), any());
-    verify(rtacCacheGenerationService, times(2)).generateRtacCache(instanceId1.toString());
-    verify(rtacCacheGenerationService, times(1)).generateRtacCache(instanceId2.toString());
+    verify(executionService, times(1)).executeSystemUserScoped(eq(tenant2), any());
+    verify(rtacCacheGenerationService).generateRtacCacheBatch(List.of(instanceId1.toString()));
+    verify(rtacCacheGenerationService).generateRtacCacheBatch(argThat(ids ->
+      Set.copyOf(ids).equals(Set.of(instanceId1.toString(), instanceId2.toString()))));
+    verify(rtacInstanceTenantService).refreshInstanceTenants(List.of(instanceId1, instanceId2),
+      Map.of(instanceId1, Set.of(tenant1, tenant2), instanceId2, Set.of(tenant2)));
+  }
+
+  @Test
+  void lazyLoadRtacHoldingsEcs_shouldSearchOnlyInstancesMissingFromDirectory() {
+    var knownInstanceId = UUID.randomUUID();
+    var unknownInstanceId = UUID.randomUUID();
+    var tenant1 = "tenant1";
+    var tenant2 = "tenant2";
+
+    var holding = new ConsortiumHolding().instanceId(unknownInstanceId).tenantId(tenant2);
+    var consortiumHoldings = new ConsortiumHoldings().holdings(List.of(holding));
+
+    when(rtacInstanceTenantService.getInstanceTenants(eq(List.of(knownInstanceId, unknownInstanceId)), any()))
+      .thenReturn(new RtacInstanceTenants(Map.of(knownInstanceId, Set.of(tenant1)), Set.of()));
+    when(searchClient.getConsortiumHoldings(any())).thenReturn(consortiumHoldings);
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(any())).thenAnswer(invocation ->
+      invocation.<List<UUID>>getArgument(0).stream()
+        .map(instanceId -> new RtacInstanceAgeProjection(instanceId, Instant.now()))
+        .toList());
+
+    service.lazyLoadRtacHoldingsEcs(List.of(knownInstanceId, unknownInstanceId));
+
+    verify(searchClient).getConsortiumHoldings(argThat(batchIds ->
+      batchIds.getIdentifierValues().equals(List.of(unknownInstanceId.toString()))));
+    verify(rtacInstanceTenantService).refreshInstanceTenants(List.of(unknownInstanceId),
+      Map.of(unknownInstanceId, Set.of(tenant2)));
+    verify(executionService).executeSystemUserScoped(eq(tenant1), any());
+    verify(executionService).executeSystemUserScoped(eq(tenant2), any());
+    verify(rtacCacheGenerationService, never()).generateRtacCacheBatch(any());
+  }
+
+  @Test
+  void lazyLoadRtacHoldingsEcs_shouldSearchStaleInstancesKeepingTheirDirectoryTenants() {
+    var instanceId = UUID.randomUUID();
+    var tenant1 = "tenant1";
+    var tenant2 = "tenant2";
+
+    var holding = new ConsortiumHolding().instanceId(instanceId).tenantId(tenant2);
+    when(rtacInstanceTenantService.getInstanceTenants(eq(List.of(instanceId)), any()))
+      .thenReturn(new RtacInstanceTenants(Map.of(instanceId, Set.of(tenant1)), Set.of(instanceId)));
+    when(searchClient.getConsortiumHoldings(any())).thenReturn(new ConsortiumHoldings().holdings(List.of(holding)));
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(List.of(instanceId)))
+      .thenReturn(List.of(new RtacInstanceAgeProjection(instanceId, Instant.now())));
+
+    service.lazyLoadRtacHoldingsEcs(List.of(instanceId));
+
+    verify(rtacInstanceTenantService).refreshInstanceTenants(List.of(instanceId), Map.of(instanceId, Set.of(tenant2)));
+    verify(executionService).executeSystemUserScoped(eq(tenant1), any());
+    verify(executionService).executeSystemUserScoped(eq(tenant2), any());
+  }
+
+  @Test
+  void lazyLoadRtacHoldingsEcs_shouldNotSearch_whenAllInstancesAreInDirectory() {
+    var instanceId = UUID.randomUUID();
+    var tenant1 = "tenant1";
+
+    when(rtacInstanceTenantService.getInstanceTenants(eq(List.of(instanceId)), any()))
+      .thenReturn(new RtacInstanceTenants(Map.of(instanceId, Set.of(tenant1)), Set.of()));
+    when(rtacHoldingRepository.findLatestCreatedAtByIdInstanceIdIn(List.of(instanceId)))
+      .thenReturn(List.of(new RtacInstanceAgeProjection(instanceId, Instant.now())));
+
+    service.lazyLoadRtacHoldingsEcs(List.of(instanceId));
+
+    verify(searchClient, never()).getConsortiumHoldings(any());
+    verify(executionService).executeSystemUserScoped(eq(tenant1), any());
   }
 
   @Test
@@ -270,11 +638,8 @@ class RtacHoldingLazyLoadingServiceTest {
 
     when(searchClient.getConsortiumHoldings(any())).thenReturn(consortiumHoldings);
 
-    doAnswer(invocation -> {
-      var future = new CompletableFuture<Void>();
-      future.completeExceptionally(new RuntimeException("Execution failed"));
-      return future;
-    }).when(taskExecutor).submitCompletable(any(Runnable.class));
+    doReturn(CompletableFuture.failedFuture(new RuntimeException("Execution failed")))
+      .when(taskExecutor).submitCompletable(any(Callable.class));
 
     var exceptions = service.lazyLoadRtacHoldingsEcs(List.of(instanceId1));
 
@@ -282,4 +647,9 @@ class RtacHoldingLazyLoadingServiceTest {
     assertThat(exceptions.get(0)).isInstanceOf(RuntimeException.class)
       .hasMessage("Execution failed");
   }
+
+  private static Map<String, CompletableFuture<Void>> completedGenerations(List<String> instanceIds) {
+    return instanceIds.stream()
+      .collect(Collectors.toMap(Function.identity(), instanceId -> CompletableFuture.completedFuture(null)));
+  }
 }
@@ -89,6 +89,48 @@ class RtacHoldingMappingServiceTest {
     verify(inventoryReferenceDataService, times(1)).getLocationsMap();
   }
 
+  @Test
+  void testMapItemsToRtacHoldings_WithReferenceDataSnapshot() {
+    var locationId = UUID.randomUUID().toString();
+    var libraryId = UUID.randomUUID().toString();
+    var materialTypeId = UUID.randomUUID().toString();
+    var loanTypeId = UUID.randomUUID().toString();
+    locationsMap.put(locationId, new Location().id(locationId).name("Main Library").libraryId(libraryId));
+    libraryMap.put(libraryId, new Loclib().id(libraryId).name("Central Library"));
+    materialTypesMap.put(materialTypeId, new MaterialType().id(materialTypeId).name("book"));
+    loanTypesMap.put(loanTypeId, new LoanType().id(loanTypeId).name("Can circulate"));
+
+    var holding = new HoldingsRecord();
+    holding.setInstanceId(UUID.randomUUID().toString());
+    holding.setId(UUID.randomUUID().toString());
+    var status = new ItemStatus();
+    status.setName(NameEnum.AVAILABLE);
+
+    var referenceData = rtacHoldingMappingService.getReferenceDataSnapshot();
+    var results = List.of(1, 2, 3).stream()
+      .map(i -> {
+        var item = new Item();
+        item.setId(UUID.randomUUID().toString());
+        item.setEffectiveLocationId(locationId);
+        item.setMaterialTypeId(materialTypeId);
+        item.setPermanentLoanTypeId(loanTypeId);
+        item.setStatus(status);
+        return rtacHoldingMappingService.mapFrom(holding, item, referenceData);
+      })
+      .toList();
+
+    results.forEach(result -> {
+      assertEquals("Main Library", result.getLocation().getName());
+      assertEquals("Central Library", result.getLibrary().getName());
+      assertEquals("book", result.getMaterialType().getName());
+      assertEquals("Can circulate", result.getPermanentLoanType());
+    });
+    verify(inventoryReferenceDataService, times(1)).getLocationsMap();
+    verify(inventoryReferenceDataService, times(1)).getLibraryMap();
+    verify(inventoryReferenceDataService, times(1)).getMaterialTypesMap();
+    verify(inventoryReferenceDataService, times(1)).getLoanTypesMap();
+  }
+
   @Test
   void testMapItemToRtacHolding_WithLocation() {
     var locationId = UUID.randomUUID().toString();
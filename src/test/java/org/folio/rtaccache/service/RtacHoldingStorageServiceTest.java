@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.UUID;
 import org.folio.rtaccache.BaseIntegrationTest;
 import org.folio.rtaccache.TestConstant;
+import org.folio.rtaccache.domain.RawRtacHolding;
 import org.folio.rtaccache.domain.RtacHoldingEntity;
 import org.folio.rtaccache.domain.RtacHoldingId;
 import org.folio.rtaccache.domain.dto.Error;
@@ -30,6 +31,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import tools.jackson.databind.ObjectMapper;
 
 class RtacHoldingStorageServiceTest extends BaseIntegrationTest {
 
@@ -37,6 +39,8 @@ class RtacHoldingStorageServiceTest extends BaseIntegrationTest {
   private RtacHoldingStorageService rtacHoldingStorageService;
   @Autowired
   private RtacHoldingRepository rtacHoldingRepository;
+  @Autowired
+  private ObjectMapper objectMapper;
 
   @AfterEach
   void tearDown() {
@@ -130,6 +134,29 @@ class RtacHoldingStorageServiceTest extends BaseIntegrationTest {
     });
   }
 
+  @Test
+  void testGetRawRtacHoldingsByInstanceId() {
+    withinTenant(TestConstant.TEST_TENANT, () -> {
+      var instanceId = UUID.randomUUID();
+      var item = createRtacHoldingEntity(instanceId, TypeEnum.ITEM, "Available");
+      rtacHoldingRepository.save(item);
+      rtacHoldingRepository.save(createRtacHoldingEntity(instanceId, TypeEnum.HOLDING, "Available"));
+
+      Page<RtacHolding> page = rtacHoldingStorageService
+        .getRawRtacHoldingsByInstanceId(instanceId, PageRequest.of(0, 5, Sort.by("status")), null);
+
+      assertThat(page.getContent()).hasSize(1);
+      assertThat(page.getTotalElements()).isEqualTo(1);
+      var rawRtacHolding = (RawRtacHolding) page.getContent().getFirst();
+      assertThat(rawRtacHolding.getId()).isEqualTo(item.getId().getId().toString());
+      assertThat(rawRtacHolding.getStatus()).isEqualTo("Available");
+      assertThat(rawRtacHolding.getJson()).doesNotContain("null");
+      var storedRtacHolding = objectMapper.readValue(rawRtacHolding.getJson(), RtacHolding.class);
+      assertThat(storedRtacHolding.getStatus()).isEqualTo("Available");
+      assertThat(storedRtacHolding.getType()).isEqualTo(TypeEnum.ITEM);
+    });
+  }
+
   @Test
   void testGetRtacHoldingsByInstanceIdWithPaging() {
     withinTenant(TestConstant.TEST_TENANT, () -> {
@@ -18,7 +18,9 @@ import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
 import org.folio.rtaccache.domain.dto.RtacHolding;
 import org.folio.rtaccache.domain.dto.RtacHolding.TypeEnum;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
+import org.folio.rtaccache.service.CachedIdFilterService;
 import org.folio.rtaccache.service.RtacHoldingMappingService;
+import org.folio.rtaccache.service.RtacInstanceTenantService;
 import org.folio.rtaccache.util.ResourceEventUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -45,6 +47,10 @@ class HoldingsCreateEventHandlerTest {
   RtacHoldingMappingService mappingService;
   @Mock
   ResourceEventUtil resourceEventUtil;
+  @Mock
+  CachedIdFilterService cachedIdFilterService;
+  @Mock
+  RtacInstanceTenantService rtacInstanceTenantService;
   @Captor
   ArgumentCaptor<RtacHoldingEntity> entityCaptor;
 
@@ -77,6 +83,7 @@ class HoldingsCreateEventHandlerTest {
     handler.handle(event);
 
     verify(holdingRepository, never()).save(any(RtacHoldingEntity.class));
+    verify(rtacInstanceTenantService).addCurrentTenant(UUID.fromString(INSTANCE_ID));
   }
 
   @Test
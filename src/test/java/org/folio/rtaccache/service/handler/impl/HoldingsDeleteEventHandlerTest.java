@@ -3,12 +3,14 @@ package org.folio.rtaccache.service.handler.impl;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.UUID;
 import org.folio.rtaccache.domain.dto.HoldingsRecord;
 import org.folio.rtaccache.domain.dto.InventoryEventType;
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
 import org.folio.rtaccache.service.RtacHoldingMappingService;
+import org.folio.rtaccache.service.RtacInstanceTenantService;
 import org.folio.rtaccache.util.ResourceEventUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -31,6 +33,8 @@ class HoldingsDeleteEventHandlerTest {
   RtacHoldingMappingService mappingService;
   @Mock
   ResourceEventUtil resourceEventUtil;
+  @Mock
+  RtacInstanceTenantService rtacInstanceTenantService;
 
   @Test
   void holdingsDelete_shouldInvokeRepositoryDelete() {
@@ -40,6 +44,7 @@ class HoldingsDeleteEventHandlerTest {
     handler.handle(event);
 
     verify(holdingRepository).deleteAllByHoldingsId(HOLDINGS_ID);
+    verify(rtacInstanceTenantService).removeCurrentTenant(List.of(UUID.fromString(INSTANCE_ID)));
   }
 
   private HoldingsRecord holdingsRecord() {
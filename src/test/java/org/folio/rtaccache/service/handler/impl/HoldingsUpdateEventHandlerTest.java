@@ -8,6 +8,7 @@ import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.UUID;
 import org.folio.rtaccache.domain.dto.HoldingsRecord;
 import org.folio.rtaccache.domain.dto.InventoryEventType;
@@ -18,6 +19,7 @@ import org.folio.rtaccache.domain.exception.RtacKafkaUpdateException;
 import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
 import org.folio.rtaccache.service.RtacHoldingMappingService;
+import org.folio.rtaccache.service.RtacInstanceTenantService;
 import org.folio.rtaccache.util.ResourceEventUtil;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -44,6 +46,8 @@ class HoldingsUpdateEventHandlerTest {
   RtacHoldingMappingService mappingService;
   @Mock
   ResourceEventUtil resourceEventUtil;
+  @Mock
+  RtacInstanceTenantService rtacInstanceTenantService;
 
   @Test
   void holdingsUpdate_shouldSaveAll() throws SQLException, JsonProcessingException {
@@ -102,6 +106,9 @@ class HoldingsUpdateEventHandlerTest {
       UUID.fromString(targetInstanceId), UUID.fromString(HOLDINGS_ID), mappedHolding);
     verify(holdingBulkRepository).updatePieceDataFromKafkaHoldingsEvent(
       UUID.fromString(targetInstanceId), HOLDINGS_ID, mappedHolding);
+    verify(rtacInstanceTenantService).addCurrentTenant(UUID.fromString(targetInstanceId));
+    verify(rtacInstanceTenantService).removeCurrentTenant(
+      List.of(UUID.fromString(INSTANCE_ID), UUID.fromString(targetInstanceId)));
   }
 
   @Test
@@ -15,6 +15,7 @@ import org.folio.rtaccache.domain.dto.Item;
 import org.folio.rtaccache.domain.dto.RtacHolding;
 import org.folio.rtaccache.domain.dto.RtacHolding.TypeEnum;
 import org.folio.rtaccache.repository.RtacHoldingRepository;
+import org.folio.rtaccache.service.CachedIdFilterService;
 import org.folio.rtaccache.service.RtacHoldingMappingService;
 import org.folio.rtaccache.util.ResourceEventUtil;
 import org.junit.jupiter.api.Test;
@@ -39,6 +40,8 @@ class ItemCreateEventHandlerTest {
   RtacHoldingMappingService mappingService;
   @Mock
   ResourceEventUtil resourceEventUtil;
+  @Mock
+  CachedIdFilterService cachedIdFilterService;
 
   @Test
   void itemCreate_shouldSaveEntity() {
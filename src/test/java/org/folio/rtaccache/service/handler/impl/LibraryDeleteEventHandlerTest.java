@@ -1,9 +1,12 @@
 package org.folio.rtaccache.service.handler.impl;
 
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
-import org.folio.rtaccache.util.CacheUtil;
+import org.folio.rtaccache.domain.dto.Loclib;
+import org.folio.rtaccache.service.InventoryReferenceDataService;
+import org.folio.rtaccache.util.ResourceEventUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -13,21 +16,23 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class LibraryDeleteEventHandlerTest {
 
-  private static final String LOCATIONS_CACHE_NAME = "libraryMap";
-
   @InjectMocks
   LibraryDeleteEventHandler handler;
 
   @Mock
-  CacheUtil cacheUtil;
+  InventoryReferenceDataService inventoryReferenceDataService;
+  @Mock
+  ResourceEventUtil resourceEventUtil;
   @Mock
   InventoryResourceEvent resourceEvent;
 
   @Test
-  void libraryDelete_shouldClearCache_whenLocationIsCreated() {
+  void libraryDelete_shouldRemoveCachedEntry_whenLibraryIsDeleted() {
+    var library = new Loclib().id("libId").name("Name");
+    when(resourceEventUtil.getOldFromInventoryEvent(resourceEvent, Loclib.class)).thenReturn(library);
+
     handler.handle(resourceEvent);
 
-    verify(cacheUtil).clearCache(LOCATIONS_CACHE_NAME);
+    verify(inventoryReferenceDataService).removeLibrary(library);
   }
-
 }
@@ -7,7 +7,7 @@ import java.sql.SQLException;
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
 import org.folio.rtaccache.domain.dto.Loclib;
 import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
-import org.folio.rtaccache.util.CacheUtil;
+import org.folio.rtaccache.service.InventoryReferenceDataService;
 import org.folio.rtaccache.util.ResourceEventUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,13 +18,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class LibraryUpdateEventHandlerTest {
 
-  private static final String LIBRARY_CACHE_NAME = "libraryMap";
-
   @InjectMocks
   LibraryUpdateEventHandler handler;
 
   @Mock
-  CacheUtil cacheUtil;
+  InventoryReferenceDataService inventoryReferenceDataService;
   @Mock
   InventoryResourceEvent resourceEvent;
   @Mock
@@ -39,7 +37,7 @@ class LibraryUpdateEventHandlerTest {
 
     handler.handle(resourceEvent);
 
-    verify(cacheUtil).clearCache(LIBRARY_CACHE_NAME);
+    verify(inventoryReferenceDataService).putLibrary(loclib);
     verify(rtacHoldingBulkRepository).bulkUpdateLibraryData(loclib);
   }
 
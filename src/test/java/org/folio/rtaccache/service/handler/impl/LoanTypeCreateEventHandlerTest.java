@@ -1,9 +1,12 @@
 package org.folio.rtaccache.service.handler.impl;
 
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
-import org.folio.rtaccache.util.CacheUtil;
+import org.folio.rtaccache.domain.dto.LoanType;
+import org.folio.rtaccache.service.InventoryReferenceDataService;
+import org.folio.rtaccache.util.ResourceEventUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -13,21 +16,23 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class LoanTypeCreateEventHandlerTest {
 
-  private static final String LOAN_TYPES_CACHE_NAME = "loanTypesMap";
-
   @InjectMocks
   LoanTypeCreateEventHandler handler;
 
   @Mock
-  CacheUtil cacheUtil;
+  InventoryReferenceDataService inventoryReferenceDataService;
+  @Mock
+  ResourceEventUtil resourceEventUtil;
   @Mock
   InventoryResourceEvent resourceEvent;
 
   @Test
-  void loanTypeCreate_shouldClearCache_whenLoanTypeIsCreated() {
+  void loanTypeCreate_shouldPutCachedEntry_whenLoanTypeIsCreated() {
+    var loanType = new LoanType().id("l-id").name("Name");
+    when(resourceEventUtil.getNewFromInventoryEvent(resourceEvent, LoanType.class)).thenReturn(loanType);
+
     handler.handle(resourceEvent);
 
-    verify(cacheUtil).clearCache(LOAN_TYPES_CACHE_NAME);
+    verify(inventoryReferenceDataService).putLoanType(loanType);
   }
 }
-
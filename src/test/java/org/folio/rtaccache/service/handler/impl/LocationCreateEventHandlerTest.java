@@ -1,9 +1,12 @@
 package org.folio.rtaccache.service.handler.impl;
 
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
-import org.folio.rtaccache.util.CacheUtil;
+import org.folio.rtaccache.domain.dto.Location;
+import org.folio.rtaccache.service.InventoryReferenceDataService;
+import org.folio.rtaccache.util.ResourceEventUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -13,23 +16,23 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class LocationCreateEventHandlerTest {
 
-  private static final String LOCATIONS_CACHE_NAME = "locationsMap";
-
   @InjectMocks
   LocationCreateEventHandler handler;
 
   @Mock
-  CacheUtil cacheUtil;
+  InventoryReferenceDataService inventoryReferenceDataService;
+  @Mock
+  ResourceEventUtil resourceEventUtil;
   @Mock
   InventoryResourceEvent resourceEvent;
 
   @Test
-  void locationCreate_shouldClearCache_whenLocationIsCreated() {
+  void locationCreate_shouldPutCachedEntry_whenLocationIsCreated() {
+    var location = new Location().id("locId").name("Name");
+    when(resourceEventUtil.getNewFromInventoryEvent(resourceEvent, Location.class)).thenReturn(location);
+
     handler.handle(resourceEvent);
 
-    verify(cacheUtil).clearCache(LOCATIONS_CACHE_NAME);
+    verify(inventoryReferenceDataService).putLocation(location);
   }
-
-
-
 }
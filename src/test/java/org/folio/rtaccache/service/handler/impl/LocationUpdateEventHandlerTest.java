@@ -7,7 +7,7 @@ import java.sql.SQLException;
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
 import org.folio.rtaccache.domain.dto.Location;
 import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
-import org.folio.rtaccache.util.CacheUtil;
+import org.folio.rtaccache.service.InventoryReferenceDataService;
 import org.folio.rtaccache.util.ResourceEventUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,13 +18,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class LocationUpdateEventHandlerTest {
 
-  private static final String LOCATIONS_CACHE_NAME = "locationsMap";
-
   @InjectMocks
   LocationUpdateEventHandler handler;
 
   @Mock
-  CacheUtil cacheUtil;
+  InventoryReferenceDataService inventoryReferenceDataService;
   @Mock
   InventoryResourceEvent resourceEvent;
   @Mock
@@ -39,7 +37,7 @@ class LocationUpdateEventHandlerTest {
 
     handler.handle(resourceEvent);
 
-    verify(cacheUtil).clearCache(LOCATIONS_CACHE_NAME);
+    verify(inventoryReferenceDataService).putLocation(location);
     verify(rtacHoldingBulkRepository).bulkUpdateLocationData(location);
   }
 
@@ -1,9 +1,12 @@
 package org.folio.rtaccache.service.handler.impl;
 
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
-import org.folio.rtaccache.util.CacheUtil;
+import org.folio.rtaccache.domain.dto.MaterialType;
+import org.folio.rtaccache.service.InventoryReferenceDataService;
+import org.folio.rtaccache.util.ResourceEventUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -13,21 +16,23 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class MaterialTypeDeleteEventHandlerTest {
 
-  private static final String MATERIAL_TYPES_CACHE_NAME = "materialTypesMap";
-
   @InjectMocks
   MaterialTypeDeleteEventHandler handler;
 
   @Mock
-  CacheUtil cacheUtil;
+  InventoryReferenceDataService inventoryReferenceDataService;
+  @Mock
+  ResourceEventUtil resourceEventUtil;
   @Mock
   InventoryResourceEvent resourceEvent;
 
   @Test
-  void materialTypeDelete_shouldClearCache_whenMaterialTypeIsDeleted() {
+  void materialTypeDelete_shouldRemoveCachedEntry_whenMaterialTypeIsDeleted() {
+    var materialType = new MaterialType().id("m-id").name("Name");
+    when(resourceEventUtil.getOldFromInventoryEvent(resourceEvent, MaterialType.class)).thenReturn(materialType);
+
     handler.handle(resourceEvent);
 
-    verify(cacheUtil).clearCache(MATERIAL_TYPES_CACHE_NAME);
+    verify(inventoryReferenceDataService).removeMaterialType(materialType);
   }
 }
-
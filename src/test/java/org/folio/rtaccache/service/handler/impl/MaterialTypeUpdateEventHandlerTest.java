@@ -8,7 +8,7 @@ import java.sql.SQLException;
 import org.folio.rtaccache.domain.dto.InventoryResourceEvent;
 import org.folio.rtaccache.domain.dto.MaterialType;
 import org.folio.rtaccache.repository.RtacHoldingBulkRepository;
-import org.folio.rtaccache.util.CacheUtil;
+import org.folio.rtaccache.service.InventoryReferenceDataService;
 import org.folio.rtaccache.util.ResourceEventUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,13 +19,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class MaterialTypeUpdateEventHandlerTest {
 
-  private static final String MATERIAL_TYPES_CACHE_NAME = "materialTypesMap";
-
   @InjectMocks
   MaterialTypeUpdateEventHandler handler;
 
   @Mock
-  CacheUtil cacheUtil;
+  InventoryReferenceDataService inventoryReferenceDataService;
   @Mock
   InventoryResourceEvent resourceEvent;
   @Mock
@@ -42,7 +40,7 @@ class MaterialTypeUpdateEventHandlerTest {
 
     handler.handle(resourceEvent);
 
-    verify(cacheUtil).clearCache(MATERIAL_TYPES_CACHE_NAME);
+    verify(inventoryReferenceDataService).putMaterialType(newMaterialType);
     verify(rtacHoldingBulkRepository).bulkUpdateMaterialTypeData(newMaterialType);
   }
 
@@ -55,7 +53,7 @@ class MaterialTypeUpdateEventHandlerTest {
 
     handler.handle(resourceEvent);
 
-    verify(cacheUtil).clearCache(MATERIAL_TYPES_CACHE_NAME);
+    verify(inventoryReferenceDataService).putMaterialType(newMaterialType);
     verify(rtacHoldingBulkRepository, never()).bulkUpdateMaterialTypeData(newMaterialType);
   }
 }